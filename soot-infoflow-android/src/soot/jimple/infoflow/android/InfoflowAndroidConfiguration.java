@@ -28,6 +28,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		private String androidPlatformDir = "";
 		private String additionalClasspath = "";
 		private String outputFile = "";
+		private String callgraphCacheDir = "";
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -40,6 +41,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			this.androidPlatformDir = fileConfig.androidPlatformDir;
 			this.additionalClasspath = fileConfig.additionalClasspath;
 			this.outputFile = fileConfig.outputFile;
+			this.callgraphCacheDir = fileConfig.callgraphCacheDir;
 		}
 
 		/**
@@ -154,12 +156,38 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			this.outputFile = outputFile;
 		}
 
+		/**
+		 * Gets the directory in which callgraphs are cached across runs of the data
+		 * flow analysis on the same app
+		 * 
+		 * @return The directory in which callgraphs are cached, or an empty string if
+		 *         callgraph caching is disabled
+		 */
+		public String getCallgraphCacheDir() {
+			return callgraphCacheDir;
+		}
+
+		/**
+		 * Sets the directory in which callgraphs are cached across runs of the data
+		 * flow analysis on the same app. If the APK file, the Android platform JAR, and
+		 * all options that influence the callgraph are the same as in a previous run,
+		 * FlowDroid re-uses the dummy main method, the callbacks, and the callgraph
+		 * from that run instead of computing them again.
+		 * 
+		 * @param callgraphCacheDir The directory in which callgraphs are cached. Pass
+		 *                          an empty string to disable callgraph caching.
+		 */
+		public void setCallgraphCacheDir(String callgraphCacheDir) {
+			this.callgraphCacheDir = callgraphCacheDir;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + ((additionalClasspath == null) ? 0 : additionalClasspath.hashCode());
 			result = prime * result + ((androidPlatformDir == null) ? 0 : androidPlatformDir.hashCode());
+			result = prime * result + ((callgraphCacheDir == null) ? 0 : callgraphCacheDir.hashCode());
 			result = prime * result + ((outputFile == null) ? 0 : outputFile.hashCode());
 			result = prime * result + ((sourceSinkFile == null) ? 0 : sourceSinkFile.hashCode());
 			result = prime * result + ((targetAPKFile == null) ? 0 : targetAPKFile.hashCode());
@@ -185,6 +213,11 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 					return false;
 			} else if (!androidPlatformDir.equals(other.androidPlatformDir))
 				return false;
+			if (callgraphCacheDir == null) {
+				if (other.callgraphCacheDir != null)
+					return false;
+			} else if (!callgraphCacheDir.equals(other.callgraphCacheDir))
+				return false;
 			if (outputFile == null) {
 				if (other.outputFile != null)
 					return false;
@@ -318,6 +351,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		private int maxCallbackAnalysisDepth = -1;
 		private boolean serializeCallbacks = false;
 		private String callbacksFile = "";
+		private boolean incrementalCallgraph = false;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -333,6 +367,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			this.maxCallbackAnalysisDepth = cbConfig.maxCallbackAnalysisDepth;
 			this.serializeCallbacks = cbConfig.serializeCallbacks;
 			this.callbacksFile = cbConfig.callbacksFile;
+			this.incrementalCallgraph = cbConfig.incrementalCallgraph;
 		}
 
 		/**
@@ -509,6 +544,35 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			this.callbacksFile = callbacksFile;
 		}
 
+		/**
+		 * Gets whether the callgraph shall be extended incrementally while new
+		 * callbacks are being discovered. In this mode, the callback analysis does not
+		 * rebuild the callgraph from scratch in every iteration, but adds the code that
+		 * has become reachable through the new callbacks based on the class hierarchy.
+		 * The full callgraph is only rebuilt once no more callbacks are found this way.
+		 * 
+		 * @return True to extend the callgraph incrementally during the callback
+		 *         analysis, false to rebuild it in every iteration
+		 */
+		public boolean getIncrementalCallgraph() {
+			return incrementalCallgraph;
+		}
+
+		/**
+		 * Sets whether the callgraph shall be extended incrementally while new
+		 * callbacks are being discovered. In this mode, the callback analysis does not
+		 * rebuild the callgraph from scratch in every iteration, but adds the code that
+		 * has become reachable through the new callbacks based on the class hierarchy.
+		 * The full callgraph is only rebuilt once no more callbacks are found this way.
+		 * 
+		 * @param incrementalCallgraph True to extend the callgraph incrementally
+		 *                             during the callback analysis, false to rebuild
+		 *                             it in every iteration
+		 */
+		public void setIncrementalCallgraph(boolean incrementalCallgraph) {
+			this.incrementalCallgraph = incrementalCallgraph;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -518,6 +582,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			result = prime * result + ((callbacksFile == null) ? 0 : callbacksFile.hashCode());
 			result = prime * result + (enableCallbacks ? 1231 : 1237);
 			result = prime * result + (filterThreadCallbacks ? 1231 : 1237);
+			result = prime * result + (incrementalCallgraph ? 1231 : 1237);
 			result = prime * result + maxCallbackAnalysisDepth;
 			result = prime * result + maxCallbacksPerComponent;
 			result = prime * result + (serializeCallbacks ? 1231 : 1237);
@@ -546,6 +611,8 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 				return false;
 			if (filterThreadCallbacks != other.filterThreadCallbacks)
 				return false;
+			if (incrementalCallgraph != other.incrementalCallgraph)
+				return false;
 			if (maxCallbackAnalysisDepth != other.maxCallbackAnalysisDepth)
 				return false;
 			if (maxCallbacksPerComponent != other.maxCallbacksPerComponent)
@@ -690,7 +757,97 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		Fast
 	}
 
+	/**
+	 * The steps by which the analysis settings are made cheaper when the data flow
+	 * analysis runs out of memory or time. Every level includes the settings of
+	 * all previous levels.
+	 */
+	public static enum DegradationLevel {
+		/**
+		 * The settings from the configuration
+		 */
+		None,
+		/**
+		 * Do not reconstruct the paths between sources and sinks
+		 */
+		NoPaths,
+		/**
+		 * Limit the access paths to {@link #DEGRADED_ACCESS_PATH_LENGTH} fields
+		 */
+		ShortAccessPaths,
+		/**
+		 * Use a flow-insensitive alias analysis based on points-to sets. This level is
+		 * skipped if there are no SPARK points-to sets for the current callgraph.
+		 */
+		FlowInsensitiveAliasing,
+		/**
+		 * Track static fields in a context- and flow-insensitive way
+		 */
+		FlowInsensitiveStaticFields,
+		/**
+		 * Analyze one component at a time
+		 */
+		ComponentAtATime;
+
+		/**
+		 * The maximum access path length on the {@link #ShortAccessPaths} level
+		 */
+		public static final int DEGRADED_ACCESS_PATH_LENGTH = 3;
+
+		/**
+		 * Changes the given configuration to the settings of this level
+		 * 
+		 * @param config The configuration to change
+		 * @return True if the configuration has been changed, false if it is already
+		 *         at least as cheap as this level
+		 */
+		public boolean apply(InfoflowAndroidConfiguration config) {
+			switch (this) {
+			case NoPaths:
+				if (!config.getPathConfiguration().getPathReconstructionMode().reconstructPaths())
+					return false;
+				config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.NoPaths);
+				return true;
+			case ShortAccessPaths:
+				if (config.getAccessPathConfiguration().getAccessPathLength() <= DEGRADED_ACCESS_PATH_LENGTH)
+					return false;
+				config.getAccessPathConfiguration().setAccessPathLength(DEGRADED_ACCESS_PATH_LENGTH);
+				return true;
+			case FlowInsensitiveAliasing:
+				if (config.getAliasingAlgorithm() == AliasingAlgorithm.PtsBased
+						|| config.getAliasingAlgorithm() == AliasingAlgorithm.None)
+					return false;
+				config.setAliasingAlgorithm(AliasingAlgorithm.PtsBased);
+				return true;
+			case FlowInsensitiveStaticFields:
+				if (config.getStaticFieldTrackingMode() != StaticFieldTrackingMode.ContextFlowSensitive)
+					return false;
+				config.setStaticFieldTrackingMode(StaticFieldTrackingMode.ContextFlowInsensitive);
+				return true;
+			case ComponentAtATime:
+				if (config.getOneComponentAtATime())
+					return false;
+				config.setOneComponentAtATime(true);
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		/**
+		 * Gets the next cheaper level
+		 * 
+		 * @return The next cheaper level, or null if this is the cheapest one
+		 */
+		public DegradationLevel next() {
+			DegradationLevel[] levels = values();
+			return ordinal() + 1 < levels.length ? levels[ordinal() + 1] : null;
+		}
+
+	}
+
 	private boolean oneComponentAtATime = false;
+	private boolean degradeOnAbort = false;
 
 	private final CallbackConfiguration callbackConfig = new CallbackConfiguration();
 	private final SourceSinkConfiguration sourceSinkConfig = new SourceSinkConfiguration();
@@ -716,6 +873,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		if (config instanceof InfoflowAndroidConfiguration) {
 			InfoflowAndroidConfiguration androidConfig = (InfoflowAndroidConfiguration) config;
 			this.oneComponentAtATime = androidConfig.oneComponentAtATime;
+			this.degradeOnAbort = androidConfig.degradeOnAbort;
 
 			this.callbackConfig.merge(androidConfig.callbackConfig);
 			this.sourceSinkConfig.merge(androidConfig.sourceSinkConfig);
@@ -786,6 +944,30 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		return this.oneComponentAtATime;
 	}
 
+	/**
+	 * Sets whether FlowDroid shall re-run the data flow analysis with
+	 * progressively cheaper settings when it runs out of memory or time. The
+	 * results that have already been found are kept. See
+	 * {@link DegradationLevel} for the individual steps.
+	 * 
+	 * @param degradeOnAbort True if FlowDroid shall re-run aborted data flow
+	 *                       analyses with cheaper settings, otherwise false
+	 */
+	public void setDegradeOnAbort(boolean degradeOnAbort) {
+		this.degradeOnAbort = degradeOnAbort;
+	}
+
+	/**
+	 * Gets whether FlowDroid shall re-run the data flow analysis with
+	 * progressively cheaper settings when it runs out of memory or time
+	 * 
+	 * @return True if FlowDroid shall re-run aborted data flow analyses with
+	 *         cheaper settings, otherwise false
+	 */
+	public boolean getDegradeOnAbort() {
+		return this.degradeOnAbort;
+	}
+
 	/**
 	 * Gets whether FlowDroid shall merge all dex files in the APK to get a full
 	 * picture of the app
@@ -836,6 +1018,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		result = prime * result + ((analysisFileConfig == null) ? 0 : analysisFileConfig.hashCode());
 		result = prime * result + ((callbackConfig == null) ? 0 : callbackConfig.hashCode());
 		result = prime * result + ((iccConfig == null) ? 0 : iccConfig.hashCode());
+		result = prime * result + (degradeOnAbort ? 1231 : 1237);
 		result = prime * result + (mergeDexFiles ? 1231 : 1237);
 		result = prime * result + (oneComponentAtATime ? 1231 : 1237);
 		result = prime * result + ((sourceSinkConfig == null) ? 0 : sourceSinkConfig.hashCode());
@@ -866,6 +1049,8 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 				return false;
 		} else if (!iccConfig.equals(other.iccConfig))
 			return false;
+		if (degradeOnAbort != other.degradeOnAbort)
+			return false;
 		if (mergeDexFiles != other.mergeDexFiles)
 			return false;
 		if (oneComponentAtATime != other.oneComponentAtATime)
@@ -0,0 +1,554 @@
+package soot.jimple.infoflow.android;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+
+/**
+ * Driver that analyzes multiple apps on local worker JVMs in parallel. Soot
+ * relies on global singletons, so we cannot analyze multiple apps in parallel
+ * inside the same JVM.
+ *
+ * The apps are scheduled largest first, so that the long-running analyses do
+ * not end up at the tail of the scan. Every worker runs the command-line data
+ * flow analysis on exactly one app. Workers that exceed the job timeout are
+ * killed. Workers that run out of memory are retried with a larger heap and,
+ * once the maximum heap size has been reached, with degraded analysis settings.
+ * The outcome of all apps is finally written into an index file in the output
+ * directory.
+ *
+ */
+public class ParallelAppAnalysis {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelAppAnalysis.class);
+
+	/**
+	 * The name of the index file in the output directory
+	 */
+	public static final String INDEX_FILE_NAME = "index.xml";
+
+	/**
+	 * The exit code of a JVM that terminates due to -XX:+ExitOnOutOfMemoryError.
+	 * Workers also use this exit code if the memory watcher has aborted the data
+	 * flow analysis.
+	 */
+	public static final int OUT_OF_MEMORY_EXIT_CODE = 3;
+
+	/**
+	 * The outcome of the analysis of a single app
+	 */
+	public enum AppStatus {
+		/**
+		 * The worker has completed the analysis
+		 */
+		Success,
+
+		/**
+		 * The worker has terminated with an error
+		 */
+		Failed,
+
+		/**
+		 * The worker has run out of memory even with the maximum heap size and the
+		 * degraded settings
+		 */
+		OutOfMemory,
+
+		/**
+		 * The worker has been killed, because it exceeded the job timeout
+		 */
+		Timeout
+	}
+
+	/**
+	 * The result of analyzing a single app
+	 */
+	public static class AppResult {
+
+		private final File apkFile;
+		private final File resultFile;
+		private final AppStatus status;
+		private final int attempts;
+		private final long heapSize;
+		private final boolean degraded;
+		private final long durationMillis;
+		private final int resultCount;
+
+		private AppResult(File apkFile, File resultFile, AppStatus status, int attempts, long heapSize,
+				boolean degraded, long durationMillis, int resultCount) {
+			this.apkFile = apkFile;
+			this.resultFile = resultFile;
+			this.status = status;
+			this.attempts = attempts;
+			this.heapSize = heapSize;
+			this.degraded = degraded;
+			this.durationMillis = durationMillis;
+			this.resultCount = resultCount;
+		}
+
+		/**
+		 * Gets the app that was analyzed
+		 *
+		 * @return The APK file of the app
+		 */
+		public File getApkFile() {
+			return apkFile;
+		}
+
+		/**
+		 * Gets the file into which the worker has written the data flow results
+		 *
+		 * @return The result file of the app
+		 */
+		public File getResultFile() {
+			return resultFile;
+		}
+
+		/**
+		 * Gets the outcome of the analysis
+		 *
+		 * @return The outcome of the analysis
+		 */
+		public AppStatus getStatus() {
+			return status;
+		}
+
+		/**
+		 * Gets the number of workers that were started for the app
+		 *
+		 * @return The number of attempts
+		 */
+		public int getAttempts() {
+			return attempts;
+		}
+
+		/**
+		 * Gets the heap size of the last worker for the app
+		 *
+		 * @return The heap size in megabytes, or zero if the JVM default was used
+		 */
+		public long getHeapSize() {
+			return heapSize;
+		}
+
+		/**
+		 * Gets whether the last worker for the app used the degraded settings
+		 *
+		 * @return True if the degraded settings were used, otherwise false
+		 */
+		public boolean isDegraded() {
+			return degraded;
+		}
+
+		/**
+		 * Gets the total time spent on the app over all attempts
+		 *
+		 * @return The duration in milliseconds
+		 */
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		/**
+		 * Gets the number of data flow results that were found in the app
+		 *
+		 * @return The number of results, or -1 if there are no readable results
+		 */
+		public int getResultCount() {
+			return resultCount;
+		}
+
+	}
+
+	private final List<File> apkFiles;
+	private final File outputDir;
+	private final List<String> workerArguments;
+
+	private int numWorkers = Runtime.getRuntime().availableProcessors();
+	private List<String> jvmArguments = new ArrayList<>();
+	private long workerHeapSize = 0;
+	private long maxWorkerHeapSize = 0;
+	private long jobTimeout = 0;
+	private List<String> degradedArguments = new ArrayList<>();
+	private String workerMainClass = ParallelComponentAnalysis.DEFAULT_WORKER_MAIN_CLASS;
+	private String workerClasspath = System.getProperty("java.class.path");
+	private String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator
+			+ "java";
+
+	/**
+	 * Creates a new instance of the {@link ParallelAppAnalysis} class
+	 *
+	 * @param apkFiles        The apps to analyze
+	 * @param outputDir       The directory into which to write the result files
+	 *                        and the index
+	 * @param workerArguments The command-line options that shall be passed to
+	 *                        every worker. These options must neither select the
+	 *                        target APK file nor the output file.
+	 */
+	public ParallelAppAnalysis(Collection<File> apkFiles, File outputDir, List<String> workerArguments) {
+		this.apkFiles = new ArrayList<>(apkFiles);
+		this.outputDir = outputDir;
+		this.workerArguments = workerArguments;
+	}
+
+	/**
+	 * Analyzes all apps using multiple worker JVMs
+	 *
+	 * @return The outcome of the analysis of each app in the order in which the
+	 *         apps were scheduled
+	 * @throws IOException Thrown if the index file could not be written
+	 */
+	public List<AppResult> runAnalysis() throws IOException {
+		// Start with the largest apps
+		List<File> schedule = new ArrayList<>(apkFiles);
+		schedule.sort(Comparator.comparingLong(File::length).reversed());
+
+		outputDir.mkdirs();
+		long nanosBeforeAnalysis = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(numWorkers, schedule.size())));
+		List<AppResult> results = new ArrayList<>(schedule.size());
+		try {
+			List<Future<AppResult>> futures = new ArrayList<>(schedule.size());
+			for (final File apkFile : schedule)
+				futures.add(executor.submit(() -> analyzeApp(apkFile)));
+			for (Future<AppResult> future : futures)
+				results.add(future.get());
+		} catch (InterruptedException e) {
+			logger.error("Parallel app analysis was interrupted", e);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IOException("Could not run app analysis worker", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		logger.info(String.format("Analysis of %d apps done in %.2f seconds using %d workers", schedule.size(),
+				(System.nanoTime() - nanosBeforeAnalysis) / 1E9, numWorkers));
+
+		writeIndex(results, new File(outputDir, INDEX_FILE_NAME));
+		return results;
+	}
+
+	/**
+	 * Analyzes the given app. If the worker runs out of memory, the app is
+	 * analyzed again with a larger heap or with the degraded settings.
+	 *
+	 * @param apkFile The app to analyze
+	 * @return The outcome of the analysis
+	 */
+	protected AppResult analyzeApp(File apkFile) throws IOException, InterruptedException {
+		File resultFile = new File(outputDir, apkFile.getName().replace(".apk", ".xml"));
+		long heapSize = workerHeapSize;
+		boolean degraded = false;
+		int attempts = 0;
+		long nanosBeforeApp = System.nanoTime();
+		AppStatus status;
+		while (true) {
+			attempts++;
+			status = runWorker(apkFile, resultFile, heapSize, degraded);
+			if (status != AppStatus.OutOfMemory)
+				break;
+
+			// Try again with more memory or with cheaper settings
+			long nextHeapSize = getNextHeapSize(heapSize);
+			if (nextHeapSize > heapSize) {
+				logger.warn(String.format("Worker for app %s ran out of memory, retrying with %d MB", apkFile,
+						nextHeapSize));
+				heapSize = nextHeapSize;
+			} else if (!degraded && !degradedArguments.isEmpty()) {
+				logger.warn(String.format("Worker for app %s ran out of memory, retrying with degraded settings",
+						apkFile));
+				degraded = true;
+			} else
+				break;
+		}
+
+		return new AppResult(apkFile, resultFile, status, attempts, heapSize, degraded,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanosBeforeApp), getResultCount(resultFile));
+	}
+
+	/**
+	 * Gets the heap size for the next attempt after a worker has run out of memory
+	 *
+	 * @param heapSize The heap size of the failed worker in megabytes
+	 * @return The heap size for the next attempt in megabytes
+	 */
+	protected long getNextHeapSize(long heapSize) {
+		if (maxWorkerHeapSize <= 0 || heapSize >= maxWorkerHeapSize)
+			return heapSize;
+		if (heapSize <= 0)
+			return maxWorkerHeapSize;
+		return Math.min(heapSize * 2, maxWorkerHeapSize);
+	}
+
+	/**
+	 * Runs a worker JVM that analyzes the given app
+	 *
+	 * @param apkFile    The app to analyze
+	 * @param resultFile The file into which the worker shall write the data flow
+	 *                   results
+	 * @param heapSize   The maximum heap size of the worker in megabytes, or zero
+	 *                   to use the JVM default
+	 * @param degraded   True if the worker shall use the degraded settings
+	 * @return The outcome of the worker
+	 */
+	protected AppStatus runWorker(File apkFile, File resultFile, long heapSize, boolean degraded)
+			throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(javaExecutable);
+		command.addAll(jvmArguments);
+		if (heapSize > 0)
+			command.add("-Xmx" + heapSize + "m");
+		command.add("-XX:+ExitOnOutOfMemoryError");
+		command.add("-cp");
+		command.add(workerClasspath);
+		command.add(workerMainClass);
+
+		// The command-line parser takes the first value of an option, so the
+		// degraded settings must come first to override the regular ones
+		if (degraded)
+			command.addAll(degradedArguments);
+		command.addAll(workerArguments);
+
+		// The driver has already decided which app must be analyzed
+		command.add("-a");
+		command.add(apkFile.getAbsolutePath());
+		command.add("-o");
+		command.add(resultFile.getAbsolutePath());
+
+		// Do not keep the results of a failed attempt
+		resultFile.delete();
+
+		logger.info(String.format("Starting worker for app %s", apkFile));
+		long nanosBeforeApp = System.nanoTime();
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		try {
+			if (jobTimeout > 0) {
+				if (!process.waitFor(jobTimeout, TimeUnit.SECONDS)) {
+					logger.error(String.format("Worker for app %s exceeded the timeout of %d seconds", apkFile,
+							jobTimeout));
+					return AppStatus.Timeout;
+				}
+			} else
+				process.waitFor();
+
+			int exitCode = process.exitValue();
+			if (exitCode == OUT_OF_MEMORY_EXIT_CODE)
+				return AppStatus.OutOfMemory;
+			if (exitCode != 0) {
+				logger.error(String.format("Worker for app %s failed with exit code %d", apkFile, exitCode));
+				return AppStatus.Failed;
+			}
+			logger.info(String.format("Worker for app %s done in %.2f seconds", apkFile,
+					(System.nanoTime() - nanosBeforeApp) / 1E9));
+			return AppStatus.Success;
+		} finally {
+			if (process.isAlive())
+				process.destroyForcibly();
+		}
+	}
+
+	/**
+	 * Gets the number of data flow results in the given file
+	 *
+	 * @param resultFile The result file
+	 * @return The number of results, or -1 if the file does not exist or cannot
+	 *         be read
+	 */
+	private int getResultCount(File resultFile) {
+		if (!resultFile.exists())
+			return -1;
+		try {
+			return new InfoflowResultsReader().readResults(resultFile.getAbsolutePath()).getResultCount();
+		} catch (XMLStreamException | IOException e) {
+			logger.error(String.format("Could not read results file %s", resultFile), e);
+			return -1;
+		}
+	}
+
+	/**
+	 * Writes the outcome of all apps into the given index file
+	 *
+	 * @param results   The outcome of the analysis of each app
+	 * @param indexFile The index file to write
+	 * @throws IOException Thrown if the index file could not be written
+	 */
+	protected void writeIndex(List<AppResult> results, File indexFile) throws IOException {
+		try (OutputStream out = new FileOutputStream(indexFile)) {
+			XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement("AppIndex");
+			for (AppResult result : results) {
+				writer.writeStartElement("App");
+				writer.writeAttribute("File", result.getApkFile().getAbsolutePath());
+				writer.writeAttribute("Status", result.getStatus().name());
+				if (result.getResultCount() >= 0) {
+					writer.writeAttribute("ResultFile", result.getResultFile().getAbsolutePath());
+					writer.writeAttribute("ResultCount", String.valueOf(result.getResultCount()));
+				}
+				writer.writeAttribute("Attempts", String.valueOf(result.getAttempts()));
+				if (result.getHeapSize() > 0)
+					writer.writeAttribute("HeapSize", result.getHeapSize() + "m");
+				writer.writeAttribute("Degraded", String.valueOf(result.isDegraded()));
+				writer.writeAttribute("DurationMillis", String.valueOf(result.getDurationMillis()));
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.close();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not write the app index", e);
+		}
+	}
+
+	/**
+	 * Parses a heap size in the notation of the JVM's -Xmx option, e.g., "4g" or
+	 * "4096m"
+	 *
+	 * @param heapSize The heap size
+	 * @return The heap size in megabytes
+	 */
+	public static long parseHeapSize(String heapSize) {
+		String size = heapSize.trim().toLowerCase();
+		char unit = size.charAt(size.length() - 1);
+		if (Character.isDigit(unit))
+			return Long.parseLong(size) / (1024 * 1024);
+		long value = Long.parseLong(size.substring(0, size.length() - 1));
+		switch (unit) {
+		case 'k':
+			return value / 1024;
+		case 'm':
+			return value;
+		case 'g':
+			return value * 1024;
+		case 't':
+			return value * 1024 * 1024;
+		default:
+			throw new IllegalArgumentException(String.format("Invalid heap size: %s", heapSize));
+		}
+	}
+
+	/**
+	 * Sets the maximum number of worker JVMs that run at the same time
+	 *
+	 * @param numWorkers The maximum number of worker JVMs
+	 */
+	public void setNumWorkers(int numWorkers) {
+		this.numWorkers = numWorkers;
+	}
+
+	/**
+	 * Gets the maximum number of worker JVMs that run at the same time
+	 *
+	 * @return The maximum number of worker JVMs
+	 */
+	public int getNumWorkers() {
+		return numWorkers;
+	}
+
+	/**
+	 * Sets the options that shall be passed to the worker JVMs. The heap size
+	 * should be configured with {@link #setWorkerHeapSize(long)} instead, so that
+	 * it can be increased on retries.
+	 *
+	 * @param jvmArguments The options for the worker JVMs
+	 */
+	public void setJvmArguments(List<String> jvmArguments) {
+		this.jvmArguments = jvmArguments;
+	}
+
+	/**
+	 * Sets the maximum heap size of the worker JVMs for the first attempt
+	 *
+	 * @param workerHeapSize The heap size in megabytes, or zero to use the JVM
+	 *                       default
+	 */
+	public void setWorkerHeapSize(long workerHeapSize) {
+		this.workerHeapSize = workerHeapSize;
+	}
+
+	/**
+	 * Sets the heap size up to which the heap of a worker that has run out of
+	 * memory is increased on retries
+	 *
+	 * @param maxWorkerHeapSize The maximum heap size in megabytes, or zero to not
+	 *                          retry with a larger heap
+	 */
+	public void setMaxWorkerHeapSize(long maxWorkerHeapSize) {
+		this.maxWorkerHeapSize = maxWorkerHeapSize;
+	}
+
+	/**
+	 * Sets the time after which a worker is killed
+	 *
+	 * @param jobTimeout The timeout in seconds, or zero to wait for the workers
+	 *                   indefinitely
+	 */
+	public void setJobTimeout(long jobTimeout) {
+		this.jobTimeout = jobTimeout;
+	}
+
+	/**
+	 * Sets the command-line options with which an app is analyzed once it has run
+	 * out of memory with the maximum heap size. These options take precedence
+	 * over the regular worker options.
+	 *
+	 * @param degradedArguments The command-line options for the degraded analysis
+	 */
+	public void setDegradedArguments(List<String> degradedArguments) {
+		this.degradedArguments = degradedArguments == null ? Collections.<String>emptyList() : degradedArguments;
+	}
+
+	/**
+	 * Sets the class that contains the main method of the workers. This class must
+	 * accept the same command line as the default FlowDroid command-line tool and
+	 * must report failures through its exit code in the same way, i.e., a non-zero
+	 * exit code on failure and {@link #OUT_OF_MEMORY_EXIT_CODE} if it ran out of
+	 * memory.
+	 *
+	 * @param workerMainClass The fully-qualified name of the worker main class
+	 */
+	public void setWorkerMainClass(String workerMainClass) {
+		this.workerMainClass = workerMainClass;
+	}
+
+	/**
+	 * Sets the classpath of the worker JVMs. By default, the workers use the same
+	 * classpath as the current JVM.
+	 *
+	 * @param workerClasspath The classpath of the worker JVMs
+	 */
+	public void setWorkerClasspath(String workerClasspath) {
+		this.workerClasspath = workerClasspath;
+	}
+
+	/**
+	 * Sets the Java executable that is used for starting the workers. By default,
+	 * the workers use the same Java installation as the current JVM.
+	 *
+	 * @param javaExecutable The path to the Java executable
+	 */
+	public void setJavaExecutable(String javaExecutable) {
+		this.javaExecutable = javaExecutable;
+	}
+
+}
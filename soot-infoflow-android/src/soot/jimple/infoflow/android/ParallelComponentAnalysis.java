@@ -0,0 +1,279 @@
+package soot.jimple.infoflow.android;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xmlpull.v1.XmlPullParserException;
+
+import soot.jimple.infoflow.android.manifest.ProcessManifest;
+import soot.jimple.infoflow.results.xml.InfoflowResultsMerger;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+
+/**
+ * Driver that runs the one-component-at-a-time analysis of an app on multiple
+ * local worker JVMs. Soot relies on global singletons, so we cannot analyze
+ * multiple components in parallel inside the same JVM.
+ *
+ * The manifest is parsed once in the driver to find the components. Every
+ * worker then runs the command-line data flow analysis on exactly one component
+ * (together with the application class) and writes the results for this
+ * component into a temporary file. These files are finally merged into the
+ * configured output file. If a worker fails, the merged results are marked as
+ * incomplete.
+ *
+ */
+public class ParallelComponentAnalysis {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelComponentAnalysis.class);
+
+	/**
+	 * The default entry point of the worker JVMs
+	 */
+	public static final String DEFAULT_WORKER_MAIN_CLASS = "soot.jimple.infoflow.cmd.MainClass";
+
+	private final InfoflowAndroidConfiguration config;
+	private final List<String> workerArguments;
+	private final List<String> failedComponents = Collections.synchronizedList(new ArrayList<>());
+
+	private int numWorkers = Runtime.getRuntime().availableProcessors();
+	private List<String> jvmArguments = new ArrayList<>();
+	private String workerMainClass = DEFAULT_WORKER_MAIN_CLASS;
+	private String workerClasspath = System.getProperty("java.class.path");
+	private String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator
+			+ "java";
+
+	/**
+	 * Creates a new instance of the {@link ParallelComponentAnalysis} class
+	 *
+	 * @param config          The data flow configuration. The target APK file and
+	 *                        the output file are taken from this configuration.
+	 * @param workerArguments The command-line options that shall be passed to
+	 *                        every worker. These options must neither select the
+	 *                        target APK file nor the output file.
+	 */
+	public ParallelComponentAnalysis(InfoflowAndroidConfiguration config, List<String> workerArguments) {
+		this.config = config;
+		this.workerArguments = workerArguments;
+	}
+
+	/**
+	 * Analyzes all components of the target app using multiple worker JVMs
+	 *
+	 * @return The merged data flow results of all components, or null if no
+	 *         results could be obtained. If the workers for some components have
+	 *         failed, the results for these components are missing and the merged
+	 *         results are marked as incomplete, see
+	 *         {@link #getFailedComponents()}.
+	 * @throws IOException            Thrown if the app or the result files could
+	 *                                not be read or written
+	 * @throws XmlPullParserException Thrown if the Android manifest file could not
+	 *                                be read
+	 */
+	public SerializedInfoflowResults runAnalysis() throws IOException, XmlPullParserException {
+		final File targetAPK = new File(config.getAnalysisFileConfig().getTargetAPKFile());
+		List<String> components;
+		try (ProcessManifest manifest = new ProcessManifest(targetAPK)) {
+			components = new ArrayList<>(manifest.getEntryPointClasses());
+		}
+		if (components.isEmpty()) {
+			logger.warn("No entry points");
+			return null;
+		}
+
+		failedComponents.clear();
+		long nanosBeforeAnalysis = System.nanoTime();
+		File tempDir = Files.createTempDirectory("flowdroid-components").toFile();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(numWorkers, components.size())));
+		try {
+			// Start one worker per component
+			List<Future<File>> futures = new ArrayList<>(components.size());
+			for (int i = 0; i < components.size(); i++) {
+				final String component = components.get(i);
+				final File resultFile = new File(tempDir, "component" + i + ".xml");
+				futures.add(executor.submit(() -> {
+					// A failing worker must not stop the other components
+					try {
+						return runWorker(targetAPK, component, resultFile) ? resultFile : null;
+					} catch (IOException e) {
+						logger.error(String.format("Could not run worker for component %s", component), e);
+						return null;
+					}
+				}));
+			}
+
+			// Collect the result files in the order of the components to get a
+			// deterministic output
+			List<String> resultFiles = new ArrayList<>(components.size());
+			for (int i = 0; i < futures.size(); i++) {
+				File resultFile = futures.get(i).get();
+				if (resultFile != null && resultFile.exists())
+					resultFiles.add(resultFile.getAbsolutePath());
+				else {
+					logger.error(String.format("No results for component %s", components.get(i)));
+					failedComponents.add(components.get(i));
+				}
+			}
+			logger.info(String.format("Analysis of %d components done in %.2f seconds using %d workers",
+					components.size(), (System.nanoTime() - nanosBeforeAnalysis) / 1E9, numWorkers));
+			if (!failedComponents.isEmpty())
+				logger.error(String.format("Analysis has failed for %d components: %s", failedComponents.size(),
+						failedComponents));
+			if (resultFiles.isEmpty())
+				return null;
+
+			// Merge the results
+			String outputFile = config.getAnalysisFileConfig().getOutputFile();
+			if (outputFile == null || outputFile.isEmpty())
+				outputFile = new File(tempDir, "merged.xml").getAbsolutePath();
+			new InfoflowResultsMerger().merge(resultFiles, outputFile, !failedComponents.isEmpty());
+			return new InfoflowResultsReader().readResults(outputFile);
+		} catch (InterruptedException e) {
+			logger.error("Parallel component analysis was interrupted", e);
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			// The workers handle their own failures, so this is a bug in the driver
+			throw new RuntimeException("Parallel component analysis has failed", e.getCause());
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not merge the results of the component analyses", e);
+		} finally {
+			executor.shutdownNow();
+			File[] tempFiles = tempDir.listFiles();
+			if (tempFiles != null) {
+				for (File f : tempFiles)
+					f.delete();
+			}
+			tempDir.delete();
+		}
+	}
+
+	/**
+	 * Runs a worker JVM that analyzes the given component
+	 *
+	 * @param targetAPK  The APK file that contains the component
+	 * @param component  The fully-qualified name of the component class
+	 * @param resultFile The file into which the worker shall write the data flow
+	 *                   results
+	 * @return True if the worker has finished successfully, otherwise false
+	 */
+	protected boolean runWorker(File targetAPK, String component, File resultFile)
+			throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(javaExecutable);
+		command.addAll(jvmArguments);
+		command.add("-cp");
+		command.add(workerClasspath);
+		command.add(workerMainClass);
+		command.addAll(workerArguments);
+
+		// The driver has already decided which component must be analyzed
+		command.add("-a");
+		command.add(targetAPK.getAbsolutePath());
+		command.add("-ot");
+		command.add("-cn");
+		command.add(component);
+		command.add("-o");
+		command.add(resultFile.getAbsolutePath());
+
+		logger.info(String.format("Starting worker for component %s", component));
+		long nanosBeforeComponent = System.nanoTime();
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		try {
+			int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				logger.error(String.format("Worker for component %s failed with exit code %d", component, exitCode));
+				return false;
+			}
+			logger.info(String.format("Worker for component %s done in %.2f seconds", component,
+					(System.nanoTime() - nanosBeforeComponent) / 1E9));
+			return true;
+		} finally {
+			if (process.isAlive())
+				process.destroyForcibly();
+		}
+	}
+
+	/**
+	 * Gets the components for which the last call to {@link #runAnalysis()} could
+	 * not obtain results, because the worker has failed or has not written a
+	 * result file
+	 *
+	 * @return The components for which the analysis has failed
+	 */
+	public List<String> getFailedComponents() {
+		synchronized (failedComponents) {
+			return new ArrayList<>(failedComponents);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of worker JVMs that run at the same time
+	 *
+	 * @param numWorkers The maximum number of worker JVMs
+	 */
+	public void setNumWorkers(int numWorkers) {
+		this.numWorkers = numWorkers;
+	}
+
+	/**
+	 * Gets the maximum number of worker JVMs that run at the same time
+	 *
+	 * @return The maximum number of worker JVMs
+	 */
+	public int getNumWorkers() {
+		return numWorkers;
+	}
+
+	/**
+	 * Sets the options that shall be passed to the worker JVMs, e.g., "-Xmx8g"
+	 *
+	 * @param jvmArguments The options for the worker JVMs
+	 */
+	public void setJvmArguments(List<String> jvmArguments) {
+		this.jvmArguments = jvmArguments;
+	}
+
+	/**
+	 * Sets the class that contains the main method of the workers. This class must
+	 * accept the same command line as the default FlowDroid command-line tool.
+	 *
+	 * @param workerMainClass The fully-qualified name of the worker main class
+	 */
+	public void setWorkerMainClass(String workerMainClass) {
+		this.workerMainClass = workerMainClass;
+	}
+
+	/**
+	 * Sets the classpath of the worker JVMs. By default, the workers use the same
+	 * classpath as the current JVM.
+	 *
+	 * @param workerClasspath The classpath of the worker JVMs
+	 */
+	public void setWorkerClasspath(String workerClasspath) {
+		this.workerClasspath = workerClasspath;
+	}
+
+	/**
+	 * Sets the Java executable that is used for starting the workers. By default,
+	 * the workers use the same Java installation as the current JVM.
+	 *
+	 * @param javaExecutable The path to the Java executable
+	 */
+	public void setJavaExecutable(String javaExecutable) {
+		this.javaExecutable = javaExecutable;
+	}
+
+}
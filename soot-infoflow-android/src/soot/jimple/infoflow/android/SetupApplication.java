@@ -11,6 +11,7 @@
 package soot.jimple.infoflow.android;
 
 import boomerang.scene.sparse.SparseCFGCache;
+import com.esotericsoftware.kryo.KryoException;
 import heros.solver.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +20,13 @@ import org.xmlpull.v1.XmlPullParserException;
 import soot.*;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.*;
+import soot.jimple.infoflow.InfoflowConfiguration.AliasingAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
 import soot.jimple.infoflow.aliasing.sparse.SparseAliasEval;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.CallbackConfiguration;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.DegradationLevel;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.IccConfiguration;
+import soot.jimple.infoflow.android.axml.ApkIndex;
 import soot.jimple.infoflow.android.callbacks.AbstractCallbackAnalyzer;
 import soot.jimple.infoflow.android.callbacks.AndroidCallbackDefinition;
 import soot.jimple.infoflow.android.callbacks.AndroidCallbackDefinition.CallbackType;
@@ -34,6 +38,9 @@ import soot.jimple.infoflow.android.callbacks.filters.ApplicationCallbackFilter;
 import soot.jimple.infoflow.android.callbacks.filters.UnreachableConstructorFilter;
 import soot.jimple.infoflow.android.callbacks.xml.CollectedCallbacks;
 import soot.jimple.infoflow.android.callbacks.xml.CollectedCallbacksSerializer;
+import soot.jimple.infoflow.android.callgraph.CachedCallgraph;
+import soot.jimple.infoflow.android.callgraph.CallgraphCache;
+import soot.jimple.infoflow.android.callgraph.IncrementalCallgraphExtender;
 import soot.jimple.infoflow.android.config.SootConfigForAndroid;
 import soot.jimple.infoflow.android.data.AndroidMemoryManager;
 import soot.jimple.infoflow.android.data.AndroidMethod;
@@ -58,18 +65,23 @@ import soot.jimple.infoflow.cfg.BiDirICFGFactory;
 import soot.jimple.infoflow.cfg.LibraryClassPatcher;
 import soot.jimple.infoflow.config.IInfoflowConfig;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AbstractionAtSink;
 import soot.jimple.infoflow.data.FlowDroidMemoryManager.PathDataErasureMode;
 import soot.jimple.infoflow.entryPointCreators.SimulatedCodeElementTag;
 import soot.jimple.infoflow.handlers.PostAnalysisHandler;
 import soot.jimple.infoflow.handlers.PreAnalysisHandler;
 import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
+import soot.jimple.infoflow.handlers.StreamingResultsAvailableHandler;
 import soot.jimple.infoflow.handlers.TaintPropagationHandler;
 import soot.jimple.infoflow.ipc.IIPCManager;
 import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
 import soot.jimple.infoflow.memory.FlowDroidTimeoutWatcher;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.results.DataFlowResult;
 import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
 import soot.jimple.infoflow.rifl.RIFLSourceSinkDefinitionProvider;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
@@ -82,6 +94,7 @@ import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintWrapperDataFlowAnalysis;
 import soot.jimple.infoflow.util.SystemClassHandler;
 import soot.jimple.infoflow.values.IValueProvider;
+import soot.jimple.toolkits.pointer.DumbPointerAnalysis;
 import soot.options.Options;
 import soot.util.HashMultiMap;
 import soot.util.MultiMap;
@@ -102,10 +115,14 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	protected InfoflowAndroidConfiguration config = new InfoflowAndroidConfiguration();
 
 	protected Set<SootClass> entrypoints = null;
+	protected Set<String> componentFilter = null;
 	protected Set<String> callbackClasses = null;
 	protected AndroidEntryPointCreator entryPointCreator = null;
+	protected LayoutFileParser layoutFileParser = null;
+	protected CachedCallgraph cachedCallgraph = null;
 	protected IccInstrumenter iccInstrumenter = null;
 
+	protected ApkIndex apkIndex = null;
 	protected ARSCFileParser resources = null;
 	protected IManifestHandler manifest = null;
 	protected IValueProvider valueProvider = null;
@@ -133,6 +150,8 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 
 	protected IInPlaceInfoflow infoflow = null;
 
+	private Map<DataFlowResult, DegradationLevel> resultDegradationLevels = Collections.emptyMap();
+
 	/**
 	 * Class for aggregating the data flow results obtained through multiple runs of
 	 * the data flow solver.
@@ -140,17 +159,43 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @author Steven Arzt
 	 *
 	 */
-	private static class MultiRunResultAggregator implements ResultsAvailableHandler {
+	public static class MultiRunResultAggregator implements ResultsAvailableHandler {
 
 		private final InfoflowResults aggregatedResults = new InfoflowResults();
 		private InfoflowResults lastResults = null;
 		private IInfoflowCFG lastICFG = null;
 
+		private final Map<DataFlowResult, DegradationLevel> resultDegradationLevels = new HashMap<>();
+		private DegradationLevel degradationLevel = DegradationLevel.None;
+		private boolean rerun = false;
+		private int terminationState = InfoflowResults.TERMINATION_SUCCESS;
+
 		@Override
 		public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
 			this.aggregatedResults.addAll(results);
+
+			// Record the cheapest settings under which we have found each result
+			if (results != null) {
+				Set<DataFlowResult> resultSet = results.getResultSet();
+				if (resultSet != null)
+					for (DataFlowResult result : resultSet)
+						resultDegradationLevels.putIfAbsent(result, degradationLevel);
+			}
+
+			// A re-run with cheaper settings keeps the results of the aborted run, but
+			// replaces its termination state
+			if (rerun && lastResults != null && results != null) {
+				InfoflowResults mergedResults = new InfoflowResults();
+				mergedResults.addAll(lastResults);
+				mergedResults.addAll(results);
+				mergedResults.setTerminationState(results.getTerminationState());
+				results = mergedResults;
+			}
 			this.lastResults = results;
 			this.lastICFG = cfg;
+
+			this.aggregatedResults.setTerminationState(
+					terminationState | (lastResults == null ? 0 : lastResults.getTerminationState()));
 		}
 
 		/**
@@ -176,8 +221,61 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		 * Clears the stored result set from the last data flow run
 		 */
 		public void clearLastResults() {
+			if (lastResults != null)
+				this.terminationState |= lastResults.getTerminationState();
 			this.lastResults = null;
 			this.lastICFG = null;
+			this.rerun = false;
+		}
+
+		/**
+		 * Clears the stored result set from the last data flow run when the same code
+		 * is analyzed again in a different way. The results of the last run are kept,
+		 * but its termination state is discarded.
+		 */
+		public void supersedeLastResults() {
+			this.lastResults = null;
+			this.lastICFG = null;
+			this.rerun = false;
+		}
+
+		/**
+		 * Marks the next data flow run as a re-run of the last, aborted one with
+		 * cheaper settings
+		 * 
+		 * @param degradationLevel The degradation level of the next data flow run
+		 */
+		public void startRerun(DegradationLevel degradationLevel) {
+			this.degradationLevel = degradationLevel;
+			this.rerun = true;
+		}
+
+		/**
+		 * Gets the degradation level under which new results are recorded
+		 * 
+		 * @return The current degradation level
+		 */
+		public DegradationLevel getDegradationLevel() {
+			return this.degradationLevel;
+		}
+
+		/**
+		 * Sets the degradation level under which new results are recorded
+		 * 
+		 * @param degradationLevel The current degradation level
+		 */
+		public void setDegradationLevel(DegradationLevel degradationLevel) {
+			this.degradationLevel = degradationLevel;
+		}
+
+		/**
+		 * Gets the degradation level of the data flow run that found each result
+		 * first
+		 * 
+		 * @return A mapping from the data flow results to degradation levels
+		 */
+		public Map<DataFlowResult, DegradationLevel> getResultDegradationLevels() {
+			return this.resultDegradationLevels;
 		}
 
 		/**
@@ -402,9 +500,15 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 			throw new RuntimeException(
 					String.format("Target APK file %s does not exist", targetAPK.getCanonicalPath()));
 
+		// Open the APK file once for all resource parsers
+		releaseApkIndex();
+		this.apkIndex = new ApkIndex(targetAPK);
+
 		// Parse the resource file
 		long beforeARSC = System.nanoTime();
 		this.resources = new ARSCFileParser();
+		this.resources.setApkIndex(apkIndex);
+		this.resources.setLazyDecoding(true);
 		this.resources.parse(targetAPK.getAbsolutePath());
 		logger.info("ARSC file parsing took " + (System.nanoTime() - beforeARSC) / 1E9 + " seconds");
 
@@ -414,7 +518,13 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		SystemClassHandler.v().setExcludeSystemComponents(config.getIgnoreFlowsInSystemPackages());
 		Set<String> entryPoints = manifest.getEntryPointClasses();
 		this.entrypoints = new HashSet<>(entryPoints.size());
+		IAndroidApplication app = manifest.getApplication();
+		String applicationName = app == null ? null : app.getName();
 		for (String className : entryPoints) {
+			// The component filter never removes the application class
+			if (componentFilter != null && !componentFilter.contains(className)
+					&& !className.equals(applicationName))
+				continue;
 			SootClass sc = Scene.v().getSootClassUnsafe(className);
 			if (sc != null)
 				this.entrypoints.add(sc);
@@ -430,9 +540,25 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @throws XmlPullParserException
 	 */
 	protected IManifestHandler createManifestParser(final File targetAPK) throws IOException, XmlPullParserException {
+		if (apkIndex != null && apkIndex.isIndexOf(targetAPK))
+			return new ProcessManifest(apkIndex, resources);
 		return new ProcessManifest(targetAPK, resources);
 	}
 
+	/**
+	 * Closes the shared index over the target APK file, if there is one
+	 */
+	protected void releaseApkIndex() {
+		if (apkIndex != null) {
+			try {
+				apkIndex.close();
+			} catch (IOException e) {
+				logger.error("Could not close the APK file", e);
+			}
+			apkIndex = null;
+		}
+	}
+
 	/**
 	 * Calculates the sets of sources, sinks, entry points, and callbacks methods
 	 * for the given APK file.
@@ -494,6 +620,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 				logger.warn("Callback definition file is empty, disabling callbacks");
 			} else {
 				lfp = createLayoutFileParser();
+				lfp.setApkIndex(apkIndex);
 				switch (callbackConfig.getCallbackAnalyzer()) {
 				case Fast:
 					calculateCallbackMethodsFast(lfp, entryPoint);
@@ -522,6 +649,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @param lfp        The layout file parser
 	 */
 	protected void createSourceSinkProvider(SootClass entryPoint, LayoutFileParser lfp) {
+		this.layoutFileParser = lfp;
 		if (this.sourceSinkProvider != null) {
 			// Get the callbacks for the current entry point
 			Set<AndroidCallbackDefinition> callbacks;
@@ -611,6 +739,199 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		Scene.v().getOrMakeFastHierarchy();
 	}
 
+	/**
+	 * Computes the key under which the callgraph for the current app and
+	 * configuration is stored in the callgraph cache
+	 * 
+	 * @return The key for the callgraph cache, or null if the callgraph shall not
+	 *         be cached
+	 * @throws IOException Thrown if the target APK file could not be read
+	 */
+	protected String getCallgraphCacheKey() throws IOException {
+		final String cacheDir = config.getAnalysisFileConfig().getCallgraphCacheDir();
+		if (cacheDir == null || cacheDir.isEmpty())
+			return null;
+
+		// We can only restore a callgraph into a fresh Soot instance that we have
+		// configured ourselves
+		if (config.getSootIntegrationMode() != SootIntegrationMode.CreateNewInstance) {
+			logger.warn("Callgraph caching requires a new Soot instance, ignoring the callgraph cache");
+			return null;
+		}
+
+		// The ICC instrumentation modifies the app before the callgraph is built
+		if (config.getIccConfig().isIccEnabled()) {
+			logger.warn("Callgraph caching is not supported together with ICC, ignoring the callgraph cache");
+			return null;
+		}
+
+		// We only cache the callgraph, but not the points-to sets
+		if (config.getAliasingAlgorithm() == AliasingAlgorithm.PtsBased) {
+			logger.warn("Callgraph caching is not supported for points-to-based aliasing, "
+					+ "ignoring the callgraph cache");
+			return null;
+		}
+
+		return CallgraphCache.computeKey(new File(config.getAnalysisFileConfig().getTargetAPKFile()),
+				new File(getAndroidPlatformJar()), getCallgraphConfigFingerprint());
+	}
+
+	/**
+	 * Gets a textual representation of all configuration options that have an
+	 * influence on the callgraph. Derived classes that change the way in which the
+	 * callgraph is built must override this method and add their own options.
+	 * 
+	 * @return The fingerprint of the callgraph configuration
+	 */
+	protected String getCallgraphConfigFingerprint() {
+		final CallbackConfiguration callbackConfig = config.getCallbackConfig();
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("callgraphAlgorithm=").append(config.getCallgraphAlgorithm()).append('\n');
+		sb.append("reflection=").append(config.getEnableReflection()).append('\n');
+		sb.append("mergeDexFiles=").append(config.getMergeDexFiles()).append('\n');
+		sb.append("lineNumbers=").append(config.getEnableLineNumbers()).append('\n');
+		sb.append("originalNames=").append(config.getEnableOriginalNames()).append('\n');
+		sb.append("excludeSootLibraryClasses=").append(config.getExcludeSootLibraryClasses()).append('\n');
+		sb.append("additionalClasspath=").append(config.getAnalysisFileConfig().getAdditionalClasspath())
+				.append('\n');
+		sb.append("forceAndroidJar=").append(forceAndroidJar).append('\n');
+		sb.append("createActivityEntryMethods=")
+				.append(InfoflowAndroidConfiguration.getCreateActivityEntryMethods()).append('\n');
+
+		sb.append("enableCallbacks=").append(callbackConfig.getEnableCallbacks()).append('\n');
+		sb.append("callbackAnalyzer=").append(callbackConfig.getCallbackAnalyzer()).append('\n');
+		sb.append("filterThreadCallbacks=").append(callbackConfig.getFilterThreadCallbacks()).append('\n');
+		sb.append("maxCallbacksPerComponent=").append(callbackConfig.getMaxCallbacksPerComponent()).append('\n');
+		sb.append("callbackAnalysisTimeout=").append(callbackConfig.getCallbackAnalysisTimeout()).append('\n');
+		sb.append("maxCallbackAnalysisDepth=").append(callbackConfig.getMaxAnalysisCallbackDepth()).append('\n');
+		sb.append("callbacksFile=").append(callbackConfig.getCallbacksFile()).append('\n');
+		sb.append("incrementalCallgraph=").append(callbackConfig.getIncrementalCallgraph()).append('\n');
+		sb.append("callbackClasses=").append(callbackClasses == null ? "" : new TreeSet<>(callbackClasses))
+				.append('\n');
+
+		sb.append("sootConfig=").append(sootConfig == null ? "" : sootConfig.getClass().getName()).append('\n');
+		sb.append("valueProvider=").append(valueProvider == null ? "" : valueProvider.getClass().getName())
+				.append('\n');
+		Set<String> preprocessorNames = new TreeSet<>();
+		for (PreAnalysisHandler handler : this.preprocessors)
+			preprocessorNames.add(handler.getClass().getName());
+		sb.append("preprocessors=").append(preprocessorNames).append('\n');
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the cache in which callgraphs are stored across runs
+	 * 
+	 * @return The callgraph cache
+	 */
+	protected CallgraphCache createCallgraphCache() {
+		return new CallgraphCache(new File(config.getAnalysisFileConfig().getCallgraphCacheDir()));
+	}
+
+	/**
+	 * Restores the dummy main method, the callbacks, and the callgraph from the
+	 * callgraph cache
+	 * 
+	 * @param cacheKey The key of the cache entry
+	 * @return True if the callgraph was restored from the cache, false if it needs
+	 *         to be constructed
+	 */
+	protected boolean loadCachedCallgraph(String cacheKey) {
+		CallgraphCache cache = createCallgraphCache();
+		if (!cache.contains(cacheKey)) {
+			logger.info("No cached callgraph found, constructing a new one");
+			return false;
+		}
+
+		logger.info("Loading the callgraph from the cache...");
+		SootClass dummyMainClass = null;
+		CachedCallgraph cached;
+		try {
+			dummyMainClass = cache.loadDummyMainClass(cacheKey);
+			for (SootMethod sm : dummyMainClass.getMethods())
+				sm.addTag(SimulatedCodeElementTag.TAG);
+
+			// Run the preprocessors
+			for (PreAnalysisHandler handler : this.preprocessors)
+				handler.onBeforeCallgraphConstruction();
+
+			cached = cache.load(cacheKey);
+			CollectedCallbacks callbacks = cached.getCallbacks();
+			if (cached.getDummyMainMethod() == null || cached.getLifecycleMethods().contains(null)
+					|| callbacks.getEntryPoints().contains(null))
+				throw new KryoException("Cached callgraph references code that no longer exists");
+			for (AndroidCallbackDefinition cd : callbacks.getCallbackMethods().values())
+				if (cd.getTargetMethod() == null)
+					throw new KryoException("Cached callgraph references callbacks that no longer exist");
+
+			Scene.v().setEntryPoints(Collections.singletonList(cached.getDummyMainMethod()));
+			Scene.v().setCallGraph(cached.getCallgraph());
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Could not load the cached callgraph, constructing a new one", e);
+			Scene.v().releaseCallGraph();
+			if (dummyMainClass != null && dummyMainClass.isInScene())
+				Scene.v().removeClass(dummyMainClass);
+			try {
+				cache.invalidate(cacheKey);
+			} catch (IOException ex) {
+				logger.warn("Could not remove the stale callgraph cache entry", ex);
+			}
+			return false;
+		}
+
+		// Run the preprocessors
+		for (PreAnalysisHandler handler : this.preprocessors)
+			handler.onAfterCallgraphConstruction();
+
+		// Make sure that we have a hierarchy
+		Scene.v().getOrMakeFastHierarchy();
+
+		CollectedCallbacks callbacks = cached.getCallbacks();
+		entrypoints = callbacks.getEntryPoints();
+		fragmentClasses = callbacks.getFragmentClasses();
+		callbackMethods = callbacks.getCallbackMethods();
+		cachedCallgraph = cached;
+		logger.info("Loaded a callgraph with {} edges from the cache", Scene.v().getCallGraph().size());
+
+		// We still need the layout controls for the source/sink manager
+		LayoutFileParser lfp = null;
+		if (config.getCallbackConfig().getEnableCallbacks()
+				&& (callbackClasses == null || !callbackClasses.isEmpty())) {
+			lfp = createLayoutFileParser();
+			lfp.setApkIndex(apkIndex);
+			lfp.parseLayoutFileDirect(config.getAnalysisFileConfig().getTargetAPKFile());
+		}
+		createSourceSinkProvider(null, lfp);
+		return true;
+	}
+
+	/**
+	 * Stores the current dummy main method, the callbacks, and the callgraph in the
+	 * callgraph cache
+	 * 
+	 * @param cacheKey The key of the cache entry
+	 */
+	protected void storeCachedCallgraph(String cacheKey) {
+		if (entryPointCreator == null || entryPointCreator.getGeneratedMainMethod() == null
+				|| !Scene.v().hasCallGraph())
+			return;
+
+		Set<SootMethod> lifecycleMethods = new HashSet<>();
+		ComponentEntryPointCollection entryPoints = entryPointCreator.getComponentToEntryPointInfo();
+		if (entryPoints != null)
+			lifecycleMethods.addAll(entryPoints.getLifecycleMethods());
+
+		CollectedCallbacks callbacks = new CollectedCallbacks(new HashSet<>(entrypoints), callbackMethods,
+				fragmentClasses);
+		try {
+			createCallgraphCache().store(cacheKey, new CachedCallgraph(entryPointCreator.getGeneratedMainMethod(),
+					lifecycleMethods, callbacks, Scene.v().getCallGraph()));
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Could not store the callgraph in the cache", e);
+		}
+	}
+
 	/**
 	 * Creates the ICC instrumentation class
 	 * 
@@ -676,10 +997,19 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 			timeoutWatcher = createCallbackTimeoutWatcher(callbackConfig, jimpleClass);
 		}
 
+		// Rebuilding the callgraph in every iteration is expensive. If the user has
+		// enabled it, we only extend the existing callgraph with the new callbacks
+		// and rebuild it once these cheaper iterations do not find anything new.
+		final boolean useIncrementalCallgraph = callbackConfig.getIncrementalCallgraph()
+				&& config.getSootIntegrationMode().needsToBuildCallgraph();
+		IncrementalCallgraphExtender callgraphExtender = null;
+		boolean isIncrementalCallgraph = false;
+
 		try {
 			int depthIdx = 0;
 			boolean hasChanged = true;
 			boolean isInitial = true;
+			boolean forceFullCallgraph = false;
 			while (hasChanged) {
 				hasChanged = false;
 
@@ -706,19 +1036,31 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 				}
 
 				if (!isInitial) {
-					// Reset the callgraph
-					releaseCallgraph();
-
 					// We only want to parse the layout files once
 					PackManager.v().getPack("wjtp").remove("wjtp.lfp");
 				}
-				isInitial = false;
 
-				// Run the soot-based operations
-				constructCallgraphInternal();
-				if (!Scene.v().hasCallGraph())
-					throw new RuntimeException("No callgraph in Scene even after creating one. That's very sad "
-							+ "and should never happen.");
+				if (useIncrementalCallgraph && !isInitial && !forceFullCallgraph) {
+					// Only add the code that has become reachable through the new
+					// dummy main method
+					callgraphExtender.extend(Scene.v().getEntryPoints());
+					isIncrementalCallgraph = true;
+				} else {
+					// Reset the callgraph
+					if (!isInitial)
+						releaseCallgraph();
+
+					// Run the soot-based operations
+					constructCallgraphInternal();
+					if (!Scene.v().hasCallGraph())
+						throw new RuntimeException("No callgraph in Scene even after creating one. That's very sad "
+								+ "and should never happen.");
+
+					if (useIncrementalCallgraph)
+						callgraphExtender = new IncrementalCallgraphExtender();
+					isIncrementalCallgraph = false;
+				}
+				isInitial = false;
 
 				lfp.parseLayoutFileDirect(config.getAnalysisFileConfig().getTargetAPKFile());
 				PackManager.v().getPack("wjtp").apply();
@@ -732,7 +1074,9 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 					}
 				}
 
-				if (numPrevEdges < Scene.v().getCallGraph().size())
+				// The incremental extension always adds edges for the new dummy main
+				// method, so we can only compare callgraphs built from scratch
+				if (!useIncrementalCallgraph && numPrevEdges < Scene.v().getCallGraph().size())
 					hasChanged = true;
 
 				// Collect the results of the soot-based phases
@@ -761,8 +1105,19 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 					}
 				}
 
-				// Check depth limiting
-				depthIdx++;
+				// If the extended callgraph does not lead to any new callbacks, we need
+				// to confirm this on a precise callgraph built from scratch
+				forceFullCallgraph = false;
+				if (!hasChanged && isIncrementalCallgraph) {
+					hasChanged = true;
+					forceFullCallgraph = true;
+				}
+
+				// Check depth limiting. Only the iterations on a callgraph built from scratch
+				// count, so that the cheap iterations on an extended callgraph do not reduce
+				// the number of precise iterations.
+				if (!isIncrementalCallgraph)
+					depthIdx++;
 				if (callbackConfig.getMaxAnalysisCallbackDepth() > 0
 						&& depthIdx >= callbackConfig.getMaxAnalysisCallbackDepth())
 					break;
@@ -784,6 +1139,14 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 				memoryWatcher.close();
 		}
 
+		// If we stopped early, we may still have an extended callgraph, which is
+		// not precise enough for the data flow analysis
+		if (isIncrementalCallgraph) {
+			releaseCallgraph();
+			createMainMethod(component);
+			constructCallgraphInternal();
+		}
+
 		// Filter out callbacks that belong to fragments that are not used by
 		// the host activity
 		AlienFragmentFilter fragmentFilter = new AlienFragmentFilter(invertMap(fragmentClasses));
@@ -1124,17 +1487,26 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @return The classpath to be used for the taint analysis
 	 */
 	private String getClasspath() {
-		final String androidJar = config.getAnalysisFileConfig().getAndroidPlatformDir();
-		final String apkFileLocation = config.getAnalysisFileConfig().getTargetAPKFile();
 		final String additionalClasspath = config.getAnalysisFileConfig().getAdditionalClasspath();
 
-		String classpath = forceAndroidJar ? androidJar : Scene.v().getAndroidJarPath(androidJar, apkFileLocation);
+		String classpath = getAndroidPlatformJar();
 		if (additionalClasspath != null && !additionalClasspath.isEmpty())
 			classpath += File.pathSeparator + additionalClasspath;
 		logger.debug("soot classpath: " + classpath);
 		return classpath;
 	}
 
+	/**
+	 * Gets the Android platform JAR file against which the app is analyzed
+	 * 
+	 * @return The Android platform JAR file
+	 */
+	private String getAndroidPlatformJar() {
+		final String androidJar = config.getAnalysisFileConfig().getAndroidPlatformDir();
+		final String apkFileLocation = config.getAnalysisFileConfig().getTargetAPKFile();
+		return forceAndroidJar ? androidJar : Scene.v().getAndroidJarPath(androidJar, apkFileLocation);
+	}
+
 	/**
 	 * Initializes soot for running the soot-based phases of the application
 	 * metadata analysis
@@ -1242,6 +1614,9 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 
 		public void runAnalysis(final ISourceSinkManager sourcesSinks, SootMethod entryPoint);
 
+		public List<InfoflowResults> runAnalysisBatch(final List<? extends ISourceSinkManager> sourceSinkManagers,
+				SootMethod entryPoint);
+
 	}
 
 	/**
@@ -1282,6 +1657,13 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 			super.runAnalysis(sourcesSinks);
 		}
 
+		@Override
+		public List<InfoflowResults> runAnalysisBatch(final List<? extends ISourceSinkManager> sourceSinkManagers,
+				SootMethod entryPoint) {
+			this.dummyMainMethod = entryPoint;
+			return super.runAnalysis(sourceSinkManagers, null);
+		}
+
 		@Override
 		protected boolean isUserCodeClass(String className) {
 			String packageName = manifest.getPackageName() + ".";
@@ -1321,6 +1703,13 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 			super.runAnalysis(sourcesSinks);
 		}
 
+		@Override
+		public List<InfoflowResults> runAnalysisBatch(final List<? extends ISourceSinkManager> sourceSinkManagers,
+				SootMethod entryPoint) {
+			this.dummyMainMethod = entryPoint;
+			return super.runAnalysis(sourceSinkManagers, null);
+		}
+
 		@Override
 		protected boolean isUserCodeClass(String className) {
 			String packageName = manifest.getPackageName() + ".";
@@ -1432,6 +1821,18 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		String sourceSinkFile = config.getAnalysisFileConfig().getSourceSinkFile();
 		if (sourceSinkFile == null || sourceSinkFile.isEmpty())
 			throw new RuntimeException("No source/sink file specified for the data flow analysis");
+		return runInfoflow(parseSourceSinkFile(sourceSinkFile));
+	}
+
+	/**
+	 * Parses the given file with source and sink definitions. The parser is
+	 * selected based on the file extension.
+	 * 
+	 * @param sourceSinkFile The file with the source and sink definitions
+	 * @return The provider for the sources and sinks in the given file
+	 * @throws IOException Thrown if the given source/sink file could not be read
+	 */
+	public ISourceSinkDefinitionProvider parseSourceSinkFile(String sourceSinkFile) throws IOException {
 		String fileExtension = sourceSinkFile.substring(sourceSinkFile.lastIndexOf("."));
 		fileExtension = fileExtension.toLowerCase();
 
@@ -1449,8 +1850,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		} catch (SAXException ex) {
 			throw new IOException("Could not read XML file", ex);
 		}
-
-		return runInfoflow(parser);
+		return parser;
 	}
 
 	/**
@@ -1460,11 +1860,308 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @return The results of the data flow analysis
 	 */
 	public InfoflowResults runInfoflow(ISourceSinkDefinitionProvider sourcesAndSinks) {
+		// Release the APK file even if the run ends early or fails
+		try {
+			if (!initializeRun(sourcesAndSinks))
+				return null;
+
+			MultiRunResultAggregator resultAggregator = new MultiRunResultAggregator();
+
+			// In one-component-at-a-time, we do not have a single entry point
+			// creator. For every entry point, run the data flow analysis.
+			if (config.getOneComponentAtATime())
+				processEntryPoints(sourcesAndSinks, resultAggregator);
+			else {
+				processEntryPoint(sourcesAndSinks, resultAggregator, -1, null);
+
+				// If even the cheapest settings were not sufficient for the app as a whole,
+				// we try the components individually
+				if (config.getDegradeOnAbort() && wasAborted(resultAggregator.getLastResults()))
+					processEntryPointsDegraded(sourcesAndSinks, resultAggregator);
+			}
+
+			this.resultDegradationLevels = resultAggregator.getResultDegradationLevels();
+			if (config.getDegradeOnAbort())
+				logResultDegradationLevels();
+
+			// Write the results to disk if requested
+			serializeResults(resultAggregator.getAggregatedResults(), resultAggregator.getLastICFG());
+
+			// We return the aggregated results
+			this.infoflow = null;
+			resultAggregator.clearLastResults();
+			return resultAggregator.getAggregatedResults();
+		} finally {
+			releaseApkIndex();
+		}
+	}
+
+	/**
+	 * Runs the data flow analysis on each entry point class separately
+	 * 
+	 * @param sourcesAndSinks  The sources and sinks on which to run the data flow
+	 *                         analysis
+	 * @param resultAggregator An object for aggregating the results from the
+	 *                         individual data flow runs
+	 */
+	private void processEntryPoints(ISourceSinkDefinitionProvider sourcesAndSinks,
+			MultiRunResultAggregator resultAggregator) {
+		List<SootClass> entrypointWorklist = new ArrayList<>(entrypoints);
+		while (!entrypointWorklist.isEmpty()) {
+			SootClass entrypoint = entrypointWorklist.remove(0);
+			processEntryPoint(sourcesAndSinks, resultAggregator, entrypointWorklist.size(), entrypoint);
+		}
+	}
+
+	/**
+	 * Runs the data flow analysis on each entry point class separately with the
+	 * cheapest settings after the analysis of the app as a whole has been aborted
+	 * on all degradation levels. The results of the aborted runs are kept.
+	 * 
+	 * @param sourcesAndSinks  The sources and sinks on which to run the data flow
+	 *                         analysis
+	 * @param resultAggregator An object for aggregating the results from the
+	 *                         individual data flow runs
+	 */
+	private void processEntryPointsDegraded(ISourceSinkDefinitionProvider sourcesAndSinks,
+			MultiRunResultAggregator resultAggregator) {
+		logger.warn("Data flow analysis was aborted on all degradation levels, analyzing one component at a time");
+
+		InfoflowAndroidConfiguration originalConfig = new InfoflowAndroidConfiguration();
+		originalConfig.merge(config);
+		try {
+			// The components get new callgraphs with the same algorithm as the app as a
+			// whole, so the points-to sets of the last callgraph tell us whether we can
+			// use flow-insensitive aliasing
+			for (DegradationLevel level : DegradationLevel.values())
+				applyDegradationLevel(level);
+			disableEndSummaryCache();
+			resultAggregator.supersedeLastResults();
+			resultAggregator.setDegradationLevel(DegradationLevel.ComponentAtATime);
+			processEntryPoints(sourcesAndSinks, resultAggregator);
+		} finally {
+			config.merge(originalConfig);
+		}
+	}
+
+	/**
+	 * Runs the data flow analysis on the current dummy main method. If the analysis
+	 * is aborted because it runs out of memory or time and degradation is enabled,
+	 * the analysis is run again with the next cheaper settings until it completes
+	 * or there are no cheaper settings left. The results of the aborted runs are
+	 * kept.
+	 * 
+	 * @param resultAggregator An object for aggregating the results from the
+	 *                         individual data flow runs
+	 */
+	private void runDataFlowAnalysis(MultiRunResultAggregator resultAggregator) {
+		final DegradationLevel initialLevel = resultAggregator.getDegradationLevel();
+		DegradationLevel level = initialLevel;
+		InfoflowAndroidConfiguration originalConfig = null;
+		try {
+			while (true) {
+				// Create and run the data flow tracker
+				infoflow = createInfoflow();
+				infoflow.addResultsAvailableHandler(resultAggregator);
+				infoflow.runAnalysis(sourceSinkManager, getDummyMainMethod());
+
+				// Update the statistics
+				if (config.getLogSourcesAndSinks() && infoflow.getCollectedSources() != null)
+					this.collectedSources.addAll(infoflow.getCollectedSources());
+				if (config.getLogSourcesAndSinks() && infoflow.getCollectedSinks() != null)
+					this.collectedSinks.addAll(infoflow.getCollectedSinks());
+
+				if (!config.getDegradeOnAbort() || !wasAborted(resultAggregator.getLastResults()))
+					return;
+
+				// Find the next level that actually makes the analysis cheaper. Analyzing one
+				// component at a time requires a different callgraph and is handled by the
+				// caller.
+				if (originalConfig == null) {
+					originalConfig = new InfoflowAndroidConfiguration();
+					originalConfig.merge(config);
+				}
+				do {
+					level = level.next();
+				} while (level != null && level != DegradationLevel.ComponentAtATime && !applyDegradationLevel(level));
+				if (level == null || level == DegradationLevel.ComponentAtATime)
+					return;
+
+				logger.warn("Data flow analysis was aborted, running it again with degradation level {}", level);
+				disableEndSummaryCache();
+				resultAggregator.startRerun(level);
+			}
+		} finally {
+			if (originalConfig != null)
+				config.merge(originalConfig);
+			resultAggregator.setDegradationLevel(initialLevel);
+		}
+	}
+
+	/**
+	 * Changes the configuration to the settings of the given degradation level.
+	 * Flow-insensitive aliasing is skipped if SPARK has not computed points-to
+	 * sets for the current callgraph, e.g., because the callgraph has been taken
+	 * from the callgraph cache or has been built with CHA. The aliasing would
+	 * otherwise fall back to the {@link DumbPointerAnalysis}.
+	 * 
+	 * @param level The degradation level to apply
+	 * @return True if the configuration has been changed, otherwise false
+	 */
+	private boolean applyDegradationLevel(DegradationLevel level) {
+		if (level == DegradationLevel.FlowInsensitiveAliasing && (!Scene.v().hasPointsToAnalysis()
+				|| Scene.v().getPointsToAnalysis() instanceof DumbPointerAnalysis))
+			return false;
+		return level.apply(config);
+	}
+
+	/**
+	 * Disables the end summary cache for the degraded data flow runs. The summaries
+	 * of a degraded run are less precise than the ones of the configured settings
+	 * and must not replace them in the cache file.
+	 */
+	private void disableEndSummaryCache() {
+		config.getSolverConfiguration().setEndSummaryCacheFile(null);
+	}
+
+	/**
+	 * Checks whether the data flow analysis that produced the given results has
+	 * been aborted because it ran out of memory or time
+	 * 
+	 * @param results The results of the data flow analysis
+	 * @return True if the data flow analysis has been aborted, otherwise false
+	 */
+	private static boolean wasAborted(InfoflowResults results) {
+		return results != null && (results.wasAbortedTimeout() || results.wasTerminatedOutOfMemory());
+	}
+
+	/**
+	 * Logs how many results have been found on each degradation level
+	 */
+	private void logResultDegradationLevels() {
+		Map<DegradationLevel, Integer> counts = new EnumMap<>(DegradationLevel.class);
+		for (DegradationLevel level : resultDegradationLevels.values())
+			counts.merge(level, 1, Integer::sum);
+		for (Map.Entry<DegradationLevel, Integer> entry : counts.entrySet())
+			logger.info("Found {} leaks with degradation level {}", entry.getValue(), entry.getKey());
+	}
+
+	/**
+	 * Gets the degradation level of the data flow run that has found each result of
+	 * the last call to {@link #runInfoflow(ISourceSinkDefinitionProvider)}. Results
+	 * that have been found with the configured settings have the level
+	 * {@link DegradationLevel#None}.
+	 * 
+	 * @return A mapping from the data flow results to the degradation levels on
+	 *         which they have been found
+	 */
+	public Map<DataFlowResult, DegradationLevel> getResultDegradationLevels() {
+		return resultDegradationLevels;
+	}
+
+	/**
+	 * Runs one data flow analysis for each of the given sets of sources and sinks.
+	 * The callbacks, the callgraph, and the interprocedural control flow graph are
+	 * only computed once and are shared between all of these data flow analyses.
+	 * In one-component-at-a-time mode, every set of sources and sinks is analyzed
+	 * separately. The results are not written to the configured output file.
+	 * 
+	 * @param sourceSinkProviders The sets of sources and sinks for which to run the
+	 *                            data flow analysis
+	 * @return The results of the individual data flow analyses in the same order
+	 *         as the sets of sources and sinks, or null if the app has no entry
+	 *         points
+	 */
+	public List<InfoflowResults> runInfoflowBatch(List<? extends ISourceSinkDefinitionProvider> sourceSinkProviders) {
+		if (sourceSinkProviders.isEmpty())
+			return Collections.emptyList();
+
+		// In one-component-at-a-time mode, we have a different callgraph for each
+		// component anyway
+		if (config.getOneComponentAtATime()) {
+			logger.warn("Batch mode is not supported in one-component-at-a-time mode, "
+					+ "analyzing the source/sink sets one after another");
+			List<InfoflowResults> batchResults = new ArrayList<>(sourceSinkProviders.size());
+			for (ISourceSinkDefinitionProvider sourcesAndSinks : sourceSinkProviders)
+				batchResults.add(runInfoflow(sourcesAndSinks));
+			return batchResults;
+		}
+
+		// Release the APK file even if the run ends early or fails
+		try {
+			if (!initializeRun(sourceSinkProviders.get(0)))
+				return null;
+			long beforeRun = System.nanoTime();
+
+			MultiRunResultAggregator resultAggregator = new MultiRunResultAggregator();
+			long callbackDuration = calculateCallbacksAndCallgraph(sourceSinkProviders.get(0), null);
+
+			// We need a separate source/sink manager for each set of sources and sinks
+			List<ISourceSinkManager> sourceSinkManagers = new ArrayList<>(sourceSinkProviders.size());
+			for (ISourceSinkDefinitionProvider sourcesAndSinks : sourceSinkProviders) {
+				this.sourceSinkProvider = sourcesAndSinks;
+				createSourceSinkProvider(null, layoutFileParser);
+				sourceSinkManagers.add(sourceSinkManager);
+			}
+			logger.info("Running {} data flow analyses on {}...", sourceSinkManagers.size(),
+					config.getAnalysisFileConfig().getTargetAPKFile());
+
+			// Create and run the data flow tracker
+			infoflow = createInfoflow();
+			infoflow.addResultsAvailableHandler(resultAggregator);
+			List<InfoflowResults> batchResults = infoflow.runAnalysisBatch(sourceSinkManagers, getDummyMainMethod());
+
+			// Update the statistics
+			if (config.getLogSourcesAndSinks() && infoflow.getCollectedSources() != null)
+				this.collectedSources.addAll(infoflow.getCollectedSources());
+			if (config.getLogSourcesAndSinks() && infoflow.getCollectedSinks() != null)
+				this.collectedSinks.addAll(infoflow.getCollectedSinks());
+
+			for (InfoflowResults results : batchResults) {
+				// Update the performance object with the real data
+				InfoflowPerformanceData perfData = results.getPerformanceData();
+				if (perfData == null)
+					results.setPerformanceData(perfData = new InfoflowPerformanceData());
+				perfData.setCallgraphConstructionSeconds((int) callbackDuration);
+				perfData.setTotalRuntimeSeconds(perfData.getTotalRuntimeSeconds() + (int) callbackDuration);
+
+				// Notify our result handlers
+				for (ResultsAvailableHandler handler : resultsAvailableHandlers)
+					handler.onResultsAvailable(resultAggregator.getLastICFG(), results);
+				handleSparseAliasEval(perfData, results.size());
+			}
+			logger.info("Batch of {} data flow analyses took {} seconds", batchResults.size(),
+					Math.round((System.nanoTime() - beforeRun) / 1E9));
+
+			// We don't need the computed callbacks anymore
+			this.callbackMethods.clear();
+			this.fragmentClasses.clear();
+
+			this.infoflow = null;
+			resultAggregator.clearLastResults();
+			return batchResults;
+		} finally {
+			releaseApkIndex();
+		}
+	}
+
+	/**
+	 * Resets the object state, initializes Soot, and parses the app resources for
+	 * a new run of the data flow analysis
+	 * 
+	 * @param sourcesAndSinks The sources and sinks of the data flow analysis
+	 * @return True if the data flow analysis can be run, false if the app has no
+	 *         entry points
+	 */
+	private boolean initializeRun(ISourceSinkDefinitionProvider sourcesAndSinks) {
 		// Reset our object state
+		this.resultDegradationLevels = Collections.emptyMap();
 		this.collectedSources = config.getLogSourcesAndSinks() ? new HashSet<Stmt>() : null;
 		this.collectedSinks = config.getLogSourcesAndSinks() ? new HashSet<Stmt>() : null;
 		this.sourceSinkProvider = sourcesAndSinks;
 		this.infoflow = null;
+		this.cachedCallgraph = null;
+		this.layoutFileParser = null;
 
 		// Perform some sanity checks on the configuration
 		if (config.getSourceSinkConfig().getEnableLifecycleSources() && config.getIccConfig().isIccEnabled()) {
@@ -1486,32 +2183,12 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 			throw new RuntimeException("Parse app resource failed", e);
 		}
 
-		MultiRunResultAggregator resultAggregator = new MultiRunResultAggregator();
-
 		// We need at least one entry point
 		if (entrypoints == null || entrypoints.isEmpty()) {
 			logger.warn("No entry points");
-			return null;
+			return false;
 		}
-
-		// In one-component-at-a-time, we do not have a single entry point
-		// creator. For every entry point, run the data flow analysis.
-		if (config.getOneComponentAtATime()) {
-			List<SootClass> entrypointWorklist = new ArrayList<>(entrypoints);
-			while (!entrypointWorklist.isEmpty()) {
-				SootClass entrypoint = entrypointWorklist.remove(0);
-				processEntryPoint(sourcesAndSinks, resultAggregator, entrypointWorklist.size(), entrypoint);
-			}
-		} else
-			processEntryPoint(sourcesAndSinks, resultAggregator, -1, null);
-
-		// Write the results to disk if requested
-		serializeResults(resultAggregator.getAggregatedResults(), resultAggregator.getLastICFG());
-
-		// We return the aggregated results
-		this.infoflow = null;
-		resultAggregator.clearLastResults();
-		return resultAggregator.getAggregatedResults();
+		return true;
 	}
 
 	/**
@@ -1532,19 +2209,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		resultAggregator.clearLastResults();
 
 		// Perform basic app parsing
-		long callbackDuration = System.nanoTime();
-		try {
-			if (config.getOneComponentAtATime())
-				calculateCallbacks(sourcesAndSinks, entrypoint);
-			else
-				calculateCallbacks(sourcesAndSinks);
-		} catch (IOException | XmlPullParserException e) {
-			logger.error("Callgraph construction failed: " + e.getMessage(), e);
-			throw new RuntimeException("Callgraph construction failed", e);
-		}
-		callbackDuration = Math.round((System.nanoTime() - callbackDuration) / 1E9);
-		logger.info(
-				String.format("Collecting callbacks and building a callgraph took %d seconds", (int) callbackDuration));
+		long callbackDuration = calculateCallbacksAndCallgraph(sourcesAndSinks, entrypoint);
 
 		final Collection<? extends ISourceSinkDefinition> sources = getSources();
 		final Collection<? extends ISourceSinkDefinition> sinks = getSinks();
@@ -1566,15 +2231,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		}
 
 		// Create and run the data flow tracker
-		infoflow = createInfoflow();
-		infoflow.addResultsAvailableHandler(resultAggregator);
-		infoflow.runAnalysis(sourceSinkManager, entryPointCreator.getGeneratedMainMethod());
-
-		// Update the statistics
-		if (config.getLogSourcesAndSinks() && infoflow.getCollectedSources() != null)
-			this.collectedSources.addAll(infoflow.getCollectedSources());
-		if (config.getLogSourcesAndSinks() && infoflow.getCollectedSinks() != null)
-			this.collectedSinks.addAll(infoflow.getCollectedSinks());
+		runDataFlowAnalysis(resultAggregator);
 
 		// Print out the found results
 		{
@@ -1616,6 +2273,40 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	}
 
 
+	/**
+	 * Collects the callbacks and builds the callgraph, or restores them from the
+	 * callgraph cache if possible
+	 * 
+	 * @param sourcesAndSinks The sources and sinks of the data flow analysis
+	 * @param entrypoint      The entry point for which to calculate the callbacks
+	 *                        in one-component-at-a-time mode, otherwise null
+	 * @return The number of seconds that it took to collect the callbacks and to
+	 *         build the callgraph
+	 */
+	private long calculateCallbacksAndCallgraph(ISourceSinkDefinitionProvider sourcesAndSinks,
+			SootClass entrypoint) {
+		long callbackDuration = System.nanoTime();
+		try {
+			if (config.getOneComponentAtATime())
+				calculateCallbacks(sourcesAndSinks, entrypoint);
+			else {
+				String cacheKey = getCallgraphCacheKey();
+				if (cacheKey == null || !loadCachedCallgraph(cacheKey)) {
+					calculateCallbacks(sourcesAndSinks);
+					if (cacheKey != null)
+						storeCachedCallgraph(cacheKey);
+				}
+			}
+		} catch (IOException | XmlPullParserException e) {
+			logger.error("Callgraph construction failed: " + e.getMessage(), e);
+			throw new RuntimeException("Callgraph construction failed", e);
+		}
+		callbackDuration = Math.round((System.nanoTime() - callbackDuration) / 1E9);
+		logger.info(
+				String.format("Collecting callbacks and building a callgraph took %d seconds", (int) callbackDuration));
+		return callbackDuration;
+	}
+
 	private void handleSparseAliasEval(InfoflowPerformanceData performanceData, int leaks) {
 		SparseCFGCache.SparsificationStrategy sparsificationStrategy=null;
 		switch(config.getAliasingAlgorithm()){
@@ -1639,7 +2330,9 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	}
 
 	/**
-	 * Writes the given data flow results into the configured output file
+	 * Writes the given data flow results into the configured output file. If
+	 * degradation is enabled, every source carries the degradation level on which
+	 * its connection to the sink has been found.
 	 * 
 	 * @param results The data flow results to write out
 	 * @param cfg     The control flow graph to use for writing out the results
@@ -1648,6 +2341,8 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		String resultsFile = config.getAnalysisFileConfig().getOutputFile();
 		if (resultsFile != null && !resultsFile.isEmpty()) {
 			InfoflowResultsSerializer serializer = new InfoflowResultsSerializer(cfg, config);
+			if (config.getDegradeOnAbort())
+				serializer.setResultDegradationLevels(resultDegradationLevels);
 			try {
 				serializer.serialize(results, resultsFile);
 			} catch (IOException ex) {
@@ -1667,7 +2362,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 */
 	private IInPlaceInfoflow createInfoflow() {
 		// Some sanity checks
-		if (config.getSootIntegrationMode().needsToBuildCallgraph()) {
+		if (config.getSootIntegrationMode().needsToBuildCallgraph() && cachedCallgraph == null) {
 			if (entryPointCreator == null)
 				throw new RuntimeException("No entry point available");
 			if (entryPointCreator.getComponentToEntryPointInfo() == null)
@@ -1676,7 +2371,9 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 
 		// Get the component lifecycle methods
 		Collection<SootMethod> lifecycleMethods = Collections.emptySet();
-		if (entryPointCreator != null) {
+		if (cachedCallgraph != null)
+			lifecycleMethods = cachedCallgraph.getLifecycleMethods();
+		else if (entryPointCreator != null) {
 			ComponentEntryPointCollection entryPoints = entryPointCreator.getComponentToEntryPointInfo();
 			if (entryPoints != null)
 				lifecycleMethods = entryPoints.getLifecycleMethods();
@@ -1722,6 +2419,33 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 
 		}));
 
+		// Handlers that support streaming get the interim results directly from the
+		// data flow tracker. The final results are reported once they have been
+		// aggregated over all runs.
+		for (ResultsAvailableHandler handler : resultsAvailableHandlers) {
+			if (handler instanceof StreamingResultsAvailableHandler) {
+				final StreamingResultsAvailableHandler streamingHandler = (StreamingResultsAvailableHandler) handler;
+				info.addResultsAvailableHandler(new StreamingResultsAvailableHandler() {
+
+					@Override
+					public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+						// We report the aggregated results later
+					}
+
+					@Override
+					public void onSinkReached(IInfoflowCFG cfg, AbstractionAtSink abs) {
+						streamingHandler.onSinkReached(cfg, abs);
+					}
+
+					@Override
+					public void onPathReconstructed(IInfoflowCFG cfg, ResultSourceInfo source, ResultSinkInfo sink) {
+						streamingHandler.onPathReconstructed(cfg, source, sink);
+					}
+
+				});
+			}
+		}
+
 		return info;
 	}
 
@@ -1832,6 +2556,8 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @return The dummy main method
 	 */
 	public SootMethod getDummyMainMethod() {
+		if (cachedCallgraph != null)
+			return cachedCallgraph.getDummyMainMethod();
 		return entryPointCreator.getGeneratedMainMethod();
 	}
 
@@ -1881,6 +2607,30 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		this.callbackFile = callbackFile;
 	}
 
+	/**
+	 * Restricts the data flow analysis to the given components from the app
+	 * manifest. All other components are ignored, except for the application
+	 * class, which is always analyzed. In one-component-at-a-time mode, the
+	 * application class is analyzed together with each component.
+	 * 
+	 * @param componentFilter The fully-qualified names of the component classes
+	 *                        to analyze, or null to analyze all components
+	 */
+	public void setComponentFilter(Set<String> componentFilter) {
+		this.componentFilter = componentFilter;
+	}
+
+	/**
+	 * Gets the components from the app manifest to which the data flow analysis
+	 * is restricted
+	 * 
+	 * @return The fully-qualified names of the component classes to analyze, or
+	 *         null if all components are analyzed
+	 */
+	public Set<String> getComponentFilter() {
+		return this.componentFilter;
+	}
+
 	/**
 	 * Adds custom code to be executed before the taint propagation starts
 	 * 
@@ -41,6 +41,13 @@ public class ApkHandler implements AutoCloseable {
 	 */
 	protected ZipFile zip;
 
+	/**
+	 * Shared index over the APK file. If this index is available, it is used for
+	 * looking up files instead of opening the APK file again. The index is owned
+	 * by the caller and is not closed by this handler.
+	 */
+	protected ApkIndex index;
+
 	/**
 	 * @param path the APK's path
 	 * @throws ZipException occurs if the APK is no a valid zip file.
@@ -62,6 +69,17 @@ public class ApkHandler implements AutoCloseable {
 		this.apk = apk;
 	}
 
+	/**
+	 * Creates a new {@link ApkHandler} which reads the files in the APK through
+	 * the given shared index
+	 * 
+	 * @param index The index of the APK file
+	 */
+	public ApkHandler(ApkIndex index) {
+		this.apk = index.getApkFile();
+		this.index = index;
+	}
+
 	/**
 	 * Returns the absolute path of the APK which is held by the {@link ApkHandler}.
 	 * 
@@ -99,6 +117,10 @@ public class ApkHandler implements AutoCloseable {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public InputStream getInputStream(String filename) throws IOException {
+		// If we have an index, we can directly look up the file
+		if (this.index != null)
+			return this.index.getInputStream(filename);
+
 		InputStream is = null;
 
 		// check if zip file is already opened
@@ -143,6 +165,9 @@ public class ApkHandler implements AutoCloseable {
 			this.zip = null;
 		}
 
+		// The shared index still refers to the old contents of the APK
+		this.index = null;
+
 		// add missing paths to directories parameter
 		for (File file : files) {
 			if (!paths.containsKey(file.getPath()))
@@ -0,0 +1,351 @@
+package soot.jimple.infoflow.android.axml;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Index over the files inside an APK. The APK is opened only once, and the
+ * entries can afterwards be looked up by name without scanning the ZIP
+ * directory again. The index can be shared between the manifest parser, the
+ * resource parser, and the layout parser.
+ *
+ * Files that are stored without compression, such as the resources.arsc file
+ * in most APKs, are made available as memory-mapped buffers without copying
+ * them onto the heap. Such buffers remain valid even after the index has been
+ * closed.
+ *
+ * This class is thread-safe.
+ *
+ */
+public class ApkIndex implements Closeable {
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int CENTRAL_HEADER_SIZE = 46;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+	/**
+	 * Stored files that are smaller than this threshold are read onto the heap
+	 * instead of being mapped into memory
+	 */
+	private static final int MIN_MAPPED_ENTRY_SIZE = 64 * 1024;
+
+	private final File apk;
+	private final ZipFile zip;
+	private final List<ZipEntry> entries;
+	private final Map<String, ZipEntry> entriesByName;
+
+	private FileChannel channel;
+	private Map<String, Long> localHeaderOffsets;
+
+	/**
+	 * Creates a new index for the given APK file
+	 *
+	 * @param apk The APK file to open
+	 * @throws IOException Thrown if the given APK file cannot be read
+	 */
+	public ApkIndex(File apk) throws IOException {
+		this.apk = apk.getAbsoluteFile();
+		this.zip = new ZipFile(this.apk);
+
+		List<ZipEntry> entries = new ArrayList<>(zip.size());
+		Map<String, ZipEntry> entriesByName = new HashMap<>(zip.size());
+		for (Enumeration<? extends ZipEntry> entryIt = zip.entries(); entryIt.hasMoreElements();) {
+			ZipEntry entry = entryIt.nextElement();
+			entries.add(entry);
+
+			// If an APK contains duplicate names, we use the first entry, just as a
+			// scan over the ZIP directory would
+			entriesByName.putIfAbsent(entry.getName(), entry);
+		}
+		this.entries = Collections.unmodifiableList(entries);
+		this.entriesByName = entriesByName;
+	}
+
+	/**
+	 * Gets the APK file on which this index operates
+	 *
+	 * @return The APK file on which this index operates
+	 */
+	public File getApkFile() {
+		return apk;
+	}
+
+	/**
+	 * Checks whether this index has been created for the given APK file
+	 *
+	 * @param apkFile The APK file to check
+	 * @return True if this index has been created for the given APK file,
+	 *         otherwise false
+	 */
+	public boolean isIndexOf(File apkFile) {
+		return apk.equals(apkFile.getAbsoluteFile());
+	}
+
+	/**
+	 * Gets all entries in the APK file in the order in which they appear in the
+	 * ZIP directory
+	 *
+	 * @return All entries in the APK file
+	 */
+	public Collection<ZipEntry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Checks whether the APK file contains a file with the given name
+	 *
+	 * @param name The name of the file, relative to the root of the APK
+	 * @return True if the APK file contains a file with the given name, otherwise
+	 *         false
+	 */
+	public boolean hasEntry(String name) {
+		return entriesByName.containsKey(name);
+	}
+
+	/**
+	 * Gets the entry with the given name
+	 *
+	 * @param name The name of the file, relative to the root of the APK, e.g.
+	 *             <code>res/menu/main.xml</code>
+	 * @return The entry with the given name, or null if no such entry exists
+	 */
+	public ZipEntry getEntry(String name) {
+		return entriesByName.get(name);
+	}
+
+	/**
+	 * Opens a stream for reading the file with the given name
+	 *
+	 * @param name The name of the file, relative to the root of the APK
+	 * @return The stream for reading the file, or null if no such file exists
+	 * @throws IOException Thrown if the file cannot be read
+	 */
+	public InputStream getInputStream(String name) throws IOException {
+		ZipEntry entry = entriesByName.get(name);
+		return entry == null ? null : getInputStream(entry);
+	}
+
+	/**
+	 * Opens a stream for reading the given entry
+	 *
+	 * @param entry The entry to read
+	 * @return The stream for reading the given entry
+	 * @throws IOException Thrown if the entry cannot be read
+	 */
+	public InputStream getInputStream(ZipEntry entry) throws IOException {
+		return zip.getInputStream(entry);
+	}
+
+	/**
+	 * Gets a read-only buffer with the contents of the file with the given name.
+	 * The byte order of the buffer is little endian. Large files that are stored
+	 * without compression are mapped into memory, all other files are read onto
+	 * the heap.
+	 *
+	 * @param name The name of the file, relative to the root of the APK
+	 * @return The buffer with the contents of the file, or null if no such file
+	 *         exists
+	 * @throws IOException Thrown if the file cannot be read
+	 */
+	public ByteBuffer getByteBuffer(String name) throws IOException {
+		ZipEntry entry = entriesByName.get(name);
+		if (entry == null)
+			return null;
+
+		ByteBuffer buffer = null;
+		if (entry.getMethod() == ZipEntry.STORED)
+			buffer = readStoredEntry(entry);
+		if (buffer == null)
+			buffer = readEntry(entry);
+		return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Reads the given entry through the ZIP file, i.e., decompresses it if
+	 * necessary
+	 *
+	 * @param entry The entry to read
+	 * @return The contents of the given entry
+	 * @throws IOException Thrown if the entry cannot be read
+	 */
+	private ByteBuffer readEntry(ZipEntry entry) throws IOException {
+		try (InputStream is = zip.getInputStream(entry)) {
+			long size = entry.getSize();
+			if (size < 0 || size > Integer.MAX_VALUE)
+				return ByteBuffer.wrap(ByteStreams.toByteArray(is));
+
+			byte[] data = new byte[(int) size];
+			ByteStreams.readFully(is, data);
+			return ByteBuffer.wrap(data);
+		}
+	}
+
+	/**
+	 * Directly accesses the data of an entry that is stored without compression
+	 *
+	 * @param entry The entry to read
+	 * @return The contents of the given entry, or null if the location of the data
+	 *         inside the APK file cannot be determined
+	 * @throws IOException Thrown if the APK file cannot be read
+	 */
+	private ByteBuffer readStoredEntry(ZipEntry entry) throws IOException {
+		final long size = entry.getSize();
+		if (size < 0 || size > Integer.MAX_VALUE || size != entry.getCompressedSize())
+			return null;
+
+		final FileChannel channel = getChannel();
+		final Long localHeaderOffset = getLocalHeaderOffsets().get(entry.getName());
+		if (localHeaderOffset == null)
+			return null;
+
+		// The local header may have a different extra field than the central
+		// directory, so we need to read it to find the beginning of the data
+		ByteBuffer header = read(channel, localHeaderOffset, LOCAL_HEADER_SIZE);
+		if (header.getInt(0) != LOCAL_HEADER_SIGNATURE)
+			return null;
+		long dataOffset = localHeaderOffset + LOCAL_HEADER_SIZE + (header.getShort(26) & 0xFFFF)
+				+ (header.getShort(28) & 0xFFFF);
+		if (dataOffset + size > channel.size())
+			return null;
+
+		if (size < MIN_MAPPED_ENTRY_SIZE)
+			return read(channel, dataOffset, (int) size);
+		return channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, size);
+	}
+
+	/**
+	 * Gets the file channel for directly accessing the APK file
+	 *
+	 * @return The file channel for the APK file
+	 * @throws IOException Thrown if the APK file cannot be opened
+	 */
+	private synchronized FileChannel getChannel() throws IOException {
+		if (channel == null)
+			channel = FileChannel.open(apk.toPath(), StandardOpenOption.READ);
+		return channel;
+	}
+
+	/**
+	 * Gets the offsets of the local file headers inside the APK file. The offsets
+	 * are read from the central directory on first use.
+	 *
+	 * @return The mapping from file names to the offsets of their local file
+	 *         headers
+	 * @throws IOException Thrown if the APK file cannot be read
+	 */
+	private synchronized Map<String, Long> getLocalHeaderOffsets() throws IOException {
+		if (localHeaderOffsets == null)
+			localHeaderOffsets = readLocalHeaderOffsets(getChannel());
+		return localHeaderOffsets;
+	}
+
+	/**
+	 * Reads the offsets of the local file headers from the central directory of
+	 * the ZIP file. ZIP64 archives are not supported, in which case the returned
+	 * map is empty.
+	 *
+	 * @param channel The channel from which to read the ZIP file
+	 * @return The mapping from file names to the offsets of their local file
+	 *         headers
+	 * @throws IOException Thrown if the APK file cannot be read
+	 */
+	private static Map<String, Long> readLocalHeaderOffsets(FileChannel channel) throws IOException {
+		final long fileSize = channel.size();
+		final int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+		if (tailSize < END_OF_CENTRAL_DIRECTORY_SIZE)
+			return Collections.emptyMap();
+
+		// Find the end of the central directory. It is followed by a comment of
+		// variable size.
+		ByteBuffer tail = read(channel, fileSize - tailSize, tailSize);
+		int eocdOffset = -1;
+		for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+			if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+				eocdOffset = i;
+				break;
+			}
+		}
+		if (eocdOffset < 0)
+			return Collections.emptyMap();
+
+		final long cdSize = tail.getInt(eocdOffset + 12) & 0xFFFFFFFFL;
+		final long cdOffset = tail.getInt(eocdOffset + 16) & 0xFFFFFFFFL;
+		if (cdOffset + cdSize > fileSize || cdSize > Integer.MAX_VALUE)
+			return Collections.emptyMap();
+
+		ByteBuffer cd = read(channel, cdOffset, (int) cdSize);
+		Map<String, Long> offsets = new HashMap<>();
+		int pos = 0;
+		while (pos + CENTRAL_HEADER_SIZE <= cd.limit() && cd.getInt(pos) == CENTRAL_HEADER_SIGNATURE) {
+			int nameLength = cd.getShort(pos + 28) & 0xFFFF;
+			int extraLength = cd.getShort(pos + 30) & 0xFFFF;
+			int commentLength = cd.getShort(pos + 32) & 0xFFFF;
+			long localHeaderOffset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+			if (pos + CENTRAL_HEADER_SIZE + nameLength > cd.limit())
+				break;
+
+			byte[] name = new byte[nameLength];
+			cd.position(pos + CENTRAL_HEADER_SIZE);
+			cd.get(name);
+			offsets.putIfAbsent(new String(name, StandardCharsets.UTF_8), localHeaderOffset);
+
+			pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+		}
+		return offsets;
+	}
+
+	/**
+	 * Reads the given region of the file onto the heap
+	 *
+	 * @param channel The channel from which to read
+	 * @param offset  The offset at which to start reading
+	 * @param length  The number of bytes to read
+	 * @return The buffer with the data that has been read
+	 * @throws IOException Thrown if the given region cannot be read
+	 */
+	private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0)
+				throw new EOFException("Unexpected end of APK file");
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			zip.close();
+		} finally {
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+		}
+	}
+
+}
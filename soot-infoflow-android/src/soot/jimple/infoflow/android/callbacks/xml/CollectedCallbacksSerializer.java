@@ -147,7 +147,7 @@ public class CollectedCallbacksSerializer {
 	 * 
 	 * @return The Kryo serializer
 	 */
-	protected static Kryo initializeKryo() {
+	public static Kryo initializeKryo() {
 		Kryo kryo = new Kryo();
 
 		// FlowDroid classes
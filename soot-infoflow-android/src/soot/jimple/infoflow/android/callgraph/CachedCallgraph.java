@@ -0,0 +1,49 @@
+package soot.jimple.infoflow.android.callgraph;
+
+import java.util.Set;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.android.callbacks.xml.CollectedCallbacks;
+import soot.jimple.toolkits.callgraph.CallGraph;
+
+/**
+ * Data object for storing a callgraph together with the dummy main method and
+ * the callbacks from which it was built for later re-use
+ *
+ */
+public class CachedCallgraph {
+
+	protected SootMethod dummyMainMethod;
+	protected Set<SootMethod> lifecycleMethods;
+	protected CollectedCallbacks callbacks;
+	protected CallGraph callgraph;
+
+	public CachedCallgraph() {
+
+	}
+
+	public CachedCallgraph(SootMethod dummyMainMethod, Set<SootMethod> lifecycleMethods,
+			CollectedCallbacks callbacks, CallGraph callgraph) {
+		this.dummyMainMethod = dummyMainMethod;
+		this.lifecycleMethods = lifecycleMethods;
+		this.callbacks = callbacks;
+		this.callgraph = callgraph;
+	}
+
+	public SootMethod getDummyMainMethod() {
+		return dummyMainMethod;
+	}
+
+	public Set<SootMethod> getLifecycleMethods() {
+		return lifecycleMethods;
+	}
+
+	public CollectedCallbacks getCallbacks() {
+		return callbacks;
+	}
+
+	public CallGraph getCallgraph() {
+		return callgraph;
+	}
+
+}
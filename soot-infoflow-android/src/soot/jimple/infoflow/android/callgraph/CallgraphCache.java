@@ -0,0 +1,379 @@
+package soot.jimple.infoflow.android.callgraph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import soot.Kind;
+import soot.Printer;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.android.callbacks.xml.CollectedCallbacksSerializer;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+
+/**
+ * Persistent on-disk cache for callgraphs. Every cache entry is a directory
+ * named after a key that identifies the app, the Android platform, and the
+ * configuration from which the callgraph was built. The entry contains the
+ * generated dummy main class as a Jimple file and a binary file with the
+ * callbacks and the callgraph edges. Call sites are stored by their index in
+ * the body of the calling method, so the cache may only be used if the method
+ * bodies are created in exactly the same way as in the run that stored the
+ * entry.
+ *
+ */
+public class CallgraphCache {
+
+	/**
+	 * The version of the cache format. Increment this number whenever the format
+	 * changes to invalidate existing cache entries.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String CALLGRAPH_FILE = "callgraph.bin";
+
+	private static final Logger logger = LoggerFactory.getLogger(CallgraphCache.class);
+
+	/**
+	 * Serializer for {@link CallGraph} instances. The serializer first writes out
+	 * a table with all methods that appear in the callgraph, followed by the edges
+	 * that reference these methods by their index in the table.
+	 *
+	 */
+	private static class CallGraphSerializer extends Serializer<CallGraph> {
+
+		private static final Map<String, Kind> KINDS_BY_NAME = new HashMap<>();
+
+		static {
+			// Soot has no lookup for edge kinds by name
+			for (Field field : Kind.class.getFields()) {
+				if (Modifier.isStatic(field.getModifiers()) && field.getType() == Kind.class) {
+					try {
+						Kind kind = (Kind) field.get(null);
+						KINDS_BY_NAME.put(kind.name(), kind);
+					} catch (IllegalAccessException e) {
+						throw new RuntimeException("Could not access the callgraph edge kinds", e);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void write(Kryo kryo, Output output, CallGraph cg) {
+			Map<SootMethod, Integer> methodIDs = new HashMap<>();
+			List<SootMethod> methods = new ArrayList<>();
+			Map<SootMethod, Map<Unit, Integer>> unitIndices = new HashMap<>();
+			for (Edge edge : cg) {
+				if (methodIDs.putIfAbsent(edge.src(), methods.size()) == null)
+					methods.add(edge.src());
+				if (methodIDs.putIfAbsent(edge.tgt(), methods.size()) == null)
+					methods.add(edge.tgt());
+			}
+
+			output.writeInt(methods.size(), true);
+			for (SootMethod sm : methods)
+				output.writeString(sm.getSignature());
+
+			output.writeInt(cg.size(), true);
+			for (Edge edge : cg) {
+				output.writeInt(methodIDs.get(edge.src()), true);
+				output.writeInt(getUnitIndex(unitIndices, edge) + 1, true);
+				output.writeInt(methodIDs.get(edge.tgt()), true);
+				output.writeString(edge.kind().name());
+			}
+		}
+
+		/**
+		 * Gets the index of the call site of the given edge inside the body of the
+		 * calling method
+		 *
+		 * @param unitIndices The cache with the unit indices that have already been
+		 *                    computed
+		 * @param edge        The callgraph edge
+		 * @return The index of the call site in the body of the calling method, or -1
+		 *         if the edge has no call site
+		 */
+		private int getUnitIndex(Map<SootMethod, Map<Unit, Integer>> unitIndices, Edge edge) {
+			Unit callSite = edge.srcUnit();
+			if (callSite == null)
+				return -1;
+
+			SootMethod caller = edge.src();
+			Map<Unit, Integer> indices = unitIndices.computeIfAbsent(caller, m -> {
+				if (!m.hasActiveBody())
+					throw new KryoException("Caller " + m.getSignature() + " has no active body");
+				Map<Unit, Integer> map = new IdentityHashMap<>();
+				for (Unit u : m.getActiveBody().getUnits())
+					map.put(u, map.size());
+				return map;
+			});
+			Integer idx = indices.get(callSite);
+			if (idx == null)
+				throw new KryoException("Call site " + callSite + " is not part of " + caller.getSignature());
+			return idx;
+		}
+
+		@Override
+		public CallGraph read(Kryo kryo, Input input, Class<? extends CallGraph> type) {
+			int numMethods = input.readInt(true);
+			SootMethod[] methods = new SootMethod[numMethods];
+			for (int i = 0; i < numMethods; i++) {
+				String sig = input.readString();
+				methods[i] = Scene.v().grabMethod(sig);
+				if (methods[i] == null)
+					throw new KryoException("Method " + sig + " no longer exists");
+			}
+
+			CallGraph cg = new CallGraph();
+			Map<SootMethod, Unit[]> units = new HashMap<>();
+			int numEdges = input.readInt(true);
+			for (int i = 0; i < numEdges; i++) {
+				SootMethod src = methods[input.readInt(true)];
+				int unitIdx = input.readInt(true) - 1;
+				SootMethod tgt = methods[input.readInt(true)];
+				String kindName = input.readString();
+				Kind kind = KINDS_BY_NAME.get(kindName);
+				if (kind == null)
+					throw new KryoException("Unknown callgraph edge kind " + kindName);
+
+				Stmt callSite = null;
+				if (unitIdx >= 0) {
+					Unit[] body = units.computeIfAbsent(src,
+							m -> m.retrieveActiveBody().getUnits().toArray(new Unit[0]));
+					if (unitIdx >= body.length || !(body[unitIdx] instanceof Stmt))
+						throw new KryoException("Call site " + unitIdx + " in " + src.getSignature() + " is invalid");
+					callSite = (Stmt) body[unitIdx];
+				}
+				cg.addEdge(new Edge(src, callSite, tgt, kind));
+			}
+			return cg;
+		}
+
+	}
+
+	private final File cacheDir;
+
+	/**
+	 * Creates a new instance of the {@link CallgraphCache} class
+	 *
+	 * @param cacheDir The directory in which to store the cache entries
+	 */
+	public CallgraphCache(File cacheDir) {
+		this.cacheDir = cacheDir;
+	}
+
+	/**
+	 * Computes the key under which the callgraph for the given app is cached
+	 *
+	 * @param apkFile           The APK file of the app
+	 * @param platformJar       The Android platform JAR file used for the analysis
+	 * @param configFingerprint A textual representation of all configuration
+	 *                          options that have an influence on the callgraph
+	 * @return The key for the callgraph cache
+	 * @throws IOException Thrown if the APK file could not be read
+	 */
+	public static String computeKey(File apkFile, File platformJar, String configFingerprint) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not supported", e);
+		}
+
+		digest.update(("format=" + FORMAT_VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+
+		// The platform JAR is too large to hash on every run
+		digest.update(("platform=" + platformJar.getAbsolutePath() + ":" + platformJar.length() + ":"
+				+ platformJar.lastModified() + "\n").getBytes(StandardCharsets.UTF_8));
+		digest.update(configFingerprint.getBytes(StandardCharsets.UTF_8));
+
+		try (InputStream is = new FileInputStream(apkFile)) {
+			byte[] buffer = new byte[64 * 1024];
+			int len;
+			while ((len = is.read(buffer)) > 0)
+				digest.update(buffer, 0, len);
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest())
+			sb.append(String.format("%02x", b));
+		return sb.toString();
+	}
+
+	/**
+	 * Checks whether this cache contains an entry for the given key
+	 *
+	 * @param key The key to look for
+	 * @return True if this cache contains an entry for the given key, false
+	 *         otherwise
+	 */
+	public boolean contains(String key) {
+		return new File(getEntryDir(key), CALLGRAPH_FILE).exists();
+	}
+
+	/**
+	 * Stores the given callgraph in the cache. If there already is an entry for
+	 * the given key, it is left untouched.
+	 *
+	 * @param key  The key under which to store the callgraph
+	 * @param data The callgraph and the data from which it was built
+	 * @throws IOException Thrown if the cache entry could not be written
+	 */
+	public void store(String key, CachedCallgraph data) throws IOException {
+		SootClass dummyMainClass = data.getDummyMainMethod().getDeclaringClass();
+
+		// We write into a temporary directory first, so that concurrent runs never see
+		// incomplete entries
+		Files.createDirectories(cacheDir.toPath());
+		Path tempDir = Files.createTempDirectory(cacheDir.toPath(), key + ".");
+		try {
+			try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+					new FileOutputStream(new File(tempDir.toFile(), dummyMainClass.getName() + ".jimple")),
+					StandardCharsets.UTF_8))) {
+				Printer.v().printTo(dummyMainClass, writer);
+			}
+
+			Kryo kryo = initializeKryo();
+			try (Output output = new Output(new FileOutputStream(new File(tempDir.toFile(), CALLGRAPH_FILE)))) {
+				output.writeString(dummyMainClass.getName());
+				kryo.writeObject(output, data);
+			}
+
+			try {
+				Files.move(tempDir, getEntryDir(key).toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+				logger.debug("Callgraph cache entry {} already exists", key);
+			}
+		} finally {
+			deleteRecursively(tempDir);
+		}
+	}
+
+	/**
+	 * Loads the dummy main class of the given cache entry into the Soot scene.
+	 * This must be done before the remainder of the entry can be loaded using
+	 * {@link #load(String)}.
+	 *
+	 * @param key The key of the cache entry
+	 * @return The dummy main class
+	 * @throws IOException Thrown if the cache entry could not be read
+	 */
+	public SootClass loadDummyMainClass(String key) throws IOException {
+		File entryDir = getEntryDir(key);
+		String className;
+		try (Input input = new Input(new FileInputStream(new File(entryDir, CALLGRAPH_FILE)))) {
+			className = input.readString();
+		}
+
+		SootClass sc = Scene.v().getSootClassUnsafe(className, false);
+		if (sc == null || sc.isPhantom()) {
+			Scene.v().extendSootClassPath(entryDir.getAbsolutePath());
+			sc = Scene.v().forceResolve(className, SootClass.BODIES);
+			if (sc == null || sc.isPhantom())
+				throw new IOException("Could not load the dummy main class " + className);
+		}
+		sc.setApplicationClass();
+		return sc;
+	}
+
+	/**
+	 * Loads the callgraph from the given cache entry
+	 *
+	 * @param key The key of the cache entry
+	 * @return The callgraph and the data from which it was built
+	 * @throws IOException   Thrown if the cache entry could not be read
+	 * @throws KryoException Thrown if the cache entry does not match the current
+	 *                       Soot scene
+	 */
+	public CachedCallgraph load(String key) throws IOException, KryoException {
+		Kryo kryo = initializeKryo();
+		try (Input input = new Input(new FileInputStream(new File(getEntryDir(key), CALLGRAPH_FILE)))) {
+			input.readString();
+			return kryo.readObject(input, CachedCallgraph.class);
+		}
+	}
+
+	/**
+	 * Removes the entry with the given key from the cache
+	 *
+	 * @param key The key of the entry to remove
+	 * @throws IOException Thrown if the cache entry could not be removed
+	 */
+	public void invalidate(String key) throws IOException {
+		deleteRecursively(getEntryDir(key).toPath());
+	}
+
+	/**
+	 * Gets the directory in which the entry with the given key is stored
+	 *
+	 * @param key The key of the cache entry
+	 * @return The directory of the cache entry
+	 */
+	protected File getEntryDir(String key) {
+		return new File(cacheDir, key);
+	}
+
+	/**
+	 * Deletes the given file or directory including all of its contents
+	 *
+	 * @param path The file or directory to delete
+	 * @throws IOException Thrown if the file or directory could not be deleted
+	 */
+	private static void deleteRecursively(Path path) throws IOException {
+		if (!Files.exists(path))
+			return;
+		try (Stream<Path> files = Files.walk(path)) {
+			List<Path> paths = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+			for (Path p : paths)
+				Files.delete(p);
+		}
+	}
+
+	/**
+	 * Initializes the Kryo serializer
+	 *
+	 * @return The Kryo serializer
+	 */
+	protected static Kryo initializeKryo() {
+		Kryo kryo = CollectedCallbacksSerializer.initializeKryo();
+		kryo.register(CachedCallgraph.class);
+		kryo.register(CallGraph.class, new CallGraphSerializer());
+		return kryo;
+	}
+
+}
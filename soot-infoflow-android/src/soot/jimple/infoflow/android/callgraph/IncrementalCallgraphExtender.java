@@ -0,0 +1,163 @@
+package soot.jimple.infoflow.android.callgraph;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.ArrayType;
+import soot.FastHierarchy;
+import soot.MethodOrMethodContext;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.SpecialInvokeExpr;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.util.SystemClassHandler;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.jimple.toolkits.callgraph.ReachableMethods;
+
+/**
+ * Class for extending an existing callgraph with the code that has become
+ * reachable after the callgraph was built, e.g., because new callbacks have
+ * been added to the dummy main method. Soot's points-to analysis cannot be
+ * extended once it has been computed. Virtual calls in the new code are
+ * therefore resolved based on the class hierarchy. Calls to system classes are
+ * only added if the target is inherited by the receiver type.
+ *
+ * The resulting callgraph is less precise than a callgraph built from scratch,
+ * and methods that were already reachable before are not re-analyzed. It is
+ * thus only suitable for intermediate steps such as the callback collection,
+ * but not for the data flow analysis.
+ *
+ */
+public class IncrementalCallgraphExtender {
+
+	private static final Logger logger = LoggerFactory.getLogger(IncrementalCallgraphExtender.class);
+
+	private final CallGraph callgraph;
+	private final Set<SootMethod> processedMethods = new HashSet<>();
+
+	/**
+	 * Creates a new instance of the {@link IncrementalCallgraphExtender} class
+	 * that extends the current callgraph in the Soot scene. All methods that are
+	 * reachable in this callgraph are considered to be fully processed.
+	 */
+	public IncrementalCallgraphExtender() {
+		this.callgraph = Scene.v().getCallGraph();
+
+		ReachableMethods rm = Scene.v().getReachableMethods();
+		rm.update();
+		for (Iterator<MethodOrMethodContext> rmIt = rm.listener(); rmIt.hasNext();)
+			processedMethods.add(rmIt.next().method());
+	}
+
+	/**
+	 * Adds the edges for all methods that are transitively reachable from the
+	 * given entry points, but that have not been processed yet
+	 *
+	 * @param entryPoints The entry points from which to extend the callgraph
+	 * @return The number of edges that have been added to the callgraph
+	 */
+	public int extend(Collection<SootMethod> entryPoints) {
+		final FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+		final Deque<SootMethod> worklist = new ArrayDeque<>(entryPoints);
+		int numEdges = 0;
+		while (!worklist.isEmpty()) {
+			SootMethod sm = worklist.poll();
+			if (!processedMethods.add(sm))
+				continue;
+
+			// We do not look into the Android framework or the Java runtime
+			if (!sm.isConcrete() || SystemClassHandler.v().isClassInSystemPackage(sm.getDeclaringClass()))
+				continue;
+
+			for (Unit u : sm.retrieveActiveBody().getUnits()) {
+				Stmt stmt = (Stmt) u;
+				if (!stmt.containsInvokeExpr())
+					continue;
+
+				for (SootMethod tgt : getCallees(fh, stmt.getInvokeExpr())) {
+					callgraph.addEdge(new Edge(sm, stmt, tgt));
+					numEdges++;
+					if (!processedMethods.contains(tgt))
+						worklist.add(tgt);
+				}
+			}
+		}
+
+		// The entry points may have changed as well, so the reachable methods
+		// must be recomputed on demand
+		Scene.v().releaseReachableMethods();
+
+		logger.info(String.format("Extended the callgraph by %d edges", numEdges));
+		return numEdges;
+	}
+
+	/**
+	 * Gets the possible callees of the given invocation based on the class
+	 * hierarchy
+	 *
+	 * @param fh The hierarchy to use for resolving virtual calls
+	 * @param ie The invocation expression
+	 * @return The possible callees of the given invocation
+	 */
+	protected Collection<SootMethod> getCallees(FastHierarchy fh, InvokeExpr ie) {
+		SootMethod callee = ie.getMethodRef().tryResolve();
+		if (callee == null)
+			return Collections.emptySet();
+
+		// Static and special invocations have exactly one target
+		if (!(ie instanceof InstanceInvokeExpr) || ie instanceof SpecialInvokeExpr)
+			return callee.isConcrete() ? Collections.singleton(callee) : Collections.emptySet();
+
+		SootClass receiverClass = getReceiverClass(((InstanceInvokeExpr) ie).getBase().getType());
+		if (receiverClass == null)
+			return Collections.emptySet();
+
+		Set<SootMethod> callees = new HashSet<>();
+		try {
+			for (SootMethod tgt : fh.resolveAbstractDispatch(receiverClass, callee)) {
+				// Only keep implementations in system classes that the receiver
+				// inherits, but not all other overrides in the whole framework
+				SootClass tgtClass = tgt.getDeclaringClass();
+				if (!SystemClassHandler.v().isClassInSystemPackage(tgtClass)
+						|| fh.canStoreType(receiverClass.getType(), tgtClass.getType()))
+					callees.add(tgt);
+			}
+		} catch (RuntimeException ex) {
+			// Phantom classes and incomplete hierarchies may break the dispatch
+			logger.debug(String.format("Could not resolve the callees of %s", ie), ex);
+		}
+		return callees;
+	}
+
+	/**
+	 * Gets the class on which virtual dispatch shall start for a receiver of the
+	 * given static type
+	 *
+	 * @param receiverType The static type of the receiver
+	 * @return The receiver class, or null if the given type is not a reference
+	 *         type
+	 */
+	private SootClass getReceiverClass(Type receiverType) {
+		if (receiverType instanceof RefType)
+			return ((RefType) receiverType).getSootClass();
+		if (receiverType instanceof ArrayType)
+			return Scene.v().getObjectType().getSootClass();
+		return null;
+	}
+
+}
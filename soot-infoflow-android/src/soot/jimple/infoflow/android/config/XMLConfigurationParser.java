@@ -183,6 +183,8 @@ public class XMLConfigurationParser {
 						sourceSinkConfig.setCallbackSourceMode(CallbackSourceMode.valueOf(data));
 					else if (currentElement.equals(XMLConstants.TAG_CALLBACK_ANALYSIS_TIMEOUT))
 						callbackConfig.setCallbackAnalysisTimeout(Integer.valueOf(data));
+					else if (currentElement.equals(XMLConstants.TAG_INCREMENTAL_CALLGRAPH))
+						callbackConfig.setIncrementalCallgraph(Boolean.valueOf(data));
 				} else if (parseStack.peek() == XMLSection.ICC_CONFIGURATION) {
 					IccConfiguration iccConfig = config.getIccConfig();
 
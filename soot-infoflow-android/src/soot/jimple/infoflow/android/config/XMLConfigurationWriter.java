@@ -189,6 +189,8 @@ public class XMLConfigurationWriter {
 				sourceSinkConfig.getCallbackSourceMode().toString());
 		appendSimpleTag(document, androidConfigTag, XMLConstants.TAG_CALLBACK_ANALYSIS_TIMEOUT,
 				Integer.toString(callbackConfig.getCallbackAnalysisTimeout()));
+		appendSimpleTag(document, androidConfigTag, XMLConstants.TAG_INCREMENTAL_CALLGRAPH,
+				Boolean.toString(callbackConfig.getIncrementalCallgraph()));
 	}
 
 	/**
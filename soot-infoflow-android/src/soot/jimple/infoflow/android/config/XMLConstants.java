@@ -32,6 +32,7 @@ class XMLConstants {
 	public static final String TAG_MERGE_DEX_FILES = "mergeDexFiles";
 	public static final String TAG_CALLBACK_SOURCE_MODE = "callbackSourceMode";
 	public static final String TAG_CALLBACK_ANALYSIS_TIMEOUT = "callbackAnalysisTimeout";
+	public static final String TAG_INCREMENTAL_CALLGRAPH = "incrementalCallgraph";
 
 	public static final String TAG_ICC_CONFIGURATION = "iccConfiguration";
 	public static final String TAG_ENABLE_ICC_TRACKING = "enableICCTracking";
@@ -19,6 +19,7 @@ import soot.jimple.infoflow.android.axml.AXmlDocument;
 import soot.jimple.infoflow.android.axml.AXmlHandler;
 import soot.jimple.infoflow.android.axml.AXmlNode;
 import soot.jimple.infoflow.android.axml.ApkHandler;
+import soot.jimple.infoflow.android.axml.ApkIndex;
 import soot.jimple.infoflow.android.manifest.binary.BinaryAndroidApplication;
 import soot.jimple.infoflow.android.manifest.containers.EagerComponentContainer;
 import soot.jimple.infoflow.android.manifest.containers.EmptyComponentContainer;
@@ -153,6 +154,27 @@ public abstract class BaseProcessManifest<A extends IActivity, S extends IServic
 		}
 	}
 
+	/**
+	 * Processes the AppManifest in the APK file that is represented by the given
+	 * shared index. The index is not closed when this manifest is closed.
+	 *
+	 * @param apkIndex   The index of the APK file
+	 * @param arscParser The parser for the Android resource database
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws XmlPullParserException can occur due to a malformed manifest.
+	 */
+	public BaseProcessManifest(ApkIndex apkIndex, ARSCFileParser arscParser)
+			throws IOException, XmlPullParserException {
+		this.apk = new ApkHandler(apkIndex);
+		this.arscParser = arscParser;
+		try (InputStream is = this.apk.getInputStream("AndroidManifest.xml")) {
+			if (is == null)
+				throw new FileNotFoundException(String.format("The file %s does not contain an Android Manifest",
+						apkIndex.getApkFile().getAbsolutePath()));
+			this.handle(is);
+		}
+	}
+
 	/**
 	 * Processes an AppManifest which is provided by the given {@link InputStream}.
 	 *
@@ -7,6 +7,7 @@ import java.io.InputStream;
 import org.xmlpull.v1.XmlPullParserException;
 
 import soot.jimple.infoflow.android.axml.AXmlNode;
+import soot.jimple.infoflow.android.axml.ApkIndex;
 import soot.jimple.infoflow.android.manifest.binary.BinaryManifestActivity;
 import soot.jimple.infoflow.android.manifest.binary.BinaryManifestBroadcastReceiver;
 import soot.jimple.infoflow.android.manifest.binary.BinaryManifestContentProvider;
@@ -35,6 +36,10 @@ public class ProcessManifest extends
 		super(apkFile);
 	}
 
+	public ProcessManifest(ApkIndex apkIndex, ARSCFileParser arscParser) throws IOException, XmlPullParserException {
+		super(apkIndex, arscParser);
+	}
+
 	public ProcessManifest(InputStream manifestIS, ARSCFileParser arscParser)
 			throws IOException, XmlPullParserException {
 		super(manifestIS, arscParser);
@@ -14,20 +14,27 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import soot.jimple.infoflow.android.axml.ApkHandler;
+import soot.jimple.infoflow.android.axml.ApkIndex;
 
 /**
  * Parser for reading out the contents of Android's resource.arsc file.
@@ -40,6 +47,11 @@ public class ARSCFileParser extends AbstractResourceParser {
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+	/**
+	 * The name of the resource definition file inside the APK
+	 */
+	public final static String RESOURCE_FILE_NAME = "resources.arsc";
+
 	protected final static int RES_STRING_POOL_TYPE = 0x0001;
 	protected final static int RES_TABLE_TYPE = 0x0002;
 	protected final static int RES_TABLE_PACKAGE_TYPE = 0x0200;
@@ -238,8 +250,119 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 */
 	public final static int FLAG_PUBLIC = 0x0002;
 
-	private final Map<Integer, String> stringTable = new HashMap<Integer, String>();
+	private Map<Integer, String> stringTable = new HashMap<Integer, String>();
 	private final List<ResPackage> packages = new ArrayList<ResPackage>();
+	private boolean lazyDecoding = false;
+
+	/**
+	 * Deferred decoding of the resources in a configuration
+	 */
+	private interface IResourceLoader {
+
+		/**
+		 * Decodes the resources of the given configuration
+		 * 
+		 * @param config The configuration whose resources shall be decoded
+		 * @throws IOException Thrown if the resource data is invalid
+		 */
+		public void loadResources(ResConfig config) throws IOException;
+
+	}
+
+	/**
+	 * String pool that only records where the strings are located inside the
+	 * resource file, and decodes each string when it is first requested
+	 */
+	private class LazyStringPool extends AbstractMap<Integer, String> {
+
+		private final ByteBuffer data;
+		private final int indexOffset;
+		private final int stringsStart;
+		private final boolean utf8;
+		private final String[] strings;
+
+		/**
+		 * Creates a new instance of the {@link LazyStringPool} class
+		 * 
+		 * @param data             The data of the resource table
+		 * @param indexOffset      The offset of the string index, directly after the
+		 *                         string pool header
+		 * @param blockStart       The offset at which the string pool block starts
+		 * @param stringPoolHeader The header of the string pool
+		 */
+		public LazyStringPool(ByteBuffer data, int indexOffset, int blockStart,
+				ResStringPool_Header stringPoolHeader) {
+			this.data = data;
+			this.indexOffset = indexOffset;
+			this.stringsStart = blockStart + stringPoolHeader.stringsStart;
+			this.utf8 = stringPoolHeader.flagsUTF8;
+			this.strings = new String[Math.max(stringPoolHeader.stringCount, 0)];
+		}
+
+		@Override
+		public String get(Object key) {
+			if (!containsKey(key))
+				return null;
+			int idx = (Integer) key;
+
+			// Concurrent lookups may decode the same string twice, which is harmless
+			String str = strings[idx];
+			if (str == null) {
+				int stringIdx = readUInt32(data, indexOffset + idx * 4) + stringsStart;
+				str = (utf8 ? readStringUTF8(data, stringIdx) : readString(data, stringIdx)).trim();
+				strings[idx] = str;
+			}
+			return str;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			if (!(key instanceof Integer))
+				return false;
+			int idx = (Integer) key;
+			return idx >= 0 && idx < strings.length;
+		}
+
+		@Override
+		public int size() {
+			return strings.length;
+		}
+
+		@Override
+		public Set<Entry<Integer, String>> entrySet() {
+			return new AbstractSet<Entry<Integer, String>>() {
+
+				@Override
+				public Iterator<Entry<Integer, String>> iterator() {
+					return new Iterator<Entry<Integer, String>>() {
+
+						private int idx = 0;
+
+						@Override
+						public boolean hasNext() {
+							return idx < strings.length;
+						}
+
+						@Override
+						public Entry<Integer, String> next() {
+							if (!hasNext())
+								throw new NoSuchElementException();
+							Integer key = idx++;
+							return new SimpleImmutableEntry<>(key, get(key));
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return strings.length;
+				}
+
+			};
+		}
+
+	}
 
 	public static class ResPackage {
 		private int packageId;
@@ -503,26 +626,51 @@ public class ARSCFileParser extends AbstractResourceParser {
 	public static class ResConfig {
 		private ResTable_Config config;
 		private List<AbstractResource> resources = new ArrayList<AbstractResource>();
+		private volatile IResourceLoader loader;
 
 		public ResTable_Config getConfig() {
 			return config;
 		}
 
+		/**
+		 * Decodes the resources of this configuration if this has been deferred until
+		 * the first access
+		 */
+		private void ensureLoaded() {
+			if (loader != null) {
+				synchronized (this) {
+					IResourceLoader curLoader = loader;
+					if (curLoader != null) {
+						try {
+							curLoader.loadResources(this);
+						} catch (IOException e) {
+							throw new RuntimeException("Could not decode resource configuration", e);
+						} finally {
+							loader = null;
+						}
+					}
+				}
+			}
+		}
+
 		/**
 		 * Adds all data from the given configuration into this data object
 		 * 
 		 * @param other The configuration object from which to read the data
 		 */
 		private void addAll(ResConfig other) {
-			this.resources.addAll(other.resources);
+			ensureLoaded();
+			this.resources.addAll(other.getResources());
 		}
 
 		public List<AbstractResource> getResources() {
+			ensureLoaded();
 			return this.resources;
 		}
 
 		@Override
 		public int hashCode() {
+			ensureLoaded();
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + ((config == null) ? 0 : config.hashCode());
@@ -539,6 +687,8 @@ public class ARSCFileParser extends AbstractResourceParser {
 			if (getClass() != obj.getClass())
 				return false;
 			ResConfig other = (ResConfig) obj;
+			ensureLoaded();
+			other.ensureLoaded();
 			if (config == null) {
 				if (other.config != null)
 					return false;
@@ -2058,6 +2208,44 @@ public class ARSCFileParser extends AbstractResourceParser {
 	public ARSCFileParser() {
 	}
 
+	/**
+	 * Sets whether the parser shall only index the resource table and decode the
+	 * string pools and the resources in each configuration when they are first
+	 * accessed. When reading from a buffer, the parser then keeps a reference to
+	 * that buffer instead of copying the resource table.
+	 * 
+	 * @param lazyDecoding True to decode strings and resources on first access,
+	 *                     false to decode the complete resource table during
+	 *                     parsing
+	 */
+	public void setLazyDecoding(boolean lazyDecoding) {
+		this.lazyDecoding = lazyDecoding;
+	}
+
+	/**
+	 * Gets whether the parser only indexes the resource table and decodes the
+	 * string pools and the resources in each configuration when they are first
+	 * accessed
+	 * 
+	 * @return True if strings and resources are decoded on first access, false if
+	 *         the complete resource table is decoded during parsing
+	 */
+	public boolean getLazyDecoding() {
+		return this.lazyDecoding;
+	}
+
+	/**
+	 * Gets the global string table in a form that can be modified. If the table
+	 * has been decoded lazily so far, all strings are decoded now.
+	 * 
+	 * @return The modifiable global string table
+	 */
+	private Map<Integer, String> getModifiableStringTable() {
+		if (!(stringTable instanceof HashMap))
+			stringTable = new HashMap<>(stringTable);
+		return stringTable;
+	}
+
 	/**
 	 * Parses the resource definition file in the given APK
 	 * 
@@ -2065,25 +2253,48 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 * @throws IOException Thrown if the given APK file cannot be opened
 	 */
 	public void parse(String apkFile) throws IOException {
-		this.handleAndroidResourceFiles(apkFile, null, new IResourceHandler() {
-
-			@Override
-			public void handleResourceFile(String fileName, Set<String> fileNameFilter, InputStream stream) {
-				try {
-					if (fileName.equals("resources.arsc"))
-						parse(stream);
-				} catch (IOException ex) {
-					logger.error("Could not read resource file", ex);
-				}
-			}
+		File apkF = new File(apkFile);
+		if (apkIndex != null && apkIndex.isIndexOf(apkF)) {
+			parse(apkIndex);
+			return;
+		}
+
+		if (!apkF.exists())
+			throw new RuntimeException("file '" + apkFile + "' does not exist!");
+		try (ApkIndex index = new ApkIndex(apkF)) {
+			parse(index);
+		}
+	}
 
-		});
+	/**
+	 * Parses the resource definition file in the APK file that is represented by
+	 * the given index
+	 * 
+	 * @param index The index of the APK file in which to parse the resource
+	 *              definition file
+	 * @throws IOException Thrown if the resource definition file cannot be read
+	 */
+	public void parse(ApkIndex index) throws IOException {
+		ByteBuffer buffer = index.getByteBuffer(RESOURCE_FILE_NAME);
+		if (buffer != null)
+			parse(buffer);
 	}
 
 	public void parse(InputStream stream) throws IOException {
 		readResourceHeader(stream);
 	}
 
+	/**
+	 * Parses the resource definition file from the given buffer
+	 * 
+	 * @param buffer The buffer that contains the contents of the resource
+	 *               definition file
+	 * @throws IOException Thrown if the resource definition file is invalid
+	 */
+	public void parse(ByteBuffer buffer) throws IOException {
+		readResourceHeader(buffer.duplicate());
+	}
+
 	private void readResourceHeader(InputStream stream) throws IOException {
 		final int BLOCK_SIZE = 2048;
 
@@ -2110,6 +2321,50 @@ public class ARSCFileParser extends AbstractResourceParser {
 			System.arraycopy(block, 0, remainingData, totalBytesRead, bytesRead);
 			totalBytesRead += bytesRead;
 		}
+		readResourceTable(ByteBuffer.wrap(remainingData).order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	/**
+	 * Reads the resource table from the given buffer. In contrast to reading from
+	 * a stream, the data is not copied, but the parser operates directly on the
+	 * buffer.
+	 * 
+	 * @param buffer The buffer that contains the contents of the resource file
+	 * @throws IOException Thrown if the resource table is invalid
+	 */
+	private void readResourceHeader(ByteBuffer buffer) throws IOException {
+		ResTable_Header resourceHeader = new ResTable_Header();
+		byte[] header = new byte[12];
+		if (buffer.remaining() < header.length) {
+			logger.error("Resource file is too short");
+			return;
+		}
+		buffer.get(header);
+		readChunkHeader(resourceHeader.header, header, 0);
+		resourceHeader.packageCount = readUInt32(header, 8);
+		logger.debug(String.format("Package Groups (%d)", resourceHeader.packageCount));
+
+		// Do we have any packages to read?
+		int remainingSize = Math.min(resourceHeader.header.size - resourceHeader.header.headerSize,
+				buffer.remaining());
+		if (remainingSize <= 0)
+			return;
+
+		// Operate on the remaining data without copying it
+		ByteBuffer remainingData = buffer.slice();
+		remainingData.limit(remainingSize);
+		readResourceTable(remainingData.order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	/**
+	 * Reads the chunks of the resource table, i.e., the global string pool and the
+	 * packages
+	 * 
+	 * @param remainingData The data of the resource table after its header. The
+	 *                      byte order must be little endian.
+	 * @throws IOException Thrown if the resource table is invalid
+	 */
+	private void readResourceTable(ByteBuffer remainingData) throws IOException {
 		int offset = 0;
 		int beforeBlock = 0;
 
@@ -2117,7 +2372,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		int packageCtr = 0;
 		Map<Integer, String> keyStrings = new HashMap<Integer, String>();
 		Map<Integer, String> typeStrings = new HashMap<Integer, String>();
-		while (offset < remainingData.length - 1) {
+		while (offset < remainingData.limit() - 1) {
 			beforeBlock = offset;
 			ResChunk_Header nextChunkHeader = new ResChunk_Header();
 			offset = readChunkHeader(nextChunkHeader, remainingData, offset);
@@ -2128,7 +2383,11 @@ public class ARSCFileParser extends AbstractResourceParser {
 				offset = parseStringPoolHeader(stringPoolHeader, remainingData, offset);
 
 				// Read the string data
-				offset = readStringTable(remainingData, offset, beforeBlock, stringPoolHeader, this.stringTable);
+				if (lazyDecoding && this.stringTable.isEmpty())
+					this.stringTable = new LazyStringPool(remainingData, offset, beforeBlock, stringPoolHeader);
+				else
+					offset = readStringTable(remainingData, offset, beforeBlock, stringPoolHeader,
+							getModifiableStringTable());
 				assert this.stringTable.size() == stringPoolHeader.stringCount;
 			} else if (nextChunkHeader.type == RES_TABLE_PACKAGE_TYPE) {
 				// Read the package header
@@ -2184,7 +2443,10 @@ public class ARSCFileParser extends AbstractResourceParser {
 					// StringPool
 					// block, not the at the beginning of the Package block
 					// referring to it.
-					readStringTable(remainingData, keyStringsOffset, beforeStringBlock, keyPool, keyStrings);
+					if (lazyDecoding)
+						keyStrings = new LazyStringPool(remainingData, keyStringsOffset, beforeStringBlock, keyPool);
+					else
+						readStringTable(remainingData, keyStringsOffset, beforeStringBlock, keyPool, keyStrings);
 
 					// Jump to the end of the string block
 					offset = beforeStringBlock + keyPoolHeader.size;
@@ -2233,78 +2495,18 @@ public class ARSCFileParser extends AbstractResourceParser {
 						config.config = typeTable.config;
 						resType.configurations.add(config);
 
-						// Read the table entries
-						int resourceIdx = 0;
-						for (int i = 0; i < typeTable.entryCount; i++) {
-							int entryOffset = readUInt32(remainingData, offset);
-							offset += 4;
-							if (entryOffset == 0xFFFFFFFF) { // NoEntry
-								resourceIdx++;
-								continue;
-							}
-							entryOffset += beforeInnerBlock + typeTable.entriesStart;
-							ResTable_Entry entry = readEntryTable(remainingData, entryOffset);
-							entryOffset += entry.size;
-
-							AbstractResource res;
-
-							// If this is a simple entry, the data structure is
-							// followed by RES_VALUE
-							if (entry.flagsComplex) {
-								ComplexResource cmpRes = new ComplexResource(resType.typeName);
-								res = cmpRes;
-
-								for (int j = 0; j < ((ResTable_Map_Entry) entry).count; j++) {
-									ResTable_Map map = new ResTable_Map();
-									entryOffset = readComplexValue(map, remainingData, entryOffset);
-
-									final String mapName = map.name + "";
-									AbstractResource value = parseValue(map.value);
-
-									// If we are dealing with an array, we put it into a special array container
-									if (resType.typeName != null && resType.typeName.equals("array")
-											&& value instanceof StringResource) {
-
-										AbstractResource existingResource = cmpRes.value.get(mapName);
-										if (existingResource == null) {
-											existingResource = new ArrayResource();
-											cmpRes.value.put(mapName, existingResource);
-										}
-
-										// We silently ignore inconsistencies at thze moment
-										if (existingResource instanceof ArrayResource)
-											((ArrayResource) existingResource).add(value);
-									} else {
-										cmpRes.value.put(mapName, value);
-									}
-								}
-							} else {
-								Res_Value val = new Res_Value();
-								entryOffset = readValue(val, remainingData, entryOffset);
-								res = parseValue(val);
-								if (res == null) {
-									logger.error(
-											String.format("Could not parse resource %s of type 0x%x, skipping entry",
-													keyStrings.get(entry.key), val.dataType));
-									continue;
-								}
-							}
-
-							// Create the data object. For finding the correct ID, we
-							// must check whether the entry is really new - if so, it
-							// gets a new ID, otherwise, we reuse the old one
-							if (keyStrings.containsKey(entry.key)) {
-								res.resourceName = keyStrings.get(entry.key);
-							} else {
-								res.resourceName = "<INVALID RESOURCE>";
-							}
-
-							if (res.resourceID <= 0) {
-								res.resourceID = (packageTable.id << 24) + (typeTable.id << 16) + resourceIdx;
-							}
-							config.resources.add(res);
-							resourceIdx++;
-						}
+						// Read the table entries now or when they are first accessed
+						final int typeTableStart = beforeInnerBlock;
+						final int entryIndexOffset = offset;
+						final int packageId = packageTable.id;
+						final Map<Integer, String> packageKeyStrings = keyStrings;
+						final ResType tableType = resType;
+						if (lazyDecoding)
+							config.loader = c -> readTypeEntries(remainingData, typeTableStart, entryIndexOffset,
+									typeTable, packageId, tableType, c, packageKeyStrings);
+						else
+							readTypeEntries(remainingData, typeTableStart, entryIndexOffset, typeTable, packageId,
+									tableType, config, packageKeyStrings);
 					}
 					offset = beforeInnerBlock + innerHeader.size;
 				}
@@ -2314,10 +2516,11 @@ public class ARSCFileParser extends AbstractResourceParser {
 					for (ResType resType : resPackage.types) {
 						logger.trace("\t\tType {} ({}), configCount={}, entryCount={}", resType.typeName,
 								resType.id - 1, resType.configurations.size(),
-								resType.configurations.size() > 0 ? resType.configurations.get(0).resources.size() : 0);
+								resType.configurations.size() > 0 ? resType.configurations.get(0).getResources().size()
+										: 0);
 						for (ResConfig resConfig : resType.configurations) {
 							logger.trace("\t\t\tconfig");
-							for (AbstractResource res : resConfig.resources)
+							for (AbstractResource res : resConfig.getResources())
 								logger.trace("\t\t\t\tresource {}: {}", Integer.toHexString(res.resourceID),
 										res.resourceName);
 						}
@@ -2328,7 +2531,95 @@ public class ARSCFileParser extends AbstractResourceParser {
 
 			// Skip the block
 			offset = beforeBlock + nextChunkHeader.size;
-			remainingSize -= nextChunkHeader.size;
+		}
+	}
+
+	/**
+	 * Reads the entries of a type table and adds them as resources to the given
+	 * configuration
+	 * 
+	 * @param data             The data of the resource table
+	 * @param beforeInnerBlock The offset at which the type table starts
+	 * @param offset           The offset at which the entry index of the type table
+	 *                         starts
+	 * @param typeTable        The header of the type table
+	 * @param packageId        The ID of the package that contains the type
+	 * @param resType          The type to which the entries belong
+	 * @param config           The configuration to which to add the resources
+	 * @param keyStrings       The key strings of the package
+	 * @throws IOException Thrown if the type table is invalid
+	 */
+	private void readTypeEntries(ByteBuffer data, int beforeInnerBlock, int offset, ResTable_Type typeTable,
+			int packageId, ResType resType, ResConfig config, Map<Integer, String> keyStrings) throws IOException {
+		int resourceIdx = 0;
+		for (int i = 0; i < typeTable.entryCount; i++) {
+			int entryOffset = readUInt32(data, offset);
+			offset += 4;
+			if (entryOffset == 0xFFFFFFFF) { // NoEntry
+				resourceIdx++;
+				continue;
+			}
+			entryOffset += beforeInnerBlock + typeTable.entriesStart;
+			ResTable_Entry entry = readEntryTable(data, entryOffset);
+			entryOffset += entry.size;
+
+			AbstractResource res;
+
+			// If this is a simple entry, the data structure is
+			// followed by RES_VALUE
+			if (entry.flagsComplex) {
+				ComplexResource cmpRes = new ComplexResource(resType.typeName);
+				res = cmpRes;
+
+				for (int j = 0; j < ((ResTable_Map_Entry) entry).count; j++) {
+					ResTable_Map map = new ResTable_Map();
+					entryOffset = readComplexValue(map, data, entryOffset);
+
+					final String mapName = map.name + "";
+					AbstractResource value = parseValue(map.value);
+
+					// If we are dealing with an array, we put it into a special array container
+					if (resType.typeName != null && resType.typeName.equals("array")
+							&& value instanceof StringResource) {
+
+						AbstractResource existingResource = cmpRes.value.get(mapName);
+						if (existingResource == null) {
+							existingResource = new ArrayResource();
+							cmpRes.value.put(mapName, existingResource);
+						}
+
+						// We silently ignore inconsistencies at thze moment
+						if (existingResource instanceof ArrayResource)
+							((ArrayResource) existingResource).add(value);
+					} else {
+						cmpRes.value.put(mapName, value);
+					}
+				}
+			} else {
+				Res_Value val = new Res_Value();
+				entryOffset = readValue(val, data, entryOffset);
+				res = parseValue(val);
+				if (res == null) {
+					logger.error(String.format("Could not parse resource %s of type 0x%x, skipping entry",
+							keyStrings.get(entry.key), val.dataType));
+					continue;
+				}
+			}
+
+			// Create the data object. For finding the correct ID, we
+			// must check whether the entry is really new - if so, it
+			// gets a new ID, otherwise, we reuse the old one
+			if (keyStrings.containsKey(entry.key)) {
+				res.resourceName = keyStrings.get(entry.key);
+			} else {
+				res.resourceName = "<INVALID RESOURCE>";
+			}
+
+			if (res.resourceID <= 0) {
+				res.resourceID = (packageId << 24) + (typeTable.id << 16) + resourceIdx;
+			}
+			config.resources.add(res);
+			resourceIdx++;
 		}
 	}
 
@@ -2408,14 +2699,14 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return res;
 	}
 
-	private int readComplexValue(ResTable_Map map, byte[] remainingData, int offset) throws IOException {
+	private int readComplexValue(ResTable_Map map, ByteBuffer remainingData, int offset) throws IOException {
 		map.name = readUInt32(remainingData, offset);
 		offset += 4;
 
 		return readValue(map.value, remainingData, offset);
 	}
 
-	private int readValue(Res_Value val, byte[] remainingData, int offset) throws IOException {
+	private int readValue(Res_Value val, ByteBuffer remainingData, int offset) throws IOException {
 		int initialOffset = offset;
 
 		val.size = readUInt16(remainingData, offset);
@@ -2439,7 +2730,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private ResTable_Entry readEntryTable(byte[] data, int offset) throws IOException {
+	private ResTable_Entry readEntryTable(ByteBuffer data, int offset) throws IOException {
 		// The exact type of entry depends on the size
 		int size = readUInt16(data, offset);
 		offset += 2;
@@ -2471,7 +2762,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return entry;
 	}
 
-	private int readTypeTable(ResTable_Type typeTable, byte[] data, int offset) throws IOException {
+	private int readTypeTable(ResTable_Type typeTable, ByteBuffer data, int offset) throws IOException {
 		typeTable.id = readUInt8(data, offset);
 		offset += 1;
 
@@ -2494,7 +2785,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return readConfigTable(typeTable.config, data, offset);
 	}
 
-	private int readConfigTable(ResTable_Config config, byte[] data, int offset) throws IOException {
+	private int readConfigTable(ResTable_Config config, ByteBuffer data, int offset) throws IOException {
 		config.size = readUInt32(data, offset);
 		offset += 4;
 
@@ -2504,12 +2795,12 @@ public class ARSCFileParser extends AbstractResourceParser {
 		config.mnc = readUInt16(data, offset);
 		offset += 2;
 
-		config.language[0] = (char) data[offset];
-		config.language[1] = (char) data[offset + 1];
+		config.language[0] = (char) data.get(offset);
+		config.language[1] = (char) data.get(offset + 1);
 		offset += 2;
 
-		config.country[0] = (char) data[offset];
-		config.country[1] = (char) data[offset + 1];
+		config.country[0] = (char) data.get(offset);
+		config.country[1] = (char) data.get(offset + 1);
 		offset += 2;
 
 		config.orientation = readUInt8(data, offset);
@@ -2557,13 +2848,13 @@ public class ARSCFileParser extends AbstractResourceParser {
 			return offset;
 
 		for (int i = 0; i < 4; i++)
-			config.localeScript[i] = (char) data[offset + i];
+			config.localeScript[i] = (char) data.get(offset + i);
 		offset += 4;
 		if (config.size <= 40)
 			return offset;
 
 		for (int i = 0; i < 8; i++)
-			config.localeVariant[i] = (char) data[offset + i];
+			config.localeVariant[i] = (char) data.get(offset + i);
 		offset += 8;
 		if (config.size <= 48)
 			return offset;
@@ -2572,8 +2863,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		// Otherwise, we print a warning.
 		int remainingSize = config.size - 48;
 		if (remainingSize > 0) {
-			byte[] remainingBytes = new byte[remainingSize];
-			System.arraycopy(data, offset, remainingBytes, 0, remainingSize);
+			byte[] remainingBytes = readBytes(data, offset, remainingSize);
 			BigInteger remainingData = new BigInteger(1, remainingBytes);
 			if (!(remainingData.equals(BigInteger.ZERO))) {
 				logger.debug("Excessive {} non-null bytes in ResTable_Config ignored", remainingSize);
@@ -2587,7 +2877,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private int readTypeSpecTable(ResTable_TypeSpec typeSpecTable, byte[] data, int offset) throws IOException {
+	private int readTypeSpecTable(ResTable_TypeSpec typeSpecTable, ByteBuffer data, int offset) throws IOException {
 		typeSpecTable.id = readUInt8(data, offset);
 		offset += 1;
 
@@ -2607,7 +2897,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private int readStringTable(byte[] remainingData, int offset, int blockStart, ResStringPool_Header stringPoolHeader,
+	private int readStringTable(ByteBuffer remainingData, int offset, int blockStart, ResStringPool_Header stringPoolHeader,
 			Map<Integer, String> stringList) throws IOException {
 		// Read the strings
 		for (int i = 0; i < stringPoolHeader.stringCount; i++) {
@@ -2626,7 +2916,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private int parsePackageTable(ResTable_Package packageTable, byte[] data, int offset) throws IOException {
+	private int parsePackageTable(ResTable_Package packageTable, ByteBuffer data, int offset) throws IOException {
 		packageTable.id = readUInt32(data, offset);
 		offset += 4;
 
@@ -2654,27 +2944,24 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private String readString(byte[] remainingData, int stringIdx) throws IOException {
+	private String readString(ByteBuffer remainingData, int stringIdx) {
 		int strLen = readUInt16(remainingData, stringIdx);
 		if (strLen == 0)
 			return "";
 		stringIdx += 2;
-		byte[] str = new byte[strLen * 2];
-		System.arraycopy(remainingData, stringIdx, str, 0, strLen * 2);
-		return new String(remainingData, stringIdx, strLen * 2, "UTF-16LE");
+		return new String(readBytes(remainingData, stringIdx, strLen * 2), StandardCharsets.UTF_16LE);
 	}
 
-	private String readStringUTF8(byte[] remainingData, int stringIdx) throws IOException {
+	private String readStringUTF8(ByteBuffer remainingData, int stringIdx) {
 		// skip the length, will usually be 0x1A1A
 		// int strLen = readUInt16(remainingData, stringIdx);
 		// the length here is somehow weird
 		int strLen = readUInt8(remainingData, stringIdx + 1);
 		stringIdx += 2;
-		String str = new String(remainingData, stringIdx, strLen, "UTF-8");
-		return str;
+		return new String(readBytes(remainingData, stringIdx, strLen), StandardCharsets.UTF_8);
 	}
 
-	private int parseStringPoolHeader(ResStringPool_Header stringPoolHeader, byte[] data, int offset)
+	private int parseStringPoolHeader(ResStringPool_Header stringPoolHeader, ByteBuffer data, int offset)
 			throws IOException {
 		stringPoolHeader.stringCount = readUInt32(data, offset);
 		stringPoolHeader.styleCount = readUInt32(data, offset + 4);
@@ -2724,11 +3011,6 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private int readUInt8(byte[] uint16, int offset) throws IOException {
-		int b0 = uint16[0 + offset] & 0x000000FF;
-		return b0;
-	}
-
 	private int readUInt16(byte[] uint16, int offset) throws IOException {
 		int b0 = uint16[0 + offset] & 0x000000FF;
 		int b1 = uint16[1 + offset] & 0x000000FF;
@@ -2749,6 +3031,48 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return (Math.abs(b3) << 24) + (Math.abs(b2) << 16) + (Math.abs(b1) << 8) + Math.abs(b0);
 	}
 
+	private int readChunkHeader(ResChunk_Header nextChunkHeader, ByteBuffer data, int offset) {
+		nextChunkHeader.type = readUInt16(data, offset);
+		offset += 2;
+
+		nextChunkHeader.headerSize = readUInt16(data, offset);
+		offset += 2;
+
+		nextChunkHeader.size = readUInt32(data, offset);
+		offset += 4;
+
+		return offset;
+	}
+
+	private static int readUInt8(ByteBuffer data, int offset) {
+		return data.get(offset) & 0x000000FF;
+	}
+
+	private static int readUInt16(ByteBuffer data, int offset) {
+		return data.getShort(offset) & 0x0000FFFF;
+	}
+
+	private static int readUInt32(ByteBuffer data, int offset) {
+		return data.getInt(offset);
+	}
+
+	/**
+	 * Copies the given region of the buffer into a new array without changing the
+	 * position of the buffer
+	 * 
+	 * @param data   The buffer from which to read
+	 * @param offset The offset at which to start reading
+	 * @param length The number of bytes to read
+	 * @return The array with the data that has been read
+	 */
+	private static byte[] readBytes(ByteBuffer data, int offset, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer source = data.duplicate();
+		source.position(offset);
+		source.get(bytes);
+		return bytes;
+	}
+
 	public Map<Integer, String> getGlobalStringPool() {
 		return this.stringTable;
 	}
@@ -2903,10 +3227,10 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 */
 	public static ARSCFileParser getInstance(File apkFile) throws IOException {
 		ARSCFileParser parser = new ARSCFileParser();
-		try (ApkHandler handler = new ApkHandler(apkFile); InputStream is = handler.getInputStream("resources.arsc")) {
-			if (is == null)
+		try (ApkIndex index = new ApkIndex(apkFile)) {
+			if (!index.hasEntry(RESOURCE_FILE_NAME))
 				return null;
-			parser.parse(is);
+			parser.parse(index);
 		}
 		return parser;
 	}
@@ -2928,7 +3252,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		}
 
 		// Merge the string table
-		stringTable.putAll(otherParser.stringTable);
+		getModifiableStringTable().putAll(otherParser.stringTable);
 	}
 
 }
\ No newline at end of file
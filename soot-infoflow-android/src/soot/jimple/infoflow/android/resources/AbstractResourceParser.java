@@ -11,15 +11,16 @@
 package soot.jimple.infoflow.android.resources;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Enumeration;
 import java.util.Set;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.jimple.infoflow.android.axml.ApkIndex;
+
 /**
  * Common base class for all resource parser classes
  * 
@@ -29,6 +30,33 @@ public abstract class AbstractResourceParser {
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+	/**
+	 * Shared index over the APK file that shall be used instead of opening the APK
+	 * file again
+	 */
+	protected ApkIndex apkIndex;
+
+	/**
+	 * Sets the shared index over the APK file. When the parser is asked to process
+	 * the APK file on which this index operates, it uses the index instead of
+	 * opening the file again. The index is not closed by the parser.
+	 * 
+	 * @param apkIndex The shared index over the APK file
+	 */
+	public void setApkIndex(ApkIndex apkIndex) {
+		this.apkIndex = apkIndex;
+	}
+
+	/**
+	 * Gets the shared index over the APK file that this parser uses
+	 * 
+	 * @return The shared index over the APK file, or null if the parser opens the
+	 *         APK file on its own
+	 */
+	public ApkIndex getApkIndex() {
+		return this.apkIndex;
+	}
+
 	/**
 	 * Opens the given apk file and provides the given handler with a stream for
 	 * accessing the contained resource manifest files
@@ -44,15 +72,11 @@ public abstract class AbstractResourceParser {
 			throw new RuntimeException("file '" + apk + "' does not exist!");
 
 		try {
-			try (ZipFile archive = new ZipFile(apkF)) {
-				Enumeration<?> entries = archive.entries();
-				while (entries.hasMoreElements()) {
-					ZipEntry entry = (ZipEntry) entries.nextElement();
-					String entryName = entry.getName();
-
-					try (InputStream is = archive.getInputStream(entry)) {
-						handler.handleResourceFile(entryName, fileNameFilter, is);
-					}
+			if (apkIndex != null && apkIndex.isIndexOf(apkF))
+				handleAndroidResourceFiles(apkIndex, fileNameFilter, handler);
+			else {
+				try (ApkIndex index = new ApkIndex(apkF)) {
+					handleAndroidResourceFiles(index, fileNameFilter, handler);
 				}
 			}
 		} catch (Exception e) {
@@ -64,4 +88,23 @@ public abstract class AbstractResourceParser {
 		}
 	}
 
+	/**
+	 * Provides the given handler with a stream for accessing each file in the APK
+	 * that is represented by the given index
+	 * 
+	 * @param index          The index of the apk file to process
+	 * @param fileNameFilter If this parameter is non-null, only files with a name
+	 *                       (excluding extension) in this set will be analyzed.
+	 * @param handler        The handler for processing the apk file
+	 * @throws IOException Thrown if a file in the apk cannot be read
+	 */
+	protected void handleAndroidResourceFiles(ApkIndex index, Set<String> fileNameFilter, IResourceHandler handler)
+			throws IOException {
+		for (ZipEntry entry : index.getEntries()) {
+			try (InputStream is = index.getInputStream(entry)) {
+				handler.handleResourceFile(entry.getName(), fileNameFilter, is);
+			}
+		}
+	}
+
 }
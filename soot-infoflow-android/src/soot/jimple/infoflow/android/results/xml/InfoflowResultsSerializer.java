@@ -1,11 +1,15 @@
 package soot.jimple.infoflow.android.results.xml;
 
+import java.util.Map;
+
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.DegradationLevel;
 import soot.jimple.infoflow.android.data.AndroidMethod;
 import soot.jimple.infoflow.android.data.CategoryDefinition;
+import soot.jimple.infoflow.results.DataFlowResult;
 import soot.jimple.infoflow.results.ResultSinkInfo;
 import soot.jimple.infoflow.results.ResultSourceInfo;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
@@ -19,6 +23,8 @@ import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
  */
 public class InfoflowResultsSerializer extends soot.jimple.infoflow.results.xml.InfoflowResultsSerializer {
 
+	private Map<DataFlowResult, DegradationLevel> resultDegradationLevels = null;
+
 	/**
 	 * Creates a new instance of the InfoflowResultsSerializer class
 	 * 
@@ -62,6 +68,19 @@ public class InfoflowResultsSerializer extends soot.jimple.infoflow.results.xml.
 		}
 	}
 
+	@Override
+	protected void writeAdditionalSourceInfo(ResultSourceInfo source, ResultSinkInfo sink, XMLStreamWriter writer)
+			throws XMLStreamException {
+		super.writeAdditionalSourceInfo(source, sink, writer);
+
+		// Write out the degradation level on which the data flow has been found
+		if (resultDegradationLevels != null && sink != null) {
+			DegradationLevel level = resultDegradationLevels.get(new DataFlowResult(source, sink));
+			if (level != null)
+				writer.writeAttribute(XmlConstants.Attributes.degradationLevel, level.name());
+		}
+	}
+
 	@Override
 	protected void writeAdditionalSinkInfo(ResultSinkInfo sink, XMLStreamWriter writer) throws XMLStreamException {
 		super.writeAdditionalSinkInfo(sink, writer);
@@ -83,4 +102,18 @@ public class InfoflowResultsSerializer extends soot.jimple.infoflow.results.xml.
 		}
 	}
 
+	/**
+	 * Sets the degradation level of the data flow run that has found each result.
+	 * If this mapping is given, the serializer writes out the degradation level of
+	 * each source-to-sink connection.
+	 * 
+	 * @param resultDegradationLevels A mapping from the data flow results to the
+	 *                                degradation levels on which they have been
+	 *                                found, or null to not write out any
+	 *                                degradation levels
+	 */
+	public void setResultDegradationLevels(Map<DataFlowResult, DegradationLevel> resultDegradationLevels) {
+		this.resultDegradationLevels = resultDegradationLevels;
+	}
+
 }
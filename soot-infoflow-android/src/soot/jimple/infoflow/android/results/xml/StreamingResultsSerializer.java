@@ -0,0 +1,55 @@
+package soot.jimple.infoflow.android.results.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLStreamException;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Android-specific variant of the streaming results serializer that writes out
+ * the source and sink categories along with each result
+ */
+public class StreamingResultsSerializer extends soot.jimple.infoflow.results.xml.StreamingResultsSerializer {
+
+	/**
+	 * Creates a new instance of the StreamingResultsSerializer class
+	 *
+	 * @param out    The stream into which to write the results. The stream is
+	 *               closed when this serializer is closed.
+	 * @param format The format in which to write the results
+	 * @param config The configuration of the data flow
+	 * @throws XMLStreamException Thrown if the XML header cannot be written
+	 */
+	public StreamingResultsSerializer(OutputStream out, StreamFormat format, InfoflowConfiguration config)
+			throws XMLStreamException {
+		super(out, format, config);
+	}
+
+	/**
+	 * Creates a serializer that writes into the given file. Files ending with
+	 * <code>.json</code>, <code>.jsonl</code>, or <code>.ndjson</code> receive
+	 * newline-delimited JSON, all other files receive XML.
+	 *
+	 * @param fileName The target file name
+	 * @param config   The configuration of the data flow
+	 * @return The new serializer
+	 * @throws IOException        Thrown if the target file could not be opened
+	 * @throws XMLStreamException Thrown if the XML header cannot be written
+	 */
+	public static StreamingResultsSerializer forFile(String fileName, InfoflowConfiguration config)
+			throws IOException, XMLStreamException {
+		return new StreamingResultsSerializer(new BufferedOutputStream(new FileOutputStream(fileName)),
+				getFormatForFile(fileName), config);
+	}
+
+	@Override
+	protected InfoflowResultsSerializer createSerializer(IInfoflowCFG cfg) {
+		return new InfoflowResultsSerializer(cfg, config);
+	}
+
+}
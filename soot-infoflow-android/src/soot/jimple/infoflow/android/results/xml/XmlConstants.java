@@ -19,6 +19,7 @@ class XmlConstants {
 
 		public static final String systemCategory = "SystemCategory";
 		public static final String userCategory = "UserCategory";
+		public static final String degradationLevel = "DegradationLevel";
 
 	}
 
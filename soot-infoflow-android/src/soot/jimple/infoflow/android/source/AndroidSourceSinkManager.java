@@ -46,6 +46,7 @@ import soot.jimple.infoflow.android.resources.ARSCFileParser.AbstractResource;
 import soot.jimple.infoflow.android.resources.ARSCFileParser.ResPackage;
 import soot.jimple.infoflow.android.resources.controls.AndroidLayoutControl;
 import soot.jimple.infoflow.callbacks.CallbackDefinition;
+import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
@@ -78,7 +79,7 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 	protected final Map<Integer, AndroidLayoutControl> layoutControls;
 	protected List<ARSCFileParser.ResPackage> resourcePackages;
 	protected String appPackageName = "";
-	protected final Set<SootMethod> analyzedLayoutMethods = new HashSet<SootMethod>();
+	protected final Set<SootMethod> analyzedLayoutMethods = new ConcurrentHashSet<SootMethod>();
 	protected SootClass[] iccBaseClasses = null;
 	protected AndroidEntryPointUtils entryPointUtils = new AndroidEntryPointUtils();
 
@@ -0,0 +1,108 @@
+package soot.jimple.infoflow.android.test.callgraph;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.PackManager;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.jimple.infoflow.android.callgraph.IncrementalCallgraphExtender;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.options.Options;
+
+/**
+ * Tests for extending an existing callgraph with newly reachable code
+ */
+public class IncrementalCallgraphExtenderTest {
+
+	private static final String TEST_CLASS = IncrementalCallgraphTestCode.class.getName();
+
+	@Before
+	public void buildCallgraph() {
+		G.reset();
+		Options.v().set_whole_program(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_no_bodies_for_excluded(true);
+		Options.v().set_soot_classpath(new File("build/testclasses").getAbsolutePath());
+		Options.v().setPhaseOption("cg.cha", "on");
+		for (Class<?> c : IncrementalCallgraphTestCode.class.getDeclaredClasses())
+			Scene.v().addBasicClass(c.getName(), SootClass.BODIES);
+		Scene.v().addBasicClass(TEST_CLASS, SootClass.BODIES);
+		Scene.v().loadNecessaryClasses();
+
+		Scene.v().setEntryPoints(Collections.singletonList(getMethod("void initial()")));
+		PackManager.v().getPack("cg").apply();
+	}
+
+	private static SootMethod getMethod(String subSignature) {
+		return Scene.v().getMethod("<" + TEST_CLASS + ": " + subSignature + ">");
+	}
+
+	private static Set<SootMethod> getCallees(SootMethod method) {
+		Set<SootMethod> callees = new HashSet<>();
+		for (Iterator<Edge> edgeIt = Scene.v().getCallGraph().edgesOutOf(method); edgeIt.hasNext();)
+			callees.add(edgeIt.next().tgt());
+		return callees;
+	}
+
+	@Test
+	public void extendTest() {
+		SootMethod registerListener = getMethod("void registerListener(" + TEST_CLASS + "$Listener)");
+		SootMethod onEventA = Scene.v().getMethod("<" + TEST_CLASS + "$ListenerA: void onEvent()>");
+		SootMethod onEventB = Scene.v().getMethod("<" + TEST_CLASS + "$ListenerB: void onEvent()>");
+		Assert.assertTrue(getCallees(registerListener).isEmpty());
+		Assert.assertTrue(getCallees(onEventA).isEmpty());
+
+		IncrementalCallgraphExtender extender = new IncrementalCallgraphExtender();
+		Assert.assertTrue(extender.extend(Collections.singletonList(registerListener)) > 0);
+
+		// Virtual calls are resolved based on the class hierarchy
+		Set<SootMethod> callees = getCallees(registerListener);
+		Assert.assertTrue(callees.contains(onEventA));
+		Assert.assertTrue(callees.contains(onEventB));
+		Assert.assertTrue(callees.contains(getMethod("void helperB()")));
+
+		// The new code is analyzed transitively
+		Assert.assertTrue(getCallees(onEventA).contains(getMethod("void helperA()")));
+	}
+
+	@Test
+	public void processedMethodsTest() {
+		// Methods that were reachable before are not analyzed again
+		IncrementalCallgraphExtender extender = new IncrementalCallgraphExtender();
+		Assert.assertEquals(0, extender.extend(Collections.singletonList(getMethod("void initial()"))));
+
+		SootMethod registerListener = getMethod("void registerListener(" + TEST_CLASS + "$Listener)");
+		int numEdges = extender.extend(Collections.singletonList(registerListener));
+		Assert.assertTrue(numEdges > 0);
+		Assert.assertEquals(0, extender.extend(Collections.singletonList(registerListener)));
+	}
+
+	@Test
+	public void systemClassTargetsTest() {
+		SootMethod describe = getMethod("java.lang.String describe(java.lang.Object)");
+		new IncrementalCallgraphExtender().extend(Collections.singletonList(describe));
+
+		// We keep the overrides in the app and the implementation that the receiver
+		// inherits, but not the overrides in unrelated system classes
+		Set<SootMethod> callees = getCallees(describe);
+		Assert.assertTrue(callees.contains(Scene.v().getMethod("<java.lang.Object: java.lang.String toString()>")));
+		Assert.assertTrue(
+				callees.contains(Scene.v().getMethod("<" + TEST_CLASS + "$ListenerB: java.lang.String toString()>")));
+		SootMethod stringToString = Scene.v().getSootClass("java.lang.String")
+				.getMethodUnsafe("java.lang.String toString()");
+		Assert.assertNotNull(stringToString);
+		Assert.assertFalse(callees.contains(stringToString));
+	}
+
+}
@@ -0,0 +1,55 @@
+package soot.jimple.infoflow.android.test.callgraph;
+
+/**
+ * Target code for the tests of the incremental callgraph extension
+ */
+public class IncrementalCallgraphTestCode {
+
+	public interface Listener {
+
+		public void onEvent();
+
+	}
+
+	public static class ListenerA implements Listener {
+
+		@Override
+		public void onEvent() {
+			helperA();
+		}
+
+	}
+
+	public static class ListenerB implements Listener {
+
+		@Override
+		public void onEvent() {
+		}
+
+		@Override
+		public String toString() {
+			return "B";
+		}
+
+	}
+
+	static void helperA() {
+	}
+
+	static void helperB() {
+	}
+
+	public static void initial() {
+		new ListenerB().onEvent();
+	}
+
+	public static void registerListener(Listener listener) {
+		listener.onEvent();
+		helperB();
+	}
+
+	public static String describe(Object listener) {
+		return listener.toString();
+	}
+
+}
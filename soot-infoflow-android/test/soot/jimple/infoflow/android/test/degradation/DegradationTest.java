@@ -0,0 +1,151 @@
+package soot.jimple.infoflow.android.test.degradation;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.InfoflowConfiguration.AliasingAlgorithm;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.DegradationLevel;
+import soot.jimple.infoflow.android.SetupApplication.MultiRunResultAggregator;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+
+/**
+ * Tests for the degradation levels and the aggregation of the results of
+ * degraded re-runs
+ */
+public class DegradationTest {
+
+	@Before
+	public void resetSoot() {
+		G.reset();
+	}
+
+	private static DataFlowResult createResult() {
+		return new DataFlowResult(
+				new ResultSourceInfo(null, AccessPath.getEmptyAccessPath(), Jimple.v().newNopStmt()),
+				new ResultSinkInfo(null, AccessPath.getEmptyAccessPath(), Jimple.v().newNopStmt()));
+	}
+
+	private static InfoflowResults createResults(int terminationState, DataFlowResult... results) {
+		InfoflowResults res = new InfoflowResults();
+		for (DataFlowResult result : results)
+			res.addResult(result);
+		res.setTerminationState(terminationState);
+		return res;
+	}
+
+	@Test
+	public void nextTest() {
+		Assert.assertEquals(DegradationLevel.NoPaths, DegradationLevel.None.next());
+		Assert.assertEquals(DegradationLevel.ShortAccessPaths, DegradationLevel.NoPaths.next());
+		Assert.assertEquals(DegradationLevel.FlowInsensitiveAliasing, DegradationLevel.ShortAccessPaths.next());
+		Assert.assertEquals(DegradationLevel.FlowInsensitiveStaticFields,
+				DegradationLevel.FlowInsensitiveAliasing.next());
+		Assert.assertEquals(DegradationLevel.ComponentAtATime, DegradationLevel.FlowInsensitiveStaticFields.next());
+		Assert.assertNull(DegradationLevel.ComponentAtATime.next());
+	}
+
+	@Test
+	public void applyTest() {
+		InfoflowAndroidConfiguration config = new InfoflowAndroidConfiguration();
+		config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Fast);
+		config.getAccessPathConfiguration().setAccessPathLength(5);
+		config.setAliasingAlgorithm(AliasingAlgorithm.FlowSensitive);
+		config.setStaticFieldTrackingMode(StaticFieldTrackingMode.ContextFlowSensitive);
+
+		Assert.assertFalse(DegradationLevel.None.apply(config));
+
+		Assert.assertTrue(DegradationLevel.NoPaths.apply(config));
+		Assert.assertEquals(PathReconstructionMode.NoPaths, config.getPathConfiguration().getPathReconstructionMode());
+		Assert.assertTrue(DegradationLevel.ShortAccessPaths.apply(config));
+		Assert.assertEquals(DegradationLevel.DEGRADED_ACCESS_PATH_LENGTH,
+				config.getAccessPathConfiguration().getAccessPathLength());
+		Assert.assertTrue(DegradationLevel.FlowInsensitiveAliasing.apply(config));
+		Assert.assertEquals(AliasingAlgorithm.PtsBased, config.getAliasingAlgorithm());
+		Assert.assertTrue(DegradationLevel.FlowInsensitiveStaticFields.apply(config));
+		Assert.assertEquals(StaticFieldTrackingMode.ContextFlowInsensitive, config.getStaticFieldTrackingMode());
+		Assert.assertTrue(DegradationLevel.ComponentAtATime.apply(config));
+		Assert.assertTrue(config.getOneComponentAtATime());
+
+		// Applying the levels again must not change anything
+		for (DegradationLevel level : DegradationLevel.values())
+			Assert.assertFalse(level.apply(config));
+	}
+
+	@Test
+	public void skipLevelsTest() {
+		// Levels that would not make the configuration any cheaper must be skipped
+		InfoflowAndroidConfiguration config = new InfoflowAndroidConfiguration();
+		config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.NoPaths);
+		config.getAccessPathConfiguration().setAccessPathLength(2);
+		config.setAliasingAlgorithm(AliasingAlgorithm.None);
+		config.setStaticFieldTrackingMode(StaticFieldTrackingMode.ContextFlowSensitive);
+
+		DegradationLevel level = DegradationLevel.None;
+		do {
+			level = level.next();
+		} while (level != null && !level.apply(config));
+		Assert.assertEquals(DegradationLevel.FlowInsensitiveStaticFields, level);
+		Assert.assertEquals(2, config.getAccessPathConfiguration().getAccessPathLength());
+		Assert.assertEquals(AliasingAlgorithm.None, config.getAliasingAlgorithm());
+
+		config.setStaticFieldTrackingMode(StaticFieldTrackingMode.None);
+		Assert.assertFalse(DegradationLevel.FlowInsensitiveStaticFields.apply(config));
+		Assert.assertEquals(StaticFieldTrackingMode.None, config.getStaticFieldTrackingMode());
+	}
+
+	@Test
+	public void rerunKeepsResultsTest() {
+		DataFlowResult abortedResult = createResult();
+		DataFlowResult rerunResult = createResult();
+
+		MultiRunResultAggregator aggregator = new MultiRunResultAggregator();
+		aggregator.onResultsAvailable(null, createResults(InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT, abortedResult));
+		Assert.assertTrue(aggregator.getLastResults().wasAbortedTimeout());
+
+		aggregator.startRerun(DegradationLevel.NoPaths);
+		aggregator.onResultsAvailable(null, createResults(InfoflowResults.TERMINATION_SUCCESS, rerunResult));
+
+		// The last results contain the results of both runs, but the re-run replaces
+		// the termination state of the aborted run
+		InfoflowResults lastResults = aggregator.getLastResults();
+		Assert.assertTrue(lastResults.getResultSet().contains(abortedResult));
+		Assert.assertTrue(lastResults.getResultSet().contains(rerunResult));
+		Assert.assertEquals(InfoflowResults.TERMINATION_SUCCESS, lastResults.getTerminationState());
+
+		aggregator.clearLastResults();
+		InfoflowResults aggregatedResults = aggregator.getAggregatedResults();
+		Assert.assertEquals(2, aggregatedResults.size());
+		Assert.assertEquals(InfoflowResults.TERMINATION_SUCCESS, aggregatedResults.getTerminationState());
+
+		// Each result remembers the level under which it has been found first
+		Assert.assertEquals(DegradationLevel.None, aggregator.getResultDegradationLevels().get(abortedResult));
+		Assert.assertEquals(DegradationLevel.NoPaths, aggregator.getResultDegradationLevels().get(rerunResult));
+	}
+
+	@Test
+	public void abortedRerunTest() {
+		MultiRunResultAggregator aggregator = new MultiRunResultAggregator();
+		aggregator.onResultsAvailable(null, createResults(InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT));
+		aggregator.startRerun(DegradationLevel.NoPaths);
+		aggregator.onResultsAvailable(null,
+				createResults(InfoflowResults.TERMINATION_DATA_FLOW_OOM, createResult()));
+
+		// The termination state of the last re-run is reported
+		Assert.assertEquals(InfoflowResults.TERMINATION_DATA_FLOW_OOM,
+				aggregator.getLastResults().getTerminationState());
+		aggregator.clearLastResults();
+		Assert.assertEquals(1, aggregator.getAggregatedResults().size());
+		Assert.assertTrue(aggregator.getAggregatedResults().wasTerminatedOutOfMemory());
+	}
+
+}
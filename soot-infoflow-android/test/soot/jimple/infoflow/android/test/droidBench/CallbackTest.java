@@ -85,6 +85,21 @@ public class CallbackTest extends JUnitTests {
 		Assert.assertEquals(2, res.size());
 	}
 
+	@Test(timeout = 300000)
+	public void runTestLocationLeak1Incremental() throws IOException, XmlPullParserException {
+		InfoflowResults res = analyzeAPKFile("Callbacks/LocationLeak1.apk", null, new AnalysisConfigurationCallback() {
+
+			@Override
+			public void configureAnalyzer(InfoflowAndroidConfiguration config) {
+				config.getCallbackConfig().setIncrementalCallgraph(true);
+			}
+		});
+
+		// Extending the callgraph incrementally must find the same callbacks
+		Assert.assertNotNull(res);
+		Assert.assertEquals(2, res.size());
+	}
+
 	@Test(timeout = 300000)
 	public void runTestLocationLeak2() throws IOException, XmlPullParserException {
 		InfoflowResults res = analyzeAPKFile("Callbacks/LocationLeak2.apk");
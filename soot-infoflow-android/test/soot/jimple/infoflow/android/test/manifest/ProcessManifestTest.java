@@ -1,5 +1,6 @@
 package soot.jimple.infoflow.android.test.manifest;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
@@ -8,7 +9,9 @@ import org.xmlpull.v1.XmlPullParserException;
 
 import soot.jimple.infoflow.android.axml.AXmlAttribute;
 import soot.jimple.infoflow.android.axml.AXmlNode;
+import soot.jimple.infoflow.android.axml.ApkIndex;
 import soot.jimple.infoflow.android.manifest.ProcessManifest;
+import soot.jimple.infoflow.android.resources.ARSCFileParser;
 
 public class ProcessManifestTest {
 	@Test
@@ -83,4 +86,42 @@ public class ProcessManifestTest {
 		}
 		org.junit.Assert.assertFalse(throwsException);
 	}
+
+	@Test
+	public void testSharedApkIndex() throws IOException, XmlPullParserException {
+		File apkFile = new File("testAPKs/FlowDroidAliasActivity.apk");
+		ProcessManifest expected = new ProcessManifest(apkFile);
+
+		try (ApkIndex index = new ApkIndex(apkFile)) {
+			ARSCFileParser resources = new ARSCFileParser();
+			resources.setApkIndex(index);
+			resources.parse(apkFile.getAbsolutePath());
+
+			ProcessManifest manifest = new ProcessManifest(index, resources);
+			org.junit.Assert.assertEquals(expected.getPackageName(), manifest.getPackageName());
+			org.junit.Assert.assertEquals(expected.getEntryPointClasses(), manifest.getEntryPointClasses());
+			org.junit.Assert.assertEquals(expected.getArscParser().getGlobalStringPool(),
+					resources.getGlobalStringPool());
+			org.junit.Assert.assertEquals(expected.getArscParser().findResourcesByType("string").size(),
+					resources.findResourcesByType("string").size());
+		}
+	}
+
+	@Test
+	public void testLazyResourceDecoding() throws IOException {
+		File apkFile = new File("testAPKs/FlowDroidAliasActivity.apk");
+		ARSCFileParser eager = new ARSCFileParser();
+		eager.parse(apkFile.getAbsolutePath());
+
+		try (ApkIndex index = new ApkIndex(apkFile)) {
+			ARSCFileParser lazy = new ARSCFileParser();
+			lazy.setApkIndex(index);
+			lazy.setLazyDecoding(true);
+			lazy.parse(apkFile.getAbsolutePath());
+
+			org.junit.Assert.assertEquals(eager.getGlobalStringPool(), lazy.getGlobalStringPool());
+			org.junit.Assert.assertEquals(eager.findResourcesByType("string"), lazy.findResourcesByType("string"));
+			org.junit.Assert.assertEquals(eager.getPackages(), lazy.getPackages());
+		}
+	}
 }
@@ -57,6 +57,30 @@ public class JUnitTests {
 	 */
 	public InfoflowResults analyzeAPKFile(String fileName, boolean enableImplicitFlows, boolean enableStaticFields,
 			boolean flowSensitiveAliasing) throws IOException, XmlPullParserException {
+		return analyzeAPKFile(fileName, enableImplicitFlows, enableStaticFields, flowSensitiveAliasing, null);
+	}
+
+	/**
+	 * Analyzes the given APK file for data flows
+	 * 
+	 * @param fileName              The full path and file name of the APK file to
+	 *                              analyze
+	 * @param enableImplicitFlows   True if implicit flows shall be tracked,
+	 *                              otherwise false
+	 * @param enableStaticFields    True if taints in static fields shall be
+	 *                              tracked, otherwise false
+	 * @param flowSensitiveAliasing True if a flow-sensitive alias analysis shall be
+	 *                              used, otherwise false
+	 * @param callgraphCacheDir     The directory in which to cache the callgraph,
+	 *                              or null to disable callgraph caching
+	 * @return The data leaks found in the given APK file
+	 * @throws IOException            Thrown if the given APK file or any other
+	 *                                required file could not be found
+	 * @throws XmlPullParserException Thrown if the Android manifest file could not
+	 *                                be read.
+	 */
+	public InfoflowResults analyzeAPKFile(String fileName, boolean enableImplicitFlows, boolean enableStaticFields,
+			boolean flowSensitiveAliasing, File callgraphCacheDir) throws IOException, XmlPullParserException {
 		String androidJars = System.getenv("ANDROID_JARS");
 		if (androidJars == null)
 			androidJars = System.getProperty("ANDROID_JARS");
@@ -78,6 +102,9 @@ public class JUnitTests {
 		setupApplication.getConfig().setStaticFieldTrackingMode(
 				enableStaticFields ? StaticFieldTrackingMode.ContextFlowSensitive : StaticFieldTrackingMode.None);
 		setupApplication.getConfig().setFlowSensitiveAliasing(flowSensitiveAliasing);
+		if (callgraphCacheDir != null)
+			setupApplication.getConfig().getAnalysisFileConfig()
+					.setCallgraphCacheDir(callgraphCacheDir.getAbsolutePath());
 
 //		setupApplication.getConfig().setDataFlowDirection(InfoflowConfiguration.DataFlowDirection.Backwards);
 
@@ -1,6 +1,8 @@
 package soot.jimple.infoflow.android.test.otherAPKs;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -26,6 +28,24 @@ public class OtherAPKTests extends JUnitTests {
 		Assert.assertEquals(1, res.size());
 	}
 	
+	@Test
+	public void runCallgraphCacheTest() throws IOException, XmlPullParserException {
+		File cacheDir = Files.createTempDirectory("callgraphs").toFile();
+		cacheDir.deleteOnExit();
+
+		// The first run builds the callgraph, the second one restores it from the
+		// cache
+		InfoflowResults res = analyzeAPKFile("testAPKs/enriched1.apk", false, false, false, cacheDir);
+		Assert.assertNotNull(res);
+		Assert.assertEquals(1, res.size());
+		Assert.assertEquals(1, cacheDir.list().length);
+
+		res = analyzeAPKFile("testAPKs/enriched1.apk", false, false, false, cacheDir);
+		Assert.assertNotNull(res);
+		Assert.assertEquals(1, res.size());
+		Assert.assertEquals(1, cacheDir.list().length);
+	}
+
 	@Test
 	public void runReturnParameterTest() throws IOException, XmlPullParserException {
 		InfoflowResults res = analyzeAPKFile
@@ -0,0 +1,94 @@
+package soot.jimple.infoflow.android.test.parallel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import soot.jimple.infoflow.android.ParallelAppAnalysis;
+import soot.jimple.infoflow.android.ParallelAppAnalysis.AppStatus;
+
+/**
+ * Tests for the classification of the workers in the {@link ParallelAppAnalysis}
+ */
+public class ParallelAppAnalysisTest {
+
+	/**
+	 * Worker that terminates with the exit code given as its first argument
+	 */
+	public static class ExitCodeWorker {
+
+		public static void main(String[] args) {
+			System.exit(Integer.parseInt(args[0]));
+		}
+
+	}
+
+	/**
+	 * Exposes the protected methods of the driver
+	 */
+	private static class TestAppAnalysis extends ParallelAppAnalysis {
+
+		public TestAppAnalysis(File outputDir, String exitCode) {
+			super(Collections.<File>emptyList(), outputDir, Arrays.asList(exitCode));
+			setWorkerMainClass(ExitCodeWorker.class.getName());
+		}
+
+		public AppStatus runWorker(File apkFile) throws IOException, InterruptedException {
+			return runWorker(apkFile, new File(apkFile.getParentFile(), "result.xml"), 0, false);
+		}
+
+		@Override
+		public long getNextHeapSize(long heapSize) {
+			return super.getNextHeapSize(heapSize);
+		}
+
+	}
+
+	private AppStatus runWorker(int exitCode) throws IOException, InterruptedException {
+		File tempDir = Files.createTempDirectory("flowdroid-apps").toFile();
+		try {
+			return new TestAppAnalysis(tempDir, String.valueOf(exitCode)).runWorker(new File(tempDir, "app.apk"));
+		} finally {
+			for (File f : tempDir.listFiles())
+				f.delete();
+			tempDir.delete();
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void successfulWorkerTest() throws IOException, InterruptedException {
+		Assert.assertEquals(AppStatus.Success, runWorker(0));
+	}
+
+	@Test(timeout = 60000)
+	public void failedWorkerTest() throws IOException, InterruptedException {
+		Assert.assertEquals(AppStatus.Failed, runWorker(1));
+	}
+
+	@Test(timeout = 60000)
+	public void outOfMemoryWorkerTest() throws IOException, InterruptedException {
+		Assert.assertEquals(AppStatus.OutOfMemory, runWorker(ParallelAppAnalysis.OUT_OF_MEMORY_EXIT_CODE));
+	}
+
+	@Test
+	public void nextHeapSizeTest() {
+		TestAppAnalysis analysis = new TestAppAnalysis(new File("."), "0");
+
+		// Without a maximum, we cannot grow the heap
+		Assert.assertEquals(0, analysis.getNextHeapSize(0));
+		Assert.assertEquals(1024, analysis.getNextHeapSize(1024));
+
+		analysis.setMaxWorkerHeapSize(4096);
+		Assert.assertEquals(4096, analysis.getNextHeapSize(0));
+		Assert.assertEquals(2048, analysis.getNextHeapSize(1024));
+		Assert.assertEquals(4096, analysis.getNextHeapSize(3000));
+		Assert.assertEquals(4096, analysis.getNextHeapSize(4096));
+		Assert.assertEquals(8192, analysis.getNextHeapSize(8192));
+	}
+
+}
@@ -0,0 +1,86 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+/**
+ * Benchmarks for {@link Abstraction#deriveNewAbstraction(AccessPath, Stmt)},
+ * which creates the new taint abstractions during propagation
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbstractionBenchmark {
+
+	private static final int CHAIN_LENGTH = 16;
+
+	private Abstraction source;
+	private AccessPath fieldPath;
+	private AccessPath otherFieldPath;
+	private Stmt[] stmts;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkFixtures.initializeSoot(BenchmarkFixtures.FIXTURE_CLASS, BenchmarkFixtures.NODE_CLASS);
+
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		Abstraction.initialize(config);
+		AccessPathFactory factory = new AccessPathFactory(config);
+
+		SootClass nodeClass = Scene.v().getSootClass(BenchmarkFixtures.NODE_CLASS);
+		Local base = Jimple.v().newLocal("n", nodeClass.getType());
+		fieldPath = factory.createAccessPath(base,
+				new SootField[] { nodeClass.getFieldByName("next"), nodeClass.getFieldByName("data") }, true);
+		otherFieldPath = factory.createAccessPath(base, new SootField[] { nodeClass.getFieldByName("name") }, true);
+
+		stmts = new Stmt[CHAIN_LENGTH];
+		for (int i = 0; i < CHAIN_LENGTH; i++)
+			stmts[i] = Jimple.v().newNopStmt();
+
+		source = new Abstraction(null, fieldPath, stmts[0], null, false, false);
+	}
+
+	@Benchmark
+	public Abstraction deriveNewAbstraction() {
+		return source.deriveNewAbstraction(otherFieldPath, stmts[1]);
+	}
+
+	/**
+	 * Derives a chain of abstractions as it happens when a taint is propagated
+	 * along a path of statements
+	 */
+	@Benchmark
+	public Abstraction deriveChain() {
+		Abstraction abs = source;
+		for (int i = 0; i < CHAIN_LENGTH; i++)
+			abs = abs.deriveNewAbstraction(i % 2 == 0 ? otherFieldPath : fieldPath, stmts[i]);
+		return abs;
+	}
+
+}
@@ -0,0 +1,91 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+/**
+ * Benchmarks for {@link AccessPathFactory#createAccessPath}, which is called
+ * for almost every flow function application
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessPathBenchmark {
+
+	private AccessPathFactory factory;
+
+	private Local base;
+	private SootField[] shortFields;
+	private SootField[] longFields;
+	private SootField[] recursiveFields;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkFixtures.initializeSoot(BenchmarkFixtures.FIXTURE_CLASS, BenchmarkFixtures.NODE_CLASS);
+
+		SootClass nodeClass = Scene.v().getSootClass(BenchmarkFixtures.NODE_CLASS);
+		SootField next = nodeClass.getFieldByName("next");
+		SootField data = nodeClass.getFieldByName("data");
+		SootField name = nodeClass.getFieldByName("name");
+
+		base = Jimple.v().newLocal("n", nodeClass.getType());
+		shortFields = new SootField[] { next, data };
+		longFields = new SootField[] { next, next, name, next, next, next, data };
+		recursiveFields = new SootField[] { next, data, next, data, next, data };
+
+		factory = new AccessPathFactory(new InfoflowConfiguration());
+	}
+
+	@Benchmark
+	public AccessPath localOnly() {
+		return factory.createAccessPath(base, true);
+	}
+
+	@Benchmark
+	public AccessPath shortPath() {
+		return factory.createAccessPath(base, shortFields, true);
+	}
+
+	/**
+	 * Creates an access path that exceeds the maximum access path length and must
+	 * be cut
+	 */
+	@Benchmark
+	public AccessPath longPath() {
+		return factory.createAccessPath(base, longFields, true);
+	}
+
+	/**
+	 * Creates an access path with repeated fields that is subject to the
+	 * recursive access path reduction
+	 */
+	@Benchmark
+	public AccessPath recursivePath() {
+		return factory.createAccessPath(base, recursiveFields, true);
+	}
+
+}
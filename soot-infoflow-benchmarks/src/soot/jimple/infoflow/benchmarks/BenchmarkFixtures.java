@@ -0,0 +1,112 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.jimple.infoflow.benchmarks.fixtures.PropagationFixture;
+import soot.jimple.infoflow.test.securibench.supportClasses.DummyHttpRequest;
+import soot.options.Options;
+
+/**
+ * Shared setup code for the benchmarks. All fixtures are loaded from the
+ * benchmark classpath and the local JDK, so the benchmarks run offline.
+ *
+ */
+public class BenchmarkFixtures {
+
+	public static final String FIXTURE_CLASS = PropagationFixture.class.getName();
+	public static final String NODE_CLASS = PropagationFixture.Node.class.getName();
+
+	public static final String FIXTURE_ENTRY_POINT = "<" + FIXTURE_CLASS + ": void main(java.lang.String[])>";
+	public static final String FIXTURE_SOURCE = "<" + FIXTURE_CLASS + ": java.lang.String source()>";
+	public static final String FIXTURE_SINK = "<" + FIXTURE_CLASS + ": void sink(java.lang.Object)>";
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Gets the path that contains the fixture classes and the SecuriBench code.
+	 * This is either a directory or the shaded benchmark JAR file.
+	 *
+	 * @return The application path for the analysis
+	 */
+	public static String getAppPath() {
+		return joinLocations(PropagationFixture.class, DummyHttpRequest.class);
+	}
+
+	/**
+	 * Gets the path that contains the libraries, i.e., the JDK runtime and the
+	 * servlet API
+	 *
+	 * @return The library path for the analysis
+	 */
+	public static String getLibPath() {
+		String rtJar = System.getProperty("java.home") + File.separator + "lib" + File.separator + "rt.jar";
+		return rtJar + File.pathSeparator + joinLocations(HttpServletRequest.class);
+	}
+
+	/**
+	 * Gets the classpath for Soot that contains both the application and the
+	 * libraries
+	 *
+	 * @return The Soot classpath
+	 */
+	public static String getSootClasspath() {
+		return getAppPath() + File.pathSeparator + getLibPath();
+	}
+
+	private static String joinLocations(Class<?>... classes) {
+		Set<String> locations = new LinkedHashSet<>();
+		for (Class<?> clazz : classes) {
+			try {
+				locations.add(new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+			} catch (URISyntaxException e) {
+				throw new RuntimeException("Could not find the location of class " + clazz.getName(), e);
+			}
+		}
+		return String.join(File.pathSeparator, locations);
+	}
+
+	/**
+	 * Resets Soot and loads the given classes including their method bodies. The
+	 * method does not build a callgraph.
+	 *
+	 * @param classes The classes to load
+	 */
+	public static void initializeSoot(String... classes) {
+		initializeSoot(Arrays.asList(classes));
+	}
+
+	/**
+	 * Resets Soot and loads the given classes including their method bodies. The
+	 * method does not build a callgraph.
+	 *
+	 * @param classes The classes to load
+	 */
+	public static void initializeSoot(Collection<String> classes) {
+		G.reset();
+
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Options.v().set_soot_classpath(getSootClasspath());
+		Options.v().setPhaseOption("jb.ulp", "off");
+
+		for (String className : classes)
+			Scene.v().addBasicClass(className, SootClass.BODIES);
+		Scene.v().loadNecessaryClasses();
+		for (String className : classes)
+			Scene.v().getSootClass(className).setApplicationClass();
+
+		Scene.v().getOrMakeFastHierarchy();
+	}
+
+}
@@ -0,0 +1,87 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.config.ConfigSecuriBench;
+import soot.jimple.infoflow.entryPointCreators.DefaultEntryPointCreator;
+
+/**
+ * End-to-end benchmark that runs the complete data flow analysis, including
+ * Soot and callgraph construction, on a fixed subset of SecuriBench Micro
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SecuriBenchBenchmark {
+
+	private static final List<String> SOURCES = Arrays.asList(
+			"<javax.servlet.ServletRequest: java.lang.String getParameter(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: java.lang.String getParameter(java.lang.String)>",
+			"<javax.servlet.ServletRequest: java.lang.String[] getParameterValues(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: java.lang.String[] getParameterValues(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: java.lang.String getHeader(java.lang.String)>",
+			"<javax.servlet.http.HttpServletRequest: javax.servlet.http.Cookie[] getCookies()>");
+
+	private static final List<String> SINKS = Arrays.asList("<java.io.PrintWriter: void println(java.lang.String)>",
+			"<java.io.PrintWriter: void println(java.lang.Object)>",
+			"<java.sql.Statement: java.sql.ResultSet executeQuery(java.lang.String)>");
+
+	private static final List<String> SUBSTITUTED_CLASSES = Arrays.asList(
+			"soot.jimple.infoflow.test.securibench.supportClasses.DummyHttpRequest",
+			"soot.jimple.infoflow.test.securibench.supportClasses.DummyHttpResponse");
+
+	/**
+	 * The test case relative to the <code>securibench.micro</code> package
+	 */
+	@Param({ "basic.Basic1", "basic.Basic5", "aliasing.Aliasing1", "collections.Collections1", "inter.Inter1",
+			"datastructures.Datastructures1" })
+	public String testCase;
+
+	private String appPath;
+	private String libPath;
+	private String entryPoint;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		appPath = BenchmarkFixtures.getAppPath();
+		libPath = BenchmarkFixtures.getLibPath();
+		entryPoint = "<securibench.micro." + testCase
+				+ ": void doGet(javax.servlet.http.HttpServletRequest,javax.servlet.http.HttpServletResponse)>";
+	}
+
+	@Benchmark
+	public int analyze() {
+		DefaultEntryPointCreator entryPointCreator = new DefaultEntryPointCreator(
+				Collections.singletonList(entryPoint));
+		entryPointCreator.setSubstituteCallParams(true);
+		entryPointCreator.setSubstituteClasses(SUBSTITUTED_CLASSES);
+
+		Infoflow infoflow = new Infoflow();
+		infoflow.setSootConfig(new ConfigSecuriBench());
+		infoflow.getConfig().setInspectSinks(false);
+		infoflow.computeInfoflow(appPath, libPath, entryPointCreator, SOURCES, SINKS);
+		return infoflow.isResultAvailable() ? infoflow.getResults().size() : -1;
+	}
+
+}
@@ -0,0 +1,75 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
+import soot.jimple.infoflow.sourcesSinks.manager.DefaultSourceSinkManager;
+
+/**
+ * Benchmark for the IFDS solvers. The callgraph of the fixture code is built
+ * once per trial, so that every invocation only measures the data flow
+ * analysis, i.e., mainly the propagation of the taint abstractions.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SolverBenchmark {
+
+	@Param({ "ContextFlowSensitive", "GarbageCollecting" })
+	public DataFlowSolver solver;
+
+	@Param({ "false", "true" })
+	public boolean batchedPropagation;
+
+	private String appPath;
+	private String libPath;
+
+	@Setup(Level.Trial)
+	public void buildCallgraph() {
+		appPath = BenchmarkFixtures.getAppPath();
+		libPath = BenchmarkFixtures.getLibPath();
+		runInfoflow(SootIntegrationMode.CreateNewInstance);
+	}
+
+	@Benchmark
+	public int solve() {
+		return runInfoflow(SootIntegrationMode.UseExistingCallgraph);
+	}
+
+	private int runInfoflow(SootIntegrationMode integrationMode) {
+		Infoflow infoflow = new Infoflow();
+		infoflow.getConfig().setSootIntegrationMode(integrationMode);
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(solver);
+		infoflow.getConfig().getSolverConfiguration().setBatchedPropagation(batchedPropagation);
+
+		// We must not modify the shared method bodies
+		infoflow.getConfig().setCodeEliminationMode(CodeEliminationMode.NoCodeElimination);
+
+		infoflow.computeInfoflow(appPath, libPath, BenchmarkFixtures.FIXTURE_ENTRY_POINT,
+				new DefaultSourceSinkManager(Collections.singleton(BenchmarkFixtures.FIXTURE_SOURCE),
+						Collections.singleton(BenchmarkFixtures.FIXTURE_SINK)));
+		return infoflow.isResultAvailable() ? infoflow.getResults().size() : -1;
+	}
+
+}
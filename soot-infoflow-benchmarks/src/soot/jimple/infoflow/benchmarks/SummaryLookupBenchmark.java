@@ -0,0 +1,92 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import soot.Scene;
+import soot.jimple.infoflow.methodSummary.data.provider.IMethodSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.LazySummaryProvider;
+import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
+import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryQuery;
+import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryResolver;
+
+/**
+ * Benchmarks for looking up the summaries of library methods with the
+ * {@link SummaryResolver}. The queries cover direct hits, lookups via the
+ * declared type at the call site, and lookups through the class hierarchy.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryLookupBenchmark {
+
+	private static final String[] CLASSES = { "java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap",
+			"java.util.List", "java.util.Map", "java.lang.StringBuilder" };
+
+	private IMethodSummaryProvider provider;
+	private SummaryResolver cachedResolver;
+	private SummaryQuery[] queries;
+
+	@Setup(Level.Trial)
+	public void setup() throws URISyntaxException, IOException {
+		BenchmarkFixtures.initializeSoot(CLASSES);
+
+		Scene scene = Scene.v();
+		queries = new SummaryQuery[] {
+				new SummaryQuery(scene.getSootClass("java.util.ArrayList"), scene.getSootClass("java.util.List"),
+						"boolean add(java.lang.Object)"),
+				new SummaryQuery(scene.getSootClass("java.util.LinkedList"), scene.getSootClass("java.util.List"),
+						"java.lang.Object get(int)"),
+				new SummaryQuery(scene.getSootClass("java.util.HashMap"), scene.getSootClass("java.util.Map"),
+						"java.lang.Object put(java.lang.Object,java.lang.Object)"),
+				new SummaryQuery(scene.getSootClass("java.lang.StringBuilder"),
+						scene.getSootClass("java.lang.StringBuilder"), "java.lang.StringBuilder append(java.lang.String)"),
+				new SummaryQuery(null, scene.getSootClass("java.util.List"), "java.util.Iterator iterator()"),
+				new SummaryQuery(scene.getSootClass("java.util.ArrayList"), null, "void doesNotExist()") };
+
+		provider = new LazySummaryProvider(TaintWrapperFactory.DEFAULT_SUMMARY_DIR);
+
+		// Load all summaries that we need, we do not want to measure XML parsing
+		cachedResolver = new SummaryResolver(provider);
+		for (SummaryQuery query : queries)
+			cachedResolver.resolve(query);
+	}
+
+	/**
+	 * Resolves all queries without the cache inside the {@link SummaryResolver}
+	 */
+	@Benchmark
+	public void resolveUncached(Blackhole bh) {
+		SummaryResolver resolver = new SummaryResolver(provider);
+		for (SummaryQuery query : queries)
+			bh.consume(resolver.resolve(query));
+	}
+
+	/**
+	 * Resolves all queries from the cache inside the {@link SummaryResolver}
+	 */
+	@Benchmark
+	public void resolveCached(Blackhole bh) {
+		for (SummaryQuery query : queries)
+			bh.consume(cachedResolver.resolve(query));
+	}
+
+}
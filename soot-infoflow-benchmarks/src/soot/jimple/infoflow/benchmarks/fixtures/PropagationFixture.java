@@ -0,0 +1,119 @@
+package soot.jimple.infoflow.benchmarks.fixtures;
+
+/**
+ * Fixed target code for the solver and access path benchmarks. The code is
+ * never executed, it is only analyzed. It contains heap objects, aliasing,
+ * loops and helper methods with multiple call sites, so that the data flow
+ * solver has to compute a reasonable number of jump functions and summaries.
+ *
+ * Do not change this class without re-baselining the benchmark results.
+ */
+public class PropagationFixture {
+
+	public static class Node {
+		public Node next;
+		public Object data;
+		public String name;
+	}
+
+	public static class Container {
+		public Node head;
+		public Node tail;
+		public Object[] items = new Object[16];
+		public int size;
+
+		public void add(Object o) {
+			Node n = new Node();
+			n.data = o;
+			if (head == null)
+				head = n;
+			else
+				tail.next = n;
+			tail = n;
+			items[size++ % items.length] = o;
+		}
+
+		public Object get(int idx) {
+			Node n = head;
+			for (int i = 0; i < idx && n != null; i++)
+				n = n.next;
+			return n == null ? null : n.data;
+		}
+
+		public Object getItem(int idx) {
+			return items[idx % items.length];
+		}
+	}
+
+	public static String source() {
+		return "secret";
+	}
+
+	public static void sink(Object o) {
+		System.out.println(o);
+	}
+
+	private static String wrap(String s) {
+		return "[" + s + "]";
+	}
+
+	private static Object identity(Object o) {
+		return o;
+	}
+
+	private static Node chain(Object o, int length) {
+		Node first = new Node();
+		Node cur = first;
+		for (int i = 0; i < length; i++) {
+			cur.next = new Node();
+			cur = cur.next;
+		}
+		cur.data = identity(o);
+		return first;
+	}
+
+	private static void copyFields(Node from, Node to) {
+		to.data = from.data;
+		to.name = from.name;
+	}
+
+	private static void fillContainer(Container c, int count) {
+		for (int i = 0; i < count; i++)
+			c.add(i % 3 == 0 ? wrap(source()) : wrap("public"));
+	}
+
+	public static void main(String[] args) {
+		// Simple flows through helper methods
+		String secret = source();
+		sink(identity(wrap(secret)));
+		sink(identity(wrap("public")));
+
+		// Flows through heap objects and aliases
+		Node n = chain(secret, 8);
+		Node alias = n;
+		while (alias.next != null)
+			alias = alias.next;
+		sink(alias.data);
+
+		Node copy = new Node();
+		copyFields(alias, copy);
+		copy.name = wrap(secret);
+		sink(copy.name);
+
+		// Flows through collections-like containers
+		Container c1 = new Container();
+		Container c2 = new Container();
+		fillContainer(c1, args.length);
+		fillContainer(c2, args.length * 2);
+		for (int i = 0; i < args.length; i++) {
+			sink(c1.get(i));
+			sink(c2.getItem(i));
+		}
+
+		// Overwritten taints
+		Node overwritten = chain(secret, 2);
+		overwritten.next.next.data = "public";
+		sink(overwritten.next.next.data);
+	}
+
+}
@@ -0,0 +1,286 @@
+package soot.jimple.infoflow.cmd;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server that accepts data flow analysis jobs on a local socket and runs them
+ * one after another in the same JVM. This saves the JVM startup and warmup as
+ * well as the loading of the taint wrapper and the source/sink definitions for
+ * every app.
+ *
+ * The protocol is line-based. A client connects, sends the secret token of the
+ * server on the first line, then the command-line options of the job with one
+ * argument per line, and terminates the job with an empty line. Requests with
+ * a wrong token are rejected with {@link #RESPONSE_UNAUTHORIZED}, because
+ * other local users could otherwise make the server read and write arbitrary
+ * files with its permissions. The server replies with a single line that starts with
+ * {@link #RESPONSE_OK} or {@link #RESPONSE_FAILED} once the job has finished.
+ * A job that only consists of the {@link #SHUTDOWN_COMMAND} stops the server.
+ * If a job fails, including errors such as running out of memory, the server
+ * replies with {@link #RESPONSE_FAILED} and resets the global state before it
+ * accepts the next job.
+ * The server only listens on the loopback interface. The token is written to
+ * a file that only the owner can read, see {@link #createTokenFile(File)}.
+ *
+ */
+public class AnalysisServer implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(AnalysisServer.class);
+
+	public static final String SHUTDOWN_COMMAND = "SHUTDOWN";
+	public static final String RESPONSE_OK = "OK";
+	public static final String RESPONSE_FAILED = "FAILED";
+	public static final String RESPONSE_UNAUTHORIZED = "UNAUTHORIZED";
+
+	/**
+	 * The number of random bytes in a token
+	 */
+	private static final int TOKEN_BYTES = 32;
+
+	/**
+	 * Handler that runs the jobs received by the server
+	 */
+	public interface IJobHandler {
+
+		/**
+		 * Runs the job with the given command-line options
+		 *
+		 * @param args The command-line options of the job
+		 * @throws Exception Thrown if the job has failed
+		 */
+		public void runJob(String[] args) throws Exception;
+
+		/**
+		 * Discards all global state that a failed job may have left behind, e.g., a
+		 * partially constructed Soot scene, so that the next job starts from a clean
+		 * state
+		 */
+		public void reset();
+
+	}
+
+	private final ServerSocket serverSocket;
+	private final byte[] token;
+	private final IJobHandler jobHandler;
+
+	private int jobCount = 0;
+
+	/**
+	 * Creates a new instance of the {@link AnalysisServer} class
+	 *
+	 * @param port       The local port on which to listen, or zero to pick a free
+	 *                   port
+	 * @param token      The secret token that clients must send with every job
+	 * @param jobHandler The handler that runs the jobs
+	 * @throws IOException Thrown if the server socket could not be opened
+	 */
+	public AnalysisServer(int port, String token, IJobHandler jobHandler) throws IOException {
+		if (token == null || token.isEmpty())
+			throw new IllegalArgumentException("The server requires a token");
+		this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		this.token = token.getBytes(StandardCharsets.UTF_8);
+		this.jobHandler = jobHandler;
+	}
+
+	/**
+	 * Creates a new random token and writes it into the given file. If the file
+	 * system supports POSIX permissions, only the owner can read the file.
+	 * Clients that run as the same user read the token from this file.
+	 *
+	 * @param tokenFile The file into which to write the token. An existing file
+	 *                  is replaced.
+	 * @return The new token
+	 * @throws IOException Thrown if the token file could not be written
+	 */
+	public static String createTokenFile(File tokenFile) throws IOException {
+		byte[] bytes = new byte[TOKEN_BYTES];
+		new SecureRandom().nextBytes(bytes);
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes)
+			sb.append(String.format("%02x", b));
+		String token = sb.toString();
+
+		// Create the file with restricted permissions right away, so that nobody can
+		// read the token before we change the permissions
+		Path path = tokenFile.getAbsoluteFile().toPath();
+		Files.deleteIfExists(path);
+		if (Files.getFileStore(path.getParent()).supportsFileAttributeView(PosixFileAttributeView.class))
+			Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		else {
+			Files.createFile(path);
+			File file = path.toFile();
+			file.setReadable(false, false);
+			file.setReadable(true, true);
+			file.setWritable(false, false);
+			file.setWritable(true, true);
+		}
+		Files.write(path, token.getBytes(StandardCharsets.UTF_8));
+		return token;
+	}
+
+	/**
+	 * Accepts and runs jobs until the server is shut down
+	 *
+	 * @throws IOException Thrown if the server socket fails
+	 */
+	public void serve() throws IOException {
+		logger.info(String.format("Analysis server is listening on port %d", getPort()));
+		while (!serverSocket.isClosed()) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (SocketException e) {
+				// The server has been closed while we were waiting for a client
+				if (serverSocket.isClosed())
+					break;
+				throw e;
+			}
+
+			try (Socket client = socket;
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+					Writer writer = new BufferedWriter(
+							new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+				List<String> args = readJob(reader);
+				if (args.isEmpty())
+					continue;
+				if (!isAuthorized(args.remove(0))) {
+					logger.warn("Rejected a job with an invalid token");
+					writeResponse(writer, RESPONSE_UNAUTHORIZED);
+					continue;
+				}
+				if (args.isEmpty())
+					continue;
+				if (args.size() == 1 && args.get(0).equals(SHUTDOWN_COMMAND)) {
+					logger.info("Shutting down the analysis server");
+					writeResponse(writer, RESPONSE_OK);
+					close();
+					break;
+				}
+				writeResponse(writer, runJob(args));
+			} catch (IOException e) {
+				// A broken connection must not take down the server
+				logger.error("Could not communicate with the client", e);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given token matches the token of this server. The
+	 * comparison takes the same time for all tokens of the same length, so it
+	 * does not reveal how many characters are correct.
+	 *
+	 * @param clientToken The token that the client has sent
+	 * @return True if the client may submit jobs, false otherwise
+	 */
+	private boolean isAuthorized(String clientToken) {
+		return MessageDigest.isEqual(token, clientToken.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Runs the job with the given command-line options
+	 *
+	 * @param args The command-line options of the job
+	 * @return The response for the client
+	 */
+	private String runJob(List<String> args) {
+		int jobId = ++jobCount;
+		logger.info(String.format("Running job %d: %s", jobId, String.join(" ", args)));
+		long nanosBeforeJob = System.nanoTime();
+		try {
+			jobHandler.runJob(args.toArray(new String[args.size()]));
+			logger.info(String.format("Job %d done in %.2f seconds", jobId, (System.nanoTime() - nanosBeforeJob) / 1E9));
+			return RESPONSE_OK;
+		} catch (Throwable t) {
+			logger.error(String.format("Job %d has failed", jobId), t);
+			resetAfterFailure(jobId);
+			String message = t.getMessage();
+			if (message == null && t instanceof Error)
+				message = t.getClass().getSimpleName();
+			return message == null ? RESPONSE_FAILED
+					: RESPONSE_FAILED + " " + message.replace('\r', ' ').replace('\n', ' ');
+		}
+	}
+
+	/**
+	 * Resets the global state after a failed job
+	 *
+	 * @param jobId The ID of the job that has failed
+	 */
+	private void resetAfterFailure(int jobId) {
+		try {
+			jobHandler.reset();
+		} catch (Throwable t) {
+			logger.error(String.format("Could not reset the state after job %d", jobId), t);
+		}
+	}
+
+	/**
+	 * Reads the command-line options of a job from the given reader. The job ends
+	 * with an empty line or the end of the stream.
+	 *
+	 * @param reader The reader from which to read the job
+	 * @return The command-line options of the job
+	 * @throws IOException Thrown if the job could not be read
+	 */
+	private static List<String> readJob(BufferedReader reader) throws IOException {
+		List<String> args = new ArrayList<>();
+		String line;
+		while ((line = reader.readLine()) != null && !line.isEmpty())
+			args.add(line);
+		return args;
+	}
+
+	private static void writeResponse(Writer writer, String response) throws IOException {
+		writer.write(response);
+		writer.write('\n');
+		writer.flush();
+	}
+
+	/**
+	 * Gets the local port on which this server is listening
+	 *
+	 * @return The port of this server
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Gets the number of jobs that this server has received so far
+	 *
+	 * @return The number of jobs
+	 */
+	public int getJobCount() {
+		return jobCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+	}
+
+}
@@ -3,21 +3,30 @@ package soot.jimple.infoflow.cmd;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xmlpull.v1.XmlPullParserException;
 
+import soot.G;
 import soot.Modifier;
 import soot.Scene;
 import soot.SootClass;
@@ -28,6 +37,7 @@ import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
 import soot.jimple.infoflow.InfoflowConfiguration.ImplicitFlowMode;
+import soot.jimple.infoflow.InfoflowConfiguration.JumpFunctionStore;
 import soot.jimple.infoflow.InfoflowConfiguration.LayoutMatchingMode;
 import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
@@ -36,15 +46,27 @@ import soot.jimple.infoflow.InfoflowConfiguration.DataFlowDirection;
 import soot.jimple.infoflow.aliasing.sparse.SparseAliasEval;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.CallbackAnalyzer;
+import soot.jimple.infoflow.android.ParallelAppAnalysis;
+import soot.jimple.infoflow.android.ParallelAppAnalysis.AppResult;
+import soot.jimple.infoflow.android.ParallelAppAnalysis.AppStatus;
+import soot.jimple.infoflow.android.ParallelComponentAnalysis;
 import soot.jimple.infoflow.android.SetupApplication;
 import soot.jimple.infoflow.android.config.XMLConfigurationParser;
+import soot.jimple.infoflow.android.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.android.results.xml.StreamingResultsSerializer;
 import soot.jimple.infoflow.handlers.PreAnalysisHandler;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
+import soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants;
 import soot.jimple.infoflow.methodSummary.data.provider.IMethodSummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.provider.LazySummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
 import soot.jimple.infoflow.methodSummary.taintWrappers.ReportMissingSummaryWrapper;
 import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
 import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinitionProvider;
 import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.taintWrappers.TaintWrapperSet;
@@ -67,12 +89,21 @@ public class MainClass {
 
 	protected Set<String> filesToSkip = new HashSet<>();
 
+	/**
+	 * True if the data flow analysis of at least one app has been aborted, because
+	 * it ran out of memory
+	 */
+	private boolean outOfMemory = false;
+
+	private Map<String, ISourceSinkDefinitionProvider> sourceSinkProviders = null;
+
 	// Files
 	private static final String OPTION_CONFIG_FILE = "c";
 	private static final String OPTION_APK_FILE = "a";
 	private static final String OPTION_PLATFORMS_DIR = "p";
 	private static final String OPTION_SOURCES_SINKS_FILE = "s";
 	private static final String OPTION_OUTPUT_FILE = "o";
+	private static final String OPTION_RESULT_STREAM_FILE = "rs";
 	private static final String OPTION_ADDITIONAL_CLASSPATH = "ac";
 	private static final String OPTION_SKIP_APK_FILE = "si";
 	private static final String OPTION_WRITE_JIMPLE_FILES = "wj";
@@ -95,6 +126,7 @@ public class MainClass {
 	// Taint wrapper
 	private static final String OPTION_TAINT_WRAPPER = "tw";
 	private static final String OPTION_TAINT_WRAPPER_FILE = "t";
+	private static final String OPTION_SUMMARY_APPLICATION_CACHE = "sac";
 
 	// Individual settings
 	private static final String OPTION_ACCESS_PATH_LENGTH = "al";
@@ -103,12 +135,22 @@ public class MainClass {
 	private static final String OPTION_COMPUTE_PATHS = "cp";
 	private static final String OPTION_ONE_SOURCE = "os";
 	private static final String OPTION_ONE_COMPONENT = "ot";
+	private static final String OPTION_DEGRADE_ON_ABORT = "dg";
+	private static final String OPTION_COMPONENT = "cn";
+	private static final String OPTION_COMPONENT_WORKERS = "cw";
+	private static final String OPTION_WORKER_JVM_ARGS = "wa";
+	private static final String OPTION_APP_WORKERS = "aw";
+	private static final String OPTION_WORKER_HEAP = "wh";
+	private static final String OPTION_MAX_WORKER_HEAP = "mh";
+	private static final String OPTION_DEGRADED_WORKER_ARGS = "da";
+	private static final String OPTION_JOB_TIMEOUT = "jt";
 	private static final String OPTION_SEQUENTIAL_PATHS = "sp";
 	private static final String OPTION_LOG_SOURCES_SINKS = "ls";
 	private static final String OPTION_MERGE_DEX_FILES = "d";
 	private static final String OPTION_SINGLE_JOIN_POINT = "sa";
 	private static final String OPTION_MAX_CALLBACKS_COMPONENT = "mc";
 	private static final String OPTION_MAX_CALLBACKS_DEPTH = "md";
+	private static final String OPTION_INCREMENTAL_CALLGRAPH = "ic";
 	private static final String OPTION_PATH_SPECIFIC_RESULTS = "ps";
 
 	// Inter-component communication
@@ -121,6 +163,11 @@ public class MainClass {
 	private static final String OPTION_PATH_RECONSTRUCTION_ALGO = "pa";
 	private static final String OPTION_CALLBACK_ANALYZER = "ca";
 	private static final String OPTION_DATA_FLOW_SOLVER = "ds";
+	private static final String OPTION_JUMP_FUNCTION_STORE = "jf";
+	private static final String OPTION_GC_HEAP_BUDGET = "gcb";
+	private static final String OPTION_JUMP_FUNCTION_SPILL = "jfs";
+	private static final String OPTION_BATCHED_PROPAGATION = "bp";
+	private static final String OPTION_END_SUMMARY_CACHE = "esc";
 	private static final String OPTION_ALIAS_ALGO = "aa";
 	private static final String OPTION_CODE_ELIMINATION_MODE = "ce";
 	private static final String OPTION_CALLBACK_SOURCE_MODE = "cs";
@@ -135,6 +182,28 @@ public class MainClass {
 	// Callgraph analysis
 	private static final String OPTION_CALLGRAPH_FILE = "cf";
 	private static final String OPTION_CALLGRAPH_ONLY = "x";
+	private static final String OPTION_CALLGRAPH_CACHE_DIR = "cc";
+
+	// Server mode
+	private static final String OPTION_SERVER = "srv";
+	private static final String OPTION_SERVER_TOKEN_FILE = "srvt";
+
+	/**
+	 * Time in seconds that an app worker gets for building the callgraph and
+	 * writing the results on top of the configured analysis timeouts
+	 */
+	private static final int JOB_TIMEOUT_GRACE_PERIOD = 600;
+
+	/**
+	 * The settings with which an app is analyzed once it has run out of memory with
+	 * the maximum heap size
+	 */
+	private static final String DEFAULT_DEGRADED_WORKER_ARGS = "-al 3 -pr NONE -af";
+
+	/**
+	 * The exit code of the command-line tool if the analysis has failed
+	 */
+	public static final int EXIT_CODE_FAILED = 1;
 
 	protected MainClass() {
 		initializeCommandLineOptions();
@@ -151,8 +220,13 @@ public class MainClass {
 		options.addOption(OPTION_APK_FILE, "apkfile", true, "APK file to analyze");
 		options.addOption(OPTION_PLATFORMS_DIR, "platformsdir", true,
 				"Path to the platforms directory from the Android SDK");
-		options.addOption(OPTION_SOURCES_SINKS_FILE, "sourcessinksfile", true, "Definition file for sources and sinks");
+		options.addOption(OPTION_SOURCES_SINKS_FILE, "sourcessinksfile", true,
+				"Definition file for sources and sinks. Multiple files separated by the path separator are "
+						+ "analyzed one after another on the same callgraph.");
 		options.addOption(OPTION_OUTPUT_FILE, "outputfile", true, "Output XML file for the discovered data flows");
+		options.addOption(OPTION_RESULT_STREAM_FILE, "resultstream", true,
+				"File into which to write the data flows while the analysis is still running. Files ending "
+						+ "with .json, .jsonl, or .ndjson receive newline-delimited JSON, all others receive XML.");
 		options.addOption(OPTION_ADDITIONAL_CLASSPATH, "additionalclasspath", true,
 				"Additional JAR file that shal be put on the classpath");
 		options.addOption(OPTION_SKIP_APK_FILE, "skipapkfile", true,
@@ -184,6 +258,8 @@ public class MainClass {
 		options.addOption(OPTION_TAINT_WRAPPER, "taintwrapper", true,
 				"Use the specified taint wrapper algorithm (NONE, EASY, STUBDROID, MULTI)");
 		options.addOption(OPTION_TAINT_WRAPPER_FILE, "taintwrapperfile", true, "Definition file for the taint wrapper");
+		options.addOption(OPTION_SUMMARY_APPLICATION_CACHE, "summaryapplicationcache", true,
+				"Re-use up to the given number of StubDroid summary applications across call sites");
 
 		// Individual settings
 		options.addOption(OPTION_ACCESS_PATH_LENGTH, "aplength", true, "Maximum access path length");
@@ -198,6 +274,25 @@ public class MainClass {
 		options.addOption("mt", "maxthreadnum", true, "Limit the maximum number of threads to the given value");
 		options.addOption(OPTION_ONE_COMPONENT, "onecomponentatatime", false,
 				"Analyze one Android component at a time");
+		options.addOption(OPTION_DEGRADE_ON_ABORT, "degradeonabort", false,
+				"Re-run the data flow analysis with progressively cheaper settings if it runs out of memory or time");
+		options.addOption(OPTION_COMPONENT, "component", true,
+				"Only analyze the Android component with the given class name");
+		options.addOption(OPTION_COMPONENT_WORKERS, "componentworkers", true,
+				"Analyze multiple components in parallel using the given number of worker processes. "
+						+ "Only used together with -" + OPTION_ONE_COMPONENT + ".");
+		options.addOption(OPTION_WORKER_JVM_ARGS, "workerjvmargs", true,
+				"Options for the JVMs of the worker processes, e.g., \"-Xmx8g\"");
+		options.addOption(OPTION_APP_WORKERS, "appworkers", true,
+				"Analyze the apps in a directory using the given number of worker processes");
+		options.addOption(OPTION_WORKER_HEAP, "workerheap", true,
+				"Heap size of the app worker processes, e.g., 4g");
+		options.addOption(OPTION_MAX_WORKER_HEAP, "maxworkerheap", true,
+				"Heap size up to which app workers that ran out of memory are retried, e.g., 16g");
+		options.addOption(OPTION_DEGRADED_WORKER_ARGS, "degradedargs", true,
+				"Options for app workers that ran out of memory with the maximum heap size, e.g., \"-al 3 -pr NONE\"");
+		options.addOption(OPTION_JOB_TIMEOUT, "jobtimeout", true,
+				"Time in seconds after which an app worker is killed");
 		options.addOption(OPTION_ONE_SOURCE, "onesourceatatime", false, "Analyze one source at a time");
 		options.addOption(OPTION_SEQUENTIAL_PATHS, "sequentialpathprocessing", false,
 				"Process the result paths sequentially instead of in parallel");
@@ -207,6 +302,8 @@ public class MainClass {
 				"Eliminate Android components that have more than the given number of callbacks");
 		options.addOption(OPTION_MAX_CALLBACKS_DEPTH, "maxcallbacksdepth", true,
 				"Only analyze callback chains up to the given depth");
+		options.addOption(OPTION_INCREMENTAL_CALLGRAPH, "incrementalcallgraph", false,
+				"Extend the callgraph incrementally during the callback analysis instead of rebuilding it every time");
 		options.addOption(OPTION_MERGE_DEX_FILES, "mergedexfiles", false,
 				"Merge all dex files in the given APK file into one analysis target");
 		options.addOption(OPTION_PATH_SPECIFIC_RESULTS, "pathspecificresults", false,
@@ -229,6 +326,16 @@ public class MainClass {
 				"Use the specified callback analyzer (DEFAULT, FAST)");
 		options.addOption(OPTION_DATA_FLOW_SOLVER, "dataflowsolver", true,
 				"Use the specified data flow solver (CONTEXTFLOWSENSITIVE, FLOWINSENSITIVE)");
+		options.addOption(OPTION_JUMP_FUNCTION_STORE, "jumpfunctions", true,
+				"Use the specified data structure for the jump functions of the data flow solver (HASHMAP, PRIMITIVE)");
+		options.addOption(OPTION_GC_HEAP_BUDGET, "gcheapbudget", true,
+				"Let the garbage-collecting data flow solver adapt to the heap usage and keep it below the given fraction of the maximum heap size, e.g., 0.8");
+		options.addOption(OPTION_JUMP_FUNCTION_SPILL, "jumpfunctionspill", true,
+				"Let the garbage-collecting data flow solver evict jump functions to disk when the given fraction of the maximum heap size remains in use, e.g., 0.7");
+		options.addOption(OPTION_BATCHED_PROPAGATION, "batchpropagation", false,
+				"Process the pending edges of the same method and context in batches");
+		options.addOption(OPTION_END_SUMMARY_CACHE, "endsummarycache", true,
+				"Keep the end summaries of the data flow solver in the given file and reuse them for unchanged methods in later runs");
 		options.addOption(OPTION_ALIAS_ALGO, "aliasalgo", true,
 				"Use the specified aliasing algorithm (NONE, FLOWSENSITIVE, PTSBASED, LAZY)");
 		options.addOption(OPTION_CODE_ELIMINATION_MODE, "codeelimination", true,
@@ -252,19 +359,39 @@ public class MainClass {
 		options.addOption(OPTION_CALLGRAPH_FILE, "callgraphdir", true,
 				"The file in which to store and from which to read serialized callgraphs");
 		options.addOption(OPTION_CALLGRAPH_ONLY, "callgraphonly", false, "Only compute the callgraph and terminate");
+		options.addOption(OPTION_CALLGRAPH_CACHE_DIR, "callgraphcachedir", true,
+				"The directory in which to cache callgraphs across runs on the same app");
+
+		// Server mode
+		options.addOption(OPTION_SERVER, "server", true,
+				"Run as a server that accepts analysis jobs on the given local port");
+		options.addOption(OPTION_SERVER_TOKEN_FILE, "servertokenfile", true,
+				"The file into which the server writes the secret token that clients must send with every job. "
+						+ "Defaults to .flowdroid-server-token in the user's home directory");
 	}
 
 	public static void main(String[] args) throws Exception {
 		MainClass main = new MainClass();
-		main.run(args);
+		int exitCode = main.run(args);
+		if (exitCode != 0)
+			System.exit(exitCode);
 	}
 
-	protected void run(String[] args) throws Exception {
+	/**
+	 * Runs the command-line tool with the given options
+	 * 
+	 * @param args The command-line options
+	 * @return The exit code, i.e., zero on success,
+	 *         {@link ParallelAppAnalysis#OUT_OF_MEMORY_EXIT_CODE} if the analysis
+	 *         of an app has been aborted because it ran out of memory, and
+	 *         {@link #EXIT_CODE_FAILED} if the analysis has failed otherwise
+	 */
+	protected int run(String[] args) throws Exception {
 		// We need proper parameters
 		final HelpFormatter formatter = new HelpFormatter();
 		if (args.length == 0) {
 			formatter.printHelp("soot-infoflow-cmd [OPTIONS]", options);
-			return;
+			return 0;
 		}
 
 		// Parse the command-line parameters
@@ -275,110 +402,506 @@ public class MainClass {
 			// Do we need to display the user manual?
 			if (cmd.hasOption("?") || cmd.hasOption("help")) {
 				formatter.printHelp("soot-infoflow-cmd [OPTIONS]", options);
-				return;
-			}
-
-			// Do we have a configuration file?
-			String configFile = cmd.getOptionValue(OPTION_CONFIG_FILE);
-			final InfoflowAndroidConfiguration config = configFile == null || configFile.isEmpty()
-					? new InfoflowAndroidConfiguration()
-					: loadConfigurationFile(configFile);
-			if (config == null)
-				return;
-
-			// Parse the other options
-			parseCommandLineOptions(cmd, config);
-
-			// We can analyze whole directories of apps. In that case, we must gather the
-			// target APKs.
-			File targetFile = new File(config.getAnalysisFileConfig().getTargetAPKFile());
-			if (!targetFile.exists()) {
-				System.err.println(String.format("Target APK file %s does not exist", targetFile.getCanonicalPath()));
-				return;
+				return 0;
 			}
-			List<File> apksToAnalyze;
-			if (targetFile.isDirectory()) {
-				apksToAnalyze = Arrays.asList(targetFile.listFiles(new FilenameFilter() {
 
-					@Override
-					public boolean accept(File dir, String name) {
-						return name.toLowerCase().endsWith(".apk");
-					}
-
-				}));
-			} else
-				apksToAnalyze = Collections.singletonList(targetFile);
-
-			// In case we analyze multiple APKs, we want to have one file per app for the
-			// results
-			String outputFileStr = config.getAnalysisFileConfig().getOutputFile();
-			File outputFile = null;
-			if (outputFileStr != null && !outputFileStr.isEmpty()) {
-				outputFile = new File(outputFileStr);
-				if (outputFile.exists()) {
-					if (apksToAnalyze.size() > 1 && outputFile.isFile()) {
-						System.err.println("The output file must be a directory when analyzing multiple APKs");
-						return;
-					}
-				} else if (apksToAnalyze.size() > 1)
-					outputFile.mkdirs();
+			// In server mode, we keep the taint wrapper and the source/sink definitions
+			// in memory and analyze the apps that the clients send us
+			Integer serverPort = getIntOption(cmd, OPTION_SERVER);
+			if (serverPort != null) {
+				runServer(cmd, serverPort);
+				return 0;
 			}
 
 			// Initialize the taint wrapper. We only do this once for all apps to cache
 			// summaries that we have already loaded.
-			ITaintPropagationWrapper taintWrapper = initializeTaintWrapper(cmd);
-
-			int curAppIdx = 1;
-			for (File apkFile : apksToAnalyze) {
-				if (filesToSkip.contains(apkFile.getName())) {
-					logger.info(String.format("Skipping app %s (%d of %d)...", apkFile.getCanonicalPath(), curAppIdx++,
-							apksToAnalyze.size()));
-					continue;
+			analyzeApps(cmd, initializeTaintWrapper(cmd));
+			return outOfMemory ? ParallelAppAnalysis.OUT_OF_MEMORY_EXIT_CODE : 0;
+		} catch (AbortAnalysisException e) {
+			// The reason has already been printed
+			return EXIT_CODE_FAILED;
+		} catch (ParseException e) {
+			formatter.printHelp("soot-infoflow-cmd [OPTIONS]", options);
+			return EXIT_CODE_FAILED;
+		} catch (Exception e) {
+			System.err.println(String.format("The data flow analysis has failed. Error message: %s", e.getMessage()));
+			e.printStackTrace();
+			return EXIT_CODE_FAILED;
+		}
+	}
+
+	/**
+	 * Analyzes the apps that are selected by the given command-line options
+	 *
+	 * @param cmd          The command-line options
+	 * @param taintWrapper The taint wrapper to use for all apps
+	 * @throws Exception Thrown if the data flow analysis has failed
+	 */
+	private void analyzeApps(CommandLine cmd, ITaintPropagationWrapper taintWrapper) throws Exception {
+		// Do we have a configuration file?
+		String configFile = cmd.getOptionValue(OPTION_CONFIG_FILE);
+		final InfoflowAndroidConfiguration config = configFile == null || configFile.isEmpty()
+				? new InfoflowAndroidConfiguration()
+				: loadConfigurationFile(configFile);
+		if (config == null)
+			throw new AbortAnalysisException();
+
+		// Parse the other options
+		parseCommandLineOptions(cmd, config);
+
+		// We can analyze whole directories of apps. In that case, we must gather the
+		// target APKs.
+		File targetFile = new File(config.getAnalysisFileConfig().getTargetAPKFile());
+		if (!targetFile.exists()) {
+			System.err.println(String.format("Target APK file %s does not exist", targetFile.getCanonicalPath()));
+			throw new AbortAnalysisException();
+		}
+		List<File> apksToAnalyze;
+		if (targetFile.isDirectory()) {
+			apksToAnalyze = Arrays.asList(targetFile.listFiles(new FilenameFilter() {
+
+				@Override
+				public boolean accept(File dir, String name) {
+					return name.toLowerCase().endsWith(".apk");
+				}
+
+			}));
+		} else
+			apksToAnalyze = Collections.singletonList(targetFile);
+
+		// In case we analyze multiple APKs, we want to have one file per app for the
+		// results
+		String outputFileStr = config.getAnalysisFileConfig().getOutputFile();
+		File outputFile = null;
+		if (outputFileStr != null && !outputFileStr.isEmpty()) {
+			outputFile = new File(outputFileStr);
+			if (outputFile.exists()) {
+				if (apksToAnalyze.size() > 1 && outputFile.isFile()) {
+					System.err.println("The output file must be a directory when analyzing multiple APKs");
+					throw new AbortAnalysisException();
 				}
-				logger.info(String.format("Analyzing app %s (%d of %d)...", apkFile.getCanonicalPath(), curAppIdx++,
+			} else if (apksToAnalyze.size() > 1)
+				outputFile.mkdirs();
+		}
+
+		// Distribute the apps across worker processes if requested
+		Integer numAppWorkers = getIntOption(cmd, OPTION_APP_WORKERS);
+		if (numAppWorkers != null && numAppWorkers > 1 && apksToAnalyze.size() > 1) {
+			runParallelAppAnalysis(cmd, config, apksToAnalyze, outputFile, numAppWorkers);
+			return;
+		}
+
+		int curAppIdx = 1;
+		for (File apkFile : apksToAnalyze) {
+			if (filesToSkip.contains(apkFile.getName())) {
+				logger.info(String.format("Skipping app %s (%d of %d)...", apkFile.getCanonicalPath(), curAppIdx++,
 						apksToAnalyze.size()));
+				continue;
+			}
+			logger.info(String.format("Analyzing app %s (%d of %d)...", apkFile.getCanonicalPath(), curAppIdx++,
+					apksToAnalyze.size()));
+
+			// Configure the analyzer for the current APK file
+			config.getAnalysisFileConfig().setTargetAPKFile(apkFile.getCanonicalPath());
+			if (outputFile != null) {
+				if (apksToAnalyze.size() > 1 || (outputFile.exists() && outputFile.isDirectory())) {
+					String outputFileName = apkFile.getName().replace(".apk", ".xml");
+					File curOutputFile = new File(outputFile, outputFileName);
+					config.getAnalysisFileConfig().setOutputFile(curOutputFile.getCanonicalPath());
+
+					// If we have already analyzed this APK and we have the results, there is no
+					// need to do it again
+					if (hasResults(curOutputFile.getPath(), config.getAnalysisFileConfig().getSourceSinkFile()))
+						continue;
+				}
+			}
+
+			// Distribute the components across worker processes if requested
+			Integer numComponentWorkers = getIntOption(cmd, OPTION_COMPONENT_WORKERS);
+			if (config.getOneComponentAtATime() && numComponentWorkers != null && numComponentWorkers > 1) {
+				runParallelComponentAnalysis(cmd, config, numComponentWorkers);
+				continue;
+			}
+
+			// Create the data flow analyzer
+			analyzer = createFlowDroidInstance(config);
+			analyzer.setTaintWrapper(taintWrapper);
+			if (cmd.hasOption(OPTION_COMPONENT))
+				analyzer.setComponentFilter(new HashSet<>(Arrays.asList(cmd.getOptionValues(OPTION_COMPONENT))));
+
+			// We need to inject the StubDroid hierarchy
+			if (taintWrapper instanceof SummaryTaintWrapper)
+				injectStubDroidHierarchy((SummaryTaintWrapper) taintWrapper);
+
+			// Stream the results while the analysis is running if requested
+			StreamingResultsSerializer resultStream = null;
+			String resultStreamFile = cmd.getOptionValue(OPTION_RESULT_STREAM_FILE);
+			if (resultStreamFile != null && !resultStreamFile.isEmpty()) {
+				if (apksToAnalyze.size() > 1) {
+					String appName = apkFile.getName().replace(".apk", "");
+					int extIdx = resultStreamFile.lastIndexOf('.');
+					resultStreamFile = extIdx > 0
+							? resultStreamFile.substring(0, extIdx) + "_" + appName
+									+ resultStreamFile.substring(extIdx)
+							: resultStreamFile + "_" + appName;
+				}
+				resultStream = StreamingResultsSerializer.forFile(resultStreamFile, config);
+				analyzer.addResultsAvailableHandler(resultStream);
+			}
+
+			SparseAliasEval.targetProgram = apkFile.getName();
+			try {
+				// Start the data flow analysis
+				String sourceSinkFile = config.getAnalysisFileConfig().getSourceSinkFile();
+				if (sourceSinkFile != null && sourceSinkFile.contains(File.pathSeparator))
+					runInfoflowBatch(config, sourceSinkFile.split(File.pathSeparator));
+				else if (sourceSinkFile == null || sourceSinkFile.isEmpty())
+					checkTerminationState(analyzer.runInfoflow());
+				else
+					checkTerminationState(analyzer.runInfoflow(getSourceSinkProvider(sourceSinkFile)));
+			} finally {
+				if (resultStream != null)
+					resultStream.close();
+			}
+
+			if (reportMissingSummaryWrapper != null) {
+				String file = cmd.getOptionValue(OPTION_MISSING_SUMMARIES_FILE);
+				reportMissingSummaryWrapper.writeResults(new File(file));
+			}
+		}
+	}
+
+	/**
+	 * Runs the analysis server. The server keeps the taint wrapper, the parsed
+	 * source/sink definitions, and the warm JVM across all jobs. The options of
+	 * the server command line apply to all jobs, unless a job specifies the same
+	 * option itself. The taint wrapper options can only be set for the server as
+	 * a whole.
+	 *
+	 * @param serverCmd The command-line options of the server
+	 * @param port      The local port on which to listen
+	 * @throws Exception Thrown if the server could not be started
+	 */
+	private void runServer(final CommandLine serverCmd, int port) throws Exception {
+		final ITaintPropagationWrapper taintWrapper = initializeTaintWrapper(serverCmd);
+		String tokenFileName = serverCmd.getOptionValue(OPTION_SERVER_TOKEN_FILE);
+		File tokenFile = tokenFileName == null || tokenFileName.isEmpty()
+				? new File(System.getProperty("user.home"), ".flowdroid-server-token")
+				: new File(tokenFileName);
+		String token = AnalysisServer.createTokenFile(tokenFile);
+		logger.info(String.format("Clients must send the token from %s", tokenFile.getAbsolutePath()));
+
+		sourceSinkProviders = new HashMap<>();
+		try (AnalysisServer server = new AnalysisServer(port, token, new AnalysisServer.IJobHandler() {
+
+			@Override
+			public void runJob(String[] jobArgs) throws Exception {
+				CommandLine jobCmd = new DefaultParser().parse(options, getJobArguments(serverCmd, jobArgs));
+
+				// Every job starts with its own list of apps to skip and its own report of
+				// missing summaries
+				filesToSkip.clear();
+				if (reportMissingSummaryWrapper != null)
+					reportMissingSummaryWrapper.clearMissingSummaries();
+				analyzeApps(jobCmd, taintWrapper);
+			}
+
+			@Override
+			public void reset() {
+				// Release the failed analysis, which may hold on to large amounts of
+				// memory, and the scene that it has left behind
+				analyzer = null;
+				G.reset();
+			}
+
+		})) {
+			server.serve();
+		} finally {
+			sourceSinkProviders = null;
+		}
+	}
+
+	/**
+	 * Combines the command-line options of a job with the ones of the server
+	 *
+	 * @param serverCmd The command-line options of the server
+	 * @param jobArgs   The command-line options of the job
+	 * @return The command-line options with which to run the job
+	 * @throws ParseException Thrown if the options of the job are invalid or
+	 *                        conflict with the taint wrapper of the server
+	 */
+	private String[] getJobArguments(CommandLine serverCmd, String[] jobArgs) throws ParseException {
+		CommandLine jobCmd = new DefaultParser().parse(options, jobArgs);
+
+		// The server creates the taint wrapper once for all jobs, so a job cannot
+		// change it
+		for (String opt : new String[] { OPTION_TAINT_WRAPPER, OPTION_TAINT_WRAPPER_FILE,
+				OPTION_SUMMARY_APPLICATION_CACHE, OPTION_ANALYZE_FRAMEWORKS }) {
+			if (jobCmd.hasOption(opt) && (!serverCmd.hasOption(opt)
+					|| !Arrays.equals(jobCmd.getOptionValues(opt), serverCmd.getOptionValues(opt))))
+				throw new ParseException(String.format("Option -%s can only be set when starting the server", opt));
+		}
+		if (jobCmd.hasOption(OPTION_MISSING_SUMMARIES_FILE) && !serverCmd.hasOption(OPTION_MISSING_SUMMARIES_FILE))
+			throw new ParseException(String.format(
+					"Option -%s requires the server to be started with this option", OPTION_MISSING_SUMMARIES_FILE));
+
+		List<String> args = new ArrayList<>(Arrays.asList(jobArgs));
+		for (Option option : serverCmd.getOptions()) {
+			final String opt = option.getOpt();
+			if (opt.equals(OPTION_SERVER) || opt.equals(OPTION_SERVER_TOKEN_FILE) || jobCmd.hasOption(opt))
+				continue;
+			if (option.hasArg()) {
+				for (String value : option.getValues()) {
+					args.add("-" + opt);
+					args.add(value);
+				}
+			} else
+				args.add("-" + opt);
+		}
+		return args.toArray(new String[args.size()]);
+	}
 
-				// Configure the analyzer for the current APK file
-				config.getAnalysisFileConfig().setTargetAPKFile(apkFile.getCanonicalPath());
-				if (outputFile != null) {
-					if (apksToAnalyze.size() > 1 || (outputFile.exists() && outputFile.isDirectory())) {
-						String outputFileName = apkFile.getName().replace(".apk", ".xml");
-						File curOutputFile = new File(outputFile, outputFileName);
-						config.getAnalysisFileConfig().setOutputFile(curOutputFile.getCanonicalPath());
-
-						// If we have already analyzed this APK and we have the results, there is no
-						// need to do it again
-						if (curOutputFile.exists())
-							continue;
+	/**
+	 * Gets the provider for the sources and sinks in the given file. In server
+	 * mode, the definitions are only parsed again when the file has changed.
+	 *
+	 * @param sourceSinkFile The file with the source and sink definitions
+	 * @return The provider for the sources and sinks in the given file
+	 * @throws IOException Thrown if the source/sink file could not be read
+	 */
+	private ISourceSinkDefinitionProvider getSourceSinkProvider(String sourceSinkFile) throws IOException {
+		if (sourceSinkProviders == null)
+			return analyzer.parseSourceSinkFile(sourceSinkFile);
+
+		// The category filter for XML files depends on the configuration
+		File file = new File(sourceSinkFile);
+		String key = file.getCanonicalPath() + File.pathSeparator + file.lastModified() + File.pathSeparator
+				+ analyzer.getConfig().getSourceSinkConfig().hashCode();
+		ISourceSinkDefinitionProvider provider = sourceSinkProviders.get(key);
+		if (provider == null) {
+			provider = analyzer.parseSourceSinkFile(sourceSinkFile);
+			sourceSinkProviders.put(key, provider);
+		}
+		return provider;
+	}
+
+	/**
+	 * Runs one data flow analysis for each of the given source/sink files. The
+	 * callgraph is only built once and is shared between these analyses. If an
+	 * output file is configured, the results for each source/sink file are written
+	 * into a separate file next to it.
+	 *
+	 * @param config          The data flow configuration
+	 * @param sourceSinkFiles The files with the source and sink definitions
+	 * @throws IOException Thrown if a source/sink file could not be read
+	 */
+	private void runInfoflowBatch(final InfoflowAndroidConfiguration config, final String[] sourceSinkFiles)
+			throws IOException {
+		List<ISourceSinkDefinitionProvider> providers = new ArrayList<>(sourceSinkFiles.length);
+		for (String sourceSinkFile : sourceSinkFiles)
+			providers.add(getSourceSinkProvider(sourceSinkFile));
+
+		// The results are reported in the same order as the source/sink files
+		final String outputFile = config.getAnalysisFileConfig().getOutputFile();
+		if (outputFile != null && !outputFile.isEmpty()) {
+			analyzer.addResultsAvailableHandler(new ResultsAvailableHandler() {
+
+				private int curRun = 0;
+
+				@Override
+				public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+					String fileName = getBatchOutputFile(outputFile, sourceSinkFiles[curRun++]);
+					try {
+						new InfoflowResultsSerializer(cfg, config).serialize(results, fileName);
+					} catch (IOException | XMLStreamException e) {
+						logger.error("Could not write data flow results to file " + fileName, e);
 					}
 				}
 
-				// Create the data flow analyzer
-				analyzer = createFlowDroidInstance(config);
-				analyzer.setTaintWrapper(taintWrapper);
+			});
+		}
 
-				// We need to inject the StubDroid hierarchy
-				if (taintWrapper instanceof SummaryTaintWrapper)
-					injectStubDroidHierarchy((SummaryTaintWrapper) taintWrapper);
+		List<InfoflowResults> batchResults = analyzer.runInfoflowBatch(providers);
+		if (batchResults != null) {
+			for (InfoflowResults results : batchResults)
+				checkTerminationState(results);
+		}
+	}
 
-				SparseAliasEval.targetProgram = apkFile.getName();
-				// Start the data flow analysis
-				analyzer.runInfoflow();
+	/**
+	 * Gets the file into which the results for the given source/sink file are
+	 * written in batch mode
+	 * 
+	 * @param outputFile     The configured output file
+	 * @param sourceSinkFile The source/sink file
+	 * @return The output file for the results of the given source/sink file
+	 */
+	static String getBatchOutputFile(String outputFile, String sourceSinkFile) {
+		String setName = new File(sourceSinkFile).getName();
+		if (setName.contains("."))
+			setName = setName.substring(0, setName.lastIndexOf("."));
+		return outputFile.replaceAll("\\.xml$", "") + "_" + setName + ".xml";
+	}
+
+	/**
+	 * Checks whether the results of a previous analysis run are already available
+	 * 
+	 * @param outputFile     The output file for the current app
+	 * @param sourceSinkFile The configured source/sink file. If it contains
+	 *                       multiple files, the results of each source/sink file
+	 *                       are written into a separate output file.
+	 * @return True if all result files exist, otherwise false
+	 */
+	static boolean hasResults(String outputFile, String sourceSinkFile) {
+		if (sourceSinkFile != null && sourceSinkFile.contains(File.pathSeparator)) {
+			for (String curFile : sourceSinkFile.split(File.pathSeparator))
+				if (!new File(getBatchOutputFile(outputFile, curFile)).exists())
+					return false;
+			return true;
+		}
+		return new File(outputFile).exists();
+	}
+
+	/**
+	 * Records whether the given data flow analysis has been aborted, because it
+	 * ran out of memory
+	 *
+	 * @param results The results of the data flow analysis, or null if the
+	 *                analysis has not been run
+	 */
+	private void checkTerminationState(InfoflowResults results) {
+		if (results != null && (results.getTerminationState() & (InfoflowResults.TERMINATION_DATA_FLOW_OOM
+				| InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_OOM)) != 0)
+			outOfMemory = true;
+	}
+
+	/**
+	 * Analyzes the components of the current target APK file in parallel using
+	 * multiple worker processes
+	 *
+	 * @param cmd        The command-line options of the current process
+	 * @param config     The data flow configuration
+	 * @param numWorkers The maximum number of worker processes
+	 * @throws IOException            Thrown if the app or the result files could
+	 *                                not be read or written
+	 * @throws XmlPullParserException Thrown if the Android manifest file could not
+	 *                                be read
+	 */
+	private void runParallelComponentAnalysis(CommandLine cmd, InfoflowAndroidConfiguration config, int numWorkers)
+			throws IOException, XmlPullParserException {
+		ParallelComponentAnalysis parallelAnalysis = new ParallelComponentAnalysis(config,
+				getWorkerArguments(cmd, OPTION_COMPONENT_WORKERS, OPTION_COMPONENT, OPTION_ONE_COMPONENT));
+		parallelAnalysis.setNumWorkers(numWorkers);
+		String jvmArgs = cmd.getOptionValue(OPTION_WORKER_JVM_ARGS);
+		if (jvmArgs != null && !jvmArgs.trim().isEmpty())
+			parallelAnalysis.setJvmArguments(Arrays.asList(jvmArgs.trim().split("\\s+")));
+
+		SerializedInfoflowResults results = parallelAnalysis.runAnalysis();
+		logger.info(String.format("Found %d leaks", results == null ? 0 : results.getResultCount()));
+
+		List<String> failedComponents = parallelAnalysis.getFailedComponents();
+		if (!failedComponents.isEmpty()) {
+			System.err.println("The results are incomplete, the analysis has failed for the following components:");
+			for (String component : failedComponents)
+				System.err.println("\t" + component);
+		}
+	}
+
+	/**
+	 * Analyzes the given apps in parallel using multiple worker processes. Apps
+	 * that shall be skipped or for which results already exist are not analyzed
+	 * again.
+	 *
+	 * @param cmd           The command-line options of the current process
+	 * @param config        The data flow configuration
+	 * @param apksToAnalyze The apps to analyze
+	 * @param outputDir     The directory into which to write the results
+	 * @param numWorkers    The maximum number of worker processes
+	 * @throws IOException Thrown if the apps or the result files could not be read
+	 *                     or written
+	 */
+	private void runParallelAppAnalysis(CommandLine cmd, InfoflowAndroidConfiguration config,
+			List<File> apksToAnalyze, File outputDir, int numWorkers) throws IOException {
+		if (outputDir == null) {
+			System.err.println("An output directory is required when analyzing apps in parallel");
+			throw new AbortAnalysisException();
+		}
 
-				if (reportMissingSummaryWrapper != null) {
-					String file = cmd.getOptionValue(OPTION_MISSING_SUMMARIES_FILE);
-					reportMissingSummaryWrapper.writeResults(new File(file));
+		List<File> apps = new ArrayList<>(apksToAnalyze.size());
+		for (File apkFile : apksToAnalyze) {
+			if (filesToSkip.contains(apkFile.getName()))
+				logger.info(String.format("Skipping app %s...", apkFile.getCanonicalPath()));
+			else if (!hasResults(new File(outputDir, apkFile.getName().replace(".apk", ".xml")).getPath(),
+					config.getAnalysisFileConfig().getSourceSinkFile()))
+				apps.add(apkFile);
+		}
+
+		ParallelAppAnalysis parallelAnalysis = new ParallelAppAnalysis(apps, outputDir, getWorkerArguments(cmd));
+		parallelAnalysis.setNumWorkers(numWorkers);
+		String jvmArgs = cmd.getOptionValue(OPTION_WORKER_JVM_ARGS);
+		if (jvmArgs != null && !jvmArgs.trim().isEmpty())
+			parallelAnalysis.setJvmArguments(Arrays.asList(jvmArgs.trim().split("\\s+")));
+		String heapSize = cmd.getOptionValue(OPTION_WORKER_HEAP);
+		if (heapSize != null && !heapSize.isEmpty())
+			parallelAnalysis.setWorkerHeapSize(ParallelAppAnalysis.parseHeapSize(heapSize));
+		String maxHeapSize = cmd.getOptionValue(OPTION_MAX_WORKER_HEAP);
+		if (maxHeapSize != null && !maxHeapSize.isEmpty())
+			parallelAnalysis.setMaxWorkerHeapSize(ParallelAppAnalysis.parseHeapSize(maxHeapSize));
+		String degradedArgs = cmd.getOptionValue(OPTION_DEGRADED_WORKER_ARGS, DEFAULT_DEGRADED_WORKER_ARGS);
+		if (!degradedArgs.trim().isEmpty())
+			parallelAnalysis.setDegradedArguments(Arrays.asList(degradedArgs.trim().split("\\s+")));
+
+		// If there is no explicit timeout for the workers, we derive it from the
+		// timeouts of the individual analysis phases
+		Integer jobTimeout = getIntOption(cmd, OPTION_JOB_TIMEOUT);
+		if (jobTimeout != null)
+			parallelAnalysis.setJobTimeout(jobTimeout);
+		else if (config.getDataFlowTimeout() > 0)
+			parallelAnalysis.setJobTimeout(config.getDataFlowTimeout()
+					+ Math.max(0, config.getCallbackConfig().getCallbackAnalysisTimeout())
+					+ Math.max(0, config.getPathConfiguration().getPathReconstructionTimeout())
+					+ JOB_TIMEOUT_GRACE_PERIOD);
+
+		Map<AppStatus, Integer> statusCounts = new EnumMap<>(AppStatus.class);
+		for (AppResult result : parallelAnalysis.runAnalysis()) {
+			Integer count = statusCounts.get(result.getStatus());
+			statusCounts.put(result.getStatus(), count == null ? 1 : count + 1);
+		}
+		logger.info(String.format("Analyzed %d apps: %s", apps.size(), statusCounts));
+	}
+
+	/**
+	 * Gets the command-line options that shall be passed on to the worker
+	 * processes. The workers always receive exactly one app to analyze, so the
+	 * options that select the app, the output files, or control the
+	 * parallelization are not passed on.
+	 *
+	 * @param cmd             The command-line options of the current process
+	 * @param excludedOptions Additional options that shall not be passed on,
+	 *                        because the driver sets them for each worker
+	 * @return The command-line options for the worker processes
+	 */
+	private List<String> getWorkerArguments(CommandLine cmd, String... excludedOptions) {
+		Set<String> excluded = new HashSet<>(Arrays.asList(OPTION_WORKER_JVM_ARGS, OPTION_APP_WORKERS,
+				OPTION_WORKER_HEAP, OPTION_MAX_WORKER_HEAP, OPTION_DEGRADED_WORKER_ARGS, OPTION_JOB_TIMEOUT,
+				OPTION_SERVER, OPTION_SERVER_TOKEN_FILE, OPTION_APK_FILE, OPTION_OUTPUT_FILE,
+				OPTION_RESULT_STREAM_FILE, OPTION_MISSING_SUMMARIES_FILE, OPTION_SKIP_APK_FILE));
+		excluded.addAll(Arrays.asList(excludedOptions));
+
+		List<String> workerArgs = new ArrayList<>();
+		for (Option option : cmd.getOptions()) {
+			final String opt = option.getOpt();
+			if (excluded.contains(opt))
+				continue;
+			if (option.hasArg()) {
+				for (String value : option.getValues()) {
+					workerArgs.add("-" + opt);
+					workerArgs.add(value);
 				}
-			}
-		} catch (AbortAnalysisException e) {
-			// Silently return
-		} catch (ParseException e) {
-			formatter.printHelp("soot-infoflow-cmd [OPTIONS]", options);
-			return;
-		} catch (Exception e) {
-			System.err.println(String.format("The data flow analysis has failed. Error message: %s", e.getMessage()));
-			e.printStackTrace();
+			} else
+				workerArgs.add("-" + opt);
 		}
+		return workerArgs;
 	}
 
 	/**
@@ -522,7 +1045,9 @@ public class MainClass {
 				System.err.println("Must specify at least one definition file for StubDroid");
 				throw new AbortAnalysisException();
 			}
-			result = TaintWrapperFactory.createTaintWrapper(Arrays.asList(definitionFiles));
+			SummaryTaintWrapper stubDroid = TaintWrapperFactory.createTaintWrapper(Arrays.asList(definitionFiles));
+			configureSummaryTaintWrapper(cmd, stubDroid);
+			result = stubDroid;
 			break;
 		case "multi":
 			// We need explicit definition files
@@ -546,8 +1071,11 @@ public class MainClass {
 			// For each definition file, we create the respective taint wrapper
 			TaintWrapperSet wrapperSet = new TaintWrapperSet();
 			SummaryTaintWrapper stubDroidWrapper = null;
-			if (extensionToFile.containsKey(".xml")) {
-				stubDroidWrapper = TaintWrapperFactory.createTaintWrapper(extensionToFile.get(".xml"));
+			Set<String> summaryFiles = new HashSet<>(extensionToFile.get(".xml"));
+			summaryFiles.addAll(extensionToFile.get(BinarySummaryConstants.FILE_EXTENSION));
+			if (!summaryFiles.isEmpty()) {
+				stubDroidWrapper = TaintWrapperFactory.createTaintWrapper(summaryFiles);
+				configureSummaryTaintWrapper(cmd, stubDroidWrapper);
 				wrapperSet.addWrapper(stubDroidWrapper);
 			}
 			Set<String> easyDefinitions = extensionToFile.get(".txt");
@@ -576,11 +1104,27 @@ public class MainClass {
 	}
 
 	private SummaryTaintWrapper createSummaryTaintWrapper(CommandLine cmd, LazySummaryProvider lazySummaryProvider) {
+		SummaryTaintWrapper wrapper;
 		if (cmd.hasOption(OPTION_MISSING_SUMMARIES_FILE)) {
 			reportMissingSummaryWrapper = new ReportMissingSummaryWrapper(lazySummaryProvider);
-			return reportMissingSummaryWrapper;
+			wrapper = reportMissingSummaryWrapper;
 		} else
-			return new SummaryTaintWrapper(lazySummaryProvider);
+			wrapper = new SummaryTaintWrapper(lazySummaryProvider);
+		configureSummaryTaintWrapper(cmd, wrapper);
+		return wrapper;
+	}
+
+	/**
+	 * Applies the StubDroid-specific command-line options to the given taint
+	 * wrapper
+	 * 
+	 * @param cmd     The command-line parameters
+	 * @param wrapper The taint wrapper to configure
+	 */
+	private void configureSummaryTaintWrapper(CommandLine cmd, SummaryTaintWrapper wrapper) {
+		Integer cacheSize = getIntOption(cmd, OPTION_SUMMARY_APPLICATION_CACHE);
+		if (cacheSize != null)
+			wrapper.setSummaryApplicationCacheSize(cacheSize);
 	}
 
 	private static CallgraphAlgorithm parseCallgraphAlgorithm(String algo) {
@@ -654,6 +1198,17 @@ public class MainClass {
 		}
 	}
 
+	private static JumpFunctionStore parseJumpFunctionStore(String store) {
+		if (store.equalsIgnoreCase("HASHMAP"))
+			return JumpFunctionStore.HashMap;
+		else if (store.equalsIgnoreCase("PRIMITIVE"))
+			return JumpFunctionStore.PrimitiveTable;
+		else {
+			System.err.println(String.format("Invalid jump function store: %s", store));
+			throw new AbortAnalysisException();
+		}
+	}
+
 	private static AliasingAlgorithm parseAliasAlgorithm(String aliasAlgo) {
 		if (aliasAlgo.equalsIgnoreCase("NONE"))
 			return AliasingAlgorithm.None;
@@ -758,7 +1313,7 @@ public class MainClass {
 	 * @param cmd    The command line to parse
 	 * @param config The configuration object to fill
 	 */
-	private void parseCommandLineOptions(CommandLine cmd, InfoflowAndroidConfiguration config) {
+	void parseCommandLineOptions(CommandLine cmd, InfoflowAndroidConfiguration config) {
 		// Files
 		{
 			String apkFile = cmd.getOptionValue(OPTION_APK_FILE);
@@ -836,6 +1391,8 @@ public class MainClass {
 			config.setOneSourceAtATime(true);
 		if (cmd.hasOption(OPTION_ONE_COMPONENT))
 			config.setOneComponentAtATime(true);
+		if (cmd.hasOption(OPTION_DEGRADE_ON_ABORT))
+			config.setDegradeOnAbort(true);
 		if (cmd.hasOption(OPTION_SEQUENTIAL_PATHS))
 			config.getPathConfiguration().setSequentialPathProcessing(true);
 		if (cmd.hasOption(OPTION_LOG_SOURCES_SINKS))
@@ -856,6 +1413,8 @@ public class MainClass {
 			if (maxDepth != null)
 				config.getCallbackConfig().setMaxAnalysisCallbackDepth(maxDepth);
 		}
+		if (cmd.hasOption(OPTION_INCREMENTAL_CALLGRAPH))
+			config.getCallbackConfig().setIncrementalCallgraph(true);
 
 		// Inter-component communication
 		if (cmd.hasOption(OPTION_ICC_NO_PURIFY))
@@ -892,6 +1451,28 @@ public class MainClass {
 			if (solver != null && !solver.isEmpty())
 				config.getSolverConfiguration().setDataFlowSolver(parseDataFlowSolver(solver));
 		}
+		{
+			String jumpFunctionStore = cmd.getOptionValue(OPTION_JUMP_FUNCTION_STORE);
+			if (jumpFunctionStore != null && !jumpFunctionStore.isEmpty())
+				config.getSolverConfiguration().setJumpFunctionStore(parseJumpFunctionStore(jumpFunctionStore));
+		}
+		{
+			String gcHeapBudget = cmd.getOptionValue(OPTION_GC_HEAP_BUDGET);
+			if (gcHeapBudget != null && !gcHeapBudget.isEmpty())
+				config.getSolverConfiguration().setGcHeapBudget(Double.parseDouble(gcHeapBudget));
+		}
+		{
+			String spillThreshold = cmd.getOptionValue(OPTION_JUMP_FUNCTION_SPILL);
+			if (spillThreshold != null && !spillThreshold.isEmpty())
+				config.getSolverConfiguration().setJumpFunctionSpillThreshold(Double.parseDouble(spillThreshold));
+		}
+		if (cmd.hasOption(OPTION_BATCHED_PROPAGATION))
+			config.getSolverConfiguration().setBatchedPropagation(true);
+		{
+			String endSummaryCache = cmd.getOptionValue(OPTION_END_SUMMARY_CACHE);
+			if (endSummaryCache != null && !endSummaryCache.isEmpty())
+				config.getSolverConfiguration().setEndSummaryCacheFile(endSummaryCache);
+		}
 		{
 			String aliasAlgo = cmd.getOptionValue(OPTION_ALIAS_ALGO);
 			if (aliasAlgo != null && !aliasAlgo.isEmpty())
@@ -953,6 +1534,11 @@ public class MainClass {
 				config.getCallbackConfig().setCallbacksFile(callgraphFile);
 			}
 		}
+		{
+			String callgraphCacheDir = cmd.getOptionValue(OPTION_CALLGRAPH_CACHE_DIR);
+			if (callgraphCacheDir != null && !callgraphCacheDir.isEmpty())
+				config.getAnalysisFileConfig().setCallgraphCacheDir(callgraphCacheDir);
+		}
 	}
 
 	private Integer getIntOption(CommandLine cmd, String option) {
@@ -0,0 +1,167 @@
+package soot.jimple.infoflow.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the protocol of the {@link AnalysisServer}
+ */
+public class AnalysisServerTest {
+
+	private static final String TOKEN = "secret";
+
+	/**
+	 * Job handler that records the jobs instead of running an analysis
+	 */
+	private static class StubJobHandler implements AnalysisServer.IJobHandler {
+
+		private final List<List<String>> jobs = new ArrayList<>();
+		private int resetCount = 0;
+
+		@Override
+		public void runJob(String[] args) throws Exception {
+			jobs.add(Arrays.asList(args));
+			if (args[0].equals("-fail"))
+				throw new Exception("Job failed\non purpose");
+			if (args[0].equals("-oom"))
+				throw new OutOfMemoryError();
+		}
+
+		@Override
+		public void reset() {
+			resetCount++;
+		}
+
+	}
+
+	private StubJobHandler handler;
+	private AnalysisServer server;
+	private Thread serverThread;
+
+	@Before
+	public void startServer() throws IOException {
+		handler = new StubJobHandler();
+		server = new AnalysisServer(0, TOKEN, handler);
+		serverThread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					server.serve();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		});
+		serverThread.start();
+	}
+
+	@After
+	public void stopServer() throws IOException, InterruptedException {
+		server.close();
+		serverThread.join(10000);
+	}
+
+	/**
+	 * Sends the given lines as one job to the server
+	 *
+	 * @param lines The lines to send, including the token
+	 * @return The response of the server
+	 */
+	private String sendJob(String... lines) throws IOException {
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+				Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+			for (String line : lines) {
+				writer.write(line);
+				writer.write('\n');
+			}
+			writer.write('\n');
+			writer.flush();
+			return reader.readLine();
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void runJobTest() throws IOException {
+		assertEquals(AnalysisServer.RESPONSE_OK, sendJob(TOKEN, "-a", "app.apk"));
+		assertEquals(AnalysisServer.RESPONSE_OK, sendJob(TOKEN, "-a", "other.apk"));
+		assertEquals(2, handler.jobs.size());
+		assertEquals(Arrays.asList("-a", "app.apk"), handler.jobs.get(0));
+		assertEquals(Arrays.asList("-a", "other.apk"), handler.jobs.get(1));
+		assertEquals(0, handler.resetCount);
+	}
+
+	@Test(timeout = 30000)
+	public void invalidTokenTest() throws IOException {
+		assertEquals(AnalysisServer.RESPONSE_UNAUTHORIZED, sendJob("wrong", "-a", "app.apk"));
+		assertEquals(AnalysisServer.RESPONSE_UNAUTHORIZED, sendJob("-a", "app.apk"));
+		assertEquals(AnalysisServer.RESPONSE_UNAUTHORIZED, sendJob(AnalysisServer.SHUTDOWN_COMMAND));
+		assertTrue(handler.jobs.isEmpty());
+
+		// The server must still be running
+		assertEquals(AnalysisServer.RESPONSE_OK, sendJob(TOKEN, "-a", "app.apk"));
+	}
+
+	@Test(timeout = 30000)
+	public void failedJobTest() throws IOException {
+		assertEquals(AnalysisServer.RESPONSE_FAILED + " Job failed on purpose", sendJob(TOKEN, "-fail"));
+		assertEquals(1, handler.resetCount);
+		assertEquals(AnalysisServer.RESPONSE_FAILED + " OutOfMemoryError", sendJob(TOKEN, "-oom"));
+		assertEquals(2, handler.resetCount);
+
+		// Failed jobs must not take down the server
+		assertEquals(AnalysisServer.RESPONSE_OK, sendJob(TOKEN, "-a", "app.apk"));
+		assertEquals(3, handler.jobs.size());
+	}
+
+	@Test(timeout = 30000)
+	public void shutdownTest() throws IOException, InterruptedException {
+		assertEquals(AnalysisServer.RESPONSE_OK, sendJob(TOKEN, AnalysisServer.SHUTDOWN_COMMAND));
+		serverThread.join();
+		assertFalse(serverThread.isAlive());
+		assertTrue(handler.jobs.isEmpty());
+	}
+
+	@Test
+	public void tokenFileTest() throws IOException {
+		File tokenFile = File.createTempFile("flowdroid-server", ".token");
+		try {
+			String token = AnalysisServer.createTokenFile(tokenFile);
+			assertEquals(64, token.length());
+			assertEquals(token, new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.UTF_8));
+			assertFalse(token.equals(AnalysisServer.createTokenFile(tokenFile)));
+
+			Assume.assumeTrue(Files.getFileStore(tokenFile.toPath())
+					.supportsFileAttributeView(PosixFileAttributeView.class));
+			assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile.toPath())));
+		} finally {
+			tokenFile.delete();
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package soot.jimple.infoflow.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the names of the result files if an app is analyzed with multiple
+ * source/sink files at once
+ */
+public class BatchOutputFileTest {
+
+	private File outputDir;
+
+	@Before
+	public void createOutputDir() throws IOException {
+		outputDir = Files.createTempDirectory("flowdroid-results").toFile();
+	}
+
+	@After
+	public void deleteOutputDir() {
+		for (File f : outputDir.listFiles())
+			f.delete();
+		outputDir.delete();
+	}
+
+	@Test
+	public void batchOutputFileTest() {
+		assertEquals("out/app_privacy.xml", MainClass.getBatchOutputFile("out/app.xml", "sets/privacy.txt"));
+		assertEquals("out/app_privacy.xml", MainClass.getBatchOutputFile("out/app", "privacy"));
+	}
+
+	@Test
+	public void singleSetResultsTest() throws IOException {
+		File outputFile = new File(outputDir, "app.xml");
+		assertFalse(MainClass.hasResults(outputFile.getPath(), "sources.txt"));
+		assertFalse(MainClass.hasResults(outputFile.getPath(), null));
+
+		outputFile.createNewFile();
+		assertTrue(MainClass.hasResults(outputFile.getPath(), "sources.txt"));
+		assertTrue(MainClass.hasResults(outputFile.getPath(), null));
+	}
+
+	@Test
+	public void batchResultsTest() throws IOException {
+		File outputFile = new File(outputDir, "app.xml");
+		String sourceSinkFiles = "privacy.txt" + File.pathSeparator + "crypto.txt";
+
+		// In batch mode, there is no result file for the app as a whole
+		outputFile.createNewFile();
+		assertFalse(MainClass.hasResults(outputFile.getPath(), sourceSinkFiles));
+
+		new File(outputDir, "app_privacy.xml").createNewFile();
+		assertFalse(MainClass.hasResults(outputFile.getPath(), sourceSinkFiles));
+
+		new File(outputDir, "app_crypto.xml").createNewFile();
+		assertTrue(MainClass.hasResults(outputFile.getPath(), sourceSinkFiles));
+	}
+
+}
@@ -0,0 +1,41 @@
+package soot.jimple.infoflow.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.ParseException;
+import org.junit.Test;
+
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
+
+/**
+ * Tests for mapping the command-line options to the data flow configuration
+ */
+public class CommandLineOptionsTest {
+
+	private static InfoflowAndroidConfiguration parse(String... args) throws ParseException {
+		MainClass main = new MainClass();
+		CommandLine cmd = new DefaultParser().parse(main.options, args);
+		InfoflowAndroidConfiguration config = new InfoflowAndroidConfiguration();
+		main.parseCommandLineOptions(cmd, config);
+		return config;
+	}
+
+	@Test
+	public void incrementalCallgraphTest() throws ParseException {
+		assertFalse(parse("-a", "app.apk").getCallbackConfig().getIncrementalCallgraph());
+		assertTrue(parse("-a", "app.apk", "-ic").getCallbackConfig().getIncrementalCallgraph());
+		assertTrue(parse("-a", "app.apk", "--incrementalcallgraph").getCallbackConfig().getIncrementalCallgraph());
+	}
+
+	@Test
+	public void callbackDepthTest() throws ParseException {
+		InfoflowAndroidConfiguration config = parse("-a", "app.apk", "-ic", "-md", "2");
+		assertEquals(2, config.getCallbackConfig().getMaxAnalysisCallbackDepth());
+		assertTrue(config.getCallbackConfig().getIncrementalCallgraph());
+	}
+
+}
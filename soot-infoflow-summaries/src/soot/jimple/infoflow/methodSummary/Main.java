@@ -17,6 +17,7 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
@@ -24,6 +25,7 @@ import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
 import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
 import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
 import soot.jimple.infoflow.methodSummary.generator.IClassSummaryHandler;
+import soot.jimple.infoflow.methodSummary.generator.ParallelSummaryGenerator;
 import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator;
 import soot.jimple.infoflow.methodSummary.generator.SummaryGeneratorFactory;
 import soot.jimple.infoflow.methodSummary.xml.SummaryWriter;
@@ -49,6 +51,9 @@ class Main {
 	private static final String OPTION_ANDROID_PLATFORMS = "p";
 	private static final String OPTION_IGNORE_DEFAULT_SUMMARIES = "is";
 	private static final String OPTION_WRITE_JIMPLE_FILES = "wj";
+	private static final String OPTION_SHARE_SCENE = "ss";
+	private static final String OPTION_WORKERS = "w";
+	private static final String OPTION_WORKER_JVM_ARGS = "wa";
 
 	public static void main(final String[] args) throws FileNotFoundException, XMLStreamException {
 		Main main = new Main();
@@ -84,6 +89,12 @@ class Main {
 		options.addOption(OPTION_IGNORE_DEFAULT_SUMMARIES, "ignoresummaries", false,
 				"Existing summaries from the default summary directory are ignored");
 		options.addOption(OPTION_WRITE_JIMPLE_FILES, "writejimplefiles", false, "Write out the Jimple files");
+		options.addOption(OPTION_SHARE_SCENE, "sharescene", false,
+				"Builds the Soot scene and callgraph once per class instead of once per method");
+		options.addOption(OPTION_WORKERS, "workers", true,
+				"Summarizes multiple classes in parallel using the given number of worker processes");
+		options.addOption(OPTION_WORKER_JVM_ARGS, "workerjvmargs", true,
+				"Options for the JVMs of the worker processes, e.g., \"-Xmx8g\"");
 	}
 
 	public void run(final String[] args) throws FileNotFoundException, XMLStreamException {
@@ -165,7 +176,17 @@ class Main {
 			generator.getConfig().addAdditionalSummaryDirectory(outputFolder.getAbsolutePath());
 
 			// Run it
-			createSummaries(generator, classesToAnalyze, forceOverwrite, toAnalyze, outputFolder);
+			int numWorkers = Integer.parseInt(cmd.getOptionValue(OPTION_WORKERS, "1"));
+			if (numWorkers > 1) {
+				ParallelSummaryGenerator parallelGenerator = new ParallelSummaryGenerator(generator,
+						getWorkerArguments(cmd));
+				parallelGenerator.setNumWorkers(numWorkers);
+				String jvmArgs = cmd.getOptionValue(OPTION_WORKER_JVM_ARGS);
+				if (jvmArgs != null && !jvmArgs.trim().isEmpty())
+					parallelGenerator.setJvmArguments(Arrays.asList(jvmArgs.trim().split("\\s+")));
+				createSummaries(parallelGenerator, classesToAnalyze, forceOverwrite, toAnalyze, outputFolder);
+			} else
+				createSummaries(generator, classesToAnalyze, forceOverwrite, toAnalyze, outputFolder);
 
 			System.out.println("Done.");
 		} catch (ParseException e) {
@@ -216,6 +237,38 @@ class Main {
 			if (writeJimpleFiles)
 				generator.getConfig().setWriteOutputFiles(true);
 		}
+		{
+			boolean shareScene = cmd.hasOption(OPTION_SHARE_SCENE);
+			if (shareScene)
+				generator.getConfig().setShareSceneAcrossMethods(true);
+		}
+	}
+
+	/**
+	 * Gets the command-line options that shall be passed on to the worker processes
+	 * when summarizing classes in parallel. The workers always receive exactly one
+	 * class to analyze, so the options that select classes or control the
+	 * parallelization are not passed on.
+	 * 
+	 * @param cmd The command-line options of the current process
+	 * @return The command-line options for the worker processes
+	 */
+	private List<String> getWorkerArguments(CommandLine cmd) {
+		List<String> workerArgs = new ArrayList<>();
+		for (Option option : cmd.getOptions()) {
+			final String opt = option.getOpt();
+			if (opt.equals(OPTION_WORKERS) || opt.equals(OPTION_WORKER_JVM_ARGS) || opt.equals(OPTION_FORCE_OVERWRITE)
+					|| opt.equals(OPTION_SUMMARIZE_FULL_JAR))
+				continue;
+			if (option.hasArg()) {
+				for (String value : option.getValues()) {
+					workerArgs.add("-" + opt);
+					workerArgs.add(value);
+				}
+			} else
+				workerArgs.add("-" + opt);
+		}
+		return workerArgs;
 	}
 
 	/**
@@ -277,6 +330,52 @@ class Main {
 					}
 
 				});
+		printDependencies(summaries);
+	}
+
+	private static void createSummaries(ParallelSummaryGenerator generator, List<String> classesToAnalyze,
+			final boolean doForceOverwrite, String toAnalyze, File outputFolder) {
+		ClassSummaries summaries = generator.createMethodSummaries(toAnalyze, classesToAnalyze, outputFolder,
+				new IClassSummaryHandler() {
+
+					@Override
+					public boolean onBeforeAnalyzeClass(String className) {
+						// Are we forced to analyze all classes?
+						if (doForceOverwrite)
+							return true;
+
+						// If we already have a summary file for this class, we skip over it
+						String summaryFile = className + ".xml";
+						return !new File(outputFolder, summaryFile).exists();
+					}
+
+					@Override
+					public void onMethodFinished(String methodSignature, MethodSummaries summaries) {
+						// The methods are summarized in the worker processes
+					}
+
+					@Override
+					public void onClassFinished(ClassMethodSummaries summaries) {
+						// The worker has already written out the summary file
+						System.out.println("Class " + summaries.getClassName() + " done.");
+					}
+
+				});
+		printDependencies(summaries);
+
+		if (!generator.getFailedClasses().isEmpty()) {
+			System.err.println("Could not create summaries for the following classes:");
+			for (String className : generator.getFailedClasses())
+				System.err.println("\t" + className);
+		}
+	}
+
+	/**
+	 * Prints the external dependencies of the given summaries
+	 * 
+	 * @param summaries The summaries whose dependencies to print
+	 */
+	private static void printDependencies(ClassSummaries summaries) {
 		if (summaries != null) {
 			if (!summaries.getDependencies().isEmpty()) {
 				System.out.println("Dependencies:");
@@ -0,0 +1,50 @@
+package soot.jimple.infoflow.methodSummary.binary;
+
+/**
+ * Constants for the binary summary bundle format. A bundle is a single file
+ * with the following layout. All numbers are big-endian.
+ *
+ * <pre>
+ * header:      magic, version, stringCount, stringTableOffset, classCount,
+ *              classIndexOffset, metaDataOffset (one int each)
+ * strings:     stringCount offsets (int), each pointing to a length (int)
+ *              followed by the UTF-8 bytes of the string
+ * class index: classCount entries of nameId (int), flags (int),
+ *              offset (int), length (int), sorted by class name
+ * meta data:   exclusive classes, exclusive packages and the subsignatures
+ *              of all summarized methods, each as a count (int) followed by
+ *              string ids (int)
+ * classes:     one record per class, see {@link SummaryBundleWriter}
+ * </pre>
+ *
+ * String ids refer to the string table. The id {@link #NULL_STRING} denotes a
+ * <code>null</code> string.
+ */
+public class BinarySummaryConstants {
+
+	public static final int MAGIC = 0x46445342; // "FDSB"
+	public static final int FORMAT_VERSION = 1;
+
+	public static final String FILE_EXTENSION = ".fsb";
+
+	public static final int HEADER_SIZE = 7 * 4;
+	public static final int CLASS_INDEX_ENTRY_SIZE = 4 * 4;
+
+	public static final int NULL_STRING = -1;
+	public static final int NULL_ARRAY = -1;
+	public static final int NO_GAP = -1;
+
+	// Flags in the class index
+	public static final int CLASS_SUPPORTED = 1;
+
+	// Flags in the class records
+	public static final byte CLASS_HAS_INTERFACE_INFO = 1;
+	public static final byte CLASS_IS_INTERFACE = 1 << 1;
+	public static final byte CLASS_EXCLUSIVE = 1 << 2;
+
+	// Encoding of optional booleans
+	public static final byte BOOLEAN_NULL = 0;
+	public static final byte BOOLEAN_FALSE = 1;
+	public static final byte BOOLEAN_TRUE = 2;
+
+}
@@ -0,0 +1,320 @@
+package soot.jimple.infoflow.methodSummary.binary;
+
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.BOOLEAN_NULL;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.BOOLEAN_TRUE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_EXCLUSIVE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_HAS_INTERFACE_INFO;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_INDEX_ENTRY_SIZE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_IS_INTERFACE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_SUPPORTED;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.FORMAT_VERSION;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.MAGIC;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.NO_GAP;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.NULL_ARRAY;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.NULL_STRING;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowClear;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSource;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.GapDefinition;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodClear;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
+import soot.jimple.infoflow.methodSummary.data.summary.SummaryMetaData;
+import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
+
+/**
+ * Reader for binary summary bundles created by the {@link SummaryBundleWriter}.
+ * The bundle file is mapped into memory. Opening a bundle only reads the class
+ * index and the meta data. The summaries of a class are decoded when they are
+ * requested. Strings are decoded on first use and cached afterwards.
+ *
+ * This class is thread-safe.
+ *
+ */
+public class SummaryBundleReader {
+
+	private static final SourceSinkType[] SOURCE_SINK_TYPES = SourceSinkType.values();
+
+	private final ByteBuffer buffer;
+	private final int stringTableOffset;
+	private final String[] strings;
+
+	private final Map<String, Integer> classIndex;
+	private final Set<String> supportedClasses;
+	private final SummaryMetaData metaData;
+	private final Set<String> methodSubSignatures;
+
+	/**
+	 * Opens the given bundle file
+	 *
+	 * @param file The bundle file to open
+	 * @throws IOException Thrown if the file could not be read or is not a valid
+	 *                     summary bundle
+	 */
+	public SummaryBundleReader(File file) throws IOException {
+		// The mapping remains valid after the channel has been closed
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(String.format("Summary bundle %s is too large", file));
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			ByteBuffer buf = buffer.duplicate();
+			if (buf.getInt() != MAGIC)
+				throw new IOException(String.format("%s is not a summary bundle", file));
+			int version = buf.getInt();
+			if (version != FORMAT_VERSION)
+				throw new IOException(String.format("Unsupported summary bundle version %d in %s", version, file));
+			int stringCount = buf.getInt();
+			this.stringTableOffset = buf.getInt();
+			int classCount = buf.getInt();
+			int classIndexOffset = buf.getInt();
+			int metaDataOffset = buf.getInt();
+			this.strings = new String[stringCount];
+
+			// Read the class index
+			this.classIndex = new HashMap<>(classCount * 4 / 3 + 1);
+			Set<String> supportedClasses = new HashSet<>(classCount * 4 / 3 + 1);
+			buf.position(classIndexOffset);
+			for (int i = 0; i < classCount; i++) {
+				String className = getString(buf.getInt());
+				if ((buf.getInt() & CLASS_SUPPORTED) != 0)
+					supportedClasses.add(className);
+				classIndex.put(className, classIndexOffset + i * CLASS_INDEX_ENTRY_SIZE);
+				buf.position(buf.position() + 8);
+			}
+			this.supportedClasses = Collections.unmodifiableSet(supportedClasses);
+
+			// Read the meta data
+			buf.position(metaDataOffset);
+			this.metaData = new SummaryMetaData();
+			readStrings(buf, metaData.getExclusiveClasses());
+			readStrings(buf, metaData.getExclusivePackages());
+			Set<String> methodSubSignatures = new HashSet<>();
+			readStrings(buf, methodSubSignatures);
+			this.methodSubSignatures = Collections.unmodifiableSet(methodSubSignatures);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException(String.format("Summary bundle %s is corrupt", file), e);
+		}
+	}
+
+	/**
+	 * Gets the names of all classes in this bundle, including those for which the
+	 * bundle only contains hierarchy information
+	 *
+	 * @return The names of all classes in this bundle
+	 */
+	public Set<String> getClasses() {
+		return Collections.unmodifiableSet(classIndex.keySet());
+	}
+
+	/**
+	 * Gets the names of all classes for which this bundle contains summaries
+	 *
+	 * @return The names of all classes for which this bundle contains summaries
+	 */
+	public Set<String> getSupportedClasses() {
+		return supportedClasses;
+	}
+
+	/**
+	 * Checks whether this bundle contains data on the given class
+	 *
+	 * @param className The name of the class to check
+	 * @return True if this bundle contains data on the given class, false
+	 *         otherwise
+	 */
+	public boolean containsClass(String className) {
+		return classIndex.containsKey(className);
+	}
+
+	/**
+	 * Gets the meta data of this bundle
+	 *
+	 * @return The meta data of this bundle
+	 */
+	public SummaryMetaData getMetaData() {
+		return metaData;
+	}
+
+	/**
+	 * Gets the subsignatures of all methods for which this bundle contains flows
+	 * or clears
+	 *
+	 * @return The subsignatures of all methods with summaries
+	 */
+	public Set<String> getMethodSubSignatures() {
+		return methodSubSignatures;
+	}
+
+	/**
+	 * Decodes the summaries for the given class
+	 *
+	 * @param className The name of the class for which to decode the summaries
+	 * @return The summaries for the given class, or null if this bundle does not
+	 *         contain the given class
+	 */
+	public ClassMethodSummaries readClass(String className) {
+		Integer indexEntry = classIndex.get(className);
+		if (indexEntry == null)
+			return null;
+
+		ByteBuffer buf = buffer.duplicate();
+		buf.position(indexEntry + 8);
+		buf.position(buf.getInt());
+
+		ClassMethodSummaries classSummaries = new ClassMethodSummaries(className);
+		byte flags = buf.get();
+		if ((flags & CLASS_HAS_INTERFACE_INFO) != 0)
+			classSummaries.setInterface((flags & CLASS_IS_INTERFACE) != 0);
+		classSummaries.setExclusiveForClass((flags & CLASS_EXCLUSIVE) != 0);
+		classSummaries.setSuperClass(getString(buf.getInt()));
+		readStrings(buf, classSummaries.getInterfaces());
+
+		MethodSummaries summaries = classSummaries.getMethodSummaries();
+		for (int i = buf.getInt(); i > 0; i--)
+			summaries.addExcludedMethod(getString(buf.getInt()));
+
+		for (int i = buf.getInt(); i > 0; i--) {
+			int gapId = buf.getInt();
+			String signature = getString(buf.getInt());
+			if (signature == null)
+				summaries.createTemporaryGap(gapId);
+			else
+				summaries.getOrCreateGap(gapId, signature);
+		}
+
+		for (int i = buf.getInt(); i > 0; i--) {
+			String methodSig = getString(buf.getInt());
+			FlowSource source = readSource(buf, summaries);
+			FlowSink sink = readSink(buf, summaries);
+			boolean isAlias = buf.get() != 0;
+			Boolean typeChecking = readBoolean(buf);
+			Boolean ignoreTypes = buf.get() != 0;
+			Boolean cutSubFields = readBoolean(buf);
+			summaries.addFlow(new MethodFlow(methodSig, source, sink, isAlias, typeChecking, ignoreTypes, cutSubFields));
+		}
+
+		for (int i = buf.getInt(); i > 0; i--) {
+			String methodSig = getString(buf.getInt());
+			summaries.addClear(new MethodClear(methodSig, readClear(buf, summaries)));
+		}
+
+		return classSummaries;
+	}
+
+	private FlowSource readSource(ByteBuffer buf, MethodSummaries summaries) {
+		SourceSinkType type = SOURCE_SINK_TYPES[buf.get()];
+		int parameterIdx = buf.getInt();
+		String baseType = getString(buf.getInt());
+		AccessPathFragment accessPath = readAccessPath(buf);
+		GapDefinition gap = getGap(buf.getInt(), summaries);
+		boolean matchStrict = buf.get() != 0;
+		Boolean userData = readBoolean(buf);
+		return new FlowSource(type, parameterIdx, baseType, accessPath, gap, userData, matchStrict);
+	}
+
+	private FlowSink readSink(ByteBuffer buf, MethodSummaries summaries) {
+		SourceSinkType type = SOURCE_SINK_TYPES[buf.get()];
+		int parameterIdx = buf.getInt();
+		String baseType = getString(buf.getInt());
+		AccessPathFragment accessPath = readAccessPath(buf);
+		GapDefinition gap = getGap(buf.getInt(), summaries);
+		boolean matchStrict = buf.get() != 0;
+		Boolean userData = readBoolean(buf);
+		boolean taintSubFields = buf.get() != 0;
+		return new FlowSink(type, parameterIdx, baseType, accessPath, taintSubFields, gap, userData, matchStrict);
+	}
+
+	private FlowClear readClear(ByteBuffer buf, MethodSummaries summaries) {
+		SourceSinkType type = SOURCE_SINK_TYPES[buf.get()];
+		int parameterIdx = buf.getInt();
+		String baseType = getString(buf.getInt());
+		AccessPathFragment accessPath = readAccessPath(buf);
+		GapDefinition gap = getGap(buf.getInt(), summaries);
+		buf.get(); // Clears do not support strict matching
+		Boolean userData = readBoolean(buf);
+		return new FlowClear(type, parameterIdx, baseType, accessPath, gap, userData);
+	}
+
+	private AccessPathFragment readAccessPath(ByteBuffer buf) {
+		if (buf.get() == 0)
+			return null;
+		String[] fields = readStringArray(buf);
+		String[] fieldTypes = readStringArray(buf);
+		return new AccessPathFragment(fields, fieldTypes);
+	}
+
+	private GapDefinition getGap(int gapId, MethodSummaries summaries) {
+		if (gapId == NO_GAP)
+			return null;
+		GapDefinition gap = summaries.getGap(gapId);
+		return gap != null ? gap : summaries.createTemporaryGap(gapId);
+	}
+
+	private Boolean readBoolean(ByteBuffer buf) {
+		byte value = buf.get();
+		if (value == BOOLEAN_NULL)
+			return null;
+		return value == BOOLEAN_TRUE;
+	}
+
+	private void readStrings(ByteBuffer buf, Set<String> target) {
+		for (int i = buf.getInt(); i > 0; i--)
+			target.add(getString(buf.getInt()));
+	}
+
+	private String[] readStringArray(ByteBuffer buf) {
+		int length = buf.getInt();
+		if (length == NULL_ARRAY)
+			return null;
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++)
+			values[i] = getString(buf.getInt());
+		return values;
+	}
+
+	/**
+	 * Gets the string with the given id from the string table
+	 *
+	 * @param id The id of the string
+	 * @return The string with the given id
+	 */
+	private String getString(int id) {
+		if (id == NULL_STRING)
+			return null;
+
+		// Concurrent decoding of the same string is harmless, since all threads
+		// produce equal strings
+		String value = strings[id];
+		if (value == null) {
+			int offset = buffer.getInt(stringTableOffset + 4 * id);
+			int length = buffer.getInt(offset);
+			byte[] data = new byte[length];
+			ByteBuffer buf = buffer.duplicate();
+			buf.position(offset + 4);
+			buf.get(data);
+			value = new String(data, StandardCharsets.UTF_8);
+			strings[id] = value;
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,371 @@
+package soot.jimple.infoflow.methodSummary.binary;
+
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.BOOLEAN_FALSE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.BOOLEAN_NULL;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.BOOLEAN_TRUE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_EXCLUSIVE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_HAS_INTERFACE_INFO;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_INDEX_ENTRY_SIZE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_IS_INTERFACE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.CLASS_SUPPORTED;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.FORMAT_VERSION;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.HEADER_SIZE;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.MAGIC;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.NO_GAP;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.NULL_ARRAY;
+import static soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants.NULL_STRING;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.methodSummary.data.provider.EagerSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.IMethodSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.AbstractFlowSinkSource;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.GapDefinition;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodClear;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SummaryMetaData;
+import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
+import soot.util.MultiMap;
+
+/**
+ * Class for compiling method summaries into a single binary summary bundle
+ * that can be loaded lazily with the {@link SummaryBundleReader}. Each class
+ * record consists of the following data:
+ *
+ * <pre>
+ * flags (byte), superclass (string id),
+ * interfaces (count, string ids), excluded methods (count, string ids),
+ * gaps (count, then id and signature for each gap),
+ * flows (count, then method signature, source, sink, isAlias, typeChecking,
+ *        ignoreTypes, cutSubFields for each flow),
+ * clears (count, then method signature and clear definition for each clear)
+ * </pre>
+ *
+ * Sources, sinks and clears consist of the type (byte), the parameter index,
+ * the base type, the access path (presence flag as byte, then fields and
+ * types), the gap id, the strict matching flag (byte) and boolean user data
+ * (byte). Sinks additionally carry the flag for tainting sub fields (byte).
+ *
+ */
+public class SummaryBundleWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(SummaryBundleWriter.class);
+
+	private final Map<String, Integer> stringIds = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+
+	/**
+	 * Writes all summaries that the given provider has loaded into a bundle file.
+	 * Classes that are only known from the hierarchy data in the summary meta
+	 * data, but for which the provider has no summary file, are not reported as
+	 * supported when loading the bundle.
+	 *
+	 * @param provider The provider whose summaries to write. The provider must
+	 *                 have loaded all of its summaries, e.g., an
+	 *                 {@link EagerSummaryProvider}.
+	 * @param file     The bundle file to write
+	 * @throws IOException Thrown if the bundle file could not be written
+	 */
+	public void write(IMethodSummaryProvider provider, File file) throws IOException {
+		write(provider.getSummaries(), provider.getSupportedClasses(), file);
+	}
+
+	/**
+	 * Writes the given summaries into a bundle file. All classes are reported as
+	 * supported when loading the bundle.
+	 *
+	 * @param summaries The summaries to write
+	 * @param file      The bundle file to write
+	 * @throws IOException Thrown if the bundle file could not be written
+	 */
+	public void write(ClassSummaries summaries, File file) throws IOException {
+		write(summaries, summaries.getClasses(), file);
+	}
+
+	/**
+	 * Writes the given summaries into a bundle file
+	 *
+	 * @param summaries        The summaries to write
+	 * @param supportedClasses The classes that shall be reported as supported
+	 *                         when loading the bundle
+	 * @param file             The bundle file to write
+	 * @throws IOException Thrown if the bundle file could not be written
+	 */
+	protected void write(ClassSummaries summaries, Set<String> supportedClasses, File file) throws IOException {
+		stringIds.clear();
+		strings.clear();
+
+		// Encode the classes in a defined order. This also collects the strings.
+		// Supported classes may have empty summaries that are not part of the
+		// summaries object.
+		Set<String> allClassNames = new TreeSet<>(summaries.getClasses());
+		allClassNames.addAll(supportedClasses);
+		List<String> classNames = new ArrayList<>(allClassNames);
+		ByteArrayOutputStream classData = new ByteArrayOutputStream();
+		DataOutputStream classOut = new DataOutputStream(classData);
+		int[] classNameIds = new int[classNames.size()];
+		int[] classOffsets = new int[classNames.size()];
+		int[] classLengths = new int[classNames.size()];
+		Set<String> methodSubSignatures = new TreeSet<>();
+		for (int i = 0; i < classNames.size(); i++) {
+			ClassMethodSummaries classSummaries = summaries.getClassSummaries(classNames.get(i));
+			if (classSummaries == null)
+				classSummaries = new ClassMethodSummaries(classNames.get(i));
+			classNameIds[i] = getStringId(classNames.get(i));
+			classOffsets[i] = classOut.size();
+			writeClass(classOut, classSummaries);
+			classLengths[i] = classOut.size() - classOffsets[i];
+
+			MethodSummaries methodSummaries = classSummaries.getMethodSummaries();
+			MultiMap<String, MethodFlow> flows = methodSummaries.getFlows();
+			if (flows != null)
+				methodSubSignatures.addAll(flows.keySet());
+			MultiMap<String, MethodClear> clears = methodSummaries.getClears();
+			if (clears != null)
+				methodSubSignatures.addAll(clears.keySet());
+		}
+
+		// Encode the meta data
+		ByteArrayOutputStream metaData = new ByteArrayOutputStream();
+		DataOutputStream metaOut = new DataOutputStream(metaData);
+		SummaryMetaData summaryMetaData = summaries.getMetaData();
+		writeStrings(metaOut,
+				summaryMetaData == null ? Collections.<String>emptySet() : summaryMetaData.getExclusiveClasses());
+		writeStrings(metaOut,
+				summaryMetaData == null ? Collections.<String>emptySet() : summaryMetaData.getExclusivePackages());
+		writeStrings(metaOut, methodSubSignatures);
+
+		// Encode the string table
+		byte[][] encodedStrings = new byte[strings.size()][];
+		for (int i = 0; i < strings.size(); i++)
+			encodedStrings[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+
+		// Compute the layout of the file
+		final int stringTableOffset = HEADER_SIZE;
+		int stringDataOffset = stringTableOffset + 4 * strings.size();
+		final int classIndexOffset;
+		{
+			int offset = stringDataOffset;
+			for (byte[] encodedString : encodedStrings)
+				offset += 4 + encodedString.length;
+			classIndexOffset = offset;
+		}
+		final int metaDataOffset = classIndexOffset + CLASS_INDEX_ENTRY_SIZE * classNames.size();
+		final long classDataOffset = (long) metaDataOffset + metaData.size();
+		if (classDataOffset + classData.size() > Integer.MAX_VALUE)
+			throw new IOException("Summary bundle exceeds the maximum size of 2 GB");
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			// Header
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(strings.size());
+			out.writeInt(stringTableOffset);
+			out.writeInt(classNames.size());
+			out.writeInt(classIndexOffset);
+			out.writeInt(metaDataOffset);
+
+			// String table
+			int offset = stringDataOffset;
+			for (byte[] encodedString : encodedStrings) {
+				out.writeInt(offset);
+				offset += 4 + encodedString.length;
+			}
+			for (byte[] encodedString : encodedStrings) {
+				out.writeInt(encodedString.length);
+				out.write(encodedString);
+			}
+
+			// Class index
+			for (int i = 0; i < classNames.size(); i++) {
+				out.writeInt(classNameIds[i]);
+				out.writeInt(supportedClasses.contains(classNames.get(i)) ? CLASS_SUPPORTED : 0);
+				out.writeInt((int) classDataOffset + classOffsets[i]);
+				out.writeInt(classLengths[i]);
+			}
+
+			metaData.writeTo(out);
+			classData.writeTo(out);
+		}
+	}
+
+	/**
+	 * Writes the summaries of a single class
+	 *
+	 * @param out            The stream to which to write the data
+	 * @param classSummaries The summaries to write
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeClass(DataOutputStream out, ClassMethodSummaries classSummaries) throws IOException {
+		byte flags = 0;
+		if (classSummaries.hasInterfaceInfo()) {
+			flags |= CLASS_HAS_INTERFACE_INFO;
+			if (classSummaries.isInterface())
+				flags |= CLASS_IS_INTERFACE;
+		}
+		if (classSummaries.isExclusiveForClass())
+			flags |= CLASS_EXCLUSIVE;
+		out.writeByte(flags);
+		out.writeInt(getStringId(classSummaries.getSuperClass()));
+		writeStrings(out, new TreeSet<>(classSummaries.getInterfaces()));
+
+		MethodSummaries methodSummaries = classSummaries.getMethodSummaries();
+		writeStrings(out, new TreeSet<>(methodSummaries.getExcludedMethods()));
+
+		// Gaps must come first, because the flows reference them
+		Collection<GapDefinition> gaps = methodSummaries.getAllGaps();
+		if (gaps == null)
+			out.writeInt(0);
+		else {
+			out.writeInt(gaps.size());
+			for (GapDefinition gap : gaps) {
+				out.writeInt(gap.getID());
+				out.writeInt(getStringId(gap.getSignature()));
+			}
+		}
+
+		Set<MethodFlow> flows = methodSummaries.getAllFlows();
+		if (flows == null)
+			flows = Collections.emptySet();
+		out.writeInt(flows.size());
+		for (MethodFlow flow : flows) {
+			out.writeInt(getStringId(flow.methodSig()));
+			writeSourceSink(out, flow.source());
+			writeSourceSink(out, flow.sink());
+			out.writeBoolean(flow.isAlias());
+			writeBoolean(out, flow.getTypeChecking());
+			out.writeBoolean(flow.getIgnoreTypes());
+			writeBoolean(out, flow.getCutSubFields());
+		}
+
+		Set<MethodClear> clears = methodSummaries.getAllClears();
+		if (clears == null)
+			clears = Collections.emptySet();
+		out.writeInt(clears.size());
+		for (MethodClear clear : clears) {
+			out.writeInt(getStringId(clear.methodSig()));
+			writeSourceSink(out, clear.getClearDefinition());
+		}
+	}
+
+	/**
+	 * Writes a source, sink, or clear definition
+	 *
+	 * @param out        The stream to which to write the data
+	 * @param sourceSink The source, sink, or clear definition to write
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeSourceSink(DataOutputStream out, AbstractFlowSinkSource sourceSink) throws IOException {
+		out.writeByte(sourceSink.getType().ordinal());
+		out.writeInt(sourceSink.getParameterIndex());
+		out.writeInt(getStringId(sourceSink.getBaseType()));
+
+		AccessPathFragment accessPath = sourceSink.getAccessPath();
+		out.writeBoolean(accessPath != null);
+		if (accessPath != null) {
+			writeStrings(out, accessPath.getFields());
+			writeStrings(out, accessPath.getFieldTypes());
+		}
+
+		out.writeInt(sourceSink.hasGap() ? sourceSink.getGap().getID() : NO_GAP);
+		out.writeBoolean(sourceSink.isMatchStrict());
+
+		// The XML reader attaches boolean user data to some sinks. We do not support
+		// any other kind of user data.
+		Object userData = sourceSink.getUserData();
+		writeBoolean(out, userData instanceof Boolean ? (Boolean) userData : null);
+		if (sourceSink instanceof FlowSink)
+			out.writeBoolean(((FlowSink) sourceSink).taintSubFields());
+	}
+
+	private void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+		out.writeByte(value == null ? BOOLEAN_NULL : value.booleanValue() ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+	}
+
+	private void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values)
+			out.writeInt(getStringId(value));
+	}
+
+	private void writeStrings(DataOutputStream out, String[] values) throws IOException {
+		if (values == null)
+			out.writeInt(NULL_ARRAY);
+		else {
+			out.writeInt(values.length);
+			for (String value : values)
+				out.writeInt(getStringId(value));
+		}
+	}
+
+	/**
+	 * Gets the id of the given string in the string table. If the string is not
+	 * yet in the string table, it is added.
+	 *
+	 * @param value The string for which to get the id
+	 * @return The id of the given string
+	 */
+	private int getStringId(String value) {
+		if (value == null)
+			return NULL_STRING;
+		Integer id = stringIds.get(value);
+		if (id == null) {
+			id = strings.size();
+			strings.add(value);
+			stringIds.put(value, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Compiles XML summaries into a binary summary bundle
+	 *
+	 * @param args The bundle file to write, followed by the XML summary files or
+	 *             directories to compile
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println(String.format("Usage: java %s <bundle file> <summary file or directory>...",
+					SummaryBundleWriter.class.getName()));
+			return;
+		}
+
+		List<File> inputFiles = new ArrayList<>(args.length - 1);
+		for (int i = 1; i < args.length; i++)
+			inputFiles.add(new File(args[i]));
+
+		long beforeLoad = System.nanoTime();
+		EagerSummaryProvider provider = new EagerSummaryProvider(inputFiles);
+		if (provider.hasLoadingErrors())
+			logger.warn("Some summaries could not be loaded and will be missing from the bundle");
+		logger.info(String.format("Loaded summaries for %d classes in %.2f seconds",
+				provider.getSupportedClasses().size(), (System.nanoTime() - beforeLoad) / 1E9));
+
+		File bundleFile = new File(args[0]);
+		new SummaryBundleWriter().write(provider, bundleFile);
+		logger.info(String.format("Wrote summary bundle %s (%d bytes)", bundleFile.getAbsolutePath(),
+				bundleFile.length()));
+	}
+
+}
@@ -0,0 +1,130 @@
+package soot.jimple.infoflow.methodSummary.data.provider;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.jimple.infoflow.methodSummary.binary.SummaryBundleReader;
+import soot.jimple.infoflow.methodSummary.binary.SummaryBundleWriter;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ConcurrentClassSummaries;
+
+/**
+ * Provider that loads method summaries from a binary summary bundle created by
+ * the {@link SummaryBundleWriter}. The bundle is mapped into memory, and the
+ * summaries of a class are only decoded when they are requested for the first
+ * time. This avoids parsing hundreds of XML files when the analysis starts.
+ *
+ */
+public class MemoryMappedSummaryProvider implements IMethodSummaryProvider {
+
+	private final SummaryBundleReader reader;
+	private final ClassSummaries summaries = new ConcurrentClassSummaries();
+	private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a new instance of the {@link MemoryMappedSummaryProvider} class
+	 *
+	 * @param bundleFile The summary bundle file
+	 * @throws IOException Thrown if the bundle file could not be read
+	 */
+	public MemoryMappedSummaryProvider(File bundleFile) throws IOException {
+		this(new SummaryBundleReader(bundleFile));
+	}
+
+	/**
+	 * Creates a new instance of the {@link MemoryMappedSummaryProvider} class
+	 *
+	 * @param reader The reader for the summary bundle
+	 */
+	public MemoryMappedSummaryProvider(SummaryBundleReader reader) {
+		this.reader = reader;
+		summaries.setMetaData(reader.getMetaData());
+	}
+
+	/**
+	 * Decodes the summaries for the given class if they have not been loaded yet
+	 *
+	 * @param className The name of the class for which to load the summaries
+	 */
+	protected void loadClass(String className) {
+		if (loadedClasses.contains(className) || !reader.containsClass(className))
+			return;
+
+		// Do not decode the same class twice
+		synchronized (this) {
+			if (!loadedClasses.contains(className)) {
+				summaries.merge(reader.readClass(className));
+				loadedClasses.add(className);
+			}
+		}
+	}
+
+	/**
+	 * Gets all summaries for the given class
+	 *
+	 * @param className The name of the class for which to get the summaries
+	 * @return The data flow summaries for the given class
+	 */
+	protected ClassMethodSummaries getClassSummaries(String className) {
+		loadClass(className);
+		return summaries.getClassSummaries(className);
+	}
+
+	@Override
+	public Set<String> getSupportedClasses() {
+		return loadedClasses;
+	}
+
+	@Override
+	public Set<String> getAllClassesWithSummaries() {
+		return reader.getSupportedClasses();
+	}
+
+	@Override
+	public boolean supportsClass(String clazz) {
+		return reader.getSupportedClasses().contains(clazz);
+	}
+
+	@Override
+	public ClassMethodSummaries getMethodFlows(String className, String methodSignature) {
+		ClassMethodSummaries classSummaries = getClassSummaries(className);
+		return classSummaries == null ? null : classSummaries.filterForMethod(methodSignature);
+	}
+
+	@Override
+	public ClassSummaries getMethodFlows(Set<String> classes, String methodSignature) {
+		for (String className : classes)
+			loadClass(className);
+		return summaries.filterForMethod(classes, methodSignature);
+	}
+
+	@Override
+	public ClassMethodSummaries getClassFlows(String clazz) {
+		return getClassSummaries(clazz);
+	}
+
+	@Override
+	public boolean mayHaveSummaryForMethod(String subsig) {
+		return reader.getMethodSubSignatures().contains(subsig);
+	}
+
+	/**
+	 * Gets all method flow summaries that have been loaded so far
+	 *
+	 * @return All summaries that have been loaded so far
+	 */
+	@Override
+	public ClassSummaries getSummaries() {
+		return summaries;
+	}
+
+	@Override
+	public boolean isMethodExcluded(String className, String subSignature) {
+		ClassMethodSummaries classSummaries = getClassSummaries(className);
+		return classSummaries != null && classSummaries.getMethodSummaries().isExcluded(subSignature);
+	}
+
+}
@@ -1,6 +1,7 @@
 package soot.jimple.infoflow.methodSummary.data.summary;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -691,6 +692,16 @@ public class MethodSummaries implements Iterable<MethodFlow> {
 		excludedMethods.add(methodSignature);
 	}
 
+	/**
+	 * Gets the subsignatures of all methods that have been excluded from the data
+	 * flow analysis
+	 * 
+	 * @return The subsignatures of all excluded methods
+	 */
+	public Set<String> getExcludedMethods() {
+		return excludedMethods == null ? Collections.<String>emptySet() : excludedMethods;
+	}
+
 	/**
 	 * Gets whether the method with the given subsignature has been excluded from
 	 * the data flow analysis
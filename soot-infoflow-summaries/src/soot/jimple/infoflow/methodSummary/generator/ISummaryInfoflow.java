@@ -1,8 +1,21 @@
 package soot.jimple.infoflow.methodSummary.generator;
 
+import soot.SootMethod;
 import soot.jimple.infoflow.IInfoflow;
 import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 
 public interface ISummaryInfoflow extends IInfoflow {
     InfoflowManager getManager();
+
+    /**
+     * Runs the data flow analysis on the Soot scene and callgraph that were left
+     * behind by a previous analysis run. The configuration must use
+     * {@link soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode#UseExistingCallgraph}.
+     * 
+     * @param dummyMainMethod The dummy main method from which the existing
+     *                        callgraph was built
+     * @param sourcesSinks    The source/sink manager for this analysis run
+     */
+    void computeInfoflowOnExistingScene(SootMethod dummyMainMethod, ISourceSinkManager sourcesSinks);
 }
@@ -0,0 +1,373 @@
+package soot.jimple.infoflow.methodSummary.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator.ClassAnalysisTask;
+import soot.jimple.infoflow.methodSummary.postProcessor.SummaryFlowCompactor;
+import soot.jimple.infoflow.methodSummary.xml.SummaryReader;
+import soot.jimple.infoflow.methodSummary.xml.SummaryXMLException;
+
+/**
+ * Driver that distributes the summary generation for multiple classes across a
+ * number of local worker JVMs. Soot relies on global singletons, so we cannot
+ * analyze multiple classes in parallel inside the same JVM.
+ *
+ * Every worker runs the command-line summary generator on exactly one class and
+ * writes the summary file for this class into the shared output directory. If
+ * summaries shall be applied on the fly, the output directory must be one of
+ * the additional summary directories of the workers, and a class is only
+ * scheduled once all classes on which it depends have been summarized. Cyclic
+ * dependencies are broken following the order of the sequential summary
+ * generator, i.e., classes with fewer dependencies come first.
+ *
+ * The summaries created by the workers are finally read back and merged. Gap
+ * identifiers that clash between classes are renumbered during the merge.
+ *
+ */
+public class ParallelSummaryGenerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelSummaryGenerator.class);
+
+	/**
+	 * The default entry point of the worker JVMs
+	 */
+	public static final String DEFAULT_WORKER_MAIN_CLASS = "soot.jimple.infoflow.methodSummary.Main";
+
+	private final SummaryGenerator generator;
+	private final List<String> workerArguments;
+	private final Set<String> failedClasses = ConcurrentHashMap.newKeySet();
+
+	private int numWorkers = Runtime.getRuntime().availableProcessors();
+	private List<String> jvmArguments = new ArrayList<>();
+	private String workerMainClass = DEFAULT_WORKER_MAIN_CLASS;
+	private String workerClasspath = System.getProperty("java.class.path");
+	private String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator
+			+ "java";
+
+	/**
+	 * Creates a new instance of the {@link ParallelSummaryGenerator} class
+	 *
+	 * @param generator       The summary generator that is used for collecting the
+	 *                        classes and methods to analyze. Its configuration
+	 *                        must match the one that the workers derive from
+	 *                        their command-line arguments.
+	 * @param workerArguments The command-line options that shall be passed to
+	 *                        every worker
+	 */
+	public ParallelSummaryGenerator(SummaryGenerator generator, List<String> workerArguments) {
+		this.generator = generator;
+		this.workerArguments = workerArguments;
+	}
+
+	/**
+	 * Generates the summaries for the given set of classes using multiple worker
+	 * JVMs
+	 *
+	 * @param classpath       The classpath from which to load the given classes
+	 * @param classNames      The classes for which to create summaries
+	 * @param outputDirectory The directory into which the workers shall write the
+	 *                        summary files
+	 * @param handler         The handler that shall be invoked when all methods
+	 *                        inside one class have been summarized. Note that
+	 *                        {@link IClassSummaryHandler#onMethodFinished} is
+	 *                        never called, because the methods are summarized in
+	 *                        the worker JVMs.
+	 * @return The generated method summaries. If the workers for some classes
+	 *         have failed, the summaries for these classes are missing, see
+	 *         {@link #getFailedClasses()}.
+	 */
+	public ClassSummaries createMethodSummaries(String classpath, Collection<String> classNames,
+			File outputDirectory, IClassSummaryHandler handler) {
+		if (!outputDirectory.exists())
+			outputDirectory.mkdirs();
+		failedClasses.clear();
+
+		// Find out what we need to analyze
+		List<ClassAnalysisTask> pendingTasks = new LinkedList<>();
+		for (ClassAnalysisTask task : generator.collectAnalysisTasks(classpath, classNames)) {
+			if (handler != null && !handler.onBeforeAnalyzeClass(task.getClassName()))
+				logger.info(String.format("Skipping over class %s", task.getClassName()));
+			else if (!task.getMethods().isEmpty())
+				pendingTasks.add(task);
+		}
+
+		// Only dependencies on classes that we are about to summarize delay the
+		// analysis. All other summaries are already there or will never be.
+		final boolean respectDependencies = generator.getConfig().getApplySummariesOnTheFly();
+		final Set<String> unfinishedClasses = new HashSet<>();
+		for (ClassAnalysisTask task : pendingTasks)
+			unfinishedClasses.add(task.getClassName());
+
+		long nanosBeforeAnalysis = System.nanoTime();
+		int numTasks = pendingTasks.size();
+		ClassSummaries summaries = new ClassSummaries();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numWorkers));
+		CompletionService<ClassAnalysisTask> completionService = new ExecutorCompletionService<>(executor);
+		try {
+			int running = 0;
+			while (!pendingTasks.isEmpty() || running > 0) {
+				// Start workers for all classes that are ready
+				while (running < numWorkers && !pendingTasks.isEmpty()) {
+					ClassAnalysisTask task = nextTask(pendingTasks, unfinishedClasses, respectDependencies,
+							running == 0);
+					if (task == null)
+						break;
+					completionService.submit(() -> {
+						// A failing worker must not stop the other classes
+						try {
+							if (!runWorker(classpath, task, outputDirectory))
+								failedClasses.add(task.getClassName());
+						} catch (IOException e) {
+							logger.error(String.format("Could not run summary generation worker for class %s",
+									task.getClassName()), e);
+							failedClasses.add(task.getClassName());
+						}
+						return task;
+					});
+					running++;
+				}
+
+				// Wait for the next worker to finish
+				ClassAnalysisTask finishedTask = completionService.take().get();
+				running--;
+				unfinishedClasses.remove(finishedTask.getClassName());
+				if (failedClasses.contains(finishedTask.getClassName()))
+					continue;
+
+				ClassMethodSummaries curSummaries = readSummaries(finishedTask.getClassName(), outputDirectory);
+				if (curSummaries == null)
+					failedClasses.add(finishedTask.getClassName());
+				if (curSummaries != null) {
+					if (handler != null)
+						handler.onClassFinished(curSummaries);
+					summaries.merge(curSummaries);
+
+					// Remove duplicate summaries on alias flows. We need to re-do this
+					// as we might have created new duplicates during the merge.
+					new SummaryFlowCompactor(curSummaries.getMethodSummaries()).compact();
+				}
+			}
+		} catch (InterruptedException e) {
+			logger.error("Parallel summary generation was interrupted", e);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// The workers handle their own failures, so this is a bug in the driver
+			throw new RuntimeException("Parallel summary generation has failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		logger.info(String.format("Summaries for %d classes done in %.2f seconds using %d workers", numTasks,
+				(System.nanoTime() - nanosBeforeAnalysis) / 1E9, numWorkers));
+		if (!failedClasses.isEmpty())
+			logger.error(String.format("Summary generation has failed for %d classes: %s", failedClasses.size(),
+					failedClasses));
+
+		// Calculate the dependencies
+		generator.calculateDependencies(summaries);
+
+		return summaries;
+	}
+
+	/**
+	 * Gets the next task that can be scheduled for execution and removes it from
+	 * the list of pending tasks
+	 *
+	 * @param pendingTasks        The tasks that have not been scheduled yet, in
+	 *                            the order of the sequential summary generator
+	 * @param unfinishedClasses   The classes for which the summaries are not yet
+	 *                            available
+	 * @param respectDependencies True if a class may only be scheduled once its
+	 *                            dependencies have been summarized
+	 * @param idle                True if no worker is currently running. In this
+	 *                            case, we must pick a task even if its
+	 *                            dependencies are still unfinished, because we
+	 *                            have a dependency cycle.
+	 * @return The next task to schedule, or null if no task is ready
+	 */
+	private ClassAnalysisTask nextTask(List<ClassAnalysisTask> pendingTasks, Set<String> unfinishedClasses,
+			boolean respectDependencies, boolean idle) {
+		if (!respectDependencies || idle)
+			return pendingTasks.remove(0);
+
+		for (Iterator<ClassAnalysisTask> taskIt = pendingTasks.iterator(); taskIt.hasNext();) {
+			ClassAnalysisTask task = taskIt.next();
+			boolean ready = true;
+			for (String dependency : task.getDependencies()) {
+				if (unfinishedClasses.contains(dependency)) {
+					ready = false;
+					break;
+				}
+			}
+			if (ready) {
+				taskIt.remove();
+				return task;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Runs a worker JVM that creates the summaries for the given class
+	 *
+	 * @param classpath       The classpath from which to load the class
+	 * @param task            The class to summarize
+	 * @param outputDirectory The directory into which the worker shall write the
+	 *                        summary file
+	 * @return True if the worker has finished successfully, otherwise false
+	 */
+	protected boolean runWorker(String classpath, ClassAnalysisTask task, File outputDirectory)
+			throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(javaExecutable);
+		command.addAll(jvmArguments);
+		command.add("-cp");
+		command.add(workerClasspath);
+		command.add(workerMainClass);
+		command.addAll(workerArguments);
+
+		// The driver has already decided that this class must be analyzed
+		command.add("-fo");
+		command.add(classpath);
+		command.add(outputDirectory.getAbsolutePath());
+		command.add(task.getClassName());
+
+		logger.info(String.format("Starting worker for class %s", task.getClassName()));
+		long nanosBeforeClass = System.nanoTime();
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		try {
+			int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				logger.error(String.format("Worker for class %s failed with exit code %d", task.getClassName(),
+						exitCode));
+				return false;
+			}
+			logger.info(String.format("Worker for class %s done in %.2f seconds", task.getClassName(),
+					(System.nanoTime() - nanosBeforeClass) / 1E9));
+			return true;
+		} finally {
+			if (process.isAlive())
+				process.destroyForcibly();
+		}
+	}
+
+	/**
+	 * Reads the summary file that a worker has created for the given class
+	 *
+	 * @param className       The name of the class for which to read the
+	 *                        summaries
+	 * @param outputDirectory The directory in which the workers place the summary
+	 *                        files
+	 * @return The summaries for the given class, or null if the worker did not
+	 *         produce a valid summary file
+	 */
+	private ClassMethodSummaries readSummaries(String className, File outputDirectory) {
+		File summaryFile = new File(outputDirectory, className + ".xml");
+		if (!summaryFile.exists()) {
+			logger.error(String.format("No summary file for class %s", className));
+			return null;
+		}
+
+		ClassMethodSummaries summaries = new ClassMethodSummaries(className);
+		try {
+			new SummaryReader().read(summaryFile, summaries);
+			return summaries;
+		} catch (XMLStreamException | SummaryXMLException | IOException e) {
+			logger.error(String.format("Could not read summary file for class %s", className), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the classes for which the last call to
+	 * {@link #createMethodSummaries(String, Collection, File, IClassSummaryHandler)}
+	 * could not create summaries, because the worker has failed or has not
+	 * produced a valid summary file
+	 *
+	 * @return The classes for which summary generation has failed
+	 */
+	public Set<String> getFailedClasses() {
+		return Collections.unmodifiableSet(failedClasses);
+	}
+
+	/**
+	 * Sets the maximum number of worker JVMs that run at the same time
+	 *
+	 * @param numWorkers The maximum number of worker JVMs
+	 */
+	public void setNumWorkers(int numWorkers) {
+		this.numWorkers = numWorkers;
+	}
+
+	/**
+	 * Gets the maximum number of worker JVMs that run at the same time
+	 *
+	 * @return The maximum number of worker JVMs
+	 */
+	public int getNumWorkers() {
+		return numWorkers;
+	}
+
+	/**
+	 * Sets the options that shall be passed to the worker JVMs, e.g., "-Xmx8g"
+	 *
+	 * @param jvmArguments The options for the worker JVMs
+	 */
+	public void setJvmArguments(List<String> jvmArguments) {
+		this.jvmArguments = jvmArguments;
+	}
+
+	/**
+	 * Sets the class that contains the main method of the workers. This class must
+	 * accept the same command line as the default summary generator.
+	 *
+	 * @param workerMainClass The fully-qualified name of the worker main class
+	 */
+	public void setWorkerMainClass(String workerMainClass) {
+		this.workerMainClass = workerMainClass;
+	}
+
+	/**
+	 * Sets the classpath of the worker JVMs. By default, the workers use the same
+	 * classpath as the current JVM.
+	 *
+	 * @param workerClasspath The classpath of the worker JVMs
+	 */
+	public void setWorkerClasspath(String workerClasspath) {
+		this.workerClasspath = workerClasspath;
+	}
+
+	/**
+	 * Sets the Java executable that is used for starting the workers. By default,
+	 * the workers use the same Java installation as the current JVM.
+	 *
+	 * @param javaExecutable The path to the Java executable
+	 */
+	public void setJavaExecutable(String javaExecutable) {
+		this.javaExecutable = javaExecutable;
+	}
+
+}
@@ -24,6 +24,9 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
+import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
+import soot.jimple.infoflow.cfg.CachingBiDiICFGFactory;
 import soot.jimple.infoflow.config.IInfoflowConfig;
 import soot.jimple.infoflow.data.pathBuilders.DefaultPathBuilderFactory;
 import soot.jimple.infoflow.entryPointCreators.BaseEntryPointCreator;
@@ -78,6 +81,7 @@ public class SummaryGenerator {
 	protected SummaryTaintWrapper fallbackWrapper;
 	protected boolean fallbackWrapperInitialized = false;
 	protected MemorySummaryProvider onFlySummaryProvider = null;
+	protected CachingBiDiICFGFactory sharedICFGFactory = null;
 
 	public SummaryGenerator() {
 		//
@@ -148,10 +152,11 @@ public class SummaryGenerator {
 	 * @author Steven Arzt
 	 *
 	 */
-	private static class ClassAnalysisTask {
+	static class ClassAnalysisTask {
 
 		private final String className;
 		private final Set<String> methods = new HashSet<>();
+		private final Set<String> dependencies = new HashSet<>();
 
 		public ClassAnalysisTask(String className) {
 			this.className = className;
@@ -166,6 +171,39 @@ public class SummaryGenerator {
 			methods.add(signature);
 		}
 
+		/**
+		 * Gets the name of the class to analyze
+		 * 
+		 * @return The name of the class to analyze
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * Gets the signatures of the methods to analyze
+		 * 
+		 * @return The signatures of the methods to analyze
+		 */
+		public Set<String> getMethods() {
+			return methods;
+		}
+
+		/**
+		 * Gets the names of the other classes on which this class depends. This set
+		 * is only populated if summaries are applied on the fly.
+		 * 
+		 * @return The names of the classes on which this class depends
+		 */
+		public Set<String> getDependencies() {
+			return dependencies;
+		}
+
+		@Override
+		public String toString() {
+			return className;
+		}
+
 	}
 
 	/**
@@ -174,50 +212,42 @@ public class SummaryGenerator {
 	 * @author Steven Arzt
 	 *
 	 */
-	private static class AnalysisTasksComparator implements Comparator<ClassAnalysisTask> {
+	static class AnalysisTasksComparator implements Comparator<ClassAnalysisTask> {
 
 		@Override
 		public int compare(ClassAnalysisTask o1, ClassAnalysisTask o2) {
-			SootClass sc1 = Scene.v().getSootClassUnsafe(o1.className);
-			SootClass sc2 = Scene.v().getSootClassUnsafe(o2.className);
-			if (sc1 != null && sc2 != null) {
-				int numDeps1 = getDependencyCount(sc1);
-				int numDeps2 = getDependencyCount(sc2);
-				return numDeps1 - numDeps2;
-			}
-			return 0;
+			return o1.dependencies.size() - o2.dependencies.size();
 		}
 
-		/**
-		 * Gets the number of other classes on which the given class depends
-		 * 
-		 * @param sc The class for which to count the dependencies
-		 * @return The number of dependencies on other classes of the given class
-		 */
-		private int getDependencyCount(SootClass sc) {
-			Set<SootClass> dependencies = new HashSet<>();
-			// Resolving method bodies may lead to the creation of new phantom methods,
-			// which in turn leads to a ConcurrentModificationExcpetion.
-			for (SootMethod sm : new ArrayList<>(sc.getMethods())) {
-				if (sm.isConcrete()) {
-					for (Unit u : sm.retrieveActiveBody().getUnits()) {
-						Stmt stmt = (Stmt) u;
-						if (stmt.containsFieldRef()) {
-							SootField fld = stmt.getFieldRef().getField();
-							if (fld.getDeclaringClass() != sc)
-								dependencies.add(fld.getDeclaringClass());
-						}
-						if (stmt.containsInvokeExpr()) {
-							SootMethod callee = stmt.getInvokeExpr().getMethod();
-							if (callee.getDeclaringClass() != sc)
-								dependencies.add(callee.getDeclaringClass());
-						}
+	}
+
+	/**
+	 * Collects the names of the other classes on which the given class depends
+	 * 
+	 * @param sc           The class for which to collect the dependencies
+	 * @param dependencies The set to which to add the names of the classes on
+	 *                     which the given class depends
+	 */
+	private static void collectDependencies(SootClass sc, Set<String> dependencies) {
+		// Resolving method bodies may lead to the creation of new phantom methods,
+		// which in turn leads to a ConcurrentModificationExcpetion.
+		for (SootMethod sm : new ArrayList<>(sc.getMethods())) {
+			if (sm.isConcrete()) {
+				for (Unit u : sm.retrieveActiveBody().getUnits()) {
+					Stmt stmt = (Stmt) u;
+					if (stmt.containsFieldRef()) {
+						SootField fld = stmt.getFieldRef().getField();
+						if (fld.getDeclaringClass() != sc)
+							dependencies.add(fld.getDeclaringClass().getName());
+					}
+					if (stmt.containsInvokeExpr()) {
+						SootMethod callee = stmt.getInvokeExpr().getMethod();
+						if (callee.getDeclaringClass() != sc)
+							dependencies.add(callee.getDeclaringClass().getName());
 					}
 				}
 			}
-			return dependencies.size();
 		}
-
 	}
 
 	/**
@@ -248,16 +278,16 @@ public class SummaryGenerator {
 	}
 
 	/**
-	 * Generates the summaries for the given set of classes
+	 * Loads the given classes into Soot and collects the methods for which
+	 * summaries shall be generated. If summaries are applied on the fly, the tasks
+	 * are sorted such that classes with fewer dependencies come first. Soot is
+	 * reset afterwards.
 	 * 
 	 * @param classpath  The classpath from which to load the given classes
 	 * @param classNames The classes for which to create summaries
-	 * @param handler    The handler that shall be invoked when all methods inside
-	 *                   one class have been summarized
-	 * @return The generated method summaries
+	 * @return The analysis tasks in the order in which they shall be processed
 	 */
-	public ClassSummaries createMethodSummaries(String classpath, Collection<String> classNames,
-			IClassSummaryHandler handler) {
+	List<ClassAnalysisTask> collectAnalysisTasks(String classpath, Collection<String> classNames) {
 		G.reset();
 
 		// Check whether we have a wildcard in the target classes
@@ -330,8 +360,16 @@ public class SummaryGenerator {
 		// summaries generated for these classes can later be employed when processing
 		// the more complex classes.
 		List<ClassAnalysisTask> sortedTasks = new ArrayList<>(realClasses);
-		if (config.getApplySummariesOnTheFly())
+		if (config.getApplySummariesOnTheFly()) {
+			// Compute the dependencies only once per class, the comparator would
+			// otherwise have to scan the method bodies for every comparison
+			for (ClassAnalysisTask analysisTask : sortedTasks) {
+				SootClass sc = Scene.v().getSootClassUnsafe(analysisTask.className);
+				if (sc != null)
+					collectDependencies(sc, analysisTask.dependencies);
+			}
 			sortedTasks.sort(new AnalysisTasksComparator());
+		}
 
 		// Collect all the public methods in the given classes. We cannot
 		// directly start the summary generation as this resets Soot.
@@ -374,6 +412,22 @@ public class SummaryGenerator {
 		// Make sure that we don't have any strange leftovers
 		G.reset();
 
+		return sortedTasks;
+	}
+
+	/**
+	 * Generates the summaries for the given set of classes
+	 * 
+	 * @param classpath  The classpath from which to load the given classes
+	 * @param classNames The classes for which to create summaries
+	 * @param handler    The handler that shall be invoked when all methods inside
+	 *                   one class have been summarized
+	 * @return The generated method summaries
+	 */
+	public ClassSummaries createMethodSummaries(String classpath, Collection<String> classNames,
+			IClassSummaryHandler handler) {
+		List<ClassAnalysisTask> sortedTasks = collectAnalysisTasks(classpath, classNames);
+
 		// We share one gap manager across all method analyses
 		final GapManager gapManager = new GapManager();
 
@@ -399,9 +453,23 @@ public class SummaryGenerator {
 				System.out.println(String.format("Analyzing class %s", className));
 
 				curSummaries = new ClassMethodSummaries(className);
+
+				// If all methods of the class shall share one Soot scene, we build the scene
+				// along with the first method and re-use it for all others
+				final boolean shareScene = config.getShareSceneAcrossMethods();
+				boolean sceneInitialized = false;
+				if (shareScene)
+					sharedICFGFactory = new CachingBiDiICFGFactory();
+
 				for (String methodSig : analysisTask.methods) {
-					MethodSummaries newSums = createMethodSummary(classpath, methodSig, className, gapManager,
-							new SummaryHierarchyGenerator(curSummaries));
+					MethodSummaries newSums;
+					if (shareScene) {
+						newSums = createMethodSummary(classpath, methodSig, className, gapManager,
+								new SummaryHierarchyGenerator(curSummaries), analysisTask.methods, sceneInitialized);
+						sceneInitialized = true;
+					} else
+						newSums = createMethodSummary(classpath, methodSig, className, gapManager,
+								new SummaryHierarchyGenerator(curSummaries));
 					if (handler != null) {
 						handler.onMethodFinished(methodSig, newSums);
 						if (onFlySummaryProvider != null)
@@ -421,6 +489,8 @@ public class SummaryGenerator {
 					}
 				}
 
+				sharedICFGFactory = null;
+
 				logger.info(String.format("Class summaries for %s done in %.2f seconds for %d summaries", className,
 						(System.nanoTime() - nanosBeforeClass) / 1E9, curSummaries.getFlowCount()));
 			}
@@ -523,7 +593,7 @@ public class SummaryGenerator {
 	 * 
 	 * @param summaries The summary set for which to calculate the dependencies
 	 */
-	private void calculateDependencies(ClassSummaries summaries) {
+	protected void calculateDependencies(ClassSummaries summaries) {
 		for (MethodFlow flow : summaries.getAllFlows()) {
 			if (flow.source().hasAccessPath()) {
 				final AccessPathFragment sourceAP = flow.source().getAccessPath();
@@ -623,6 +693,36 @@ public class SummaryGenerator {
 	 */
 	protected MethodSummaries createMethodSummary(String classpath, final String methodSig, final String parentClass,
 			final IGapManager gapManager, final ResultsAvailableHandler resultHandler) {
+		return createMethodSummary(classpath, methodSig, parentClass, gapManager, resultHandler, null, false);
+	}
+
+	/**
+	 * Creates a method summary for the method m.
+	 * 
+	 * If a collection of shared entry points is given, the dummy main method calls
+	 * all of these methods, so that the resulting Soot scene, callgraph and ICFG
+	 * can be re-used for analyzing the other methods in the collection as well.
+	 * The data flow analysis still only starts at the method to be summarized.
+	 * 
+	 * @param classpath         The classpath containing the classes to summarize
+	 * @param methodSig         method for which a summary will be created
+	 * @param parentClass       The parent class on which the method to be analyzed
+	 *                          shall be invoked
+	 * @param gapManager        The gap manager to be used for creating new gaps
+	 * @param resultHandler     Optional handler for conducting additional tasks at
+	 *                          the end (but in the context) of the data flow
+	 *                          analysis
+	 * @param sharedEntryPoints The methods that shall be reachable from the dummy
+	 *                          main method, or <code>null</code> to only include
+	 *                          the method to be summarized
+	 * @param reuseScene        True to run the analysis on the existing Soot scene
+	 *                          and callgraph, false to reset Soot and build a new
+	 *                          scene
+	 * @return summary of method m
+	 */
+	protected MethodSummaries createMethodSummary(String classpath, final String methodSig, final String parentClass,
+			final IGapManager gapManager, final ResultsAvailableHandler resultHandler,
+			Collection<String> sharedEntryPoints, boolean reuseScene) {
 		// We need to construct a fallback taint wrapper based on the current
 		// configuration
 		initializeFallbackWrapper();
@@ -634,6 +734,21 @@ public class SummaryGenerator {
 		final MethodSummaries summaries = new MethodSummaries();
 
 		final ISummaryInfoflow infoflow = initInfoflow(summaries, gapManager);
+		if (sharedEntryPoints != null || reuseScene) {
+			// The code elimination decides which calls to keep based on the sources and
+			// sinks of the current method. On a shared scene, the optimized code would
+			// be wrong for all other methods, so we must not optimize it at all, not
+			// even in the run that builds the scene.
+			SummaryGeneratorConfiguration sharedConfig = new SummaryGeneratorConfiguration();
+			sharedConfig.merge(config);
+			sharedConfig.setCodeEliminationMode(CodeEliminationMode.NoCodeElimination);
+			if (reuseScene) {
+				// The scene has already been built in a previous run
+				sharedConfig.setSootIntegrationMode(SootIntegrationMode.UseExistingCallgraph);
+				sharedConfig.setEnableReflection(false);
+			}
+			infoflow.setConfig(sharedConfig);
+		}
 
 		final SummaryTaintPropagationHandler listener = new SummaryTaintPropagationHandler(methodSig, parentClass,
 				gapManager);
@@ -671,8 +786,16 @@ public class SummaryGenerator {
 		});
 
 		try {
-			infoflow.computeInfoflow(null, classpath,
-					createEntryPoint(Collections.singletonList(methodSig), parentClass), sourceSinkManager);
+			if (reuseScene) {
+				SootMethod dummyMain = Scene.v().getMethod(DUMMY_MAIN_SIG);
+				listener.addExcludedMethod(dummyMain);
+				infoflow.computeInfoflowOnExistingScene(dummyMain, sourceSinkManager);
+			} else {
+				Collection<String> entryPoints = sharedEntryPoints == null ? Collections.singletonList(methodSig)
+						: sharedEntryPoints;
+				infoflow.computeInfoflow(null, classpath, createEntryPoint(entryPoints, parentClass),
+						sourceSinkManager);
+			}
 		} catch (Exception e) {
 			logger.error(String.format("Could not generate summary for method %s", methodSig, e));
 			throw e;
@@ -718,7 +841,8 @@ public class SummaryGenerator {
 	 * @return The newly constructed Infoflow instance
 	 */
 	protected ISummaryInfoflow getInfoflowInstance() {
-		ISummaryInfoflow infoflow = new SummaryInfoflow();
+		ISummaryInfoflow infoflow = sharedICFGFactory == null ? new SummaryInfoflow()
+				: new SummaryInfoflow(sharedICFGFactory);
 		infoflow.setPathBuilderFactory(new DefaultPathBuilderFactory(config.getPathConfiguration()) {
 
 			@Override
@@ -39,6 +39,7 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 
 	protected long classSummaryTimeout = -1;
 	private int repeatCount = 1;
+	protected boolean shareSceneAcrossMethods = false;
 
 	static {
 		SummaryGeneratorConfiguration.setMergeNeighbors(true);
@@ -92,6 +93,7 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 			}
 
 			this.classSummaryTimeout = summaryConfig.classSummaryTimeout;
+			this.shareSceneAcrossMethods = summaryConfig.shareSceneAcrossMethods;
 		}
 	}
 
@@ -391,6 +393,34 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 		this.classSummaryTimeout = classSummaryTimeout;
 	}
 
+	/**
+	 * Gets whether the summary generator shall build the Soot scene, the callgraph
+	 * and the interprocedural control flow graph only once per class and then
+	 * analyze all methods of that class on the shared scene. If this option is
+	 * disabled, Soot is reset for every single method.
+	 * 
+	 * @return True if one Soot scene shall be shared across all methods of a
+	 *         class, false otherwise
+	 */
+	public boolean getShareSceneAcrossMethods() {
+		return shareSceneAcrossMethods;
+	}
+
+	/**
+	 * Sets whether the summary generator shall build the Soot scene, the callgraph
+	 * and the interprocedural control flow graph only once per class and then
+	 * analyze all methods of that class on the shared scene. The code elimination
+	 * is disabled on a shared scene, because it depends on the method that is
+	 * summarized. If this option is disabled, Soot is reset for every single
+	 * method.
+	 * 
+	 * @param shareSceneAcrossMethods True if one Soot scene shall be shared across
+	 *                                all methods of a class, false otherwise
+	 */
+	public void setShareSceneAcrossMethods(boolean shareSceneAcrossMethods) {
+		this.shareSceneAcrossMethods = shareSceneAcrossMethods;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -404,6 +434,7 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 		result = prime * result + (loadFullJAR ? 1231 : 1237);
 		result = prime * result + (summarizeFullJAR ? 1231 : 1237);
 		result = prime * result + repeatCount;
+		result = prime * result + (shareSceneAcrossMethods ? 1231 : 1237);
 		result = prime * result + (summarizeHashCodeEquals ? 1231 : 1237);
 		result = prime * result + ((defaultTaints == null) ? 0 : defaultTaints.hashCode());
 		result = prime * result + (useDefaultSummaries ? 1231 : 1237);
@@ -445,6 +476,8 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 			return false;
 		if (repeatCount != other.repeatCount)
 			return false;
+		if (shareSceneAcrossMethods != other.shareSceneAcrossMethods)
+			return false;
 		if (summarizeHashCodeEquals != other.summarizeHashCodeEquals)
 			return false;
 		if (defaultTaints == null) {
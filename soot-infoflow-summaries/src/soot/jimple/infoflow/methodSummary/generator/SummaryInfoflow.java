@@ -2,9 +2,14 @@ package soot.jimple.infoflow.methodSummary.generator;
 
 import java.util.Collection;
 
+import soot.SootMethod;
 import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
 import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.cfg.BiDirICFGFactory;
+import soot.jimple.infoflow.cfg.CachingBiDiICFGFactory;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.options.Options;
 
 /**
@@ -22,6 +27,16 @@ public class SummaryInfoflow extends Infoflow implements ISummaryInfoflow {
 		super();
 	}
 
+	/**
+	 * Creates a new instance of the {@link SummaryInfoflow} class
+	 * 
+	 * @param icfgFactory The factory for creating the interprocedural control flow
+	 *                    graph
+	 */
+	public SummaryInfoflow(BiDirICFGFactory icfgFactory) {
+		super("", false, icfgFactory);
+	}
+
 	/**
 	 * Gets the data flow manager. Beware: This is an internal component of the data
 	 * flow analysis. Depending on the time of access, it might not be in an
@@ -50,6 +65,26 @@ public class SummaryInfoflow extends Infoflow implements ISummaryInfoflow {
 		super.initializeSoot(appPath, libPath, classes, extraSeed);
 	}
 
+	@Override
+	public void computeInfoflowOnExistingScene(SootMethod dummyMainMethod, ISourceSinkManager sourcesSinks) {
+		if (config.getSootIntegrationMode() != SootIntegrationMode.UseExistingCallgraph)
+			throw new IllegalStateException("Analyses on an existing scene require an existing callgraph");
+
+		this.dummyMainMethod = dummyMainMethod;
+		this.additionalEntryPointMethods = null;
+		runAnalysis(sourcesSinks, null);
+	}
+
+	@Override
+	protected void eliminateDeadCode(ISourceSinkManager sourcesSinks) {
+		super.eliminateDeadCode(sourcesSinks);
+
+		// The code optimizer changes method bodies, so we may not re-use an ICFG that
+		// was built before
+		if (icfgFactory instanceof CachingBiDiICFGFactory)
+			((CachingBiDiICFGFactory) icfgFactory).clearCache();
+	}
+
 	@Override
 	protected void setSourcePrec() {
 		if (libPath != null && libPath.toLowerCase().endsWith(".apk"))
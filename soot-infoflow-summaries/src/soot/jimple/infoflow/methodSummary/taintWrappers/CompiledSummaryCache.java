@@ -0,0 +1,237 @@
+package soot.jimple.infoflow.methodSummary.taintWrappers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.SootFieldRef;
+import soot.Type;
+import soot.jimple.infoflow.util.TypeUtils;
+
+/**
+ * Cache that translates the field signatures and type names in method
+ * summaries into the corresponding Soot objects. Every access path of a summary
+ * is compiled only once when it is first applied, afterwards the taint wrapper
+ * only looks up the resolved fields and types. The cache is bound to a single
+ * Soot scene and must not be used with any other scene.
+ *
+ */
+public class CompiledSummaryCache {
+
+	/**
+	 * An access path of a method summary with its fields and types resolved
+	 * against the Soot scene
+	 */
+	public static class CompiledAccessPath {
+
+		private final SootField[] fields;
+		private final Type[] types;
+
+		private CompiledAccessPath(SootField[] fields, Type[] types) {
+			this.fields = fields;
+			this.types = types;
+		}
+
+		/**
+		 * Gets the resolved fields of this access path
+		 *
+		 * @return The fields of this access path, or null if the access path is empty
+		 *         or one of its fields does not exist
+		 */
+		public SootField[] getFields() {
+			return fields;
+		}
+
+		/**
+		 * Gets the resolved field types of this access path
+		 *
+		 * @return The field types of this access path, or null if the access path
+		 *         does not have any type information
+		 */
+		public Type[] getTypes() {
+			return types;
+		}
+
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(CompiledSummaryCache.class);
+
+	private static final CompiledAccessPath EMPTY_ACCESS_PATH = new CompiledAccessPath(null, null);
+
+	private final Scene scene;
+
+	private final Map<String, SootField> fields = new ConcurrentHashMap<>();
+	private final Map<String, Type> types = new ConcurrentHashMap<>();
+	private final Map<AccessPathFragment, CompiledAccessPath> accessPaths = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance of the {@link CompiledSummaryCache} class
+	 *
+	 * @param scene The Soot scene against which to resolve the summaries
+	 */
+	public CompiledSummaryCache(Scene scene) {
+		this.scene = scene;
+	}
+
+	/**
+	 * Checks whether this cache has been created for the given scene
+	 *
+	 * @param scene The scene to check
+	 * @return True if this cache resolves the summaries against the given scene,
+	 *         otherwise false
+	 */
+	public boolean isBoundTo(Scene scene) {
+		return this.scene == scene;
+	}
+
+	/**
+	 * Gets the compiled form of the given access path
+	 *
+	 * @param accessPath The access path from a method summary or a taint
+	 * @return The access path with its fields and types resolved
+	 */
+	public CompiledAccessPath getAccessPath(AccessPathFragment accessPath) {
+		if (accessPath == null || accessPath.isEmpty())
+			return EMPTY_ACCESS_PATH;
+
+		CompiledAccessPath compiled = accessPaths.get(accessPath);
+		if (compiled == null) {
+			SootField[] fields = getFields(accessPath.getFields());
+			compiled = new CompiledAccessPath(fields, getTypes(accessPath.getFieldTypes(), fields));
+
+			// If a field or type is not yet known, it might be created later on
+			if (isComplete(compiled))
+				accessPaths.putIfAbsent(accessPath, compiled);
+		}
+		return compiled;
+	}
+
+	private static boolean isComplete(CompiledAccessPath compiled) {
+		if (compiled.fields == null)
+			return false;
+		if (compiled.types != null)
+			for (Type tp : compiled.types)
+				if (tp == null)
+					return false;
+		return true;
+	}
+
+	/**
+	 * Gets the type with the given name
+	 *
+	 * @param typeName The name of the type
+	 * @return The type with the given name, or null if no such type exists in the
+	 *         scene
+	 */
+	public Type getType(String typeName) {
+		if (typeName == null || typeName.isEmpty())
+			return null;
+
+		// Classes that are not in the scene yet might be added later, so we do not
+		// cache failed lookups
+		Type tp = types.get(typeName);
+		if (tp == null) {
+			tp = TypeUtils.getTypeFromString(typeName);
+			if (tp != null)
+				types.putIfAbsent(typeName, tp);
+		}
+		return tp;
+	}
+
+	/**
+	 * Gets the field with the specified signature. If the field does not exist,
+	 * but its declaring class is known, a new field is created.
+	 *
+	 * @param fieldSig The signature of the field to retrieve
+	 * @return The field with the given signature if it exists, otherwise null
+	 */
+	public SootField getField(String fieldSig) {
+		if (fieldSig == null || fieldSig.isEmpty())
+			return null;
+
+		SootField sf = fields.get(fieldSig);
+		if (sf == null) {
+			sf = resolveField(fieldSig);
+			if (sf != null)
+				fields.putIfAbsent(fieldSig, sf);
+		}
+		return sf;
+	}
+
+	private SootField resolveField(String fieldSig) {
+		SootField sf = scene.grabField(fieldSig);
+		if (sf != null)
+			return sf;
+
+		// This field does not exist, so we need to create it
+		String className = fieldSig.substring(1);
+		className = className.substring(0, className.indexOf(":"));
+		SootClass sc = scene.getSootClassUnsafe(className, true);
+		if (sc.resolvingLevel() < SootClass.SIGNATURES && !sc.isPhantom()) {
+			logger.warn("Class not loaded: {}", sc);
+			return null;
+		}
+
+		String type = fieldSig.substring(fieldSig.indexOf(": ") + 2);
+		type = type.substring(0, type.indexOf(" "));
+
+		String fieldName = fieldSig.substring(fieldSig.lastIndexOf(" ") + 1);
+		fieldName = fieldName.substring(0, fieldName.length() - 1);
+
+		SootFieldRef ref = scene.makeFieldRef(sc, fieldName, getType(type), false);
+		return ref.resolve();
+	}
+
+	/**
+	 * Gets an array of fields with the specified signatures
+	 *
+	 * @param fieldSigs The signatures of the fields to retrieve
+	 * @return The Array of fields with the given signature if all exists, otherwise
+	 *         null
+	 */
+	private SootField[] getFields(String[] fieldSigs) {
+		if (fieldSigs == null || fieldSigs.length == 0)
+			return null;
+		SootField[] fields = new SootField[fieldSigs.length];
+		for (int i = 0; i < fieldSigs.length; i++) {
+			fields[i] = getField(fieldSigs[i]);
+			if (fields[i] == null)
+				return null;
+		}
+		return fields;
+	}
+
+	/**
+	 * Gets an array of types with the specified class names
+	 *
+	 * @param fieldTypes The names of the types to retrieve
+	 * @param fields     The fields from which to get the types if we don't have any
+	 *                   explicit ones
+	 * @return The Array of types, or null if there is no type information
+	 */
+	private Type[] getTypes(String[] fieldTypes, SootField[] fields) {
+		if (fieldTypes == null || fieldTypes.length == 0) {
+			// If we don't have type information, but fields, we can use the declared field
+			// types
+			if (fields != null && fields.length > 0) {
+				Type[] types = new Type[fields.length];
+				for (int i = 0; i < fields.length; i++)
+					types[i] = fields[i].getType();
+				return types;
+			}
+			return null;
+		}
+
+		// Parse the explicit type information
+		Type[] types = new Type[fieldTypes.length];
+		for (int i = 0; i < fieldTypes.length; i++)
+			types[i] = getType(fieldTypes[i]);
+		return types;
+	}
+
+}
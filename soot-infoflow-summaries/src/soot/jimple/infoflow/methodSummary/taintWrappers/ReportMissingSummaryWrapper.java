@@ -49,6 +49,13 @@ public class ReportMissingSummaryWrapper extends SummaryTaintWrapper {
 		ai.incrementAndGet();
 	}
 
+	/**
+	 * Forgets all missing summaries that have been reported so far
+	 */
+	public void clearMissingSummaries() {
+		classSummariesMissing.clear();
+	}
+
 	public void writeResults(File file) throws IOException, ParserConfigurationException, TransformerException {
 		Map<SootClass, Integer> sortedClassSummariesMissing = sortMap(classSummariesMissing);
 		DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
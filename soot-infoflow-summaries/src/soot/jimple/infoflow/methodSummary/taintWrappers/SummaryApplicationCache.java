@@ -0,0 +1,247 @@
+package soot.jimple.infoflow.methodSummary.taintWrappers;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import soot.SootClass;
+import soot.SootMethod;
+import soot.jimple.DefinitionStmt;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.AccessPath;
+
+/**
+ * Cache for the results of applying method summaries to incoming taints. The
+ * same taint, e.g., a tainted first parameter, frequently reaches the same
+ * library method from many different call sites. Instead of running the
+ * summary propagation again for each of these call sites, the taint wrapper
+ * records the outgoing taints once and only converts them into access paths
+ * for the respective call site afterwards. The cache is bounded and evicts the
+ * least recently used entries.
+ *
+ */
+public class SummaryApplicationCache {
+
+	/**
+	 * The key under which the result of a summary application is stored. It
+	 * contains everything the summary application depends on: the callee, the
+	 * classes in which the summaries are looked up, the shape of the call site,
+	 * and the incoming taint.
+	 */
+	public static class Key {
+
+		private final SootMethod callee;
+		private final SootClass declaredClass;
+		private final Set<SootMethod> callgraphCallees;
+		private final boolean assignsResult;
+		private final boolean instanceInvoke;
+		private final BitSet taintableArgs;
+		private final Taint taint;
+
+		private final int hashCode;
+
+		private Key(SootMethod callee, SootClass declaredClass, Set<SootMethod> callgraphCallees,
+				boolean assignsResult, boolean instanceInvoke, BitSet taintableArgs, Taint taint) {
+			this.callee = callee;
+			this.declaredClass = declaredClass;
+			this.callgraphCallees = callgraphCallees;
+			this.assignsResult = assignsResult;
+			this.instanceInvoke = instanceInvoke;
+			this.taintableArgs = taintableArgs;
+			this.taint = taint;
+			this.hashCode = Objects.hash(callee, declaredClass, callgraphCallees, assignsResult, instanceInvoke,
+					taintableArgs, taint);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			return hashCode == other.hashCode && callee == other.callee && declaredClass == other.declaredClass
+					&& assignsResult == other.assignsResult && instanceInvoke == other.instanceInvoke
+					&& callgraphCallees.equals(other.callgraphCallees) && taintableArgs.equals(other.taintableArgs)
+					&& taint.equals(other.taint);
+		}
+
+	}
+
+	/**
+	 * The result of applying the summaries of a callee to a single incoming taint
+	 */
+	public static class Application {
+
+		private final Set<Taint> taints = new HashSet<>();
+		private boolean killIncomingTaint = false;
+		private boolean classSupported = false;
+		private boolean cacheable = true;
+
+		/**
+		 * Records a taint that the summaries produce at the call site
+		 *
+		 * @param taint The outgoing taint
+		 */
+		void addTaint(Taint taint) {
+			taints.add(taint);
+		}
+
+		/**
+		 * Marks this application as dependent on state that is not part of the cache
+		 * key, e.g., because the summaries contain gaps into user code
+		 */
+		void setNotCacheable() {
+			this.cacheable = false;
+		}
+
+		void setKillIncomingTaint(boolean killIncomingTaint) {
+			this.killIncomingTaint = killIncomingTaint;
+		}
+
+		void setClassSupported(boolean classSupported) {
+			this.classSupported = classSupported;
+		}
+
+		/**
+		 * Gets the taints that the summaries produce at the call site
+		 *
+		 * @return The outgoing taints
+		 */
+		public Set<Taint> getTaints() {
+			return Collections.unmodifiableSet(taints);
+		}
+
+		/**
+		 * Gets whether the summaries kill the incoming taint
+		 *
+		 * @return True if the incoming taint is killed, otherwise false
+		 */
+		public boolean isKillIncomingTaint() {
+			return killIncomingTaint;
+		}
+
+		/**
+		 * Gets whether there is a summary configuration for the callee class
+		 *
+		 * @return True if the callee class is supported, otherwise false
+		 */
+		public boolean isClassSupported() {
+			return classSupported;
+		}
+
+		/**
+		 * Gets whether this application may be re-used at other call sites
+		 *
+		 * @return True if this application can be cached, otherwise false
+		 */
+		public boolean isCacheable() {
+			return cacheable;
+		}
+
+	}
+
+	private final Cache<Key, Application> cache;
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	/**
+	 * Creates a new instance of the {@link SummaryApplicationCache} class
+	 *
+	 * @param maximumSize The maximum number of summary applications to keep
+	 */
+	public SummaryApplicationCache(int maximumSize) {
+		this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	/**
+	 * Creates the key for applying the summaries of the given callee to the given
+	 * taint
+	 *
+	 * @param stmt             The call site
+	 * @param callee           The method that is called
+	 * @param declaredClass    The declared class of the base object at the call
+	 *                         site, or null if there is none
+	 * @param callgraphCallees The callees that the callgraph reports at the call
+	 *                         site, or null if the callgraph is not consulted for
+	 *                         the given callee
+	 * @param taint            The incoming taint
+	 * @return The cache key
+	 */
+	public Key createKey(Stmt stmt, SootMethod callee, SootClass declaredClass,
+			Collection<SootMethod> callgraphCallees, Taint taint) {
+		// The outgoing taints are only propagated further if they can be mapped
+		// to the call site
+		InvokeExpr iexpr = stmt.getInvokeExpr();
+		BitSet taintableArgs = new BitSet(iexpr.getArgCount());
+		for (int i = 0; i < iexpr.getArgCount(); i++)
+			if (AccessPath.canContainValue(iexpr.getArg(i)))
+				taintableArgs.set(i);
+
+		Set<SootMethod> callees = callgraphCallees == null || callgraphCallees.isEmpty()
+				? Collections.<SootMethod>emptySet()
+				: new HashSet<>(callgraphCallees);
+		return new Key(callee, declaredClass, callees, stmt instanceof DefinitionStmt,
+				iexpr instanceof InstanceInvokeExpr, taintableArgs, taint);
+	}
+
+	/**
+	 * Gets the cached result of applying the summaries for the given key
+	 *
+	 * @param key The key
+	 * @return The cached summary application, or null if there is none
+	 */
+	public Application get(Key key) {
+		Application application = cache.getIfPresent(key);
+		if (application == null)
+			misses.incrementAndGet();
+		else
+			hits.incrementAndGet();
+		return application;
+	}
+
+	/**
+	 * Stores the given result of a summary application in the cache
+	 *
+	 * @param key         The key
+	 * @param application The summary application
+	 */
+	public void put(Key key, Application application) {
+		if (application.isCacheable())
+			cache.put(key, application);
+	}
+
+	/**
+	 * Gets the number of summary applications that were taken from the cache
+	 *
+	 * @return The number of cache hits
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of summary applications that had to be computed
+	 *
+	 * @return The number of cache misses
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+
+}
@@ -20,8 +20,6 @@ import soot.PrimType;
 import soot.RefType;
 import soot.Scene;
 import soot.SootClass;
-import soot.SootField;
-import soot.SootFieldRef;
 import soot.SootMethod;
 import soot.Type;
 import soot.Unit;
@@ -49,6 +47,7 @@ import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
 import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
 import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
 import soot.jimple.infoflow.methodSummary.data.summary.SummaryMetaData;
+import soot.jimple.infoflow.methodSummary.taintWrappers.CompiledSummaryCache.CompiledAccessPath;
 import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryQuery;
 import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryResolver;
 import soot.jimple.infoflow.methodSummary.taintWrappers.resolvers.SummaryResponse;
@@ -83,6 +82,9 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	private Hierarchy hierarchy;
 	private FastHierarchy fastHierarchy;
 	private SummaryResolver summaryResolver;
+	private CompiledSummaryCache compiledSummaries;
+	private int summaryApplicationCacheSize = 0;
+	private SummaryApplicationCache summaryApplicationCache;
 
 	private MultiMap<Pair<Abstraction, SootMethod>, AccessPathPropagator> userCodeTaints = new ConcurrentHashMultiMap<>();
 
@@ -218,6 +220,16 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		this.hierarchy = scene.getActiveHierarchy();
 		this.fastHierarchy = scene.getOrMakeFastHierarchy();
 
+		// The summaries are resolved against the current scene. If the wrapper is
+		// re-used after a Soot reset, we must not keep any stale Soot objects.
+		if (compiledSummaries == null || !compiledSummaries.isBoundTo(scene))
+			this.compiledSummaries = new CompiledSummaryCache(scene);
+
+		// Cached summary applications refer to the methods of the current scene
+		this.summaryApplicationCache = summaryApplicationCacheSize > 0
+				? new SummaryApplicationCache(summaryApplicationCacheSize)
+				: null;
+
 		// Register the taint propagation handler
 		manager.getForwardSolver().setFollowReturnsPastSeedsHandler(new SummaryFRPSHandler());
 
@@ -352,11 +364,10 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 */
 	protected AccessPath createAccessPathFromTaint(Taint t, Stmt stmt, boolean reverseFlows) {
 		// Convert the taints to Soot objects
-		SootField[] fields = safeGetFields(t.getAccessPath());
-		Type[] types = safeGetTypes(t.getAccessPath(), fields);
-		Type baseType = TypeUtils.getTypeFromString(t.getBaseType());
+		CompiledAccessPath compiledAP = compiledSummaries.getAccessPath(t.getAccessPath());
+		Type baseType = compiledSummaries.getType(t.getBaseType());
 		soot.jimple.infoflow.data.AccessPathFragment fragments[] = soot.jimple.infoflow.data.AccessPathFragment
-				.createFragmentArray(fields, types);
+				.createFragmentArray(compiledAP.getFields(), compiledAP.getTypes());
 
 		// If the taint is a return value, we taint the left side of the
 		// assignment
@@ -427,11 +438,10 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 */
 	private Set<AccessPath> createAccessPathInMethod(Taint t, SootMethod sm) {
 		// Convert the taints to Soot objects
-		SootField[] fields = safeGetFields(t.getAccessPath());
-		Type[] types = safeGetTypes(t.getAccessPath(), fields);
-		Type baseType = TypeUtils.getTypeFromString(t.getBaseType());
+		CompiledAccessPath compiledAP = compiledSummaries.getAccessPath(t.getAccessPath());
+		Type baseType = compiledSummaries.getType(t.getBaseType());
 		soot.jimple.infoflow.data.AccessPathFragment fragments[] = soot.jimple.infoflow.data.AccessPathFragment
-				.createFragmentArray(fields, types);
+				.createFragmentArray(compiledAP.getFields(), compiledAP.getTypes());
 
 		// A return value cannot be propagated into a method
 		if (t.isReturn()) {
@@ -558,13 +568,89 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			final SootMethod method, ByReferenceBoolean killIncomingTaint, ByReferenceBoolean classSupported) {
 //		wrapperHits.incrementAndGet();
 
+		if (summaryApplicationCache == null)
+			return computeTaintsForMethod(stmt, d1, taintedAbs, method, null, killIncomingTaint, classSupported,
+					null);
+		if (!flows.mayHaveSummaryForMethod(method.getSubSignature()))
+			return null;
+
+		// Create the taints for the incoming access path
+		Set<Taint> taintsFromAP = createTaintFromAccessPathOnCall(taintedAbs.getAccessPath(), stmt, false, null);
+		if (taintsFromAP == null || taintsFromAP.isEmpty())
+			return null;
+
+		// The same taint usually reaches the same callee from many call sites, so we
+		// apply the summaries only once per taint and call site shape
+		SootClass declaredClass = getSummaryDeclaringClass(stmt);
+		Collection<SootMethod> callgraphCallees = null;
+		if (!method.isConstructor() && !method.isStaticInitializer() && !method.isStatic())
+			callgraphCallees = manager.getICFG().getCalleesOfCallAt(stmt);
+
+		Set<AccessPath> res = null;
+		for (Taint taint : taintsFromAP) {
+			SummaryApplicationCache.Key key = summaryApplicationCache.createKey(stmt, method, declaredClass,
+					callgraphCallees, taint);
+			SummaryApplicationCache.Application application = summaryApplicationCache.get(key);
+			if (application == null) {
+				application = new SummaryApplicationCache.Application();
+				ByReferenceBoolean killTaint = new ByReferenceBoolean(false);
+				ByReferenceBoolean taintClassSupported = new ByReferenceBoolean(false);
+				computeTaintsForMethod(stmt, d1, taintedAbs, method, Collections.singleton(taint), killTaint,
+						taintClassSupported, application);
+				application.setKillIncomingTaint(killTaint.value);
+				application.setClassSupported(taintClassSupported.value);
+				summaryApplicationCache.put(key, application);
+			}
+
+			// Apply the cached result to the current call site
+			if (application.isKillIncomingTaint())
+				killIncomingTaint.value = true;
+			if (application.isClassSupported())
+				classSupported.value = true;
+			for (Taint outTaint : application.getTaints()) {
+				AccessPath ap = createAccessPathFromTaint(outTaint, stmt, false);
+				if (ap != null) {
+					if (res == null)
+						res = new HashSet<>();
+					res.add(ap);
+				}
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Computes library taints for the given method and incoming taints
+	 * 
+	 * @param stmt              The statement to which to apply the library summary
+	 * @param d1                The context of the incoming taint
+	 * @param taintedAbs        The incoming taint
+	 * @param method            The method for which to get library model taints
+	 * @param taintsFromAP      The summary taints derived from the incoming taint,
+	 *                          or null to derive them only if there are summaries
+	 *                          for the given method
+	 * @param killIncomingTaint Outgoing value that defines whether the original
+	 *                          taint shall be killed instead of being propagated
+	 *                          onwards
+	 * @param classSupported    Outgoing parameter that informs the caller whether
+	 *                          the callee class is supported, i.e., there is a
+	 *                          summary configuration for that class
+	 * @param application       Optional object that records the outgoing taints
+	 *                          for re-using them at other call sites
+	 * @return The artificial taints coming from the libary model if any, otherwise
+	 *         null
+	 */
+	private Set<AccessPath> computeTaintsForMethod(Stmt stmt, Abstraction d1, Abstraction taintedAbs,
+			final SootMethod method, Set<Taint> taintsFromAP, ByReferenceBoolean killIncomingTaint,
+			ByReferenceBoolean classSupported, SummaryApplicationCache.Application application) {
 		// Get the cached data flows
 		ClassSummaries flowsInCallees = getFlowSummariesForMethod(stmt, method, taintedAbs, classSupported);
 		if (flowsInCallees == null || flowsInCallees.isEmpty())
 			return null;
 
 		// Create a level-0 propagator for the initially tainted access path
-		Set<Taint> taintsFromAP = createTaintFromAccessPathOnCall(taintedAbs.getAccessPath(), stmt, false, null);
+		if (taintsFromAP == null)
+			taintsFromAP = createTaintFromAccessPathOnCall(taintedAbs.getAccessPath(), stmt, false, null);
 		if (taintsFromAP == null || taintsFromAP.isEmpty())
 			return null;
 
@@ -600,7 +686,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			}
 
 			// Apply the data flows until we reach a fixed point
-			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee, workList, false);
+			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee, workList, false, application);
 			if (resCallee != null && !resCallee.isEmpty()) {
 				if (res == null)
 					res = new HashSet<>();
@@ -624,6 +710,25 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 */
 	private Set<AccessPath> applyFlowsIterative(MethodSummaries flowsInCallee, List<AccessPathPropagator> workList,
 			boolean reverseFlows) {
+		return applyFlowsIterative(flowsInCallee, workList, reverseFlows, null);
+	}
+
+	/**
+	 * Iteratively applies all of the given flow summaries until a fixed point is
+	 * reached. if the flow enters user code, an analysis of the corresponding
+	 * method will be spawned.
+	 * 
+	 * @param flowsInCallee The flow summaries for the given callee
+	 * @param workList      The incoming propagators on which to apply the flow
+	 *                      summaries
+	 * @param reverseFlows  True if flows should be applied reverse. Useful for
+	 *                      back- wards analysis
+	 * @param application   Optional object that records the outgoing taints for
+	 *                      re-using them at other call sites
+	 * @return The set of outgoing access paths
+	 */
+	private Set<AccessPath> applyFlowsIterative(MethodSummaries flowsInCallee, List<AccessPathPropagator> workList,
+			boolean reverseFlows, SummaryApplicationCache.Application application) {
 		Set<AccessPath> res = null;
 		Set<AccessPathPropagator> doneSet = new HashSet<AccessPathPropagator>(workList);
 		while (!workList.isEmpty()) {
@@ -633,6 +738,10 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			if (curGap != null && curPropagator.getParent() == null)
 				throw new RuntimeException("Gap flow without parent detected");
 
+			// Flows through gaps depend on the user code and the calling context
+			if (curGap != null && application != null)
+				application.setNotCacheable();
+
 			// Get the correct set of flows to apply
 			MethodSummaries flowsInTarget = curGap == null ? flowsInCallee : getFlowSummariesForGap(curGap);
 
@@ -682,6 +791,8 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 							if (res == null)
 								res = new HashSet<>();
 							res.add(ap);
+							if (application != null)
+								application.addTaint(newPropagator.getTaint());
 						}
 					}
 					if (doneSet.add(newPropagator))
@@ -738,7 +849,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * @return True if objects of the given type can have aliases, otherwise false
 	 */
 	private boolean canTypeAlias(String type) {
-		Type tp = TypeUtils.getTypeFromString(type);
+		Type tp = compiledSummaries.getType(type);
 		if (tp instanceof PrimType)
 			return false;
 		if (tp instanceof RefType)
@@ -1004,8 +1115,8 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		// Make sure that the base type of the incoming taint and the one of
 		// the summary are compatible
 		boolean typesCompatible = flowSource.getBaseType() == null
-				|| isCastCompatible(TypeUtils.getTypeFromString(taint.getBaseType()),
-						TypeUtils.getTypeFromString(flowSource.getBaseType()));
+				|| isCastCompatible(compiledSummaries.getType(taint.getBaseType()),
+						compiledSummaries.getType(flowSource.getBaseType()));
 		if (!typesCompatible)
 			return null;
 
@@ -1182,117 +1293,6 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		return true;
 	}
 
-	/**
-	 * Gets the field with the specified signature if it exists, otherwise returns
-	 * null
-	 * 
-	 * @param fieldSig The signature of the field to retrieve
-	 * @return The field with the given signature if it exists, otherwise null
-	 */
-	private SootField safeGetField(String fieldSig) {
-		if (fieldSig == null || fieldSig.equals(""))
-			return null;
-
-		SootField sf = Scene.v().grabField(fieldSig);
-		if (sf != null)
-			return sf;
-
-		// This field does not exist, so we need to create it
-		String className = fieldSig.substring(1);
-		className = className.substring(0, className.indexOf(":"));
-		SootClass sc = Scene.v().getSootClassUnsafe(className, true);
-		if (sc.resolvingLevel() < SootClass.SIGNATURES && !sc.isPhantom()) {
-			System.err.println("WARNING: Class not loaded: " + sc);
-			return null;
-		}
-
-		String type = fieldSig.substring(fieldSig.indexOf(": ") + 2);
-		type = type.substring(0, type.indexOf(" "));
-
-		String fieldName = fieldSig.substring(fieldSig.lastIndexOf(" ") + 1);
-		fieldName = fieldName.substring(0, fieldName.length() - 1);
-
-		SootFieldRef ref = Scene.v().makeFieldRef(sc, fieldName, TypeUtils.getTypeFromString(type), false);
-		return ref.resolve();
-	}
-
-	/**
-	 * Gets an array of fields with the specified signatures
-	 * 
-	 * @param accessPath The access path from which to retrieve the list of the
-	 *                   field signatures
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private SootField[] safeGetFields(AccessPathFragment accessPath) {
-		if (accessPath == null || accessPath.isEmpty())
-			return null;
-		return safeGetFields(accessPath.getFields());
-	}
-
-	/**
-	 * Gets an array of fields with the specified signatures
-	 * 
-	 * @param fieldSigs , list of the field signatures to retrieve
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private SootField[] safeGetFields(String[] fieldSigs) {
-		if (fieldSigs == null || fieldSigs.length == 0)
-			return null;
-		SootField[] fields = new SootField[fieldSigs.length];
-		for (int i = 0; i < fieldSigs.length; i++) {
-			fields[i] = safeGetField(fieldSigs[i]);
-			if (fields[i] == null)
-				return null;
-		}
-		return fields;
-	}
-
-	/**
-	 * Gets an array of types with the specified class names
-	 * 
-	 * @param accessPath The access path from which to retrieve the field types
-	 * @param fields     The fields from which to get the types if we don't have any
-	 *                   explicit ones
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private Type[] safeGetTypes(AccessPathFragment accessPath, SootField[] fields) {
-		if (accessPath == null || accessPath.isEmpty())
-			return null;
-		return safeGetTypes(accessPath.getFieldTypes(), fields);
-	}
-
-	/**
-	 * Gets an array of types with the specified class names
-	 * 
-	 * @param fieldTypes , list of the type names to retrieve
-	 * @param fields     The fields from which to get the types if we don't have any
-	 *                   explicit ones
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private Type[] safeGetTypes(String[] fieldTypes, SootField[] fields) {
-		if (fieldTypes == null || fieldTypes.length == 0) {
-			// If we don't have type information, but fields, we can use the declared field
-			// types
-			if (fields != null && fields.length > 0) {
-				Type[] types = new Type[fields.length];
-				for (int i = 0; i < fields.length; i++)
-					types[i] = fields[i].getType();
-				return types;
-			}
-			return null;
-		}
-
-		// Parse the explicit type information
-		Type[] types = new Type[fieldTypes.length];
-		for (int i = 0; i < fieldTypes.length; i++)
-			types[i] = TypeUtils.getTypeFromString(fieldTypes[i]);
-		return types;
-	}
-
 	/**
 	 * Given the taint at the source and the flow, computes the taint at the sink.
 	 * This method allows custom extensions to the taint wrapper. The default
@@ -1328,8 +1328,8 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 		int lastCommonAPIdx = Math.min(flowSource.getAccessPathLength(), taint.getAccessPathLength());
 
-		Type sinkType = TypeUtils.getTypeFromString(getAssignmentType(flowSink));
-		Type taintType = TypeUtils.getTypeFromString(getAssignmentType(taint, lastCommonAPIdx - 1));
+		Type sinkType = compiledSummaries.getType(getAssignmentType(flowSink));
+		Type taintType = compiledSummaries.getType(getAssignmentType(taint, lastCommonAPIdx - 1));
 
 		// For type checking, we need types
 		if ((checkTypes == null || checkTypes.booleanValue()) && sinkType != null && taintType != null) {
@@ -1617,6 +1617,26 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		return wrapperMisses.get();
 	}
 
+	/**
+	 * Gets the number of times the result of applying the summaries to an
+	 * incoming taint was re-used from an earlier call site
+	 * 
+	 * @return The number of hits in the summary application cache
+	 */
+	public int getSummaryApplicationCacheHits() {
+		return summaryApplicationCache == null ? 0 : summaryApplicationCache.getHits();
+	}
+
+	/**
+	 * Gets the number of times the summaries had to be applied to an incoming
+	 * taint, because no earlier result was available
+	 * 
+	 * @return The number of misses in the summary application cache
+	 */
+	public int getSummaryApplicationCacheMisses() {
+		return summaryApplicationCache == null ? 0 : summaryApplicationCache.getMisses();
+	}
+
 	@Override
 	public Set<Abstraction> getAliasesForMethod(Stmt stmt, Abstraction d1, Abstraction taintedAbs) {
 		// We only care about method invocations
@@ -1705,6 +1725,20 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		this.fallbackWrapper = fallbackWrapper;
 	}
 
+	/**
+	 * Sets the maximum number of summary applications that are cached for re-use
+	 * at other call sites. If the same taint reaches the same library method from
+	 * many call sites, the summaries only need to be applied once. The setting
+	 * takes effect when the taint wrapper is initialized.
+	 * 
+	 * @param summaryApplicationCacheSize The maximum number of cached summary
+	 *                                    applications, or zero to disable the
+	 *                                    cache
+	 */
+	public void setSummaryApplicationCacheSize(int summaryApplicationCacheSize) {
+		this.summaryApplicationCacheSize = summaryApplicationCacheSize;
+	}
+
 	/**
 	 * Gets the provider from which this taint wrapper loads it flows
 	 * 
@@ -4,14 +4,19 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
 import javax.xml.stream.XMLStreamException;
 
+import soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants;
 import soot.jimple.infoflow.methodSummary.data.provider.EagerSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.IMethodSummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.provider.LazySummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.MemoryMappedSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.MergingSummaryProvider;
 
 public class TaintWrapperFactory {
 
@@ -20,9 +25,41 @@ public class TaintWrapperFactory {
 	public static SummaryTaintWrapper createTaintWrapper(Collection<String> files)
 			throws FileNotFoundException, XMLStreamException {
 		List<File> fs = new LinkedList<File>();
-		for (String s : files)
-			fs.add(new File(s));
-		return new SummaryTaintWrapper(new LazySummaryProvider(fs));
+		List<IMethodSummaryProvider> bundleProviders = new ArrayList<>();
+		for (String s : files) {
+			// Compiled summary bundles are loaded via memory mapping
+			if (s.endsWith(BinarySummaryConstants.FILE_EXTENSION))
+				bundleProviders.add(createBundleProvider(new File(s)));
+			else
+				fs.add(new File(s));
+		}
+		if (bundleProviders.isEmpty())
+			return new SummaryTaintWrapper(new LazySummaryProvider(fs));
+
+		if (!fs.isEmpty())
+			bundleProviders.add(new LazySummaryProvider(fs));
+		if (bundleProviders.size() == 1)
+			return new SummaryTaintWrapper(bundleProviders.get(0));
+		return new SummaryTaintWrapper(new MergingSummaryProvider(bundleProviders));
+	}
+
+	/**
+	 * Creates a taint wrapper that loads its summaries from a compiled summary
+	 * bundle
+	 * 
+	 * @param bundleFile The summary bundle file
+	 * @return The new taint wrapper
+	 */
+	public static SummaryTaintWrapper createTaintWrapperFromBundle(File bundleFile) {
+		return new SummaryTaintWrapper(createBundleProvider(bundleFile));
+	}
+
+	private static MemoryMappedSummaryProvider createBundleProvider(File bundleFile) {
+		try {
+			return new MemoryMappedSummaryProvider(bundleFile);
+		} catch (IOException e) {
+			throw new RuntimeException(String.format("Could not load summary bundle %s", bundleFile), e);
+		}
 	}
 
 	public static SummaryTaintWrapper createTaintWrapperEager(Collection<String> files)
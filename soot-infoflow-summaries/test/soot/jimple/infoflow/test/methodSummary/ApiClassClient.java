@@ -24,6 +24,14 @@ public class ApiClassClient {
 		sink(tmp);
 	}
 
+	public void paraReturnFlowTwice() {
+		ApiClass api = new ApiClass();
+		Object s = source();
+		Object tmp = api.standardFlow(s);
+		Object tmp2 = api.standardFlow(tmp);
+		sink(tmp2);
+	}
+
 	public void paraFieldFieldReturnFlow() {
 		ApiClass api = new ApiClass();
 		Object s = source();
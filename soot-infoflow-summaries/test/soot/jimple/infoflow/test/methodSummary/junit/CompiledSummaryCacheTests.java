@@ -0,0 +1,118 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.Type;
+import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
+import soot.jimple.infoflow.methodSummary.taintWrappers.CompiledSummaryCache;
+import soot.jimple.infoflow.methodSummary.taintWrappers.CompiledSummaryCache.CompiledAccessPath;
+import soot.options.Options;
+
+/**
+ * Tests for resolving the access paths of method summaries against the Soot
+ * scene
+ */
+public class CompiledSummaryCacheTests {
+
+	private static final String DATA_CLASS = "soot.jimple.infoflow.test.methodSummary.Data";
+	private static final String DATA2_CLASS = "soot.jimple.infoflow.test.methodSummary.Data2";
+
+	private static final String FIELD_B = "<" + DATA_CLASS + ": " + DATA2_CLASS + " b>";
+	private static final String FIELD_C = "<" + DATA2_CLASS + ": java.lang.Object c>";
+
+	private CompiledSummaryCache cache;
+
+	@Before
+	public void loadClasses() {
+		G.reset();
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_soot_classpath(new File("build/testclasses").getAbsolutePath());
+		Scene.v().addBasicClass(DATA_CLASS, SootClass.SIGNATURES);
+		Scene.v().addBasicClass(DATA2_CLASS, SootClass.SIGNATURES);
+		Scene.v().loadNecessaryClasses();
+		cache = new CompiledSummaryCache(Scene.v());
+	}
+
+	@Test
+	public void emptyAccessPathTest() {
+		CompiledAccessPath compiled = cache.getAccessPath(null);
+		assertNull(compiled.getFields());
+		assertNull(compiled.getTypes());
+		assertSame(compiled, cache.getAccessPath(new AccessPathFragment((String[]) null, (String[]) null)));
+	}
+
+	@Test
+	public void compileOnceTest() {
+		AccessPathFragment fragment = new AccessPathFragment(new String[] { FIELD_B, FIELD_C }, null);
+		CompiledAccessPath compiled = cache.getAccessPath(fragment);
+		assertArrayEquals(new SootField[] { Scene.v().getField(FIELD_B), Scene.v().getField(FIELD_C) },
+				compiled.getFields());
+
+		// Without explicit types, we take the declared types of the fields
+		assertArrayEquals(new Type[] { RefType.v(DATA2_CLASS), RefType.v("java.lang.Object") }, compiled.getTypes());
+
+		// Every fragment is compiled only once, regardless of the object identity
+		assertSame(compiled, cache.getAccessPath(fragment));
+		assertSame(compiled,
+				cache.getAccessPath(new AccessPathFragment(new String[] { FIELD_B, FIELD_C }, null)));
+
+		// Other fragments are compiled on their own
+		CompiledAccessPath prefix = cache.getAccessPath(new AccessPathFragment(new String[] { FIELD_B }, null));
+		assertNotSame(compiled, prefix);
+		assertArrayEquals(new SootField[] { Scene.v().getField(FIELD_B) }, prefix.getFields());
+	}
+
+	@Test
+	public void explicitTypesTest() {
+		CompiledAccessPath compiled = cache.getAccessPath(
+				new AccessPathFragment(new String[] { FIELD_B, FIELD_C }, new String[] { DATA2_CLASS, DATA_CLASS }));
+		assertArrayEquals(new Type[] { RefType.v(DATA2_CLASS), RefType.v(DATA_CLASS) }, compiled.getTypes());
+	}
+
+	@Test
+	public void createMissingFieldTest() {
+		String fieldSig = "<" + DATA_CLASS + ": java.lang.String missingField>";
+		assertFalse(Scene.v().getSootClass(DATA_CLASS).declaresFieldByName("missingField"));
+
+		CompiledAccessPath compiled = cache.getAccessPath(new AccessPathFragment(new String[] { fieldSig }, null));
+		assertNotNull(compiled.getFields());
+		assertNotNull(compiled.getFields()[0]);
+		assertTrue(Scene.v().getSootClass(DATA_CLASS).declaresFieldByName("missingField"));
+		assertSame(compiled.getFields()[0], cache.getField(fieldSig));
+	}
+
+	@Test
+	public void incompleteAccessPathTest() {
+		// Types that are not in the scene yet cannot be resolved, so the access path
+		// must be compiled again later on
+		String typeName = "soot.jimple.infoflow.test.methodSummary.NotYetLoaded";
+		AccessPathFragment fragment = new AccessPathFragment(new String[] { FIELD_B }, new String[] { typeName });
+		CompiledAccessPath incomplete = cache.getAccessPath(fragment);
+		assertNull(incomplete.getTypes()[0]);
+		assertNotSame(incomplete, cache.getAccessPath(fragment));
+
+		// Once the type exists, the access path is resolved and cached
+		Scene.v().addClass(new SootClass(typeName));
+		CompiledAccessPath compiled = cache.getAccessPath(fragment);
+		assertArrayEquals(new Type[] { RefType.v(typeName) }, compiled.getTypes());
+		assertSame(compiled, cache.getAccessPath(fragment));
+	}
+
+}
@@ -0,0 +1,69 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.generator.ParallelSummaryGenerator;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGeneratorFactory;
+
+public class ParallelSummaryTests extends TestHelper {
+
+	private static final List<String> classNames = Arrays.asList(
+			"soot.jimple.infoflow.test.methodSummary.ParaToReturn",
+			"soot.jimple.infoflow.test.methodSummary.ParaToField");
+
+	/**
+	 * Creates a summary generator with the same configuration that the
+	 * command-line workers use when they receive no further options
+	 */
+	private SummaryGenerator createGenerator(File outputDirectory) {
+		SummaryGenerator sg = new SummaryGeneratorFactory().initSummaryGenerator();
+		sg.getConfig().setLoadFullJAR(false);
+		sg.getConfig().setSummarizeFullJAR(false);
+		sg.getConfig().addAdditionalSummaryDirectory(outputDirectory.getAbsolutePath());
+		return sg;
+	}
+
+	@Test(timeout = 600000)
+	public void sameSummariesAsSequential() throws IOException {
+		File outputDirectory = Files.createTempDirectory("summaries").toFile();
+		try {
+			ClassSummaries sequential = createGenerator(outputDirectory).createMethodSummaries(getClasspath(),
+					classNames);
+
+			ParallelSummaryGenerator parallelGenerator = new ParallelSummaryGenerator(
+					createGenerator(outputDirectory), Collections.<String>emptyList());
+			parallelGenerator.setNumWorkers(2);
+			ClassSummaries parallel = parallelGenerator.createMethodSummaries(getClasspath(), classNames,
+					outputDirectory, null);
+			assertTrue(parallelGenerator.getFailedClasses().isEmpty());
+
+			for (String className : classNames) {
+				ClassMethodSummaries seqSummaries = sequential.getClassSummaries(className);
+				ClassMethodSummaries parSummaries = parallel.getClassSummaries(className);
+				assertNotNull(seqSummaries);
+				assertNotNull(parSummaries);
+				assertTrue(seqSummaries.getFlowCount() > 0);
+				assertEquals(seqSummaries.getFlowCount(), parSummaries.getFlowCount());
+			}
+		} finally {
+			for (File f : outputDirectory.listFiles())
+				f.delete();
+			outputDirectory.delete();
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator;
+
+public class SharedSceneTests extends TestHelper {
+
+	private static final String className = "soot.jimple.infoflow.test.methodSummary.ParaToReturn";
+
+	private ClassSummaries createClassSummaries(boolean shareScene) {
+		SummaryGenerator sg = getSummary();
+		sg.getConfig().setShareSceneAcrossMethods(shareScene);
+		return sg.createMethodSummaries(getClasspath(), Collections.singleton(className));
+	}
+
+	@Test(timeout = 300000)
+	public void sameFlowsAsSeparateScenes() {
+		ClassSummaries separate = createClassSummaries(false);
+		ClassSummaries shared = createClassSummaries(true);
+
+		assertFalse(separate.getAllFlows().isEmpty());
+		assertEquals(separate.getAllFlows(), shared.getAllFlows());
+	}
+
+	@Override
+	protected SummaryGenerator getSummary() {
+		SummaryGenerator sg = super.getSummary();
+		List<String> sub = new LinkedList<String>();
+		sub.add("java.util.LinkedList");
+		sg.setSubstitutedWith(sub);
+		sg.getConfig().getAccessPathConfiguration().setAccessPathLength(-1);
+		sg.getConfig().getAccessPathConfiguration().setUseRecursiveAccessPaths(true);
+		return sg;
+	}
+
+}
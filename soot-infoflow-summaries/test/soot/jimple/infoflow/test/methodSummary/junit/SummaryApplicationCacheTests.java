@@ -0,0 +1,45 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
+
+/**
+ * Runs the summary taint wrapper tests with summary applications being re-used
+ * across call sites
+ *
+ */
+public class SummaryApplicationCacheTests extends SummaryTaintWrapperTests {
+
+	private SummaryTaintWrapper taintWrapper;
+
+	@Override
+	protected IInfoflow createInfoflowInstance() {
+		// Summary applications are only cached in the forward direction
+		return new Infoflow();
+	}
+
+	@Override
+	protected IInfoflow initInfoflow() throws FileNotFoundException, XMLStreamException {
+		IInfoflow infoflow = super.initInfoflow();
+		taintWrapper = (SummaryTaintWrapper) infoflow.getTaintWrapper();
+		taintWrapper.setSummaryApplicationCacheSize(1000);
+		return infoflow;
+	}
+
+	@Test(timeout = 30000)
+	public void reuseSummaryApplication() {
+		// The taint reaches the same library method at two call sites
+		testFlowForMethod("<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void paraReturnFlowTwice()>");
+		assertTrue(taintWrapper.getSummaryApplicationCacheHits() > 0);
+	}
+
+}
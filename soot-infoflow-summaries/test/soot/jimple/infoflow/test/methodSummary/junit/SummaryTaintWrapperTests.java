@@ -29,7 +29,12 @@ import soot.jimple.infoflow.Infoflow;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.config.IInfoflowConfig;
 import soot.jimple.infoflow.entryPointCreators.DefaultEntryPointCreator;
+import soot.jimple.infoflow.methodSummary.binary.BinarySummaryConstants;
+import soot.jimple.infoflow.methodSummary.binary.SummaryBundleWriter;
 import soot.jimple.infoflow.methodSummary.data.provider.EagerSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.MemoryMappedSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
 import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
@@ -221,7 +226,39 @@ public class SummaryTaintWrapperTests {
 		assertFalse(provider.hasLoadingErrors());
 	}
 
-	private void testFlowForMethod(String m) {
+	@Test
+	public void testSummaryBundle() throws URISyntaxException, IOException {
+		EagerSummaryProvider provider = new EagerSummaryProvider(TaintWrapperFactory.DEFAULT_SUMMARY_DIR);
+		File bundleFile = File.createTempFile("summaries", BinarySummaryConstants.FILE_EXTENSION);
+		bundleFile.deleteOnExit();
+		new SummaryBundleWriter().write(provider, bundleFile);
+
+		MemoryMappedSummaryProvider bundleProvider = new MemoryMappedSummaryProvider(bundleFile);
+		assertEquals(provider.getAllClassesWithSummaries(), bundleProvider.getAllClassesWithSummaries());
+		for (String className : provider.getSummaries().getClasses()) {
+			ClassMethodSummaries expected = provider.getClassFlows(className);
+			ClassMethodSummaries actual = bundleProvider.getClassFlows(className);
+			assertEquals(expected.getFlowCount(), actual.getFlowCount());
+			assertEquals(expected.getSuperClass(), actual.getSuperClass());
+			assertEquals(expected.getInterfaces(), actual.getInterfaces());
+			assertEquals(flowsToString(expected), flowsToString(actual));
+		}
+	}
+
+	/**
+	 * Gets the string representations of all flows in the given summaries. The XML
+	 * reader assigns the gap signatures only after the flows have been added to
+	 * their hash sets, so we cannot compare the flow objects directly.
+	 */
+	private Set<String> flowsToString(ClassMethodSummaries summaries) {
+		Set<String> flows = new HashSet<>();
+		if (summaries.getMethodSummaries().getAllFlows() != null)
+			for (MethodFlow flow : summaries.getMethodSummaries().getAllFlows())
+				flows.add(flow.toString());
+		return flows;
+	}
+
+	protected void testFlowForMethod(String m) {
 		IInfoflow iFlow = null;
 		try {
 			iFlow = initInfoflow();
@@ -263,9 +300,13 @@ public class SummaryTaintWrapperTests {
 		}
 	}
 
+	protected IInfoflow createInfoflowInstance() {
+		return new BackwardsInfoflow();
+//		return new Infoflow();
+	}
+
 	protected IInfoflow initInfoflow() throws FileNotFoundException, XMLStreamException {
-		IInfoflow result = new BackwardsInfoflow();
-//		Infoflow result = new Infoflow();
+		IInfoflow result = createInfoflowInstance();
 		result.getConfig().getAccessPathConfiguration().setUseRecursiveAccessPaths(false);
 		IInfoflowConfig testConfig = new IInfoflowConfig() {
 
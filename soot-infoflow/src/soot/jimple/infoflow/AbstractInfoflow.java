@@ -1,9 +1,11 @@
 package soot.jimple.infoflow;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -32,9 +34,12 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration.AccessPathConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.AliasingAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowDirection;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.JumpFunctionStore;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
@@ -63,6 +68,8 @@ import soot.jimple.infoflow.handlers.PostAnalysisHandler;
 import soot.jimple.infoflow.handlers.PreAnalysisHandler;
 import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
 import soot.jimple.infoflow.handlers.ResultsAvailableHandler2;
+import soot.jimple.infoflow.handlers.SequentialTaintPropagationHandler;
+import soot.jimple.infoflow.handlers.StreamingResultsAvailableHandler;
 import soot.jimple.infoflow.handlers.TaintPropagationHandler;
 import soot.jimple.infoflow.ipc.DefaultIPCManager;
 import soot.jimple.infoflow.ipc.IIPCManager;
@@ -87,11 +94,15 @@ import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.SolverPeerGroup;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.fastSolver.PrimitiveJumpFunctionTable;
 import soot.jimple.infoflow.solver.gcSolver.GCSolverPeerGroup;
+import soot.jimple.infoflow.solver.gcSolver.IGarbageCollector;
 import soot.jimple.infoflow.solver.memory.DefaultMemoryManagerFactory;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.infoflow.solver.memory.IMemoryManagerFactory;
+import soot.jimple.infoflow.solver.summaryCache.PersistentEndSummaryCache;
 import soot.jimple.infoflow.sourcesSinks.manager.DefaultSourceSinkManager;
+import soot.jimple.infoflow.sourcesSinks.manager.CompositeSourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.IOneSourceAtATimeManager;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
@@ -111,6 +122,13 @@ import soot.options.Options;
  */
 public abstract class AbstractInfoflow implements IInfoflow {
 
+	/**
+	 * The default minimum number of methods that each thread shall scan when
+	 * looking for sources and sinks. Smaller programs are scanned on a single
+	 * thread.
+	 */
+	public static final int DEFAULT_MIN_METHODS_PER_SEED_SCAN_THREAD = 500;
+
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
 	protected InfoflowResults results = null;
@@ -134,6 +152,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 	protected IMemoryManagerFactory memoryManagerFactory = new DefaultMemoryManagerFactory();
 	protected IExecutorFactory executorFactory = new DefaultExecutorFactory();
+	protected int minMethodsPerSeedScanThread = DEFAULT_MIN_METHODS_PER_SEED_SCAN_THREAD;
 	protected IPropagationRuleManagerFactory ruleManagerFactory = initializeRuleManagerFactory();
 
 	protected Set<Stmt> collectedSources;
@@ -148,6 +167,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	protected TaintPropagationHandler taintPropagationHandler = null;
 	protected TaintPropagationHandler aliasPropagationHandler = null;
 
+	protected PersistentEndSummaryCache endSummaryCache = null;
+
 	protected FlowDroidMemoryWatcher memoryWatcher = null;
 
 	/**
@@ -504,6 +525,25 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		runAnalysis(sourcesSinks, null);
 	}
 
+	@Override
+	public List<InfoflowResults> computeInfoflowBatch(String appPath, String libPath,
+			IEntryPointCreator entryPointCreator, List<? extends ISourceSinkManager> sourceSinkManagers) {
+		if (sourceSinkManagers == null || sourceSinkManagers.isEmpty()) {
+			logger.error("No source/sink managers specified");
+			return Collections.emptyList();
+		}
+
+		if (config.getSootIntegrationMode() != SootIntegrationMode.UseExistingInstance)
+			initializeSoot(appPath, libPath, entryPointCreator.getRequiredClasses());
+
+		this.dummyMainMethod = entryPointCreator.createDummyMain();
+		this.additionalEntryPointMethods = entryPointCreator.getAdditionalMethods();
+		Scene.v().setEntryPoints(Collections.singletonList(dummyMainMethod));
+
+		// Run the analysis
+		return runAnalysis(sourceSinkManagers, null);
+	}
+
 	@Override
 	public void computeInfoflow(String appPath, String libPath, String entryPoint, ISourceSinkManager sourcesSinks) {
 		if (sourcesSinks == null) {
@@ -556,6 +596,27 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	 *                        if they are not sources
 	 */
 	protected void runAnalysis(final ISourceSinkManager sourcesSinks, final Set<String> additionalSeeds) {
+		runAnalysis(Collections.singletonList(sourcesSinks), additionalSeeds);
+	}
+
+	/**
+	 * Conducts one taint analysis for each of the given source/sink managers. The
+	 * callgraph, the code optimizations, and the interprocedural control flow graph
+	 * are shared between all of these analyses. Every analysis uses its own data
+	 * flow solvers and produces its own results.
+	 * 
+	 * @param sourceSinkManagers The source/sink managers for which to run the
+	 *                           taint analysis
+	 * @param additionalSeeds    Additional seeds at which to create A ZERO fact
+	 *                           even if they are not sources
+	 * @return The results of the individual taint analyses in the same order as
+	 *         the source/sink managers. If the analysis fails, the results object
+	 *         that records the exception is returned for all source/sink managers
+	 *         that could not be analyzed.
+	 */
+	protected List<InfoflowResults> runAnalysis(final List<? extends ISourceSinkManager> sourceSinkManagers,
+			final Set<String> additionalSeeds) {
+		final List<InfoflowResults> batchResults = new ArrayList<>(sourceSinkManagers.size());
 		final InfoflowPerformanceData performanceData = createPerformanceDataClass();
 		try {
 			// Clear the data from previous runs
@@ -584,14 +645,19 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			logger.info(String.format(Locale.getDefault(), "Callgraph construction took %d seconds",
 					performanceData.getCallgraphConstructionSeconds()));
 
-			// Initialize the source sink manager
-			if (sourcesSinks != null)
-				sourcesSinks.initialize();
+			// Initialize the source sink managers
+			for (ISourceSinkManager sourcesSinks : sourceSinkManagers)
+				if (sourcesSinks != null)
+					sourcesSinks.initialize();
 
-			// Perform constant propagation and remove dead code
+			// Perform constant propagation and remove dead code. The code optimizers must
+			// preserve the sources and sinks of all managers.
 			if (config.getCodeEliminationMode() != CodeEliminationMode.NoCodeElimination) {
 				long currentMillis = System.nanoTime();
-				eliminateDeadCode(sourcesSinks);
+				if (sourceSinkManagers.size() == 1)
+					eliminateDeadCode(sourceSinkManagers.get(0));
+				else
+					eliminateDeadCode(new CompositeSourceSinkManager(sourceSinkManagers));
 				logger.info("Dead code elimination took " + (System.nanoTime() - currentMillis) / 1E9 + " seconds");
 			}
 
@@ -615,19 +681,41 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			}
 			IInfoflowCFG iCfg = icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(),
 					config.getEnableExceptionTracking());
+			long sharedNanos = System.nanoTime() - beforeCallgraph;
+
+			for (int i = 0; i < sourceSinkManagers.size(); i++) {
+				ISourceSinkManager sourcesSinks = sourceSinkManagers.get(i);
+				long beforeRun = System.nanoTime();
+
+				// Every source/sink manager gets its own results
+				InfoflowPerformanceData runPerformanceData = performanceData;
+				if (i > 0) {
+					logger.info("Starting data flow analysis {} of {}", i + 1, sourceSinkManagers.size());
+					runPerformanceData = createPerformanceDataClass();
+					runPerformanceData
+							.setCallgraphConstructionSeconds(performanceData.getCallgraphConstructionSeconds());
+					results = createResultsObject();
+					results.setPerformanceData(runPerformanceData);
+
+					memoryWatcher.close();
+					memoryWatcher = new FlowDroidMemoryWatcher(results, config.getMemoryThreshold());
+				}
 
-			if (config.isTaintAnalysisEnabled())
-				runTaintAnalysis(sourcesSinks, additionalSeeds, iCfg, performanceData);
+				if (config.isTaintAnalysisEnabled())
+					runTaintAnalysis(sourcesSinks, additionalSeeds, iCfg, runPerformanceData);
 
-			// Gather performance data
-			performanceData.setTotalRuntimeSeconds((int) Math.round((System.nanoTime() - beforeCallgraph) / 1E9));
-			performanceData.updateMaxMemoryConsumption(getUsedMemory());
-			logger.info(String.format("Data flow solver took %d seconds. Maximum memory consumption: %d MB",
-					performanceData.getTotalRuntimeSeconds(), performanceData.getMaxMemoryConsumption()));
+				// Gather performance data
+				runPerformanceData.setTotalRuntimeSeconds(
+						(int) Math.round((sharedNanos + System.nanoTime() - beforeRun) / 1E9));
+				runPerformanceData.updateMaxMemoryConsumption(getUsedMemory());
+				logger.info(String.format("Data flow solver took %d seconds. Maximum memory consumption: %d MB",
+						runPerformanceData.getTotalRuntimeSeconds(), runPerformanceData.getMaxMemoryConsumption()));
 
-			// Provide the handler with the final results
-			for (ResultsAvailableHandler handler : onResultsAvailable)
-				handler.onResultsAvailable(iCfg, results);
+				// Provide the handler with the final results
+				for (ResultsAvailableHandler handler : onResultsAvailable)
+					handler.onResultsAvailable(iCfg, results);
+				batchResults.add(results);
+			}
 
 			// Write the Jimple files to disk if requested
 			if (config.getWriteOutputFiles())
@@ -638,9 +726,12 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			ex.printStackTrace(pw);
 			results.addException(ex.getClass().getName() + ": " + ex.getMessage() + "\n" + stacktrace.toString());
 			logger.error("Exception during data flow analysis", ex);
+			while (batchResults.size() < sourceSinkManagers.size())
+				batchResults.add(results);
 			if (throwExceptions)
 				throw ex;
 		}
+		return batchResults;
 	}
 
 	private boolean isBoomerangActive(){
@@ -696,6 +787,9 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			// Initialize the data flow manager
 			manager = initializeInfoflowManager(sourcesSinks, iCfg, globalTaintManager);
 
+			// Reuse the end summaries of unchanged methods from earlier runs
+			endSummaryCache = createEndSummaryCache(oneSourceAtATime != null);
+
 			// Create the solver peer group
 			solverPeerGroup = new GCSolverPeerGroup();
 
@@ -725,6 +819,10 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			if (aliasingStrategy.getSolver() != null)
 				aliasingStrategy.getSolver().getTabulationProblem().getManager().setForwardSolver(forwardSolver);
 			solvers.add(forwardSolver);
+			if (endSummaryCache != null
+					&& forwardSolver instanceof soot.jimple.infoflow.solver.fastSolver.InfoflowSolver)
+				((soot.jimple.infoflow.solver.fastSolver.InfoflowSolver) forwardSolver)
+						.setEndSummaryCache(endSummaryCache);
 
 			memoryWatcher.addSolver((IMemoryBoundedSolver) forwardSolver);
 
@@ -765,11 +863,11 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 				// We have to look through the complete program to find
 				// sources which are then taken as seeds.
-				int sinkCount = 0;
 				logger.info("Looking for sources and sinks...");
-
-				for (SootMethod sm : getMethodsForSeeds(iCfg))
-					sinkCount += scanMethodForSourcesSinks(sourcesSinks, forwardProblem, sm);
+				long beforeSourceSinkLookup = System.nanoTime();
+				int sinkCount = scanMethodsForSourcesSinks(sourcesSinks, forwardProblem, getMethodsForSeeds(iCfg));
+				performanceData.addSourceSinkLookupSeconds(
+						(int) Math.round((System.nanoTime() - beforeSourceSinkLookup) / 1E9));
 
 				// We optionally also allow additional seeds to be specified
 				if (additionalSeeds != null)
@@ -828,6 +926,9 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				if (config.getIncrementalResultReporting())
 					initializeIncrementalResultReporting(propagationResults, builder);
 
+				// Handlers that support streaming get the results as soon as they are found
+				initializeResultStreaming(propagationResults, builder, iCfg);
+
 				// Initialize the performance data
 				if (performanceData.getTaintPropagationSeconds() < 0)
 					performanceData.setTaintPropagationSeconds(0);
@@ -864,6 +965,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				performanceData.addEdgePropagationCount(forwardSolver.getPropagationCount());
 				if (backwardSolver != null)
 					performanceData.addEdgePropagationCount(backwardSolver.getPropagationCount());
+				addGarbageCollectionStatistics(forwardSolver, performanceData);
+				addGarbageCollectionStatistics(backwardSolver, performanceData);
 
 				// Print taint wrapper statistics
 				if (taintWrapper != null) {
@@ -906,6 +1009,12 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					}
 				}
 
+				// Keep the end summaries for the next analysis run
+				if (endSummaryCache != null) {
+					saveEndSummaries(forwardSolver, backwardSolver);
+					endSummaryCache = null;
+				}
+
 				// Force a cleanup. Everything we need is reachable through
 				// the results set, the other abstractions can be killed
 				// now.
@@ -1094,18 +1203,33 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor, AbstractInfoflowProblem problem,
 			SolverConfiguration solverConfig) {
 		switch (solverConfig.getDataFlowSolver()) {
-		case ContextFlowSensitive:
+		case ContextFlowSensitive: {
 			logger.info("Using context- and flow-sensitive solver");
-			return new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(problem, executor);
-		case FlowInsensitive:
+			soot.jimple.infoflow.solver.fastSolver.InfoflowSolver solver = new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(
+					problem, executor);
+			if (solverConfig.getJumpFunctionStore() == JumpFunctionStore.PrimitiveTable)
+				solver.setJumpFunctionTable(new PrimitiveJumpFunctionTable<>());
+			solver.setBatchedPropagation(solverConfig.getBatchedPropagation());
+			return solver;
+		}
+		case FlowInsensitive: {
 			logger.info("Using context-sensitive, but flow-insensitive solver");
-			return new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(problem, executor);
-		case GarbageCollecting:
+			soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver solver = new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(
+					problem, executor);
+			if (solverConfig.getJumpFunctionStore() == JumpFunctionStore.PrimitiveTable)
+				solver.setJumpFunctionTable(new PrimitiveJumpFunctionTable<>());
+			return solver;
+		}
+		case GarbageCollecting: {
 			logger.info("Using garbage-collecting solver");
-			IInfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(problem, executor);
+			soot.jimple.infoflow.solver.gcSolver.InfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(
+					problem, executor);
+			solver.setGcHeapBudget(solverConfig.getGcHeapBudget());
+			solver.setJumpFunctionSpillThreshold(solverConfig.getJumpFunctionSpillThreshold());
 			solverPeerGroup.addSolver(solver);
 			solver.setPeerGroup(solverPeerGroup);
 			return solver;
+		}
 		default:
 			throw new RuntimeException("Unsupported data flow solver");
 		}
@@ -1116,28 +1240,132 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	}
 
 	/**
-	 * Scans the given method for sources and sinks contained in it. Sinks are just
-	 * counted, sources are added to the InfoflowProblem as seeds.
+	 * Scans the given methods for sources and sinks contained in them. Sinks are
+	 * just counted, sources are added to the InfoflowProblem as seeds. Large
+	 * programs are scanned in parallel, with the methods being partitioned among
+	 * the worker threads.
 	 * 
 	 * @param sourcesSinks   The SourceSinkManager to be used for identifying
 	 *                       sources and sinks
 	 * @param forwardProblem The InfoflowProblem in which to register the sources as
 	 *                       seeds
-	 * @param m              The method to scan for sources and sinks
-	 * @return The number of sinks found in this method
+	 * @param methods        The methods to scan for sources and sinks
+	 * @return The number of sinks found in the given methods
 	 */
-	private int scanMethodForSourcesSinks(final ISourceSinkManager sourcesSinks, AbstractInfoflowProblem forwardProblem,
-			SootMethod m) {
+	private int scanMethodsForSourcesSinks(final ISourceSinkManager sourcesSinks,
+			AbstractInfoflowProblem forwardProblem, Collection<SootMethod> methods) {
 		if (getConfig().getLogSourcesAndSinks() && collectedSources == null) {
 			collectedSources = new HashSet<>();
 			collectedSinks = new HashSet<>();
 		}
 
+		// Each worker collects its own sources and sinks, which we merge afterwards
+		final List<SootMethod> methodList = new ArrayList<>(methods);
+		int numThreads = getSeedScanThreadCount(methodList.size());
+		List<List<Stmt>> sources = new ArrayList<>(numThreads);
+		List<List<Stmt>> sinks = new ArrayList<>(numThreads);
+		for (int i = 0; i < numThreads; i++) {
+			sources.add(new ArrayList<>());
+			sinks.add(new ArrayList<>());
+		}
+
+		if (numThreads == 1) {
+			for (SootMethod sm : methodList)
+				scanMethodForSourcesSinks(sourcesSinks, sm, sources.get(0), sinks.get(0));
+		} else {
+			// The source/sink manager may query the class hierarchy, so we must make sure
+			// that it exists before we start the workers
+			Scene.v().getOrMakeFastHierarchy();
+
+			InterruptableExecutor executor = executorFactory.createExecutor(numThreads, false, config);
+			executor.setThreadFactory(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thrScan = new Thread(r);
+					thrScan.setDaemon(true);
+					thrScan.setName("FlowDroid Source/Sink Lookup");
+					return thrScan;
+				}
+
+			});
+			try {
+				for (int i = 0; i < numThreads; i++) {
+					final int workerIdx = i;
+					final int workerCount = numThreads;
+					final List<Stmt> workerSources = sources.get(i);
+					final List<Stmt> workerSinks = sinks.get(i);
+					executor.execute(new Runnable() {
+
+						@Override
+						public void run() {
+							// We interleave the methods, so that large and small methods are
+							// distributed evenly among the workers
+							for (int idx = workerIdx; idx < methodList.size(); idx += workerCount)
+								scanMethodForSourcesSinks(sourcesSinks, methodList.get(idx), workerSources,
+										workerSinks);
+						}
+
+					});
+				}
+				executor.awaitCompletion();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while looking for sources and sinks", e);
+			} finally {
+				executor.shutdown();
+			}
+			if (executor.getException() != null)
+				throw new RuntimeException("Could not look for sources and sinks", executor.getException());
+		}
+
+		// Register the sources as seeds
 		int sinkCount = 0;
+		Set<Abstraction> zeroSeeds = Collections.singleton(forwardProblem.zeroValue());
+		for (int i = 0; i < numThreads; i++) {
+			List<Stmt> workerSources = sources.get(i);
+			List<Stmt> workerSinks = sinks.get(i);
+			forwardProblem.addInitialSeeds(workerSources, zeroSeeds);
+			sinkCount += workerSinks.size();
+			if (getConfig().getLogSourcesAndSinks()) {
+				collectedSources.addAll(workerSources);
+				collectedSinks.addAll(workerSinks);
+			}
+		}
+		return sinkCount;
+	}
+
+	/**
+	 * Gets the number of threads to use for scanning the given number of methods
+	 * for sources and sinks
+	 * 
+	 * @param methodCount The number of methods to scan
+	 * @return The number of threads to use
+	 */
+	protected int getSeedScanThreadCount(int methodCount) {
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		int maxThreads = config.getMaxThreadNum();
+		if (maxThreads > 0)
+			numThreads = Math.min(numThreads, maxThreads);
+		numThreads = Math.min(numThreads, methodCount / Math.max(minMethodsPerSeedScanThread, 1));
+		return Math.max(numThreads, 1);
+	}
+
+	/**
+	 * Scans the given method for sources and sinks contained in it
+	 * 
+	 * @param sourcesSinks The SourceSinkManager to be used for identifying sources
+	 *                     and sinks
+	 * @param m            The method to scan for sources and sinks
+	 * @param sources      The list to which to add the sources found in the method
+	 * @param sinks        The list to which to add the sinks found in the method
+	 */
+	private void scanMethodForSourcesSinks(final ISourceSinkManager sourcesSinks, SootMethod m, List<Stmt> sources,
+			List<Stmt> sinks) {
 		if (m.hasActiveBody()) {
 			// Check whether this is a system class we need to ignore
 			if (!isValidSeedMethod(m))
-				return sinkCount;
+				return;
 
 			// Look for a source in the method. Also look for sinks. If we
 			// have no sink in the program, we don't need to perform any
@@ -1147,21 +1375,15 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				Stmt s = (Stmt) u;
 				switch (scanStmtForSourcesSinks(sourcesSinks, s)) {
 				case SOURCE:
-					forwardProblem.addInitialSeeds(s, Collections.singleton(forwardProblem.zeroValue()));
-					if (getConfig().getLogSourcesAndSinks())
-						collectedSources.add(s);
+					sources.add(s);
 					break;
 				case SINK:
-					if (getConfig().getLogSourcesAndSinks())
-						collectedSinks.add(s);
-					sinkCount++;
+					sinks.add(s);
 					break;
 
 				}
 			}
-
 		}
-		return sinkCount;
 	}
 
 	/**
@@ -1424,6 +1646,17 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		this.executorFactory = executorFactory;
 	}
 
+	/**
+	 * Sets the minimum number of methods that each thread shall scan when looking
+	 * for sources and sinks. Programs with fewer methods than this value are
+	 * scanned on a single thread.
+	 * 
+	 * @param minMethodsPerSeedScanThread The minimum number of methods per thread
+	 */
+	public void setMinMethodsPerSeedScanThread(int minMethodsPerSeedScanThread) {
+		this.minMethodsPerSeedScanThread = minMethodsPerSeedScanThread;
+	}
+
 	@Override
 	public void setPropagationRuleManagerFactory(IPropagationRuleManagerFactory ruleManagerFactory) {
 		this.ruleManagerFactory = ruleManagerFactory;
@@ -1490,6 +1723,48 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		});
 	}
 
+	/**
+	 * Forwards interim results to all registered handlers that support streaming.
+	 * These handlers are notified once a new abstraction reaches a sink and again
+	 * once its path has been reconstructed. Abstractions that are merged into an
+	 * existing result are not reported again.
+	 * 
+	 * @param propagationResults A reference to the result object of the forward
+	 *                           data flow solver
+	 * @param builder            The path builder to use for reconstructing the
+	 *                           taint propagation paths
+	 * @param iCfg               The interprocedural control flow graph
+	 */
+	private void initializeResultStreaming(TaintPropagationResults propagationResults,
+			IAbstractionPathBuilder builder, final IInfoflowCFG iCfg) {
+		final List<StreamingResultsAvailableHandler> streamingHandlers = new ArrayList<>();
+		for (ResultsAvailableHandler handler : onResultsAvailable)
+			if (handler instanceof StreamingResultsAvailableHandler)
+				streamingHandlers.add((StreamingResultsAvailableHandler) handler);
+		if (streamingHandlers.isEmpty())
+			return;
+
+		propagationResults.addNewResultAvailableHandler(new OnTaintPropagationResultAdded() {
+
+			@Override
+			public boolean onResultAvailable(AbstractionAtSink abs) {
+				for (StreamingResultsAvailableHandler handler : streamingHandlers)
+					handler.onSinkReached(iCfg, abs);
+				return true;
+			}
+
+		});
+		builder.addResultAvailableHandler(new OnPathBuilderResultAvailable() {
+
+			@Override
+			public void onResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+				for (StreamingResultsAvailableHandler handler : streamingHandlers)
+					handler.onPathReconstructed(iCfg, source, sink);
+			}
+
+		});
+	}
+
 	/**
 	 * Creates a new instance of the result class appropriate for the current data
 	 * flow analysis
@@ -1633,6 +1908,92 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		//
 	}
 
+	/**
+	 * Adds the statistics of the garbage collector of the given solver to the
+	 * performance data, if the solver collects garbage
+	 * 
+	 * @param solver          The solver, or null
+	 * @param performanceData The performance data to which to add the statistics
+	 */
+	private void addGarbageCollectionStatistics(IInfoflowSolver solver, InfoflowPerformanceData performanceData) {
+		if (solver instanceof soot.jimple.infoflow.solver.gcSolver.IFDSSolver) {
+			IGarbageCollector<?, ?> gc = ((soot.jimple.infoflow.solver.gcSolver.IFDSSolver<?, ?, ?>) solver)
+					.getGarbageCollector();
+			if (gc != null) {
+				performanceData.addGarbageCollectedEdges(gc.getGcedEdges());
+				performanceData.addGarbageCollectionMillis((int) gc.getGcPauseMillis());
+			}
+		}
+	}
+
+	/**
+	 * Creates the cache for the end summaries of the data flow solver if the
+	 * configuration requests one and supports it
+	 * 
+	 * @param oneSourceAtATime True if the analysis runs with one source at a time
+	 * @return The end summary cache, or null if no end summaries shall be cached
+	 */
+	protected PersistentEndSummaryCache createEndSummaryCache(boolean oneSourceAtATime) {
+		String cacheFile = config.getSolverConfiguration().getEndSummaryCacheFile();
+		if (cacheFile == null || cacheFile.isEmpty())
+			return null;
+
+		// The summaries only capture the effects of the flow-sensitive alias analysis.
+		// They do not capture the effects of other alias analyses, implicit flows, or
+		// changing sources
+		AliasingAlgorithm aliasingAlgorithm = config.getAliasingAlgorithm();
+		if (config.getSolverConfiguration().getDataFlowSolver() != DataFlowSolver.ContextFlowSensitive
+				|| config.getDataFlowDirection() != DataFlowDirection.Forwards
+				|| (aliasingAlgorithm != AliasingAlgorithm.FlowSensitive && aliasingAlgorithm != AliasingAlgorithm.None)
+				|| config.getImplicitFlowMode().trackControlFlowDependencies() || oneSourceAtATime) {
+			logger.warn("End summaries can only be cached for the context- and flow-sensitive forward analysis "
+					+ "with flow-sensitive or no aliasing and without implicit flows or one source at a time");
+			return null;
+		}
+		return new PersistentEndSummaryCache(new File(cacheFile), manager);
+	}
+
+	/**
+	 * Gets the taint propagation handler for the alias analysis, including the
+	 * internal handlers that need to observe the alias analysis
+	 * 
+	 * @return The taint propagation handler for the alias analysis
+	 */
+	protected TaintPropagationHandler getAliasPropagationHandler() {
+		if (endSummaryCache == null)
+			return aliasPropagationHandler;
+		if (aliasPropagationHandler == null)
+			return endSummaryCache.getAliasAnalysisObserver();
+		return new SequentialTaintPropagationHandler(
+				Arrays.asList(aliasPropagationHandler, endSummaryCache.getAliasAnalysisObserver()));
+	}
+
+	/**
+	 * Records the end summaries of the given solver in the end summary cache and
+	 * writes the cache to disk. If any of the solvers has been aborted, the
+	 * summaries are incomplete and the cache remains unchanged.
+	 * 
+	 * @param forwardSolver  The forward data flow solver
+	 * @param backwardSolver The backward data flow solver, or null
+	 */
+	private void saveEndSummaries(IInfoflowSolver forwardSolver, IInfoflowSolver backwardSolver) {
+		logger.info("Reused cached end summaries for {} calls", endSummaryCache.getCacheHits());
+		if (((IMemoryBoundedSolver) forwardSolver).getTerminationReason() != null || (backwardSolver != null
+				&& ((IMemoryBoundedSolver) backwardSolver).getTerminationReason() != null)) {
+			logger.warn("Not updating the end summary cache, because the data flow analysis has been aborted");
+			return;
+		}
+		if (!(forwardSolver instanceof soot.jimple.infoflow.solver.fastSolver.InfoflowSolver))
+			return;
+
+		try {
+			endSummaryCache.record((soot.jimple.infoflow.solver.fastSolver.InfoflowSolver) forwardSolver);
+			endSummaryCache.save();
+		} catch (IOException e) {
+			logger.error("Could not write the end summary cache", e);
+		}
+	}
+
 	/**
 	 * Callback that is invoked when the main taint propagation has completed. This
 	 * method is called before memory cleanup happens.
@@ -146,6 +146,26 @@ public interface IInfoflow extends ITaintWrapperDataFlowAnalysis {
 	public void computeInfoflow(String appPath, String libPath, IEntryPointCreator entryPointCreator,
 			ISourceSinkManager sourcesSinks);
 
+	/**
+	 * Computes the information flow for multiple sets of sources and sinks. The
+	 * callgraph and the interprocedural control flow graph are only constructed
+	 * once and are then shared by the data flow analyses for the individual
+	 * source/sink managers.
+	 * 
+	 * @param appPath            The path containing the client program's files
+	 * @param libPath            the path to the main folder of the (unpacked)
+	 *                           library class files
+	 * @param entryPointCreator  the entry point creator to use for generating the
+	 *                           dummy main method
+	 * @param sourceSinkManagers The manager classes for identifying sources and
+	 *                           sinks in the source code. One data flow analysis is
+	 *                           run for each of these managers.
+	 * @return The results of the individual data flow analyses in the same order
+	 *         as the source/sink managers
+	 */
+	public List<InfoflowResults> computeInfoflowBatch(String appPath, String libPath,
+			IEntryPointCreator entryPointCreator, List<? extends ISourceSinkManager> sourceSinkManagers);
+
 	/**
 	 * Computes the information flow on a single method. This method is directly
 	 * taken as the entry point into the program, even if it is an instance method.
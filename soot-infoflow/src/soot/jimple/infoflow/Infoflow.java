@@ -117,7 +117,7 @@ public class Infoflow extends AbstractInfoflow {
 			backSolver.setMaxCalleesPerCallSite(solverConfig.getMaxCalleesPerCallSite());
 			backSolver.setMaxAbstractionPathLength(solverConfig.getMaxAbstractionPathLength());
 			backSolver.setSolverId(false);
-			backProblem.setTaintPropagationHandler(aliasPropagationHandler);
+			backProblem.setTaintPropagationHandler(getAliasPropagationHandler());
 			backProblem.setTaintWrapper(taintWrapper);
 			if (nativeCallHandler != null)
 				backProblem.setNativeCallHandler(nativeCallHandler);
@@ -148,6 +148,24 @@ public class InfoflowConfiguration {
 		GarbageCollecting
 	}
 
+	/**
+	 * Enumeration containing the supported data structures for storing the jump
+	 * functions of the data flow solver
+	 */
+	public static enum JumpFunctionStore {
+		/**
+		 * Store every jump function as a path edge object in a concurrent hash map
+		 */
+		HashMap,
+
+		/**
+		 * Intern units and abstractions to integer identifiers and store the jump
+		 * functions in a compact open-addressing table. This requires far less memory
+		 * on large apps.
+		 */
+		PrimitiveTable
+	}
+
 	public static enum DataFlowDirection {
 		/**
 		 * Use the default forwards infoflow search
@@ -983,6 +1001,11 @@ public class InfoflowConfiguration {
 		private int maxJoinPointAbstractions = 10;
 		private int maxCalleesPerCallSite = 75;
 		private int maxAbstractionPathLength = 100;
+		private JumpFunctionStore jumpFunctionStore = JumpFunctionStore.HashMap;
+		private double gcHeapBudget = 0;
+		private double jumpFunctionSpillThreshold = 0;
+		private boolean batchedPropagation = false;
+		private String endSummaryCacheFile = null;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -994,6 +1017,11 @@ public class InfoflowConfiguration {
 			this.maxJoinPointAbstractions = solverConfig.maxJoinPointAbstractions;
 			this.maxCalleesPerCallSite = solverConfig.maxCalleesPerCallSite;
 			this.maxAbstractionPathLength = solverConfig.maxAbstractionPathLength;
+			this.jumpFunctionStore = solverConfig.jumpFunctionStore;
+			this.gcHeapBudget = solverConfig.gcHeapBudget;
+			this.jumpFunctionSpillThreshold = solverConfig.jumpFunctionSpillThreshold;
+			this.batchedPropagation = solverConfig.batchedPropagation;
+			this.endSummaryCacheFile = solverConfig.endSummaryCacheFile;
 		}
 
 		/**
@@ -1096,6 +1124,130 @@ public class InfoflowConfiguration {
 			this.maxAbstractionPathLength = maxAbstractionPathLength;
 		}
 
+		/**
+		 * Gets the data structure in which the data flow solver stores its jump
+		 * functions
+		 * 
+		 * @return The data structure for the jump functions
+		 */
+		public JumpFunctionStore getJumpFunctionStore() {
+			return jumpFunctionStore;
+		}
+
+		/**
+		 * Sets the data structure in which the data flow solver stores its jump
+		 * functions. This setting only applies to the context- and flow-sensitive
+		 * solver and to the flow-insensitive solver.
+		 * 
+		 * @param jumpFunctionStore The data structure for the jump functions
+		 */
+		public void setJumpFunctionStore(JumpFunctionStore jumpFunctionStore) {
+			this.jumpFunctionStore = jumpFunctionStore;
+		}
+
+		/**
+		 * Gets the fraction of the maximum heap size that the jump functions of the
+		 * garbage-collecting solver may fill up
+		 * 
+		 * @return The heap budget as a fraction of the maximum heap size, or zero if
+		 *         the solver shall collect in fixed intervals
+		 */
+		public double getGcHeapBudget() {
+			return gcHeapBudget;
+		}
+
+		/**
+		 * Sets the fraction of the maximum heap size that the jump functions of the
+		 * garbage-collecting solver may fill up. If a budget is set, the solver
+		 * decides when to collect edges based on the heap usage and the edge growth
+		 * rate. This setting only applies to the garbage-collecting solver.
+		 * 
+		 * @param gcHeapBudget The heap budget as a fraction of the maximum heap size,
+		 *                     e.g., 0.8, or zero to collect in fixed intervals
+		 */
+		public void setGcHeapBudget(double gcHeapBudget) {
+			this.gcHeapBudget = gcHeapBudget;
+		}
+
+		/**
+		 * Gets the fraction of the heap that may remain in use after a JVM garbage
+		 * collection before the garbage-collecting solver evicts jump functions to
+		 * disk
+		 * 
+		 * @return The spill threshold as a fraction of the maximum heap size, or zero
+		 *         if all jump functions are kept in memory
+		 */
+		public double getJumpFunctionSpillThreshold() {
+			return jumpFunctionSpillThreshold;
+		}
+
+		/**
+		 * Sets the fraction of the heap that may remain in use after a JVM garbage
+		 * collection before the garbage-collecting solver evicts the jump functions of
+		 * cold methods into a memory-mapped file. Evicted jump functions are reloaded
+		 * when the respective method receives new edges. This trades speed for the
+		 * ability to complete analyses that would otherwise exceed the heap. The
+		 * threshold should be below the memory threshold at which the analysis is
+		 * aborted. This setting only applies to the garbage-collecting solver.
+		 * 
+		 * @param jumpFunctionSpillThreshold The spill threshold as a fraction of the
+		 *                                   maximum heap size, e.g., 0.7, or zero to
+		 *                                   keep all jump functions in memory
+		 */
+		public void setJumpFunctionSpillThreshold(double jumpFunctionSpillThreshold) {
+			this.jumpFunctionSpillThreshold = jumpFunctionSpillThreshold;
+		}
+
+		/**
+		 * Gets whether the data flow solver processes the pending edges for the same
+		 * method and fact at the start node in batches
+		 * 
+		 * @return True if the edges are processed in batches, false if every edge is
+		 *         processed in a separate task
+		 */
+		public boolean getBatchedPropagation() {
+			return batchedPropagation;
+		}
+
+		/**
+		 * Sets whether the data flow solver shall process the pending edges for the
+		 * same method and fact at the start node in batches. A worker then drains all
+		 * edges of such a context and directly processes the new edges that it
+		 * derives in the same context, instead of scheduling a new task for every
+		 * edge. This setting only applies to the context- and flow-sensitive solver.
+		 * 
+		 * @param batchedPropagation True to process the edges in batches, false to
+		 *                           process every edge in a separate task
+		 */
+		public void setBatchedPropagation(boolean batchedPropagation) {
+			this.batchedPropagation = batchedPropagation;
+		}
+
+		/**
+		 * Gets the file in which the end summaries of the data flow solver are kept
+		 * between analysis runs
+		 * 
+		 * @return The file of the end summary cache, or null if no end summaries
+		 *         shall be cached
+		 */
+		public String getEndSummaryCacheFile() {
+			return endSummaryCacheFile;
+		}
+
+		/**
+		 * Sets the file in which the end summaries of the data flow solver shall be
+		 * kept between analysis runs. When the same code is analyzed again, the solver
+		 * reuses the summaries of all methods that have not changed instead of
+		 * analyzing them again. This setting only applies to the context- and
+		 * flow-sensitive solver in forward direction.
+		 * 
+		 * @param endSummaryCacheFile The file of the end summary cache, or null to
+		 *                            not cache any end summaries
+		 */
+		public void setEndSummaryCacheFile(String endSummaryCacheFile) {
+			this.endSummaryCacheFile = endSummaryCacheFile;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -1104,6 +1256,13 @@ public class InfoflowConfiguration {
 			result = prime * result + maxCalleesPerCallSite;
 			result = prime * result + maxJoinPointAbstractions;
 			result = prime * result + maxAbstractionPathLength;
+			result = prime * result + ((jumpFunctionStore == null) ? 0 : jumpFunctionStore.hashCode());
+			long temp = Double.doubleToLongBits(gcHeapBudget);
+			result = prime * result + (int) (temp ^ (temp >>> 32));
+			temp = Double.doubleToLongBits(jumpFunctionSpillThreshold);
+			result = prime * result + (int) (temp ^ (temp >>> 32));
+			result = prime * result + (batchedPropagation ? 1231 : 1237);
+			result = prime * result + ((endSummaryCacheFile == null) ? 0 : endSummaryCacheFile.hashCode());
 			return result;
 		}
 
@@ -1124,6 +1283,20 @@ public class InfoflowConfiguration {
 				return false;
 			if (maxAbstractionPathLength != other.maxAbstractionPathLength)
 				return false;
+			if (jumpFunctionStore != other.jumpFunctionStore)
+				return false;
+			if (Double.doubleToLongBits(gcHeapBudget) != Double.doubleToLongBits(other.gcHeapBudget))
+				return false;
+			if (Double.doubleToLongBits(jumpFunctionSpillThreshold) != Double
+					.doubleToLongBits(other.jumpFunctionSpillThreshold))
+				return false;
+			if (batchedPropagation != other.batchedPropagation)
+				return false;
+			if (endSummaryCacheFile == null) {
+				if (other.endSummaryCacheFile != null)
+					return false;
+			} else if (!endSummaryCacheFile.equals(other.endSummaryCacheFile))
+				return false;
 			return true;
 		}
 
@@ -1356,7 +1529,7 @@ public class InfoflowConfiguration {
 		this.inspectSources = config.inspectSources;
 		this.inspectSinks = config.inspectSinks;
 
-		this.taintAnalysisEnabled = config.writeOutputFiles;
+		this.taintAnalysisEnabled = config.taintAnalysisEnabled;
 		this.incrementalResultReporting = config.incrementalResultReporting;
 		this.dataFlowTimeout = config.dataFlowTimeout;
 		this.memoryThreshold = config.memoryThreshold;
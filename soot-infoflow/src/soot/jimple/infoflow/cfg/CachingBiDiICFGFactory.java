@@ -0,0 +1,70 @@
+package soot.jimple.infoflow.cfg;
+
+import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Factory that builds an interprocedural CFG only once and then hands out the
+ * same instance for all further requests with the same options. Use this
+ * factory when running multiple data flow analyses on the same Soot scene and
+ * callgraph.
+ *
+ * Note that the cached ICFG is only valid as long as the Soot scene and the
+ * callgraph do not change. Call {@link #clearCache()} when the scene is reset.
+ *
+ */
+public class CachingBiDiICFGFactory implements BiDirICFGFactory {
+
+	private final BiDirICFGFactory innerFactory;
+
+	private IInfoflowCFG cachedCFG = null;
+	private CallgraphAlgorithm cachedAlgorithm = null;
+	private boolean cachedEnableExceptions = false;
+
+	/**
+	 * Creates a new instance of the {@link CachingBiDiICFGFactory} class that
+	 * caches the ICFGs of a {@link DefaultBiDiICFGFactory}
+	 */
+	public CachingBiDiICFGFactory() {
+		this(new DefaultBiDiICFGFactory());
+	}
+
+	/**
+	 * Creates a new instance of the {@link CachingBiDiICFGFactory} class
+	 *
+	 * @param innerFactory The factory that actually creates the ICFG
+	 */
+	public CachingBiDiICFGFactory(BiDirICFGFactory innerFactory) {
+		this.innerFactory = innerFactory;
+	}
+
+	@Override
+	public synchronized IInfoflowCFG buildBiDirICFG(CallgraphAlgorithm callgraphAlgorithm,
+			boolean enableExceptionTracking) {
+		if (cachedCFG == null || cachedAlgorithm != callgraphAlgorithm
+				|| cachedEnableExceptions != enableExceptionTracking) {
+			cachedCFG = innerFactory.buildBiDirICFG(callgraphAlgorithm, enableExceptionTracking);
+			cachedAlgorithm = callgraphAlgorithm;
+			cachedEnableExceptions = enableExceptionTracking;
+		}
+		return cachedCFG;
+	}
+
+	/**
+	 * Removes the cached ICFG. The next request will create a new one.
+	 */
+	public synchronized void clearCache() {
+		this.cachedCFG = null;
+		this.cachedAlgorithm = null;
+	}
+
+	/**
+	 * Gets whether this factory currently holds a cached ICFG
+	 *
+	 * @return True if there is a cached ICFG, false otherwise
+	 */
+	public synchronized boolean hasCachedICFG() {
+		return cachedCFG != null;
+	}
+
+}
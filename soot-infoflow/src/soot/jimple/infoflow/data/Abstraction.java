@@ -10,8 +10,6 @@
  ******************************************************************************/
 package soot.jimple.infoflow.data;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -37,6 +35,26 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 	protected static boolean flowSensitiveAliasing = true;
 
+	/**
+	 * taint is thrown by an exception (is set to false when it reaches the
+	 * catch-Stmt)
+	 */
+	private static final int FLAG_EXCEPTION_THROWN = 1;
+	private static final int FLAG_IMPLICIT = 1 << 1;
+	/**
+	 * Only valid for inactive abstractions. Specifies whether an access paths has
+	 * been cut during alias analysis.
+	 */
+	private static final int FLAG_DEPENDS_ON_CUT_AP = 1 << 2;
+	private static final int FLAG_MASK = 0xFF;
+
+	/**
+	 * The propagation path length is stored in the upper bits of the state field
+	 * and saturates at the maximum value
+	 */
+	private static final int PATH_LENGTH_SHIFT = 8;
+	private static final int MAX_PATH_LENGTH = 0xFFFFFF;
+
 	/**
 	 * the access path contains the currently tainted variable or field
 	 */
@@ -50,39 +68,20 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	protected SourceContext sourceContext = null;
 
 	/**
-	 * Unit/Stmt which activates the taint when the abstraction passes it
+	 * Activation unit, turn unit, postdominators, dominator and path flags. Most
+	 * abstractions have none of these, so we keep them in a separate, shareable
+	 * object.
 	 */
-	protected Unit activationUnit = null;
-	/**
-	 * Unit/Stmt which indicates it origin; tells the aliasing to turn around in
-	 * backwards analysis
-	 */
-	protected Unit turnUnit = null;
+	ExtendedAbstractionData extendedData = null;
+
 	/**
-	 * taint is thrown by an exception (is set to false when it reaches the
-	 * catch-Stmt)
+	 * The boolean flags of this abstraction in the lower bits and the length of
+	 * the propagation path in the upper bits
 	 */
-	protected boolean exceptionThrown = false;
+	protected int state = 0;
 	protected int hashCode = 0;
 	protected int neighborHashCode = 0;
 
-	/**
-	 * The postdominators we need to pass in order to leave the current conditional
-	 * branch. Do not use the synchronized Stack class here to avoid deadlocks.
-	 */
-	protected List<UnitContainer> postdominators = null;
-	protected Unit dominator = null;
-	protected boolean isImplicit = false;
-
-	/**
-	 * Only valid for inactive abstractions. Specifies whether an access paths has
-	 * been cut during alias analysis.
-	 */
-	protected boolean dependsOnCutAP = false;
-
-	protected AtomicBitSet pathFlags = null;
-	protected int propagationPathLength = 0;
-
 	public static class NeighborHashingStrategy implements HashingStrategy<Abstraction> {
 
 		private static final long serialVersionUID = 4836518478381414909L;
@@ -102,10 +101,14 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 			result = prime * result + ((abs.currentStmt == null) ? 0 : abs.currentStmt.hashCode());
 
 			result = prime * result + ((abs.sourceContext == null) ? 0 : abs.sourceContext.hashCode());
-			result = prime * result + ((abs.activationUnit == null) ? 0 : abs.activationUnit.hashCode());
-			result = prime * result + ((abs.turnUnit == null) ? 0 : abs.turnUnit.hashCode());
-			result = prime * result + ((abs.postdominators == null) ? 0 : abs.postdominators.hashCode());
-			result = prime * result + ((abs.dominator == null) ? 0 : abs.dominator.hashCode());
+			final Unit activationUnit = abs.getActivationUnit();
+			result = prime * result + ((activationUnit == null) ? 0 : activationUnit.hashCode());
+			final Unit turnUnit = abs.getTurnUnit();
+			result = prime * result + ((turnUnit == null) ? 0 : turnUnit.hashCode());
+			final List<UnitContainer> postdominators = abs.getPostdominators();
+			result = prime * result + ((postdominators == null) ? 0 : postdominators.hashCode());
+			final Unit dominator = abs.getDominator();
+			result = prime * result + ((dominator == null) ? 0 : dominator.hashCode());
 
 			abs.neighborHashCode = result;
 			return result;
@@ -154,12 +157,10 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	Abstraction(AccessPath apToTaint, SourceContext sourceContext, boolean exceptionThrown, boolean isImplicit) {
 		this.sourceContext = sourceContext;
 		this.accessPath = apToTaint;
-		this.activationUnit = null;
-		this.turnUnit = null;
-		this.exceptionThrown = exceptionThrown;
+		setFlag(FLAG_EXCEPTION_THROWN, exceptionThrown);
 
 		this.neighbors = null;
-		this.isImplicit = isImplicit;
+		setFlag(FLAG_IMPLICIT, isImplicit);
 		this.currentStmt = sourceContext == null ? null : sourceContext.getStmt();
 	}
 
@@ -173,23 +174,18 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	protected Abstraction(AccessPath p, Abstraction original) {
 		if (original == null) {
 			sourceContext = null;
-			exceptionThrown = false;
-			activationUnit = null;
-			turnUnit = null;
-			isImplicit = false;
+			extendedData = null;
+			state = 0;
 		} else {
 			sourceContext = original.sourceContext;
-			exceptionThrown = original.exceptionThrown;
-			activationUnit = original.activationUnit;
-			turnUnit = original.turnUnit;
-			assert activationUnit == null || flowSensitiveAliasing;
 
-			postdominators = original.postdominators == null ? null
-					: new ArrayList<UnitContainer>(original.postdominators);
-			dominator = original.dominator;
+			// The extended data is immutable, so we can share it with the original
+			// abstraction
+			extendedData = ExtendedAbstractionData.derive(original.extendedData);
+			assert getActivationUnit() == null || flowSensitiveAliasing;
 
-			dependsOnCutAP = original.dependsOnCutAP;
-			isImplicit = original.isImplicit;
+			// We take over the flags, but not the propagation path length
+			state = original.state & FLAG_MASK;
 		}
 		accessPath = p;
 		neighbors = null;
@@ -219,28 +215,27 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (a == null)
 			return null;
 
-		a.postdominators = null;
-		a.dominator = null;
-		a.activationUnit = activationUnit;
-		a.dependsOnCutAP |= a.getAccessPath().isCutOffApproximation();
+		a.extendedData = ExtendedAbstractionData.deactivate(a.extendedData, activationUnit);
+		if (a.getAccessPath().isCutOffApproximation())
+			a.setFlag(FLAG_DEPENDS_ON_CUT_AP, true);
 		return a;
 	}
 
 	public Abstraction deriveNewAbstraction(AccessPath p, Stmt currentStmt) {
-		return deriveNewAbstraction(p, currentStmt, isImplicit);
+		return deriveNewAbstraction(p, currentStmt, isImplicit());
 	}
 
 	public Abstraction deriveNewAbstraction(AccessPath p, Stmt currentStmt, boolean isImplicit) {
 		// If the new abstraction looks exactly like the current one, there is
 		// no need to create a new object
-		if (this.accessPath.equals(p) && this.currentStmt == currentStmt && this.isImplicit == isImplicit)
+		if (this.accessPath.equals(p) && this.currentStmt == currentStmt && this.isImplicit() == isImplicit)
 			return this;
 
 		Abstraction abs = deriveNewAbstractionMutable(p, currentStmt);
 		if (abs == null)
 			return null;
 
-		abs.isImplicit = isImplicit;
+		abs.setFlag(FLAG_IMPLICIT, isImplicit);
 		return abs;
 	}
 
@@ -258,12 +253,12 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		Abstraction abs = new Abstraction(p, this);
 		abs.predecessor = this;
 		abs.currentStmt = currentStmt;
-		abs.propagationPathLength = propagationPathLength + 1;
+		abs.setPathLength(getPathLength() + 1);
 
 		if (!abs.getAccessPath().isEmpty())
-			abs.postdominators = null;
-		if (!abs.isAbstractionActive())
-			abs.dependsOnCutAP = abs.dependsOnCutAP || p.isCutOffApproximation();
+			abs.extendedData = ExtendedAbstractionData.withoutPostdominators(abs.extendedData);
+		if (!abs.isAbstractionActive() && p.isCutOffApproximation())
+			abs.setFlag(FLAG_DEPENDS_ON_CUT_AP, true);
 
 		abs.sourceContext = null;
 		return abs;
@@ -281,7 +276,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		abs.currentStmt = throwStmt;
 		abs.sourceContext = null;
-		abs.exceptionThrown = true;
+		abs.setFlag(FLAG_EXCEPTION_THROWN, true);
 		return abs;
 	}
 
@@ -293,25 +288,27 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 * @return The newly derived abstraction
 	 */
 	public Abstraction deriveNewAbstractionOnCatch(AccessPath ap) {
-		assert this.exceptionThrown;
+		assert getExceptionThrown();
 		Abstraction abs = deriveNewAbstractionMutable(ap, null);
 		if (abs == null)
 			return null;
 
-		abs.exceptionThrown = false;
+		abs.setFlag(FLAG_EXCEPTION_THROWN, false);
 		return abs;
 	}
 
 	public boolean isAbstractionActive() {
-		return activationUnit == null;
+		return getActivationUnit() == null;
 	}
 
 	public boolean isImplicit() {
-		return isImplicit;
+		return getFlag(FLAG_IMPLICIT);
 	}
 
 	@Override
 	public String toString() {
+		final Unit activationUnit = getActivationUnit();
+		final Unit turnUnit = getTurnUnit();
 		return (isAbstractionActive() ? "" : "_") + accessPath.toString() + " | "
 				+ (turnUnit != null || activationUnit == null ? "" : activationUnit.toString())
 				+ (turnUnit == null ? "" : turnUnit.toString()) + ">>";
@@ -322,21 +319,21 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public Unit getActivationUnit() {
-		return this.activationUnit;
+		return extendedData == null ? null : extendedData.activationUnit;
 	}
 
 	public Unit getTurnUnit() {
-		return this.turnUnit;
+		return extendedData == null ? null : extendedData.turnUnit;
 	}
 
 	public Abstraction deriveNewAbstractionWithTurnUnit(Unit turnUnit) {
-		if (this.turnUnit == turnUnit)
+		if (getTurnUnit() == turnUnit)
 			return this;
 
 		Abstraction a = clone();
 		a.sourceContext = null;
-		a.activationUnit = null;
-		a.turnUnit = turnUnit;
+		a.extendedData = ExtendedAbstractionData
+				.withTurnUnit(ExtendedAbstractionData.withActivationUnit(a.extendedData, null), turnUnit);
 		return a;
 	}
 
@@ -346,7 +343,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		Abstraction a = clone();
 		a.sourceContext = null;
-		a.activationUnit = null;
+		a.extendedData = ExtendedAbstractionData.withActivationUnit(a.extendedData, null);
 		return a;
 	}
 
@@ -356,12 +353,13 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 * @return True if this value has been thrown as an exception, otherwise false
 	 */
 	public boolean getExceptionThrown() {
-		return this.exceptionThrown;
+		return getFlag(FLAG_EXCEPTION_THROWN);
 	}
 
 	public Abstraction deriveConditionalAbstractionEnter(UnitContainer postdom, Stmt conditionalUnit) {
 		assert this.isAbstractionActive();
 
+		final List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators != null && postdominators.contains(postdom))
 			return this;
 
@@ -369,10 +367,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (abs == null)
 			return null;
 
-		if (abs.postdominators == null)
-			abs.postdominators = Collections.singletonList(postdom);
-		else
-			abs.postdominators.add(0, postdom);
+		abs.extendedData = ExtendedAbstractionData.pushPostdominator(abs.extendedData, postdom);
 		return abs;
 	}
 
@@ -386,25 +381,38 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		// Postdominators are only kept intraprocedurally in order to not
 		// mess up the summary functions with caller-side information
-		abs.postdominators = null;
+		abs.extendedData = ExtendedAbstractionData.withoutPostdominators(abs.extendedData);
 
 		return abs;
 	}
 
 	public Abstraction dropTopPostdominator() {
+		final List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators == null || postdominators.isEmpty())
 			return this;
 
 		Abstraction abs = clone();
 		abs.sourceContext = null;
-		abs.postdominators.remove(0);
+		abs.extendedData = ExtendedAbstractionData.popPostdominator(abs.extendedData);
 		return abs;
 	}
 
 	public UnitContainer getTopPostdominator() {
+		final List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators == null || postdominators.isEmpty())
 			return null;
-		return this.postdominators.get(0);
+		return postdominators.get(0);
+	}
+
+	/**
+	 * Gets the postdominators we need to pass in order to leave the current
+	 * conditional branch. The returned list must not be modified.
+	 * 
+	 * @return The stack of postdominators with the top-most one at index 0, or
+	 *         null if there are no postdominators
+	 */
+	private List<UnitContainer> getPostdominators() {
+		return extendedData == null ? null : extendedData.postdominators;
 	}
 
 	public boolean isTopPostdominator(Unit u) {
@@ -422,7 +430,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public Abstraction deriveNewAbstractionWithDominator(Unit dominator, Stmt stmt) {
-		if (this.dominator != null)
+		if (getDominator() != null)
 			return this;
 
 		Abstraction abs = deriveNewAbstractionMutable(accessPath, stmt);
@@ -445,8 +453,8 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		Abstraction abs = deriveNewAbstractionMutable(ap, stmt);
 		if (abs == null)
 			return null;
-		abs.turnUnit = stmt;
-		abs.dominator = null;
+		abs.extendedData = ExtendedAbstractionData
+				.withDominator(ExtendedAbstractionData.withTurnUnit(abs.extendedData, stmt), null);
 		return abs;
 	}
 
@@ -459,14 +467,15 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public void setDominator(Unit dominator) {
-		this.dominator = dominator;
+		this.extendedData = ExtendedAbstractionData.withDominator(extendedData, dominator);
 	}
 
 	public Unit getDominator() {
-		return this.dominator;
+		return extendedData == null ? null : extendedData.dominator;
 	}
 
 	public boolean isDominator(Unit u) {
+		final Unit dominator = getDominator();
 		if (dominator == null)
 			return false;
 		return dominator == u;
@@ -479,7 +488,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		abs.neighbors = null;
 		abs.currentStmt = null;
 		abs.correspondingCallSite = null;
-		abs.propagationPathLength = propagationPathLength + 1;
+		abs.setPathLength(getPathLength() + 1);
 
 		if (!abs.equals(this))
 			System.out.println("x");
@@ -525,31 +534,42 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 				return false;
 		} else if (!sourceContext.equals(other.sourceContext))
 			return false;
+
+		// Compares exceptionThrown, dependsOnCutAP and isImplicit at once
+		if ((this.state & FLAG_MASK) != (other.state & FLAG_MASK))
+			return false;
+
+		// Abstractions derived from one another often share the same extended data
+		if (this.extendedData == other.extendedData)
+			return true;
+
+		final Unit activationUnit = getActivationUnit();
+		final Unit otherActivationUnit = other.getActivationUnit();
 		if (activationUnit == null) {
-			if (other.activationUnit != null)
+			if (otherActivationUnit != null)
 				return false;
-		} else if (!activationUnit.equals(other.activationUnit))
+		} else if (!activationUnit.equals(otherActivationUnit))
 			return false;
+		final Unit turnUnit = getTurnUnit();
+		final Unit otherTurnUnit = other.getTurnUnit();
 		if (turnUnit == null) {
-			if (other.turnUnit != null)
+			if (otherTurnUnit != null)
 				return false;
-		} else if (!turnUnit.equals(other.turnUnit))
-			return false;
-		if (this.exceptionThrown != other.exceptionThrown)
+		} else if (!turnUnit.equals(otherTurnUnit))
 			return false;
+		final List<UnitContainer> postdominators = getPostdominators();
+		final List<UnitContainer> otherPostdominators = other.getPostdominators();
 		if (postdominators == null) {
-			if (other.postdominators != null)
+			if (otherPostdominators != null)
 				return false;
-		} else if (!postdominators.equals(other.postdominators))
+		} else if (!postdominators.equals(otherPostdominators))
 			return false;
+		final Unit dominator = getDominator();
+		final Unit otherDominator = other.getDominator();
 		if (dominator == null) {
-			if (other.dominator != null)
+			if (otherDominator != null)
 				return false;
-		} else if (!dominator.equals(other.dominator))
-			return false;
-		if (this.dependsOnCutAP != other.dependsOnCutAP)
-			return false;
-		if (this.isImplicit != other.isImplicit)
+		} else if (!dominator.equals(otherDominator))
 			return false;
 		return true;
 	}
@@ -565,13 +585,17 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		// deliberately ignore prevAbs
 		result = prime * result + ((sourceContext == null) ? 0 : sourceContext.hashCode());
 		result = prime * result + ((accessPath == null) ? 0 : accessPath.hashCode());
+		final Unit activationUnit = getActivationUnit();
 		result = prime * result + ((activationUnit == null) ? 0 : activationUnit.hashCode());
+		final Unit turnUnit = getTurnUnit();
 		result = prime * result + ((turnUnit == null) ? 0 : turnUnit.hashCode());
-		result = prime * result + (exceptionThrown ? 1231 : 1237);
+		result = prime * result + (getExceptionThrown() ? 1231 : 1237);
+		final List<UnitContainer> postdominators = getPostdominators();
 		result = prime * result + ((postdominators == null) ? 0 : postdominators.hashCode());
+		final Unit dominator = getDominator();
 		result = prime * result + ((dominator == null) ? 0 : dominator.hashCode());
-		result = prime * result + (dependsOnCutAP ? 1231 : 1237);
-		result = prime * result + (isImplicit ? 1231 : 1237);
+		result = prime * result + (dependsOnCutAP() ? 1231 : 1237);
+		result = prime * result + (isImplicit() ? 1231 : 1237);
 		this.hashCode = result;
 
 		return this.hashCode;
@@ -604,7 +628,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public boolean dependsOnCutAP() {
-		return dependsOnCutAP;
+		return getFlag(FLAG_DEPENDS_ON_CUT_AP);
 	}
 
 	@Override
@@ -694,13 +718,16 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 *         before, otherwise false
 	 */
 	public boolean registerPathFlag(int id, int maxSize) {
+		AtomicBitSet pathFlags = extendedData == null ? null : extendedData.pathFlags;
 		if (pathFlags == null || pathFlags.size() < maxSize) {
 			synchronized (this) {
+				pathFlags = extendedData == null ? null : extendedData.pathFlags;
 				if (pathFlags == null) {
 					// Make sure that the field is set only after the
 					// constructor
 					// is done and the object is fully usable
 					AtomicBitSet pf = new AtomicBitSet(maxSize);
+					extendedData = ExtendedAbstractionData.withPathFlags(extendedData, pf);
 					pathFlags = pf;
 				} else if (pathFlags.size() < maxSize) {
 					AtomicBitSet pf = new AtomicBitSet(maxSize);
@@ -708,6 +735,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 						if (pathFlags.get(i))
 							pf.set(i);
 					}
+					extendedData = ExtendedAbstractionData.withPathFlags(extendedData, pf);
 					pathFlags = pf;
 				}
 			}
@@ -740,6 +768,23 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		this.currentStmt = currentStmt;
 	}
 
+	/**
+	 * For internal use by memory manager only
+	 */
+	ExtendedAbstractionData getExtendedData() {
+		return extendedData;
+	}
+
+	/**
+	 * For internal use by memory manager only. The new data must be equal to the
+	 * current one.
+	 */
+	void setExtendedData(ExtendedAbstractionData extendedData) {
+		assert extendedData == this.extendedData
+				|| (extendedData != null && extendedData.equals(this.extendedData));
+		this.extendedData = extendedData;
+	}
+
 	@Override
 	public int getNeighborCount() {
 		return neighbors == null ? 0 : neighbors.size();
@@ -747,7 +792,28 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 	@Override
 	public int getPathLength() {
-		return propagationPathLength;
+		return state >>> PATH_LENGTH_SHIFT;
+	}
+
+	/**
+	 * Sets the length of the propagation path of this abstraction. Lengths beyond
+	 * the maximum that we can store are capped.
+	 * 
+	 * @param pathLength The length of the propagation path
+	 */
+	private void setPathLength(int pathLength) {
+		this.state = (Math.min(pathLength, MAX_PATH_LENGTH) << PATH_LENGTH_SHIFT) | (state & FLAG_MASK);
+	}
+
+	private boolean getFlag(int flag) {
+		return (state & flag) != 0;
+	}
+
+	private void setFlag(int flag, boolean value) {
+		if (value)
+			this.state |= flag;
+		else
+			this.state &= ~flag;
 	}
 
 }
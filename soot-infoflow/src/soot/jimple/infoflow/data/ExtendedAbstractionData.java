@@ -0,0 +1,221 @@
+package soot.jimple.infoflow.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import soot.Unit;
+import soot.jimple.infoflow.collect.AtomicBitSet;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
+
+/**
+ * Rarely used data of an {@link Abstraction}, i.e., the data for inactive
+ * taints, implicit flows and path reconstruction. Most abstractions do not need
+ * any of this data, so we keep it in a separate object instead of having all
+ * abstractions carry the respective fields.
+ *
+ * Objects of this class are immutable except for the path flags and can thus be
+ * shared between abstractions. Abstractions without any such data reference
+ * <code>null</code> instead of an empty object. All modifications therefore go
+ * through static methods that accept <code>null</code>.
+ *
+ */
+final class ExtendedAbstractionData {
+
+	/**
+	 * Unit/Stmt which activates the taint when the abstraction passes it
+	 */
+	final Unit activationUnit;
+
+	/**
+	 * Unit/Stmt which indicates it origin; tells the aliasing to turn around in
+	 * backwards analysis
+	 */
+	final Unit turnUnit;
+
+	/**
+	 * The postdominators we need to pass in order to leave the current conditional
+	 * branch. This list must never be modified.
+	 */
+	final List<UnitContainer> postdominators;
+
+	final Unit dominator;
+
+	/**
+	 * The worker threads that have already processed the abstraction during path
+	 * reconstruction. Records with path flags are never shared.
+	 */
+	final AtomicBitSet pathFlags;
+
+	private int hashCode = 0;
+
+	private ExtendedAbstractionData(Unit activationUnit, Unit turnUnit, List<UnitContainer> postdominators,
+			Unit dominator, AtomicBitSet pathFlags) {
+		this.activationUnit = activationUnit;
+		this.turnUnit = turnUnit;
+		this.postdominators = postdominators;
+		this.dominator = dominator;
+		this.pathFlags = pathFlags;
+	}
+
+	/**
+	 * Creates a new record with the given data
+	 *
+	 * @return The new record, or <code>null</code> if all of the given data is
+	 *         <code>null</code>
+	 */
+	private static ExtendedAbstractionData create(Unit activationUnit, Unit turnUnit,
+			List<UnitContainer> postdominators, Unit dominator, AtomicBitSet pathFlags) {
+		if (activationUnit == null && turnUnit == null && postdominators == null && dominator == null
+				&& pathFlags == null)
+			return null;
+		return new ExtendedAbstractionData(activationUnit, turnUnit, postdominators, dominator, pathFlags);
+	}
+
+	/**
+	 * Gets the data that a newly derived abstraction inherits from the given one.
+	 * The path flags are specific to each abstraction and are thus not inherited.
+	 *
+	 * @param data The data of the original abstraction
+	 * @return The data for the derived abstraction
+	 */
+	static ExtendedAbstractionData derive(ExtendedAbstractionData data) {
+		if (data == null || data.pathFlags == null)
+			return data;
+		return create(data.activationUnit, data.turnUnit, data.postdominators, data.dominator, null);
+	}
+
+	/**
+	 * Gets the data for an inactive copy of an abstraction. Inactive abstractions
+	 * keep the turn unit, but neither the postdominators nor the dominator.
+	 *
+	 * @param data           The data of the active abstraction
+	 * @param activationUnit The unit that activates the taint
+	 * @return The data for the inactive abstraction
+	 */
+	static ExtendedAbstractionData deactivate(ExtendedAbstractionData data, Unit activationUnit) {
+		if (data == null)
+			return create(activationUnit, null, null, null, null);
+		return create(activationUnit, data.turnUnit, null, null, data.pathFlags);
+	}
+
+	static ExtendedAbstractionData withActivationUnit(ExtendedAbstractionData data, Unit activationUnit) {
+		if (data == null)
+			return create(activationUnit, null, null, null, null);
+		if (data.activationUnit == activationUnit)
+			return data;
+		return create(activationUnit, data.turnUnit, data.postdominators, data.dominator, data.pathFlags);
+	}
+
+	static ExtendedAbstractionData withTurnUnit(ExtendedAbstractionData data, Unit turnUnit) {
+		if (data == null)
+			return create(null, turnUnit, null, null, null);
+		if (data.turnUnit == turnUnit)
+			return data;
+		return create(data.activationUnit, turnUnit, data.postdominators, data.dominator, data.pathFlags);
+	}
+
+	static ExtendedAbstractionData withDominator(ExtendedAbstractionData data, Unit dominator) {
+		if (data == null)
+			return create(null, null, null, dominator, null);
+		if (data.dominator == dominator)
+			return data;
+		return create(data.activationUnit, data.turnUnit, data.postdominators, dominator, data.pathFlags);
+	}
+
+	static ExtendedAbstractionData withPathFlags(ExtendedAbstractionData data, AtomicBitSet pathFlags) {
+		if (data == null)
+			return create(null, null, null, null, pathFlags);
+		return create(data.activationUnit, data.turnUnit, data.postdominators, data.dominator, pathFlags);
+	}
+
+	static ExtendedAbstractionData withoutPostdominators(ExtendedAbstractionData data) {
+		if (data == null || data.postdominators == null)
+			return data;
+		return create(data.activationUnit, data.turnUnit, null, data.dominator, data.pathFlags);
+	}
+
+	/**
+	 * Adds a new postdominator at the top of the postdominator stack
+	 *
+	 * @param data    The original data
+	 * @param postdom The postdominator to add
+	 * @return The new data with the additional postdominator
+	 */
+	static ExtendedAbstractionData pushPostdominator(ExtendedAbstractionData data, UnitContainer postdom) {
+		List<UnitContainer> postdominators;
+		if (data == null || data.postdominators == null)
+			postdominators = Collections.singletonList(postdom);
+		else {
+			postdominators = new ArrayList<>(data.postdominators.size() + 1);
+			postdominators.add(postdom);
+			postdominators.addAll(data.postdominators);
+		}
+		if (data == null)
+			return create(null, null, postdominators, null, null);
+		return create(data.activationUnit, data.turnUnit, postdominators, data.dominator, data.pathFlags);
+	}
+
+	/**
+	 * Removes the postdominator at the top of the postdominator stack
+	 *
+	 * @param data The original data
+	 * @return The new data without the top-most postdominator
+	 */
+	static ExtendedAbstractionData popPostdominator(ExtendedAbstractionData data) {
+		if (data == null || data.postdominators == null || data.postdominators.isEmpty())
+			return data;
+		List<UnitContainer> postdominators = new ArrayList<>(
+				data.postdominators.subList(1, data.postdominators.size()));
+		return create(data.activationUnit, data.turnUnit, postdominators, data.dominator, data.pathFlags);
+	}
+
+	@Override
+	public int hashCode() {
+		if (hashCode != 0)
+			return hashCode;
+
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((activationUnit == null) ? 0 : activationUnit.hashCode());
+		result = prime * result + ((turnUnit == null) ? 0 : turnUnit.hashCode());
+		result = prime * result + ((postdominators == null) ? 0 : postdominators.hashCode());
+		result = prime * result + ((dominator == null) ? 0 : dominator.hashCode());
+		result = prime * result + ((pathFlags == null) ? 0 : System.identityHashCode(pathFlags));
+		this.hashCode = result;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		ExtendedAbstractionData other = (ExtendedAbstractionData) obj;
+		if (this.hashCode != 0 && other.hashCode != 0 && this.hashCode != other.hashCode)
+			return false;
+		if (activationUnit == null) {
+			if (other.activationUnit != null)
+				return false;
+		} else if (!activationUnit.equals(other.activationUnit))
+			return false;
+		if (turnUnit == null) {
+			if (other.turnUnit != null)
+				return false;
+		} else if (!turnUnit.equals(other.turnUnit))
+			return false;
+		if (postdominators == null) {
+			if (other.postdominators != null)
+				return false;
+		} else if (!postdominators.equals(other.postdominators))
+			return false;
+		if (dominator == null) {
+			if (other.dominator != null)
+				return false;
+		} else if (!dominator.equals(other.dominator))
+			return false;
+		return pathFlags == other.pathFlags;
+	}
+
+}
@@ -75,6 +75,7 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 
 	private ConcurrentMap<AccessPath, AccessPath> apCache = new ConcurrentHashMap<>();
 	private ConcurrentHashMap<AbstractionCacheKey, Abstraction> absCache = new ConcurrentHashMap<>();
+	private ConcurrentMap<ExtendedAbstractionData, ExtendedAbstractionData> extendedDataCache = new ConcurrentHashMap<>();
 	private AtomicInteger reuseCounter = new AtomicInteger();
 
 	private final boolean tracingEnabled;
@@ -143,6 +144,24 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 		return oldAP;
 	}
 
+	/**
+	 * Gets the cached equivalent of the given extended abstraction data
+	 * 
+	 * @param data The extended abstraction data for which to get the cached
+	 *             equivalent
+	 * @return The cached equivalent of the given extended abstraction data
+	 */
+	private ExtendedAbstractionData getCachedExtendedData(ExtendedAbstractionData data) {
+		ExtendedAbstractionData oldData = extendedDataCache.putIfAbsent(data, data);
+		if (oldData == null)
+			return data;
+
+		// We can re-use old data
+		if (tracingEnabled && oldData != data)
+			reuseCounter.incrementAndGet();
+		return oldData;
+	}
+
 	/**
 	 * Gets a cached equivalent abstraction for the given abstraction if we have
 	 * one, otherwise returns null
@@ -191,6 +210,14 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 			output.setAccessPath(newAP);
 		}
 
+		// Abstractions that are equal in their inactive taint and implicit flow data
+		// can share the same record. Path flags belong to a single abstraction.
+		{
+			ExtendedAbstractionData data = output.getExtendedData();
+			if (data != null && data.pathFlags == null)
+				output.setExtendedData(getCachedExtendedData(data));
+		}
+
 		// If an intermediate statement does not change any taint state, skip it. Note
 		// that we should not do this when we're reconstructing paths or we might lose
 		// statements along the way.
@@ -6,8 +6,11 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import heros.solver.Pair;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
 
 /**
  * Abstract base class for all abstraction path builders
@@ -41,4 +44,16 @@ public abstract class AbstractAbstractionPathBuilder implements IAbstractionPath
 		this.resultAvailableHandlers.add(handler);
 	}
 
+	/**
+	 * Notifies all registered handlers that a new source-to-sink connection has
+	 * been found
+	 * 
+	 * @param result The new source-to-sink connection
+	 */
+	protected void notifyResultAvailable(Pair<ResultSourceInfo, ResultSinkInfo> result) {
+		if (resultAvailableHandlers != null && result != null)
+			for (OnPathBuilderResultAvailable handler : resultAvailableHandlers)
+				handler.onResultAvailable(result.getO1(), result.getO2());
+	}
+
 }
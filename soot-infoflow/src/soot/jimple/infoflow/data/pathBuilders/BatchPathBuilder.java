@@ -115,6 +115,12 @@ public class BatchPathBuilder extends AbstractAbstractionPathBuilder {
 		innerBuilder.addStatusListener(listener);
 	}
 
+	@Override
+	public void addResultAvailableHandler(OnPathBuilderResultAvailable handler) {
+		// The inner builder reconstructs the paths, so it must notify the handlers
+		innerBuilder.addResultAvailableHandler(handler);
+	}
+
 	/**
 	 * Sets the number of paths that shall be part of one batch, i.e., that shall be
 	 * forwarded to the inner path builder at the same time
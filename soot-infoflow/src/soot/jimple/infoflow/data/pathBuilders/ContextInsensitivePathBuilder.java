@@ -131,9 +131,9 @@ public class ContextInsensitivePathBuilder extends ConcurrentAbstractionPathBuil
 
 		// Register the source that we have found
 		SourceContext sourceContext = abs.getSourceContext();
-		results.addResult(scap.getDefinition(), scap.getAccessPath(), scap.getStmt(), sourceContext.getDefinition(),
-				sourceContext.getAccessPath(), sourceContext.getStmt(), sourceContext.getUserData(),
-				scap.getAbstractionPath());
+		notifyResultAvailable(results.addResult(scap.getDefinition(), scap.getAccessPath(), scap.getStmt(),
+				sourceContext.getDefinition(), sourceContext.getAccessPath(), sourceContext.getStmt(),
+				sourceContext.getUserData(), scap.getAbstractionPath()));
 		return true;
 	}
 
@@ -84,10 +84,11 @@ public class ContextInsensitiveSourceFinder extends ConcurrentAbstractionPathBui
 				Abstraction abstraction = abstractionQueue.remove(0);
 				if (abstraction.getSourceContext() != null) {
 					// Register the result
-					results.addResult(flagAbs.getSinkDefinition(), flagAbs.getAbstraction().getAccessPath(),
-							flagAbs.getSinkStmt(), abstraction.getSourceContext().getDefinition(),
+					notifyResultAvailable(results.addResult(flagAbs.getSinkDefinition(),
+							flagAbs.getAbstraction().getAccessPath(), flagAbs.getSinkStmt(),
+							abstraction.getSourceContext().getDefinition(),
 							abstraction.getSourceContext().getAccessPath(), abstraction.getSourceContext().getStmt(),
-							abstraction.getSourceContext().getUserData(), null);
+							abstraction.getSourceContext().getUserData(), null));
 
 					// Sources may not have predecessors
 					assert abstraction.getPredecessor() == null;
@@ -198,9 +198,7 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 				sourceContext.getUserData(), scap.getAbstractionPath(), manager);
 
 		// Notify our handlers
-		if (resultAvailableHandlers != null)
-			for (OnPathBuilderResultAvailable handler : resultAvailableHandlers)
-				handler.onResultAvailable(newResult.getO1(), newResult.getO2());
+		notifyResultAvailable(newResult);
 
 		return true;
 	}
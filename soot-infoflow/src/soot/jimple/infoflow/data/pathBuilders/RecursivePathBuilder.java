@@ -142,9 +142,10 @@ public class RecursivePathBuilder extends AbstractAbstractionPathBuilder {
 					initialStack.push(new Pair<Stmt, Set<Abstraction>>(null,
 							Collections.newSetFromMap(new IdentityHashMap<Abstraction, Boolean>())));
 					for (SourceContextAndPath context : getPaths(lastTaskId++, abs.getAbstraction(), initialStack)) {
-						results.addResult(abs.getSinkDefinition(), abs.getAbstraction().getAccessPath(),
-								abs.getSinkStmt(), context.getDefinition(), context.getAccessPath(), context.getStmt(),
-								context.getUserData(), context.getAbstractionPath());
+						notifyResultAvailable(results.addResult(abs.getSinkDefinition(),
+								abs.getAbstraction().getAccessPath(), abs.getSinkStmt(), context.getDefinition(),
+								context.getAccessPath(), context.getStmt(), context.getUserData(),
+								context.getAbstractionPath()));
 					}
 				}
 
@@ -0,0 +1,37 @@
+package soot.jimple.infoflow.handlers;
+
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Handler that is notified about data flow results while the analysis is still
+ * running. The callbacks are invoked from the worker threads of the solver and
+ * the path builder and must thus be thread-safe. Once the analysis has
+ * finished, the handler receives the final results through
+ * {@link #onResultsAvailable(IInfoflowCFG, soot.jimple.infoflow.results.InfoflowResults)}.
+ *
+ */
+public interface StreamingResultsAvailableHandler extends ResultsAvailableHandler {
+
+	/**
+	 * Callback that is invoked as soon as a taint abstraction reaches a sink,
+	 * i.e., before the path between source and sink has been reconstructed
+	 *
+	 * @param cfg The program graph
+	 * @param abs The abstraction at the sink
+	 */
+	public void onSinkReached(IInfoflowCFG cfg, AbstractionAtSink abs);
+
+	/**
+	 * Callback that is invoked as soon as the path reconstruction has found a
+	 * source for a sink
+	 *
+	 * @param cfg    The program graph
+	 * @param source The source from which the data flow originated
+	 * @param sink   The sink at which the data flow ended
+	 */
+	public void onPathReconstructed(IInfoflowCFG cfg, ResultSourceInfo source, ResultSinkInfo sink);
+
+}
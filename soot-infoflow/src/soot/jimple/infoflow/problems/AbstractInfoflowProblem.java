@@ -10,6 +10,7 @@
  ******************************************************************************/
 package soot.jimple.infoflow.problems;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -198,6 +199,17 @@ public abstract class AbstractInfoflowProblem
 			this.initialSeeds.put(unit, new HashSet<Abstraction>(seeds));
 	}
 
+	/**
+	 * Adds the given initial seeds to the information flow problem
+	 * 
+	 * @param units The units to be considered as seeds
+	 * @param seeds The abstractions with which to start at each of the given seeds
+	 */
+	public void addInitialSeeds(Collection<? extends Unit> units, Set<Abstraction> seeds) {
+		for (Unit unit : units)
+			addInitialSeeds(unit, seeds);
+	}
+
 	/**
 	 * Gets whether this information flow problem has initial seeds
 	 * 
@@ -39,6 +39,7 @@ public class TaintPropagationResults {
 	protected final MyConcurrentHashMap<AbstractionAtSink, Abstraction> results = new MyConcurrentHashMap<AbstractionAtSink, Abstraction>();
 
 	protected final Set<OnTaintPropagationResultAdded> resultAddedHandlers = new HashSet<>();
+	protected final Set<OnTaintPropagationResultAdded> newResultAddedHandlers = new HashSet<>();
 
 	/**
 	 * Creates a new instance of the TaintPropagationResults class
@@ -77,7 +78,8 @@ public class TaintPropagationResults {
 		// Record the result
 		resultAbs = new AbstractionAtSink(resultAbs.getSinkDefinition(), abs, resultAbs.getSinkStmt());
 		Abstraction newAbs = this.results.putIfAbsentElseGet(resultAbs, resultAbs.getAbstraction());
-		if (newAbs != resultAbs.getAbstraction())
+		boolean isNewResult = newAbs == resultAbs.getAbstraction();
+		if (!isNewResult)
 			newAbs.addNeighbor(resultAbs.getAbstraction());
 
 		// Notify the handlers
@@ -85,6 +87,10 @@ public class TaintPropagationResults {
 		for (OnTaintPropagationResultAdded handler : resultAddedHandlers)
 			if (!handler.onResultAvailable(resultAbs))
 				continueAnalysis = false;
+		if (isNewResult)
+			for (OnTaintPropagationResultAdded handler : newResultAddedHandlers)
+				if (!handler.onResultAvailable(resultAbs))
+					continueAnalysis = false;
 		return continueAnalysis;
 	}
 
@@ -118,6 +124,17 @@ public class TaintPropagationResults {
 		this.resultAddedHandlers.add(handler);
 	}
 
+	/**
+	 * Adds a new handler that is only invoked when a result is added for a sink
+	 * that has not been reached by an equal abstraction before. Abstractions that
+	 * are merged into an existing result as neighbors do not trigger this handler.
+	 * 
+	 * @param handler The handler implementation to add
+	 */
+	public void addNewResultAvailableHandler(OnTaintPropagationResultAdded handler) {
+		this.newResultAddedHandlers.add(handler);
+	}
+
 	/**
 	 * Gets the number of taint abstractions in this result object
 	 * 
@@ -11,6 +11,7 @@ import java.util.Objects;
 public class InfoflowPerformanceData {
 
 	private int callgraphConstructionSeconds = -1;
+	private int sourceSinkLookupSeconds = -1;
 	private int taintPropagationSeconds = -1;
 	private int pathReconstructionSeconds = -1;
 	private int totalRuntimeSeconds = -1;
@@ -23,6 +24,9 @@ public class InfoflowPerformanceData {
 	private long infoflowPropagationCount = -1;
 	private long aliasPropagationCount = -1;
 
+	private int garbageCollectedEdges = -1;
+	private int garbageCollectionMillis = -1;
+
 	public InfoflowPerformanceData() {
 		//
 	}
@@ -50,6 +54,42 @@ public class InfoflowPerformanceData {
 		this.callgraphConstructionSeconds = callgraphSeconds;
 	}
 
+	/**
+	 * Gets the number of seconds spent on looking for sources and sinks before the
+	 * taint propagation
+	 * 
+	 * @return The number of seconds spent on looking for sources and sinks, or -1
+	 *         if no such data has been recorded
+	 */
+	public int getSourceSinkLookupSeconds() {
+		return sourceSinkLookupSeconds;
+	}
+
+	/**
+	 * Sets the number of seconds spent on looking for sources and sinks before the
+	 * taint propagation
+	 * 
+	 * @param sourceSinkLookupSeconds The number of seconds spent on looking for
+	 *                                sources and sinks
+	 */
+	public void setSourceSinkLookupSeconds(int sourceSinkLookupSeconds) {
+		this.sourceSinkLookupSeconds = sourceSinkLookupSeconds;
+	}
+
+	/**
+	 * Adds the given number of seconds to the time spent on looking for sources and
+	 * sinks
+	 * 
+	 * @param toAdd The time to add in seconds
+	 */
+	public void addSourceSinkLookupSeconds(int toAdd) {
+		int time = this.sourceSinkLookupSeconds;
+		if (time < 0)
+			this.sourceSinkLookupSeconds = toAdd;
+		else
+			this.sourceSinkLookupSeconds = time + toAdd;
+	}
+
 	/**
 	 * Gets the number of seconds spent on the taint propagation
 	 * 
@@ -143,8 +183,8 @@ public class InfoflowPerformanceData {
 	 *         false otherwise
 	 */
 	public boolean isEmpty() {
-		return callgraphConstructionSeconds <= 0 && taintPropagationSeconds <= 0 && pathReconstructionSeconds <= 0
-				&& totalRuntimeSeconds <= 0 && maxMemoryConsumption <= 0;
+		return callgraphConstructionSeconds <= 0 && sourceSinkLookupSeconds <= 0 && taintPropagationSeconds <= 0
+				&& pathReconstructionSeconds <= 0 && totalRuntimeSeconds <= 0 && maxMemoryConsumption <= 0;
 	}
 
 	/**
@@ -160,6 +200,12 @@ public class InfoflowPerformanceData {
 			else
 				this.callgraphConstructionSeconds += performanceData.callgraphConstructionSeconds;
 		}
+		if (performanceData.sourceSinkLookupSeconds > 0) {
+			if (this.sourceSinkLookupSeconds < 0)
+				this.sourceSinkLookupSeconds = performanceData.sourceSinkLookupSeconds;
+			else
+				this.sourceSinkLookupSeconds += performanceData.sourceSinkLookupSeconds;
+		}
 		if (performanceData.taintPropagationSeconds > 0) {
 			if (this.taintPropagationSeconds < 0)
 				this.taintPropagationSeconds = performanceData.taintPropagationSeconds;
@@ -190,6 +236,10 @@ public class InfoflowPerformanceData {
 			else
 				this.sinkCount += performanceData.sinkCount;
 		}
+		if (performanceData.garbageCollectedEdges > 0)
+			addGarbageCollectedEdges(performanceData.garbageCollectedEdges);
+		if (performanceData.garbageCollectionMillis > 0)
+			addGarbageCollectionMillis(performanceData.garbageCollectionMillis);
 	}
 
 	/**
@@ -234,6 +284,79 @@ public class InfoflowPerformanceData {
 			this.edgePropagationCount = edges + toAdd;
 	}
 
+	/**
+	 * Adds the given number of edges to the total number of edges that the
+	 * garbage-collecting solvers have removed from their jump functions
+	 * 
+	 * @param toAdd The number of edges to add
+	 */
+	public void addGarbageCollectedEdges(int toAdd) {
+		int edges = this.garbageCollectedEdges;
+		if (edges < 0)
+			this.garbageCollectedEdges = toAdd;
+		else
+			this.garbageCollectedEdges = edges + toAdd;
+	}
+
+	/**
+	 * Adds the given number of milliseconds to the time that the
+	 * garbage-collecting solvers have spent on removing edges from their jump
+	 * functions
+	 * 
+	 * @param toAdd The time to add in milliseconds
+	 */
+	public void addGarbageCollectionMillis(int toAdd) {
+		int time = this.garbageCollectionMillis;
+		if (time < 0)
+			this.garbageCollectionMillis = toAdd;
+		else
+			this.garbageCollectionMillis = time + toAdd;
+	}
+
+	/**
+	 * Gets the number of edges that the garbage-collecting solvers have removed
+	 * from their jump functions
+	 * 
+	 * @return The number of edges that have been garbage-collected, or -1 if no
+	 *         such data has been recorded
+	 */
+	public int getGarbageCollectedEdges() {
+		return garbageCollectedEdges;
+	}
+
+	/**
+	 * Sets the number of edges that the garbage-collecting solvers have removed
+	 * from their jump functions
+	 * 
+	 * @param garbageCollectedEdges The number of edges that have been
+	 *                              garbage-collected
+	 */
+	public void setGarbageCollectedEdges(int garbageCollectedEdges) {
+		this.garbageCollectedEdges = garbageCollectedEdges;
+	}
+
+	/**
+	 * Gets the time in milliseconds that the garbage-collecting solvers have spent
+	 * on removing edges from their jump functions
+	 * 
+	 * @return The garbage collection pause time in milliseconds, or -1 if no such
+	 *         data has been recorded
+	 */
+	public int getGarbageCollectionMillis() {
+		return garbageCollectionMillis;
+	}
+
+	/**
+	 * Sets the time in milliseconds that the garbage-collecting solvers have spent
+	 * on removing edges from their jump functions
+	 * 
+	 * @param garbageCollectionMillis The garbage collection pause time in
+	 *                                milliseconds
+	 */
+	public void setGarbageCollectionMillis(int garbageCollectionMillis) {
+		this.garbageCollectionMillis = garbageCollectionMillis;
+	}
+
 	/**
 	 * Sets the number of sources that were identified in the given input program
 	 * 
@@ -316,6 +439,8 @@ public class InfoflowPerformanceData {
 
 		if (callgraphConstructionSeconds > 0)
 			sb.append(String.format("Callgraph Construction: %d seconds\n", callgraphConstructionSeconds));
+		if (sourceSinkLookupSeconds > 0)
+			sb.append(String.format("Source/Sink Lookup: %d seconds\n", sourceSinkLookupSeconds));
 		if (taintPropagationSeconds > 0)
 			sb.append(String.format("Taint Propagation: %d seconds\n", taintPropagationSeconds));
 		if (pathReconstructionSeconds > 0)
@@ -326,6 +451,10 @@ public class InfoflowPerformanceData {
 			sb.append(String.format("Max Memory Consumption: %d MB\n", maxMemoryConsumption));
 		if (edgePropagationCount > 0)
 			sb.append(String.format("Edge Propagation Count: %d\n", edgePropagationCount));
+		if (garbageCollectedEdges > 0)
+			sb.append(String.format("Garbage-Collected Edges: %d\n", garbageCollectedEdges));
+		if (garbageCollectionMillis > 0)
+			sb.append(String.format("Garbage Collection Pauses: %d ms\n", garbageCollectionMillis));
 
 		return sb.toString();
 	}
@@ -333,8 +462,8 @@ public class InfoflowPerformanceData {
 	@Override
 	public int hashCode() {
 		return Objects.hash(aliasPropagationCount, callgraphConstructionSeconds, edgePropagationCount,
-				infoflowPropagationCount, maxMemoryConsumption, pathReconstructionSeconds, sinkCount, sourceCount,
-				taintPropagationSeconds, totalRuntimeSeconds);
+				garbageCollectedEdges, garbageCollectionMillis, infoflowPropagationCount, maxMemoryConsumption, pathReconstructionSeconds, sinkCount, sourceCount,
+				sourceSinkLookupSeconds, taintPropagationSeconds, totalRuntimeSeconds);
 	}
 
 	@Override
@@ -349,10 +478,13 @@ public class InfoflowPerformanceData {
 		return aliasPropagationCount == other.aliasPropagationCount
 				&& callgraphConstructionSeconds == other.callgraphConstructionSeconds
 				&& edgePropagationCount == other.edgePropagationCount
+				&& garbageCollectedEdges == other.garbageCollectedEdges
+				&& garbageCollectionMillis == other.garbageCollectionMillis
 				&& infoflowPropagationCount == other.infoflowPropagationCount
 				&& maxMemoryConsumption == other.maxMemoryConsumption
 				&& pathReconstructionSeconds == other.pathReconstructionSeconds && sinkCount == other.sinkCount
-				&& sourceCount == other.sourceCount && taintPropagationSeconds == other.taintPropagationSeconds
+				&& sourceCount == other.sourceCount && sourceSinkLookupSeconds == other.sourceSinkLookupSeconds
+				&& taintPropagationSeconds == other.taintPropagationSeconds
 				&& totalRuntimeSeconds == other.totalRuntimeSeconds;
 	}
 
@@ -0,0 +1,201 @@
+package soot.jimple.infoflow.results.xml;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map.Entry;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+
+/**
+ * Class for merging multiple XML files with data flow results, e.g., from
+ * independent analyses of the components of the same app, into a single file.
+ * The results are copied verbatim, so the merged file contains all data that
+ * the individual files contain. The performance data is added up.
+ *
+ */
+public class InfoflowResultsMerger {
+
+	private static final String TERMINATION_SUCCESS = "Success";
+	private static final String TERMINATION_INCOMPLETE = "Incomplete";
+
+	/**
+	 * Merges the given result files into the given target file
+	 *
+	 * @param inputFiles The XML files with the data flow results to merge
+	 * @param targetFile The file into which to write the merged results
+	 * @throws XMLStreamException Thrown if one of the input files is invalid or if
+	 *                            the merged data cannot be written
+	 * @throws IOException        Thrown if a file could not be read or written
+	 */
+	public void merge(List<String> inputFiles, String targetFile) throws XMLStreamException, IOException {
+		merge(inputFiles, targetFile, false);
+	}
+
+	/**
+	 * Merges the given result files into the given target file
+	 *
+	 * @param inputFiles The XML files with the data flow results to merge
+	 * @param targetFile The file into which to write the merged results
+	 * @param incomplete True if the input files do not cover the whole analysis,
+	 *                   e.g., because the analysis of some components has failed.
+	 *                   In that case, a successful termination state is replaced
+	 *                   with "Incomplete".
+	 * @throws XMLStreamException Thrown if one of the input files is invalid or if
+	 *                            the merged data cannot be written
+	 * @throws IOException        Thrown if a file could not be read or written
+	 */
+	public void merge(List<String> inputFiles, String targetFile, boolean incomplete)
+			throws XMLStreamException, IOException {
+		// We need the overall termination state and performance data for the
+		// root element, before we can copy the results
+		String terminationState = incomplete ? TERMINATION_INCOMPLETE : TERMINATION_SUCCESS;
+		InfoflowPerformanceData performanceData = new InfoflowPerformanceData();
+		InfoflowResultsReader resultsReader = new InfoflowResultsReader();
+		for (String inputFile : inputFiles) {
+			String curState = readTerminationState(inputFile);
+			if (curState != null && !curState.equals(TERMINATION_SUCCESS)
+					&& (terminationState.equals(TERMINATION_SUCCESS)
+							|| terminationState.equals(TERMINATION_INCOMPLETE)))
+				terminationState = curState;
+
+			InfoflowPerformanceData curPerfData = resultsReader.readResults(inputFile).getPerformanceData();
+			if (curPerfData != null)
+				performanceData.add(curPerfData);
+		}
+
+		try (OutputStream out = new FileOutputStream(targetFile)) {
+			XMLOutputFactory factory = XMLOutputFactory.newInstance();
+			XMLStreamWriter writer = factory.createXMLStreamWriter(out, "UTF-8");
+
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement(XmlConstants.Tags.root);
+			writer.writeAttribute(XmlConstants.Attributes.fileFormatVersion,
+					InfoflowResultsSerializer.FILE_FORMAT_VERSION + "");
+			writer.writeAttribute(XmlConstants.Attributes.terminationState, terminationState);
+
+			// Copy over the data flow results
+			boolean hasResults = false;
+			for (String inputFile : inputFiles) {
+				try (InputStream in = new FileInputStream(inputFile)) {
+					XMLStreamReader reader = createReader(in);
+					try {
+						while (reader.hasNext()) {
+							if (reader.next() == XMLStreamConstants.START_ELEMENT
+									&& reader.getLocalName().equals(XmlConstants.Tags.result)) {
+								if (!hasResults) {
+									writer.writeStartElement(XmlConstants.Tags.results);
+									hasResults = true;
+								}
+								copyElement(reader, writer);
+							}
+						}
+					} finally {
+						reader.close();
+					}
+				}
+			}
+			if (hasResults)
+				writer.writeEndElement();
+
+			// Write out the combined performance data
+			if (!performanceData.isEmpty()) {
+				writer.writeStartElement(XmlConstants.Tags.performanceData);
+				for (Entry<String, Integer> entry : new InfoflowResultsSerializer(null)
+						.getPerformanceEntries(performanceData).entrySet()) {
+					writer.writeStartElement(XmlConstants.Tags.performanceEntry);
+					writer.writeAttribute(XmlConstants.Attributes.name, entry.getKey());
+					writer.writeAttribute(XmlConstants.Attributes.value, entry.getValue() + "");
+					writer.writeEndElement();
+				}
+				writer.writeEndElement();
+			}
+
+			writer.writeEndDocument();
+			writer.close();
+		}
+	}
+
+	/**
+	 * Reads the termination state from the root element of the given result file
+	 *
+	 * @param inputFile The XML file with the data flow results
+	 * @return The termination state, or null if the file does not specify one
+	 * @throws XMLStreamException Thrown if the input file is invalid
+	 * @throws IOException        Thrown if the input file could not be read
+	 */
+	private String readTerminationState(String inputFile) throws XMLStreamException, IOException {
+		try (InputStream in = new FileInputStream(inputFile)) {
+			XMLStreamReader reader = createReader(in);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT)
+						return reader.getAttributeValue(null, XmlConstants.Attributes.terminationState);
+				}
+				return null;
+			} finally {
+				reader.close();
+			}
+		}
+	}
+
+	/**
+	 * Creates a reader for the given XML data
+	 *
+	 * @param in The stream from which to read the XML data
+	 * @return The new reader
+	 * @throws XMLStreamException Thrown if the reader cannot be created
+	 */
+	private XMLStreamReader createReader(InputStream in) throws XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		return factory.createXMLStreamReader(in);
+	}
+
+	/**
+	 * Copies the element at the current position of the given reader including all
+	 * of its children into the given writer. Afterwards, the reader is positioned
+	 * at the end of the element.
+	 *
+	 * @param reader The reader from which to copy the element
+	 * @param writer The writer into which to write the element
+	 * @throws XMLStreamException Thrown if the element cannot be read or written
+	 */
+	private void copyElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+		int depth = 0;
+		while (true) {
+			switch (reader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				writer.writeStartElement(reader.getLocalName());
+				for (int i = 0; i < reader.getAttributeCount(); i++)
+					writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				writer.writeEndElement();
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+				if (!reader.isWhiteSpace())
+					writer.writeCharacters(reader.getText());
+				break;
+			}
+			if (depth == 0)
+				return;
+			reader.next();
+		}
+	}
+
+}
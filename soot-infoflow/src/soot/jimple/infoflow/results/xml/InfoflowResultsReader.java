@@ -161,6 +161,9 @@ public class InfoflowResultsReader {
 					case XmlConstants.Values.PERF_PATH_RECONSTRUCTION_SECONDS:
 						perfData.setPathReconstructionSeconds(Integer.parseInt(perfValue));
 						break;
+					case XmlConstants.Values.PERF_SOURCE_SINK_LOOKUP_SECONDS:
+						perfData.setSourceSinkLookupSeconds(Integer.parseInt(perfValue));
+						break;
 					case XmlConstants.Values.PERF_TAINT_PROPAGATION_SECONDS:
 						perfData.setTaintPropagationSeconds(Integer.parseInt(perfValue));
 						break;
@@ -170,6 +173,12 @@ public class InfoflowResultsReader {
 					case XmlConstants.Values.PERF_MAX_MEMORY_CONSUMPTION:
 						perfData.setMaxMemoryConsumption(Integer.parseInt(perfValue));
 						break;
+					case XmlConstants.Values.PERF_GARBAGE_COLLECTED_EDGES:
+						perfData.setGarbageCollectedEdges(Integer.parseInt(perfValue));
+						break;
+					case XmlConstants.Values.PERF_GARBAGE_COLLECTION_MILLIS:
+						perfData.setGarbageCollectionMillis(Integer.parseInt(perfValue));
+						break;
 					case XmlConstants.Values.PERF_SOURCE_COUNT:
 						perfData.setSourceCount(Integer.parseInt(perfValue));
 						break;
@@ -3,6 +3,9 @@ package soot.jimple.infoflow.results.xml;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -104,7 +107,7 @@ public class InfoflowResultsSerializer {
 	 * @param terminationState The termination state
 	 * @return A human-readable version of the termination state
 	 */
-	private String terminationStateToString(int terminationState) {
+	protected String terminationStateToString(int terminationState) {
 		switch (terminationState) {
 		case InfoflowResults.TERMINATION_SUCCESS:
 			return "Success";
@@ -129,21 +132,36 @@ public class InfoflowResultsSerializer {
 	 * @param writer          The stream writer into which to write the data
 	 * @throws XMLStreamException Thrown if the XML data cannot be written
 	 */
-	private void writePerformanceData(InfoflowPerformanceData performanceData, XMLStreamWriter writer)
+	protected void writePerformanceData(InfoflowPerformanceData performanceData, XMLStreamWriter writer)
 			throws XMLStreamException {
-		writePerformanceEntry(XmlConstants.Values.PERF_CALLGRAPH_SECONDS,
-				performanceData.getCallgraphConstructionSeconds(), writer);
-		writePerformanceEntry(XmlConstants.Values.PERF_TAINT_PROPAGATION_SECONDS,
-				performanceData.getTaintPropagationSeconds(), writer);
-		writePerformanceEntry(XmlConstants.Values.PERF_PATH_RECONSTRUCTION_SECONDS,
-				performanceData.getPathReconstructionSeconds(), writer);
-		writePerformanceEntry(XmlConstants.Values.PERF_TOTAL_RUNTIME_SECONDS, performanceData.getTotalRuntimeSeconds(),
-				writer);
-		writePerformanceEntry(XmlConstants.Values.PERF_MAX_MEMORY_CONSUMPTION,
-				performanceData.getMaxMemoryConsumption(), writer);
-
-		writePerformanceEntry(XmlConstants.Values.PERF_SOURCE_COUNT, performanceData.getSourceCount(), writer);
-		writePerformanceEntry(XmlConstants.Values.PERF_SINK_COUNT, performanceData.getSinkCount(), writer);
+		for (Entry<String, Integer> entry : getPerformanceEntries(performanceData).entrySet())
+			writePerformanceEntry(entry.getKey(), entry.getValue(), writer);
+	}
+
+	/**
+	 * Gets the performance metrics to write out, indexed by their names. Metrics
+	 * that have not been recorded are omitted.
+	 * 
+	 * @param performanceData The performance data
+	 * @return The performance metrics in the order in which they shall be written
+	 */
+	protected Map<String, Integer> getPerformanceEntries(InfoflowPerformanceData performanceData) {
+		Map<String, Integer> entries = new LinkedHashMap<>();
+		entries.put(XmlConstants.Values.PERF_CALLGRAPH_SECONDS, performanceData.getCallgraphConstructionSeconds());
+		entries.put(XmlConstants.Values.PERF_SOURCE_SINK_LOOKUP_SECONDS, performanceData.getSourceSinkLookupSeconds());
+		entries.put(XmlConstants.Values.PERF_TAINT_PROPAGATION_SECONDS, performanceData.getTaintPropagationSeconds());
+		entries.put(XmlConstants.Values.PERF_PATH_RECONSTRUCTION_SECONDS,
+				performanceData.getPathReconstructionSeconds());
+		entries.put(XmlConstants.Values.PERF_TOTAL_RUNTIME_SECONDS, performanceData.getTotalRuntimeSeconds());
+		entries.put(XmlConstants.Values.PERF_MAX_MEMORY_CONSUMPTION, performanceData.getMaxMemoryConsumption());
+		entries.put(XmlConstants.Values.PERF_GARBAGE_COLLECTED_EDGES, performanceData.getGarbageCollectedEdges());
+		entries.put(XmlConstants.Values.PERF_GARBAGE_COLLECTION_MILLIS, performanceData.getGarbageCollectionMillis());
+
+		entries.put(XmlConstants.Values.PERF_SOURCE_COUNT, performanceData.getSourceCount());
+		entries.put(XmlConstants.Values.PERF_SINK_COUNT, performanceData.getSinkCount());
+
+		entries.values().removeIf(v -> v <= 0);
+		return entries;
 	}
 
 	/**
@@ -180,7 +198,7 @@ public class InfoflowResultsSerializer {
 			// Write out the sources
 			writer.writeStartElement(XmlConstants.Tags.sources);
 			for (ResultSourceInfo src : results.getResults().get(sink))
-				writeSourceInfo(src, writer);
+				writeSourceInfo(src, sink, writer);
 			writer.writeEndElement();
 
 			writer.writeEndElement();
@@ -195,7 +213,20 @@ public class InfoflowResultsSerializer {
 	 * @param writer The stream writer into which to write the results
 	 * @throws XMLStreamException Thrown if the XML data cannot be written
 	 */
-	private void writeSourceInfo(ResultSourceInfo source, XMLStreamWriter writer) throws XMLStreamException {
+	protected void writeSourceInfo(ResultSourceInfo source, XMLStreamWriter writer) throws XMLStreamException {
+		writeSourceInfo(source, null, writer);
+	}
+
+	/**
+	 * Writes the given source information into the given XML stream writer
+	 * 
+	 * @param source The source information to write out
+	 * @param sink   The sink that the source reaches, or null if unknown
+	 * @param writer The stream writer into which to write the results
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	protected void writeSourceInfo(ResultSourceInfo source, ResultSinkInfo sink, XMLStreamWriter writer)
+			throws XMLStreamException {
 		writer.writeStartElement(XmlConstants.Tags.source);
 		writer.writeAttribute(XmlConstants.Attributes.statement, source.getStmt().toString());
 		if (config.getEnableLineNumbers())
@@ -212,7 +243,7 @@ public class InfoflowResultsSerializer {
 			writer.writeAttribute(XmlConstants.Attributes.methodSourceSinkDefinition, ms.getMethod().getSignature());
 		}
 
-		writeAdditionalSourceInfo(source, writer);
+		writeAdditionalSourceInfo(source, sink, writer);
 		writeAccessPath(source.getAccessPath(), writer);
 
 		if (serializeTaintPath && source.getPath() != null) {
@@ -250,6 +281,21 @@ public class InfoflowResultsSerializer {
 		//
 	}
 
+	/**
+	 * Derived classes can override this method to write out additional information
+	 * about a data flow source that depends on the sink it reaches. By default,
+	 * this method only writes the information that is independent of the sink.
+	 * 
+	 * @param source The source information to write out
+	 * @param sink   The sink that the source reaches, or null if unknown
+	 * @param writer The stream writer into which to write the results
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	protected void writeAdditionalSourceInfo(ResultSourceInfo source, ResultSinkInfo sink, XMLStreamWriter writer)
+			throws XMLStreamException {
+		writeAdditionalSourceInfo(source, writer);
+	}
+
 	/**
 	 * Writes the given sink information into the given XML stream writer
 	 * 
@@ -257,7 +303,7 @@ public class InfoflowResultsSerializer {
 	 * @param writer The stream writer into which to write the results
 	 * @throws XMLStreamException Thrown if the XML data cannot be written
 	 */
-	private void writeSinkInfo(ResultSinkInfo sink, XMLStreamWriter writer) throws XMLStreamException {
+	protected void writeSinkInfo(ResultSinkInfo sink, XMLStreamWriter writer) throws XMLStreamException {
 		writer.writeStartElement(XmlConstants.Tags.sink);
 		writer.writeAttribute(XmlConstants.Attributes.statement, sink.getStmt().toString());
 		if (config.getEnableLineNumbers())
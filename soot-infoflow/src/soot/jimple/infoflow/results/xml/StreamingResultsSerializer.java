@@ -0,0 +1,443 @@
+package soot.jimple.infoflow.results.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map.Entry;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.handlers.StreamingResultsAvailableHandler;
+import soot.jimple.infoflow.results.AbstractResultSourceSinkInfo;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
+
+/**
+ * Class for writing FlowDroid results to a stream while the data flow analysis
+ * is still running. Every abstraction that reaches a sink and every
+ * reconstructed source-to-sink connection is written out immediately, so that
+ * consumers can start processing results before the analysis has finished. The
+ * individual results are serialized by an {@link InfoflowResultsSerializer}.
+ *
+ */
+public class StreamingResultsSerializer implements StreamingResultsAvailableHandler, Closeable {
+
+	/**
+	 * The format in which to write the result stream
+	 */
+	public enum StreamFormat {
+		/**
+		 * One XML document in which the events appear as they are found. The document
+		 * is only complete once the stream is closed.
+		 */
+		XML,
+		/**
+		 * Newline-delimited JSON with one object per event
+		 */
+		NDJSON
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingResultsSerializer.class);
+
+	protected final OutputStream out;
+	protected final StreamFormat format;
+	protected final InfoflowConfiguration config;
+
+	private InfoflowResultsSerializer serializer;
+	private XMLStreamWriter xmlWriter;
+	private Writer jsonWriter;
+	private boolean failed = false;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new instance of the StreamingResultsSerializer class
+	 *
+	 * @param out    The stream into which to write the results. The stream is
+	 *               closed when this serializer is closed.
+	 * @param format The format in which to write the results
+	 * @param config The configuration of the data flow
+	 * @throws XMLStreamException Thrown if the XML header cannot be written
+	 */
+	public StreamingResultsSerializer(OutputStream out, StreamFormat format, InfoflowConfiguration config)
+			throws XMLStreamException {
+		this.out = out;
+		this.format = format;
+		this.config = config;
+
+		if (format == StreamFormat.XML) {
+			xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			xmlWriter.writeStartDocument("UTF-8", "1.0");
+			xmlWriter.writeStartElement(XmlConstants.Tags.root);
+			xmlWriter.writeAttribute(XmlConstants.Attributes.fileFormatVersion,
+					InfoflowResultsSerializer.FILE_FORMAT_VERSION + "");
+			xmlWriter.flush();
+		} else
+			jsonWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Creates a serializer that writes into the given file. Files ending with
+	 * <code>.json</code>, <code>.jsonl</code>, or <code>.ndjson</code> receive
+	 * newline-delimited JSON, all other files receive XML.
+	 *
+	 * @param fileName The target file name
+	 * @param config   The configuration of the data flow
+	 * @return The new serializer
+	 * @throws IOException        Thrown if the target file could not be opened
+	 * @throws XMLStreamException Thrown if the XML header cannot be written
+	 */
+	public static StreamingResultsSerializer forFile(String fileName, InfoflowConfiguration config)
+			throws IOException, XMLStreamException {
+		return new StreamingResultsSerializer(new BufferedOutputStream(new FileOutputStream(fileName)),
+				getFormatForFile(fileName), config);
+	}
+
+	/**
+	 * Gets the stream format that matches the extension of the given file
+	 *
+	 * @param fileName The file name
+	 * @return The stream format for the given file
+	 */
+	public static StreamFormat getFormatForFile(String fileName) {
+		String lowerName = fileName.toLowerCase();
+		if (lowerName.endsWith(".json") || lowerName.endsWith(".jsonl") || lowerName.endsWith(".ndjson"))
+			return StreamFormat.NDJSON;
+		return StreamFormat.XML;
+	}
+
+	/**
+	 * Creates the serializer for writing out the individual results. Derived
+	 * classes can override this method to add additional information to the
+	 * results.
+	 *
+	 * @param cfg The control flow graph to be used for obtaining additional
+	 *            information such as the methods containing source or sink
+	 *            statements
+	 * @return The new serializer
+	 */
+	protected InfoflowResultsSerializer createSerializer(IInfoflowCFG cfg) {
+		return new InfoflowResultsSerializer(cfg, config);
+	}
+
+	private InfoflowResultsSerializer getSerializer(IInfoflowCFG cfg) {
+		if (serializer == null || serializer.icfg != cfg)
+			serializer = createSerializer(cfg);
+		return serializer;
+	}
+
+	@Override
+	public synchronized void onSinkReached(IInfoflowCFG cfg, AbstractionAtSink abs) {
+		if (failed || closed)
+			return;
+
+		ResultSinkInfo sink = new ResultSinkInfo(abs.getSinkDefinition(), abs.getAbstraction().getAccessPath(),
+				abs.getSinkStmt());
+		try {
+			if (xmlWriter != null) {
+				xmlWriter.writeStartElement(XmlConstants.Tags.sinkReached);
+				getSerializer(cfg).writeSinkInfo(sink, xmlWriter);
+				xmlWriter.writeEndElement();
+				xmlWriter.flush();
+			} else {
+				StringBuilder sb = startJsonEvent(XmlConstants.Tags.sinkReached);
+				sb.append(",");
+				appendJsonKey(sb, XmlConstants.Tags.sink);
+				appendJsonSourceSinkInfo(sb, getSerializer(cfg), sink);
+				writeJsonEvent(sb);
+			}
+		} catch (IOException | XMLStreamException e) {
+			onWriteFailed(e);
+		}
+	}
+
+	@Override
+	public synchronized void onPathReconstructed(IInfoflowCFG cfg, ResultSourceInfo source, ResultSinkInfo sink) {
+		if (failed || closed)
+			return;
+
+		try {
+			InfoflowResultsSerializer serializer = getSerializer(cfg);
+			if (xmlWriter != null) {
+				xmlWriter.writeStartElement(XmlConstants.Tags.result);
+				serializer.writeSinkInfo(sink, xmlWriter);
+				xmlWriter.writeStartElement(XmlConstants.Tags.sources);
+				serializer.writeSourceInfo(source, sink, xmlWriter);
+				xmlWriter.writeEndElement();
+				xmlWriter.writeEndElement();
+				xmlWriter.flush();
+			} else {
+				StringBuilder sb = startJsonEvent(XmlConstants.Tags.result);
+				sb.append(",");
+				appendJsonKey(sb, XmlConstants.Tags.sink);
+				appendJsonSourceSinkInfo(sb, serializer, sink);
+				sb.append(",");
+				appendJsonKey(sb, XmlConstants.Tags.source);
+				appendJsonSourceSinkInfo(sb, serializer, source);
+				writeJsonEvent(sb);
+			}
+		} catch (IOException | XMLStreamException e) {
+			onWriteFailed(e);
+		}
+	}
+
+	@Override
+	public synchronized void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+		if (failed || closed || results == null)
+			return;
+
+		try {
+			InfoflowResultsSerializer serializer = getSerializer(cfg);
+			String terminationState = serializer.terminationStateToString(results.getTerminationState());
+			InfoflowPerformanceData performanceData = results.getPerformanceData();
+			if (xmlWriter != null) {
+				xmlWriter.writeStartElement(XmlConstants.Tags.analysisFinished);
+				xmlWriter.writeAttribute(XmlConstants.Attributes.terminationState, terminationState);
+				if (performanceData != null && !performanceData.isEmpty()) {
+					xmlWriter.writeStartElement(XmlConstants.Tags.performanceData);
+					serializer.writePerformanceData(performanceData, xmlWriter);
+					xmlWriter.writeEndElement();
+				}
+				xmlWriter.writeEndElement();
+				xmlWriter.flush();
+			} else {
+				StringBuilder sb = startJsonEvent(XmlConstants.Tags.analysisFinished);
+				sb.append(",");
+				appendJsonKey(sb, XmlConstants.Attributes.terminationState);
+				appendJsonString(sb, terminationState);
+				if (performanceData != null && !performanceData.isEmpty()) {
+					sb.append(",");
+					appendJsonKey(sb, XmlConstants.Tags.performanceData);
+					sb.append("{");
+					boolean first = true;
+					for (Entry<String, Integer> entry : serializer.getPerformanceEntries(performanceData).entrySet()) {
+						if (!first)
+							sb.append(",");
+						first = false;
+						appendJsonKey(sb, entry.getKey());
+						sb.append(entry.getValue());
+					}
+					sb.append("}");
+				}
+				writeJsonEvent(sb);
+			}
+		} catch (IOException | XMLStreamException e) {
+			onWriteFailed(e);
+		}
+	}
+
+	/**
+	 * Completes the result stream and closes the underlying output stream
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+
+		try {
+			if (xmlWriter != null) {
+				if (!failed) {
+					xmlWriter.writeEndElement();
+					xmlWriter.writeEndDocument();
+				}
+				xmlWriter.close();
+			} else
+				jsonWriter.close();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not complete the result stream", e);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Called when the result stream could not be written. No further results are
+	 * written afterwards.
+	 *
+	 * @param e The exception that has occurred
+	 */
+	protected void onWriteFailed(Exception e) {
+		logger.error("Could not write data flow results to the result stream", e);
+		failed = true;
+	}
+
+	private StringBuilder startJsonEvent(String event) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		appendJsonKey(sb, XmlConstants.Attributes.event);
+		appendJsonString(sb, event);
+		return sb;
+	}
+
+	private void writeJsonEvent(StringBuilder sb) throws IOException {
+		sb.append("}\n");
+		jsonWriter.write(sb.toString());
+		jsonWriter.flush();
+	}
+
+	/**
+	 * Appends the given source or sink information as a JSON object
+	 *
+	 * @param sb         The builder to which to append the JSON data
+	 * @param serializer The serializer that defines which data to write out
+	 * @param info       The source or sink information to write out
+	 */
+	private void appendJsonSourceSinkInfo(StringBuilder sb, InfoflowResultsSerializer serializer,
+			AbstractResultSourceSinkInfo info) {
+		sb.append("{");
+		appendJsonKey(sb, XmlConstants.Attributes.statement);
+		appendJsonString(sb, info.getStmt().toString());
+		if (config.getEnableLineNumbers()) {
+			sb.append(",");
+			appendJsonKey(sb, XmlConstants.Attributes.linenumber);
+			sb.append(info.getStmt().getJavaSourceStartLineNumber());
+		}
+		if (info.getDefinition() != null && info.getDefinition().getCategory() != null) {
+			sb.append(",");
+			appendJsonKey(sb, XmlConstants.Attributes.category);
+			appendJsonString(sb, info.getDefinition().getCategory().getHumanReadableDescription());
+		}
+		if (serializer.icfg != null) {
+			sb.append(",");
+			appendJsonKey(sb, XmlConstants.Attributes.method);
+			appendJsonString(sb, serializer.icfg.getMethodOf(info.getStmt()).getSignature());
+		}
+		if (info.getDefinition() instanceof MethodSourceSinkDefinition) {
+			MethodSourceSinkDefinition ms = (MethodSourceSinkDefinition) info.getDefinition();
+			sb.append(",");
+			appendJsonKey(sb, XmlConstants.Attributes.methodSourceSinkDefinition);
+			appendJsonString(sb, ms.getMethod().getSignature());
+		}
+		sb.append(",");
+		appendJsonKey(sb, XmlConstants.Tags.accessPath);
+		appendJsonAccessPath(sb, info.getAccessPath());
+
+		// Write out the taint propagation path
+		if (info instanceof ResultSourceInfo) {
+			ResultSourceInfo source = (ResultSourceInfo) info;
+			if (serializer.serializeTaintPath && source.getPath() != null) {
+				sb.append(",");
+				appendJsonKey(sb, XmlConstants.Tags.taintPath);
+				sb.append("[");
+				for (int i = 0; i < source.getPath().length; i++) {
+					if (i > 0)
+						sb.append(",");
+					Stmt curStmt = source.getPath()[i];
+					sb.append("{");
+					appendJsonKey(sb, XmlConstants.Attributes.statement);
+					appendJsonString(sb, curStmt.toString());
+					if (serializer.icfg != null) {
+						sb.append(",");
+						appendJsonKey(sb, XmlConstants.Attributes.method);
+						appendJsonString(sb, serializer.icfg.getMethodOf(curStmt).getSignature());
+					}
+					sb.append(",");
+					appendJsonKey(sb, XmlConstants.Tags.accessPath);
+					appendJsonAccessPath(sb, source.getPathAccessPaths()[i]);
+					sb.append("}");
+				}
+				sb.append("]");
+			}
+		}
+		sb.append("}");
+	}
+
+	/**
+	 * Appends the given access path as a JSON object
+	 *
+	 * @param sb         The builder to which to append the JSON data
+	 * @param accessPath The access path to write out
+	 */
+	private void appendJsonAccessPath(StringBuilder sb, AccessPath accessPath) {
+		sb.append("{");
+		if (accessPath.getPlainValue() != null) {
+			appendJsonKey(sb, XmlConstants.Attributes.value);
+			appendJsonString(sb, accessPath.getPlainValue().toString());
+			sb.append(",");
+		}
+		if (accessPath.getBaseType() != null) {
+			appendJsonKey(sb, XmlConstants.Attributes.type);
+			appendJsonString(sb, accessPath.getBaseType().toString());
+			sb.append(",");
+		}
+		appendJsonKey(sb, XmlConstants.Attributes.taintSubFields);
+		sb.append(accessPath.getTaintSubFields());
+
+		// Write out the fields
+		if (accessPath.getFragmentCount() > 0) {
+			sb.append(",");
+			appendJsonKey(sb, XmlConstants.Tags.fields);
+			sb.append("[");
+			for (int i = 0; i < accessPath.getFragmentCount(); i++) {
+				if (i > 0)
+					sb.append(",");
+				AccessPathFragment fragment = accessPath.getFragments()[i];
+				sb.append("{");
+				appendJsonKey(sb, XmlConstants.Attributes.value);
+				appendJsonString(sb, fragment.getField().toString());
+				sb.append(",");
+				appendJsonKey(sb, XmlConstants.Attributes.type);
+				appendJsonString(sb, fragment.getFieldType().toString());
+				sb.append("}");
+			}
+			sb.append("]");
+		}
+		sb.append("}");
+	}
+
+	private static void appendJsonKey(StringBuilder sb, String key) {
+		appendJsonString(sb, key);
+		sb.append(":");
+	}
+
+	private static void appendJsonString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20)
+					sb.append(String.format("\\u%04x", (int) c));
+				else
+					sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+}
@@ -31,12 +31,16 @@ class XmlConstants {
 		public static final String taintPath = "TaintPath";
 		public static final String pathElement = "PathElement";
 
+		public static final String sinkReached = "SinkReached";
+		public static final String analysisFinished = "AnalysisFinished";
+
 	}
 
 	class Attributes {
 
 		public static final String fileFormatVersion = "FileFormatVersion";
 		public static final String terminationState = "TerminationState";
+		public static final String event = "Event";
 		public static final String statement = "Statement";
 		public static final String linenumber = "LineNumber";
 		public static final String method = "Method";
@@ -59,10 +63,13 @@ class XmlConstants {
 		public static final String FALSE = "false";
 
 		public static final String PERF_CALLGRAPH_SECONDS = "CallgraphConstructionSeconds";
+		public static final String PERF_SOURCE_SINK_LOOKUP_SECONDS = "SourceSinkLookupSeconds";
 		public static final String PERF_TAINT_PROPAGATION_SECONDS = "TaintPropagationSeconds";
 		public static final String PERF_PATH_RECONSTRUCTION_SECONDS = "PathReconstructionSeconds";
 		public static final String PERF_TOTAL_RUNTIME_SECONDS = "TotalRuntimeSeconds";
 		public static final String PERF_MAX_MEMORY_CONSUMPTION = "MaxMemoryConsumption";
+		public static final String PERF_GARBAGE_COLLECTED_EDGES = "GarbageCollectedEdges";
+		public static final String PERF_GARBAGE_COLLECTION_MILLIS = "GarbageCollectionMillis";
 
 		public static final String PERF_SOURCE_COUNT = "SourceCount";
 		public static final String PERF_SINK_COUNT = "SinkCount";
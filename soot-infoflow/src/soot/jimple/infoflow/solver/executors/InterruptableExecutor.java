@@ -1,5 +1,6 @@
 package soot.jimple.infoflow.solver.executors;
 
+import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -14,8 +15,8 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 
 	protected static final Logger logger = LoggerFactory.getLogger(InterruptableExecutor.class);
 
-	private boolean interrupted = false;
-	private boolean terminated = false;
+	protected volatile boolean interrupted = false;
+	protected volatile boolean terminated = false;
 
 	public InterruptableExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
 			BlockingQueue<Runnable> workQueue) {
@@ -67,6 +68,18 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 		}
 	}
 
+	/**
+	 * Schedules a whole batch of tasks. This implementation submits the tasks one
+	 * by one. Executors that can hand over multiple tasks more efficiently than
+	 * single ones should override this method.
+	 * 
+	 * @param commands The tasks to schedule
+	 */
+	public void executeAll(Collection<? extends Runnable> commands) {
+		for (Runnable command : commands)
+			execute(command);
+	}
+
 	@Override
 	public void awaitCompletion() throws InterruptedException {
 		// If we already know that we're done, there's no need to wait
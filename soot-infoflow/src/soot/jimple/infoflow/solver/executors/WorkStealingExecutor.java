@@ -0,0 +1,428 @@
+package soot.jimple.infoflow.solver.executors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor that keeps one task deque per worker thread instead of a single
+ * shared work queue. Tasks that are scheduled from within a worker thread (i.e.,
+ * freshly propagated path edges) are pushed onto the local deque of that worker
+ * in one batch once the current task is done, and are processed in LIFO
+ * order. Tasks from outside the pool are placed in a
+ * shared submission queue from which idle workers take them in batches. Workers
+ * that run out of work steal the oldest tasks from other workers.
+ *
+ * The executor retains the semantics of the {@link InterruptableExecutor}, i.e.,
+ * {@link #awaitCompletion()} returns once all tasks have been processed, and
+ * {@link #interrupt()} discards all pending tasks.
+ *
+ */
+public class WorkStealingExecutor extends InterruptableExecutor {
+
+	/**
+	 * The default number of tasks a worker takes from the shared submission queue
+	 * at once
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 32;
+
+	/**
+	 * The maximum time in milliseconds for which an idle worker sleeps before
+	 * checking for new work again
+	 */
+	private static final long IDLE_WAIT_MILLIS = 50;
+
+	private final int batchSize;
+	private final Worker[] workers;
+	private final ConcurrentLinkedQueue<Runnable> submissionQueue = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+
+	/**
+	 * The tasks that are currently waiting for execution if set semantics are
+	 * enabled, otherwise null
+	 */
+	private final Set<Runnable> waiting;
+
+	private final ReentrantLock idleLock = new ReentrantLock();
+	private final Condition workAvailable = idleLock.newCondition();
+	private final AtomicInteger idleWorkers = new AtomicInteger();
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+	private final AtomicInteger liveWorkers = new AtomicInteger();
+	private final AtomicLong completedTasks = new AtomicLong();
+	private final AtomicLong stolenTasks = new AtomicLong();
+
+	private volatile boolean started = false;
+	private volatile boolean shutdown = false;
+
+	/**
+	 * Creates a new instance of the {@link WorkStealingExecutor} class
+	 *
+	 * @param numThreads        The number of worker threads
+	 * @param batchSize         The number of tasks a worker takes from the shared
+	 *                          submission queue at once
+	 * @param allowSetSemantics True if a task shall be silently dropped if an equal
+	 *                          task is already waiting for execution
+	 */
+	public WorkStealingExecutor(int numThreads, int batchSize, boolean allowSetSemantics) {
+		super(Math.max(1, numThreads), Math.max(1, numThreads), 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		this.batchSize = Math.max(1, batchSize);
+		this.workers = new Worker[Math.max(1, numThreads)];
+		for (int i = 0; i < workers.length; i++)
+			workers[i] = new Worker();
+		this.waiting = allowSetSemantics ? Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>())
+				: null;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		// If the executor was terminated, it must be reset explicitly
+		if (this.terminated) {
+			logger.warn("Executor has terminated. Call reset() before submitting new tasks.");
+			return;
+		}
+
+		// Discard all submitted tasks if the executor has been interrupted
+		if (this.interrupted || this.shutdown)
+			return;
+
+		// Tasks that are spawned by a running task are scheduled in one batch once
+		// that task is done
+		Worker worker = currentWorker.get();
+		if (worker != null && worker.runningTask) {
+			worker.spawnedTasks.add(command);
+			return;
+		}
+
+		// Make sure that we don't schedule a task for execution that is already
+		// waiting
+		if (waiting != null && !waiting.add(command))
+			return;
+
+		numRunningTasks.increment();
+		if (worker != null)
+			worker.deque.offerFirst(command);
+		else
+			submissionQueue.offer(command);
+
+		ensureStarted();
+		signalWork();
+	}
+
+	/**
+	 * Schedules a whole batch of tasks at once. This avoids waking up idle workers
+	 * for every single task.
+	 *
+	 * @param commands The tasks to schedule
+	 */
+	@Override
+	public void executeAll(Collection<? extends Runnable> commands) {
+		if (this.terminated) {
+			logger.warn("Executor has terminated. Call reset() before submitting new tasks.");
+			return;
+		}
+		if (this.interrupted || this.shutdown)
+			return;
+
+		Worker worker = currentWorker.get();
+		boolean added = false;
+		for (Runnable command : commands) {
+			if (waiting != null && !waiting.add(command))
+				continue;
+			numRunningTasks.increment();
+			if (worker != null)
+				worker.deque.offerFirst(command);
+			else
+				submissionQueue.offer(command);
+			added = true;
+		}
+
+		if (added) {
+			ensureStarted();
+			signalWork();
+		}
+	}
+
+	/**
+	 * Starts the worker threads if this has not happened yet. We do this lazily so
+	 * that clients can still change the thread factory after creating the
+	 * executor.
+	 */
+	private void ensureStarted() {
+		if (started)
+			return;
+		synchronized (this) {
+			if (started)
+				return;
+			for (Worker worker : workers) {
+				Thread thread = getThreadFactory().newThread(worker);
+				liveWorkers.incrementAndGet();
+				thread.start();
+			}
+			started = true;
+		}
+	}
+
+	/**
+	 * Wakes up an idle worker if there is one
+	 */
+	private void signalWork() {
+		if (idleWorkers.get() > 0) {
+			idleLock.lock();
+			try {
+				workAvailable.signal();
+			} finally {
+				idleLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Wakes up all idle workers, e.g., to notify them of a shutdown
+	 */
+	private void signalAllWorkers() {
+		idleLock.lock();
+		try {
+			workAvailable.signalAll();
+		} finally {
+			idleLock.unlock();
+		}
+	}
+
+	/**
+	 * Checks whether there is any task waiting in one of the queues
+	 *
+	 * @return True if there is at least one task waiting for execution, otherwise
+	 *         false
+	 */
+	private boolean hasQueuedWork() {
+		if (!submissionQueue.isEmpty())
+			return true;
+		for (Worker worker : workers)
+			if (!worker.deque.isEmpty())
+				return true;
+		return false;
+	}
+
+	/**
+	 * Removes all tasks that are waiting for execution
+	 *
+	 * @return The tasks that have been removed
+	 */
+	private List<Runnable> drainQueues() {
+		List<Runnable> tasks = new ArrayList<>();
+		Runnable r;
+		while ((r = submissionQueue.poll()) != null)
+			tasks.add(r);
+		for (Worker worker : workers)
+			while ((r = worker.deque.pollFirst()) != null)
+				tasks.add(r);
+		if (waiting != null)
+			waiting.clear();
+		return tasks;
+	}
+
+	@Override
+	public void interrupt() {
+		this.interrupted = true;
+		drainQueues();
+		super.interrupt();
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		drainQueues();
+		signalAllWorkers();
+		super.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		List<Runnable> tasks = drainQueues();
+		signalAllWorkers();
+		super.shutdownNow();
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminating() {
+		return shutdown && liveWorkers.get() > 0;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return terminated || (shutdown && liveWorkers.get() == 0);
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!isTerminated()) {
+			if (System.nanoTime() >= deadline)
+				return false;
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
+	@Override
+	public int getActiveCount() {
+		return activeWorkers.get();
+	}
+
+	@Override
+	public int getPoolSize() {
+		return liveWorkers.get();
+	}
+
+	@Override
+	public long getCompletedTaskCount() {
+		return completedTasks.get();
+	}
+
+	/**
+	 * Gets the number of tasks that were taken from the deque of a different worker
+	 * than the one that scheduled them
+	 *
+	 * @return The number of stolen tasks
+	 */
+	public long getStolenTaskCount() {
+		return stolenTasks.get();
+	}
+
+	/**
+	 * A single worker thread with its own task deque. The owner inserts and removes
+	 * tasks at the head of the deque, other workers steal from the tail.
+	 */
+	private class Worker implements Runnable {
+
+		private final ConcurrentLinkedDeque<Runnable> deque = new ConcurrentLinkedDeque<>();
+
+		/**
+		 * The tasks that the current task of this worker has spawned so far. Only the
+		 * worker thread itself accesses this list.
+		 */
+		private final List<Runnable> spawnedTasks = new ArrayList<>();
+		private boolean runningTask = false;
+
+		@Override
+		public void run() {
+			currentWorker.set(this);
+			try {
+				while (!shutdown) {
+					Runnable task = nextTask();
+					if (task == null)
+						waitForWork();
+					else
+						runTask(task);
+				}
+			} finally {
+				currentWorker.remove();
+				liveWorkers.decrementAndGet();
+			}
+		}
+
+		/**
+		 * Gets the next task to process. We first look at our own deque, then at the
+		 * shared submission queue, and finally try to steal from other workers.
+		 *
+		 * @return The next task to process, or null if there is no work available
+		 */
+		private Runnable nextTask() {
+			// Local work is processed in LIFO order
+			Runnable task = deque.pollFirst();
+			if (task != null)
+				return task;
+
+			// Take a batch of tasks from the shared queue
+			task = submissionQueue.poll();
+			if (task != null) {
+				for (int i = 1; i < batchSize; i++) {
+					Runnable next = submissionQueue.poll();
+					if (next == null)
+						break;
+					deque.offerLast(next);
+				}
+				return task;
+			}
+
+			// Steal the oldest task from another worker
+			int start = ThreadLocalRandom.current().nextInt(workers.length);
+			for (int i = 0; i < workers.length; i++) {
+				Worker victim = workers[(start + i) % workers.length];
+				if (victim != this) {
+					task = victim.deque.pollLast();
+					if (task != null) {
+						stolenTasks.incrementAndGet();
+						return task;
+					}
+				}
+			}
+			return null;
+		}
+
+		private void runTask(Runnable task) {
+			activeWorkers.incrementAndGet();
+			Throwable error = null;
+			runningTask = true;
+			try {
+				beforeExecute(Thread.currentThread(), task);
+				task.run();
+			} catch (Throwable t) {
+				error = t;
+			} finally {
+				runningTask = false;
+				activeWorkers.decrementAndGet();
+			}
+
+			// Hand over the successor tasks before this task is counted as completed.
+			// Otherwise, the executor could appear to be idle in between.
+			if (!spawnedTasks.isEmpty()) {
+				executeAll(spawnedTasks);
+				spawnedTasks.clear();
+			}
+
+			if (waiting != null)
+				waiting.remove(task);
+			completedTasks.incrementAndGet();
+
+			// The base class takes care of the task counting and records exceptions
+			afterExecute(task, error);
+		}
+
+		private void waitForWork() {
+			idleLock.lock();
+			try {
+				idleWorkers.incrementAndGet();
+				if (!shutdown && !hasQueuedWork())
+					workAvailable.await(IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				// We just look for new work again
+			} finally {
+				idleWorkers.decrementAndGet();
+				idleLock.unlock();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,32 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+
+/**
+ * Jump function table that stores every jump function as a {@link PathEdge}
+ * object in a concurrent hash map
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public class ConcurrentHashJumpFunctionTable<N, D> implements IJumpFunctionTable<N, D> {
+
+	private final MyConcurrentHashMap<PathEdge<N, D>, D> jumpFunctions = new MyConcurrentHashMap<>();
+
+	@Override
+	public D putIfAbsent(PathEdge<N, D> edge) {
+		return jumpFunctions.putIfAbsent(edge, edge.factAtTarget());
+	}
+
+	@Override
+	public long size() {
+		return jumpFunctions.size();
+	}
+
+	@Override
+	public void clear() {
+		jumpFunctions.clear();
+	}
+
+}
@@ -20,9 +20,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -37,7 +40,6 @@ import heros.FlowFunctions;
 import heros.IFDSTabulationProblem;
 import heros.SynchronizedBy;
 import heros.ZeroedFlowFunctions;
-import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
@@ -79,20 +81,25 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected int numThreads;
 
 	@SynchronizedBy("thread safe data structure, consistent locking when used")
-	protected MyConcurrentHashMap<PathEdge<N, D>, D> jumpFunctions = new MyConcurrentHashMap<PathEdge<N, D>, D>();
+	protected IJumpFunctionTable<N, D> jumpFunctions = new ConcurrentHashJumpFunctionTable<>();
 
 	@SynchronizedBy("thread safe data structure, only modified internally")
 	protected final I icfg;
 
 	// stores summaries that were queried before they were computed
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on 'incoming'")
-	protected final MyConcurrentHashMap<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary = new MyConcurrentHashMap<>();
+	@SynchronizedBy("thread safe data structure")
+	protected final MethodFactTable<SootMethod, D, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary = new MethodFactTable<>();
 
 	// edges going along calls
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on field")
-	protected final MyConcurrentHashMap<Pair<SootMethod, D>, MyConcurrentHashMap<N, Map<D, D>>> incoming = new MyConcurrentHashMap<Pair<SootMethod, D>, MyConcurrentHashMap<N, Map<D, D>>>();
+	@SynchronizedBy("thread safe data structure")
+	protected final MethodFactTable<SootMethod, D, MyConcurrentHashMap<N, Map<D, D>>> incoming = new MethodFactTable<>();
+
+	// edges that wait for processing, grouped by method and fact at the start
+	// node, if batched propagation is enabled
+	@SynchronizedBy("thread safe data structure")
+	protected final MethodFactTable<SootMethod, D, EdgeBatch> pendingBatches = new MethodFactTable<>();
 
 	@DontSynchronize("stateless")
 	protected final FlowFunctions<N, D, SootMethod> flowFunctions;
@@ -121,6 +128,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
 
+	@DontSynchronize("readOnly")
+	private boolean batchedPropagation = false;
+
 	protected boolean solverId;
 
 	private Set<IMemoryBoundedSolverStatusNotification> notificationListeners = new HashSet<>();
@@ -261,10 +271,48 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (killFlag != null || executor.isTerminating() || executor.isTerminated())
 			return;
 
-		executor.execute(new PathEdgeProcessingTask(edge, solverId));
+		if (batchedPropagation)
+			scheduleBatchedEdgeProcessing(edge);
+		else
+			executor.execute(new PathEdgeProcessingTask(edge, solverId));
 		propagationCount++;
 	}
 
+	/**
+	 * Adds the given edge to the batch of pending edges for its method and source
+	 * fact. If no worker is currently processing this batch, a new task is
+	 * scheduled. Otherwise, the worker that owns the batch picks up the edge.
+	 * 
+	 * @param edge the edge to process
+	 */
+	private void scheduleBatchedEdgeProcessing(PathEdge<N, D> edge) {
+		final SootMethod method = icfg.getMethodOf(edge.getTarget());
+		final D d1 = edge.factAtSource();
+		EdgeBatch batch = pendingBatches.getOrCreate(method, d1, () -> new EdgeBatch(method, d1));
+		batch.edges.push(edge);
+		if (batch.scheduled.compareAndSet(false, true))
+			executor.execute(new EdgeBatchProcessingTask(batch));
+	}
+
+	/**
+	 * Processes a single edge, depending on the type of its target statement
+	 * 
+	 * @param edge the edge to process
+	 */
+	private void processPathEdge(PathEdge<N, D> edge) {
+		final N target = edge.getTarget();
+		if (icfg.isCallStmt(target)) {
+			processCall(edge);
+		} else {
+			// note that some statements, such as "throw" may be
+			// both an exit statement and a "normal" statement
+			if (icfg.isExitStmt(target))
+				processExit(edge);
+			if (!icfg.getSuccsOf(target).isEmpty())
+				processNormalFlow(edge);
+		}
+	}
+
 	/**
 	 * Lines 13-20 of the algorithm; processing a call site in the caller's context.
 	 * 
@@ -306,10 +354,18 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 								if (d3 == null)
 									continue;
 
-								// for each callee's start point(s)
-								for (N sP : startPointsOf) {
-									// create initial self-loop
-									propagate(d3, sP, d3, n, false); // line 15
+								Collection<EndSummary<N, D>> cachedSummaries = getCachedEndSummaries(sCalledProcN, d3);
+								if (cachedSummaries != null) {
+									// We already know the outcome of the callee, there is
+									// no need to analyze it again
+									for (EndSummary<N, D> summary : cachedSummaries)
+										addEndSummary(sCalledProcN, d3, summary.eP, summary.d4);
+								} else {
+									// for each callee's start point(s)
+									for (N sP : startPointsOf) {
+										// create initial self-loop
+										propagate(d3, sP, d3, n, false); // line 15
+									}
 								}
 
 								// register the fact that <sp,d3> has an incoming edge from
@@ -353,6 +409,22 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected void onEndSummaryApplied(N n, SootMethod sCalledProc, D d3) {
 	}
 
+	/**
+	 * Gets the end summaries for the given callee and incoming abstraction from a
+	 * source other than the current solver run, e.g., a cache of summaries from
+	 * an earlier analysis of the same code. If this method returns a non-null
+	 * value, the solver does not propagate the abstraction into the callee, but
+	 * applies the given summaries instead.
+	 * 
+	 * @param sCalledProc The callee
+	 * @param d3          The callee-side incoming taint abstraction
+	 * @return The summaries for the given callee and incoming abstraction, or null
+	 *         to analyze the callee as usual
+	 */
+	protected Collection<EndSummary<N, D>> getCachedEndSummaries(SootMethod sCalledProc, D d3) {
+		return null;
+	}
+
 	protected void applyEndSummaryOnCall(final D d1, final N n, final D d2, Collection<N> returnSiteNs,
 			SootMethod sCalledProcN, D d3) {
 		// line 15.2
@@ -663,11 +735,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<N, D> edge) {
-		return jumpFunctions.putIfAbsent(edge, edge.factAtTarget());
+		return jumpFunctions.putIfAbsent(edge);
 	}
 
 	protected Set<EndSummary<N, D>> endSummary(SootMethod m, D d3) {
-		Map<EndSummary<N, D>, EndSummary<N, D>> map = endSummary.get(new Pair<>(m, d3));
+		Map<EndSummary<N, D>, EndSummary<N, D>> map = endSummary.get(m, d3);
 		return map == null ? null : map.keySet();
 	}
 
@@ -675,7 +747,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (d1 == zeroValue)
 			return true;
 
-		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = endSummary.putIfAbsentElseGet(new Pair<>(m, d1),
+		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = endSummary.getOrCreate(m, d1,
 				() -> new ConcurrentHashMap<>());
 		EndSummary<N, D> newSummary = new EndSummary<>(eP, d2, d1);
 		EndSummary<N, D> existingSummary = summaries.putIfAbsent(newSummary, newSummary);
@@ -686,13 +758,41 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		return true;
 	}
 
+	/**
+	 * Performs the given action for every end summary that the solver has computed
+	 * so far
+	 * 
+	 * @param action The action to perform on the method and its end summary
+	 */
+	public void forEachEndSummary(BiConsumer<SootMethod, EndSummary<N, D>> action) {
+		endSummary.forEach((m, facts) -> {
+			for (Map<EndSummary<N, D>, EndSummary<N, D>> summaries : facts.values())
+				for (EndSummary<N, D> summary : summaries.keySet())
+					action.accept(m, summary);
+		});
+	}
+
+	/**
+	 * Performs the given action for every method and incoming abstraction with
+	 * which the method has been called so far
+	 * 
+	 * @param action The action to perform on the callee and the callee-side
+	 *               incoming abstraction
+	 */
+	public void forEachCallContext(BiConsumer<SootMethod, D> action) {
+		incoming.forEach((m, facts) -> {
+			for (D d3 : facts.keySet())
+				action.accept(m, d3);
+		});
+	}
+
 	protected Map<N, Map<D, D>> incoming(D d1, SootMethod m) {
-		Map<N, Map<D, D>> map = incoming.get(new Pair<SootMethod, D>(m, d1));
+		Map<N, Map<D, D>> map = incoming.get(m, d1);
 		return map;
 	}
 
 	protected boolean addIncoming(SootMethod m, D d3, N n, D d1, D d2) {
-		MyConcurrentHashMap<N, Map<D, D>> summaries = incoming.putIfAbsentElseGet(new Pair<SootMethod, D>(m, d3),
+		MyConcurrentHashMap<N, Map<D, D>> summaries = incoming.getOrCreate(m, d3,
 				() -> new MyConcurrentHashMap<N, Map<D, D>>());
 		Map<D, D> set = summaries.putIfAbsentElseGet(n, () -> new ConcurrentHashMap<D, D>());
 		return set.put(d1, d2) == null;
@@ -746,17 +846,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 
 		public void run() {
-			final N target = edge.getTarget();
-			if (icfg.isCallStmt(target)) {
-				processCall(edge);
-			} else {
-				// note that some statements, such as "throw" may be
-				// both an exit statement and a "normal" statement
-				if (icfg.isExitStmt(target))
-					processExit(edge);
-				if (!icfg.getSuccsOf(target).isEmpty())
-					processNormalFlow(edge);
-			}
+			processPathEdge(edge);
 		}
 
 		@Override
@@ -789,6 +879,78 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	}
 
+	/**
+	 * The pending edges for one method and one fact at the start node of this
+	 * method
+	 */
+	protected class EdgeBatch {
+
+		private final SootMethod method;
+		private final D d1;
+		private final ConcurrentLinkedDeque<PathEdge<N, D>> edges = new ConcurrentLinkedDeque<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		public EdgeBatch(SootMethod method, D d1) {
+			this.method = method;
+			this.d1 = d1;
+		}
+
+	}
+
+	/**
+	 * Task that drains all pending edges for one method and one fact at the start
+	 * node. New edges in the same context are added to the same batch while the
+	 * task is running, and are thus processed by the same worker without going
+	 * through the executor. Since the most recent edge is processed first, the
+	 * worker follows the statements of the method in order.
+	 */
+	private class EdgeBatchProcessingTask implements Runnable {
+
+		private final EdgeBatch batch;
+
+		public EdgeBatchProcessingTask(EdgeBatch batch) {
+			this.batch = batch;
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				PathEdge<N, D> edge;
+				while ((edge = batch.edges.poll()) != null) {
+					// Early termination check
+					if (killFlag != null)
+						return;
+					processPathEdge(edge);
+				}
+
+				// Another thread might have added an edge after we found the batch to
+				// be empty, but before we released it
+				batch.scheduled.set(false);
+				if (batch.edges.isEmpty() || !batch.scheduled.compareAndSet(false, true))
+					break;
+			}
+
+			// Threads that still hold a reference to the batch schedule it on their
+			// own, new edges start a new batch
+			pendingBatches.remove(batch.method, batch.d1, batch);
+		}
+
+	}
+
+	/**
+	 * Sets whether the solver shall process all pending edges for the same method
+	 * and fact at the start node in a single task. This reduces the scheduling
+	 * overhead and improves cache locality, but may reduce the parallelism if there
+	 * are only few contexts.
+	 * 
+	 * @param batchedPropagation True to process the edges in batches per method
+	 *                           and fact at the start node, false to process
+	 *                           every edge in a separate task
+	 */
+	public void setBatchedPropagation(boolean batchedPropagation) {
+		this.batchedPropagation = batchedPropagation;
+	}
+
 	/**
 	 * Sets whether abstractions on method returns shall be connected to the
 	 * respective call abstractions to shortcut paths.
@@ -799,6 +961,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		// this.shorteningMode = mode;
 	}
 
+	/**
+	 * Sets the data structure in which the solver stores its jump functions. Call
+	 * this method before solving the problem.
+	 * 
+	 * @param jumpFunctions The table for storing the jump functions
+	 */
+	public void setJumpFunctionTable(IJumpFunctionTable<N, D> jumpFunctions) {
+		this.jumpFunctions = jumpFunctions;
+	}
+
 	/**
 	 * Sets the maximum number of abstractions that shall be recorded per join
 	 * point. In other words, enabling this option disables the recording of
@@ -0,0 +1,36 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import heros.solver.PathEdge;
+
+/**
+ * Data structure that stores the jump functions, i.e., the path edges that the
+ * IFDS solver has already processed. The source statement of a path edge is
+ * implicit.
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public interface IJumpFunctionTable<N, D> {
+
+	/**
+	 * Records a jump function if no equal jump function exists yet
+	 * 
+	 * @param edge The path edge to record
+	 * @return The fact at the target statement of the jump function that was
+	 *         already registered, or null if the given jump function is new
+	 */
+	public D putIfAbsent(PathEdge<N, D> edge);
+
+	/**
+	 * Gets the number of jump functions in this table
+	 * 
+	 * @return The number of jump functions in this table
+	 */
+	public long size();
+
+	/**
+	 * Removes all jump functions from this table
+	 */
+	public void clear();
+
+}
@@ -18,7 +18,6 @@ import heros.FlowFunction;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.EndSummary;
@@ -30,6 +29,7 @@ import soot.jimple.infoflow.solver.functions.SolverCallFlowFunction;
 import soot.jimple.infoflow.solver.functions.SolverCallToReturnFlowFunction;
 import soot.jimple.infoflow.solver.functions.SolverNormalFlowFunction;
 import soot.jimple.infoflow.solver.functions.SolverReturnFlowFunction;
+import soot.jimple.infoflow.solver.summaryCache.PersistentEndSummaryCache;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 
 /**
@@ -43,6 +43,7 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 
 	private IFollowReturnsPastSeedsHandler followReturnsPastSeedsHandler = null;
 	private final AbstractInfoflowProblem problem;
+	private PersistentEndSummaryCache endSummaryCache = null;
 
 	public InfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor) {
 		super(problem);
@@ -111,9 +112,10 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 
 	@Override
 	public void cleanup() {
-		this.jumpFunctions = new MyConcurrentHashMap<PathEdge<Unit, Abstraction>, Abstraction>();
+		this.jumpFunctions.clear();
 		this.incoming.clear();
 		this.endSummary.clear();
+		this.pendingBatches.clear();
 		if (this.ffCache != null)
 			this.ffCache.invalidate();
 	}
@@ -140,6 +142,25 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		}
 	}
 
+	@Override
+	protected Collection<EndSummary<Unit, Abstraction>> getCachedEndSummaries(SootMethod sCalledProc,
+			Abstraction d3) {
+		if (endSummaryCache == null)
+			return null;
+		return endSummaryCache.getEndSummaries(sCalledProc, d3);
+	}
+
+	/**
+	 * Sets the cache from which the solver shall take the end summaries of
+	 * callees that have already been analyzed in an earlier run
+	 * 
+	 * @param endSummaryCache The cache of end summaries, or null to analyze all
+	 *                        callees
+	 */
+	public void setEndSummaryCache(PersistentEndSummaryCache endSummaryCache) {
+		this.endSummaryCache = endSummaryCache;
+	}
+
 	@Override
 	public void setFollowReturnsPastSeedsHandler(IFollowReturnsPastSeedsHandler handler) {
 		this.followReturnsPastSeedsHandler = handler;
@@ -0,0 +1,112 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Table that maps a pair of a method and a data flow fact to a value, e.g., the
+ * end summaries or the incoming edges of the IFDS solver. The table has one
+ * inner map per method, which is indexed by the fact. Lookups therefore do not
+ * need to allocate a pair object and do not take any locks. New entries are
+ * added with a single compare-and-set operation in most cases.
+ *
+ * @param <M> The type of methods
+ * @param <D> The type of data flow facts
+ * @param <V> The type of values
+ */
+public class MethodFactTable<M, D, V> {
+
+	private final ConcurrentHashMap<M, ConcurrentHashMap<D, V>> methodTables = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the value for the given method and fact
+	 *
+	 * @param method The method
+	 * @param fact   The data flow fact
+	 * @return The value for the given method and fact, or null if there is none
+	 */
+	public V get(M method, D fact) {
+		ConcurrentHashMap<D, V> factTable = methodTables.get(method);
+		return factTable == null ? null : factTable.get(fact);
+	}
+
+	/**
+	 * Gets the value for the given method and fact. If there is no such value yet,
+	 * a new one is created and registered. If multiple threads register a value
+	 * for the same method and fact at the same time, all of them receive the value
+	 * that was registered first.
+	 *
+	 * @param method       The method
+	 * @param fact         The data flow fact
+	 * @param valueFactory The factory that creates the value on demand
+	 * @return The value for the given method and fact
+	 */
+	public V getOrCreate(M method, D fact, Supplier<V> valueFactory) {
+		ConcurrentHashMap<D, V> factTable = methodTables.get(method);
+		if (factTable == null) {
+			ConcurrentHashMap<D, V> newTable = new ConcurrentHashMap<>();
+			factTable = methodTables.putIfAbsent(method, newTable);
+			if (factTable == null)
+				factTable = newTable;
+		}
+
+		V value = factTable.get(fact);
+		if (value == null) {
+			V newValue = valueFactory.get();
+			value = factTable.putIfAbsent(fact, newValue);
+			if (value == null)
+				value = newValue;
+		}
+		return value;
+	}
+
+	/**
+	 * Removes the entry for the given method and fact, but only if it is currently
+	 * mapped to the given value
+	 *
+	 * @param method The method
+	 * @param fact   The data flow fact
+	 * @param value  The value that is expected for the given method and fact
+	 * @return True if the entry has been removed, false otherwise
+	 */
+	public boolean remove(M method, D fact, V value) {
+		ConcurrentHashMap<D, V> factTable = methodTables.get(method);
+		return factTable != null && factTable.remove(fact, value);
+	}
+
+	/**
+	 * Gets the number of method/fact pairs in this table
+	 *
+	 * @return The number of method/fact pairs in this table
+	 */
+	public int size() {
+		int size = 0;
+		for (ConcurrentHashMap<D, V> factTable : methodTables.values())
+			size += factTable.size();
+		return size;
+	}
+
+	/**
+	 * Performs the given action for every method in this table and the values for
+	 * the facts of this method
+	 *
+	 * @param action The action to perform on the method and a read-only view on
+	 *               the fact table of this method
+	 */
+	public void forEach(BiConsumer<M, Map<D, V>> action) {
+		for (Entry<M, ConcurrentHashMap<D, V>> entry : methodTables.entrySet())
+			action.accept(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+	}
+
+	/**
+	 * Removes all entries from this table
+	 */
+	public void clear() {
+		methodTables.clear();
+	}
+
+}
@@ -0,0 +1,215 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import heros.solver.PathEdge;
+
+/**
+ * Jump function table that does not keep any per-edge objects. The units and
+ * the facts at the start of the method are interned to integer identifiers,
+ * which are combined into a single <code>long</code> key. The table keeps these
+ * keys and the facts at the target statements in open-addressing hash tables.
+ * The table is split into segments with one lock each.
+ *
+ * This implementation requires far less memory per edge than the
+ * {@link ConcurrentHashJumpFunctionTable}, because it neither retains the
+ * {@link PathEdge} objects nor the hash map nodes.
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ */
+public class PrimitiveJumpFunctionTable<N, D> implements IJumpFunctionTable<N, D> {
+
+	private static final int INITIAL_SEGMENT_CAPACITY = 64;
+	private static final int MAX_SEGMENTS = 256;
+	private static final float LOAD_FACTOR = 0.7f;
+
+	private final ConcurrentHashMap<N, Integer> unitIds = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<D, Integer> factIds = new ConcurrentHashMap<>();
+	private final AtomicInteger nextUnitId = new AtomicInteger(1);
+	private final AtomicInteger nextFactId = new AtomicInteger(1);
+
+	private final Segment[] segments;
+	private final int segmentMask;
+
+	/**
+	 * One lock-protected part of the table. The key of a slot is only valid if
+	 * the value in the same slot is not null.
+	 */
+	private static class Segment {
+
+		private long[] keys;
+		private Object[] values;
+		private int size;
+		private int threshold;
+
+		private Segment() {
+			allocate(INITIAL_SEGMENT_CAPACITY);
+		}
+
+		private void allocate(int capacity) {
+			this.keys = new long[capacity];
+			this.values = new Object[capacity];
+			this.threshold = (int) (capacity * LOAD_FACTOR);
+		}
+
+		private synchronized Object putIfAbsent(long key, int hash, Object value) {
+			final int mask = values.length - 1;
+			int i = hash & mask;
+			while (true) {
+				Object curValue = values[i];
+				if (curValue == null) {
+					keys[i] = key;
+					values[i] = value;
+					if (++size > threshold)
+						rehash();
+					return null;
+				}
+				if (keys[i] == key && (curValue == value || curValue.equals(value)))
+					return curValue;
+				i = (i + 1) & mask;
+			}
+		}
+
+		private void rehash() {
+			final long[] oldKeys = keys;
+			final Object[] oldValues = values;
+			allocate(oldValues.length * 2);
+
+			final int mask = values.length - 1;
+			for (int j = 0; j < oldValues.length; j++) {
+				Object value = oldValues[j];
+				if (value != null) {
+					int i = hash(oldKeys[j], value) & mask;
+					while (values[i] != null)
+						i = (i + 1) & mask;
+					keys[i] = oldKeys[j];
+					values[i] = value;
+				}
+			}
+		}
+
+		private synchronized int size() {
+			return size;
+		}
+
+		private synchronized void clear() {
+			allocate(INITIAL_SEGMENT_CAPACITY);
+			size = 0;
+		}
+
+		private synchronized long getCapacity() {
+			return values.length;
+		}
+
+	}
+
+	/**
+	 * Creates a new instance of the {@link PrimitiveJumpFunctionTable} class with
+	 * a number of segments that depends on the number of available processors
+	 */
+	public PrimitiveJumpFunctionTable() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Creates a new instance of the {@link PrimitiveJumpFunctionTable} class
+	 *
+	 * @param concurrencyLevel The estimated number of threads that concurrently
+	 *                         update the table
+	 */
+	public PrimitiveJumpFunctionTable(int concurrencyLevel) {
+		int numSegments = 1;
+		while (numSegments < concurrencyLevel && numSegments < MAX_SEGMENTS)
+			numSegments <<= 1;
+		this.segments = new Segment[numSegments];
+		for (int i = 0; i < numSegments; i++)
+			segments[i] = new Segment();
+		this.segmentMask = numSegments - 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public D putIfAbsent(PathEdge<N, D> edge) {
+		final D targetVal = edge.factAtTarget();
+		final long key = ((long) getId(factIds, nextFactId, edge.factAtSource()) << 32)
+				| (getId(unitIds, nextUnitId, edge.getTarget()) & 0xFFFFFFFFL);
+		final int hash = hash(key, targetVal);
+
+		// The segment is selected by the upper bits of the hash, the slot inside the
+		// segment by the lower bits
+		return (D) segments[(hash >>> 24) & segmentMask].putIfAbsent(key, hash, targetVal);
+	}
+
+	/**
+	 * Gets the integer identifier of the given object. If the object does not have
+	 * an identifier yet, a new one is assigned.
+	 *
+	 * @param ids    The map of existing identifiers
+	 * @param nextId The counter for assigning new identifiers
+	 * @param obj    The object for which to get the identifier
+	 * @return The identifier of the given object
+	 */
+	private static <T> int getId(ConcurrentHashMap<T, Integer> ids, AtomicInteger nextId, T obj) {
+		if (obj == null)
+			return 0;
+		Integer id = ids.get(obj);
+		if (id == null)
+			id = ids.computeIfAbsent(obj, k -> nextId.getAndIncrement());
+		return id;
+	}
+
+	/**
+	 * Computes the hash code of a table entry
+	 *
+	 * @param key   The key consisting of the source fact and the target unit
+	 * @param value The fact at the target unit
+	 * @return The hash code of the table entry
+	 */
+	private static int hash(long key, Object value) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		h ^= value.hashCode() * 0xC2B2AE3D27D4EB4FL;
+		h ^= h >>> 32;
+		h *= 0x165667B19E3779F9L;
+		return (int) (h ^ (h >>> 29));
+	}
+
+	@Override
+	public long size() {
+		long size = 0;
+		for (Segment segment : segments)
+			size += segment.size();
+		return size;
+	}
+
+	/**
+	 * Gets the total number of slots in this table. A segment grows once its fill
+	 * ratio exceeds the load factor.
+	 *
+	 * @return The total number of slots in this table
+	 */
+	public long getCapacity() {
+		long capacity = 0;
+		for (Segment segment : segments)
+			capacity += segment.getCapacity();
+		return capacity;
+	}
+
+	@Override
+	public void clear() {
+		for (Segment segment : segments)
+			segment.clear();
+		unitIds.clear();
+		factIds.clear();
+		nextUnitId.set(1);
+		nextFactId.set(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d jump functions, %d units, %d source facts, %d segments", size(), unitIds.size(),
+				factIds.size(), segments.length);
+	}
+
+}
@@ -47,7 +47,9 @@ import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+import soot.jimple.infoflow.solver.fastSolver.ConcurrentHashJumpFunctionTable;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
+import soot.jimple.infoflow.solver.fastSolver.IJumpFunctionTable;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 
@@ -79,7 +81,7 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 	protected int numThreads;
 
 	@SynchronizedBy("thread safe data structure, consistent locking when used")
-	protected MyConcurrentHashMap<PathEdge<SootMethod, D>, D> jumpFunctions = new MyConcurrentHashMap<>();
+	protected IJumpFunctionTable<SootMethod, D> jumpFunctions = new ConcurrentHashJumpFunctionTable<>();
 
 	@SynchronizedBy("thread safe data structure, only modified internally")
 	protected final I icfg;
@@ -679,7 +681,7 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<SootMethod, D> edge) {
-		return jumpFunctions.putIfAbsent(edge, edge.factAtTarget());
+		return jumpFunctions.putIfAbsent(edge);
 	}
 
 	protected Set<EndSummary<N, D>> endSummary(SootMethod m, D d3) {
@@ -791,6 +793,16 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 		this.shorteningMode = mode;
 	}
 
+	/**
+	 * Sets the data structure in which the solver stores its jump functions. Call
+	 * this method before solving the problem.
+	 * 
+	 * @param jumpFunctions The table for storing the jump functions
+	 */
+	public void setJumpFunctionTable(IJumpFunctionTable<SootMethod, D> jumpFunctions) {
+		this.jumpFunctions = jumpFunctions;
+	}
+
 	/**
 	 * Sets the maximum number of abstractions that shall be recorded per join
 	 * point. In other words, enabling this option disables the recording of
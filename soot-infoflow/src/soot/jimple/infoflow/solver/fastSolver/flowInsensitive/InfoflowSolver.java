@@ -18,7 +18,6 @@ import heros.FlowFunction;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.EndSummary;
@@ -111,7 +110,7 @@ public class InfoflowSolver extends FlowInsensitiveSolver<Unit, Abstraction, BiD
 
 	@Override
 	public void cleanup() {
-		this.jumpFunctions = new MyConcurrentHashMap<PathEdge<SootMethod, Abstraction>, Abstraction>();
+		this.jumpFunctions.clear();
 		this.incoming.clear();
 		this.endSummary.clear();
 	}
@@ -16,6 +16,7 @@ public abstract class AbstractGarbageCollector<N, D> implements IGarbageCollecto
 	protected final BiDiInterproceduralCFG<N, SootMethod> icfg;
 	protected final IGCReferenceProvider<D, N> referenceProvider;
 	protected final ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions;
+	protected volatile JumpFunctionSpillStore<SootMethod, N, D> spillStore;
 
 	public AbstractGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
 			ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions,
@@ -40,6 +41,17 @@ public abstract class AbstractGarbageCollector<N, D> implements IGarbageCollecto
 	protected void initialize() {
 	}
 
+	/**
+	 * Sets the store into which the solver evicts jump functions. When the garbage
+	 * collector removes a method, it also discards the evicted edges of this
+	 * method.
+	 * 
+	 * @param spillStore The spill store, or null if jump functions are not evicted
+	 */
+	public void setSpillStore(JumpFunctionSpillStore<SootMethod, N, D> spillStore) {
+		this.spillStore = spillStore;
+	}
+
 	/**
 	 * Creates the reference provider that garbage collectors can use to identify
 	 * dependencies
@@ -3,6 +3,7 @@ package soot.jimple.infoflow.solver.gcSolver;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import heros.solver.PathEdge;
 import soot.SootMethod;
@@ -25,8 +26,10 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 	private final Set<SootMethod> gcScheduleSet = new ConcurrentHashSet<>();
 	private final AtomicInteger gcedMethods = new AtomicInteger();
 	private final AtomicInteger gcedEdges = new AtomicInteger();
+	private final AtomicLong gcPauseNanos = new AtomicLong();
 	private final ExtendedAtomicInteger edgeCounterForThreshold = new ExtendedAtomicInteger();
-	private GarbageCollectionTrigger trigger = GarbageCollectionTrigger.Immediate;
+	private volatile GarbageCollectionTrigger trigger = GarbageCollectionTrigger.Immediate;
+	private volatile AdaptiveGarbageCollectionPolicy adaptivePolicy = null;
 	private GarbageCollectorPeerGroup peerGroup = null;
 	private boolean checkChangeCounter = false;
 
@@ -59,7 +62,7 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 		SootMethod sm = icfg.getMethodOf(edge.getTarget());
 		jumpFnCounter.increment(sm);
 		gcScheduleSet.add(sm);
-		if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+		if (isCountingEdges())
 			edgeCounterForThreshold.incrementAndGet();
 
 		if (validateEdges) {
@@ -68,6 +71,16 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 		}
 	}
 
+	/**
+	 * Checks whether the garbage collector needs to keep track of the number of
+	 * edges that have been scheduled and not yet been collected
+	 * 
+	 * @return True if the number of live edges is required by the current trigger
+	 */
+	private boolean isCountingEdges() {
+		return trigger == GarbageCollectionTrigger.EdgeThreshold || trigger == GarbageCollectionTrigger.Adaptive;
+	}
+
 	@Override
 	public void notifyTaskProcessed(PathEdge<N, D> edge) {
 		jumpFnCounter.decrement(icfg.getMethodOf(edge.getTarget()));
@@ -117,11 +130,15 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 			boolean gc = trigger == GarbageCollectionTrigger.Immediate;
 			gc |= trigger == GarbageCollectionTrigger.MethodThreshold && gcScheduleSet.size() > methodThreshold;
 			gc |= trigger == GarbageCollectionTrigger.EdgeThreshold && edgeCounterForThreshold.get() > edgeThreshold;
+			gc |= trigger == GarbageCollectionTrigger.Adaptive && adaptivePolicy != null
+					&& adaptivePolicy.shouldCollect(edgeCounterForThreshold.get());
 
 			// Perform the garbage collection if required
 			if (gc) {
+				long beforeGc = System.nanoTime();
 				int tempMethods = 0;
 				onBeforeRemoveEdges();
+				final JumpFunctionSpillStore<SootMethod, N, D> store = spillStore;
 				for (SootMethod sm : gcScheduleSet) {
 					// Is it safe to remove this method?
 					if (peerGroup != null) {
@@ -135,22 +152,31 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 					if (oldFunctions != null) {
 						int gcedSize = oldFunctions.size();
 						gcedEdges.addAndGet(gcedSize);
-						if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+						if (isCountingEdges())
 							edgeCounterForThreshold.subtract(gcedSize);
 					}
 
+					// Evicted edges must not come back when the method is accessed again
+					int spilledSize = store == null ? 0 : store.discard(sm);
+					if (spilledSize > 0) {
+						gcedEdges.addAndGet(spilledSize);
+						if (isCountingEdges())
+							edgeCounterForThreshold.subtract(spilledSize);
+					}
+
 					// First unregister the method, then delete the edges. In case some other thread
 					// concurrently schedules a new edge, the method gets back into the GC work list
 					// this way.
 					gcScheduleSet.remove(sm);
-					if (jumpFunctions.remove(sm)) {
+					if (jumpFunctions.remove(sm) || spilledSize > 0) {
 						gcedMethods.incrementAndGet();
 						tempMethods++;
-						if (validateEdges)
+						if (validateEdges && oldFunctions != null)
 							oldEdges.addAll(oldFunctions);
 					}
 				}
 				onAfterRemoveEdges(tempMethods);
+				gcPauseNanos.addAndGet(System.nanoTime() - beforeGc);
 			}
 		}
 	}
@@ -181,6 +207,27 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 		return gcedEdges.get();
 	}
 
+	@Override
+	public long getGcPauseMillis() {
+		return gcPauseNanos.get() / 1000000;
+	}
+
+	/**
+	 * Gets the time to wait until the next garbage collection cycle. If an adaptive
+	 * policy is in use, the policy decides. Otherwise, the given default is used.
+	 * 
+	 * @param defaultMillis The time to wait in milliseconds if no adaptive policy
+	 *                      is in use
+	 * @return The time to wait until the next garbage collection cycle in
+	 *         milliseconds
+	 */
+	protected long getNextCycleDelayMillis(long defaultMillis) {
+		AdaptiveGarbageCollectionPolicy policy = adaptivePolicy;
+		if (trigger == GarbageCollectionTrigger.Adaptive && policy != null)
+			return policy.getNextIntervalMillis();
+		return defaultMillis;
+	}
+
 	/**
 	 * Sets the number of methods for which edges must have been added before
 	 * garbage collection is started
@@ -213,6 +260,17 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 		this.trigger = trigger;
 	}
 
+	/**
+	 * Sets the policy that decides when to start garbage collection if the trigger
+	 * is {@link GarbageCollectionTrigger#Adaptive}
+	 * 
+	 * @param adaptivePolicy The policy that decides when to start garbage
+	 *                       collection
+	 */
+	public void setAdaptivePolicy(AdaptiveGarbageCollectionPolicy adaptivePolicy) {
+		this.adaptivePolicy = adaptivePolicy;
+	}
+
 	/**
 	 * Sets the peer group in which this solver operates. Peer groups are used to
 	 * synchronize active dependencies between multiple solvers.
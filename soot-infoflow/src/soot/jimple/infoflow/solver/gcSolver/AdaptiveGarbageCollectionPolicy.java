@@ -0,0 +1,196 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.memory.MemoryWarningSystem;
+
+/**
+ * Policy that decides when the garbage collector of the IFDS solver shall remove
+ * edges from the jump functions, and how often it shall check again. The
+ * decision is based on the current usage of the tenured heap pool in relation
+ * to a fixed heap budget, and on the rate at which new edges are scheduled.
+ *
+ * As long as the heap usage is below the low watermark, edges are never
+ * collected and the collector checks the heap only rarely. Above the budget,
+ * edges are collected in every cycle and the collector checks again as soon as
+ * possible. In between, the policy estimates the memory per edge and projects
+ * the heap usage at the time of the next check from the edge growth rate. If
+ * the projected usage exceeds the budget, the edges are collected now. The time
+ * until the next check shrinks as the heap fills up.
+ *
+ */
+public class AdaptiveGarbageCollectionPolicy {
+
+	private static final Logger logger = LoggerFactory.getLogger(AdaptiveGarbageCollectionPolicy.class);
+
+	/**
+	 * The weight of the latest measurement when smoothing the edge growth rate
+	 */
+	private static final double RATE_SMOOTHING = 0.3;
+
+	private final double heapBudget;
+	private final MemoryPoolMXBean tenuredGenPool;
+
+	private double lowWatermark = 0.5;
+	private long minIntervalMillis = 100;
+	private long maxIntervalMillis = 10000;
+
+	private long lastCheckNanos = -1;
+	private long lastEdgeCount = 0;
+	private double edgeRate = -1;
+	private long nextIntervalMillis;
+
+	/**
+	 * Creates a new instance of the {@link AdaptiveGarbageCollectionPolicy} class
+	 *
+	 * @param heapBudget The fraction of the maximum heap size that the jump
+	 *                   functions of the solver may fill up, e.g., 0.8
+	 */
+	public AdaptiveGarbageCollectionPolicy(double heapBudget) {
+		if (heapBudget <= 0.0 || heapBudget > 1.0)
+			throw new IllegalArgumentException("Heap budget not in range");
+		this.heapBudget = heapBudget;
+		this.tenuredGenPool = findPool();
+		this.nextIntervalMillis = maxIntervalMillis;
+	}
+
+	/**
+	 * Finds the memory pool whose usage shall be checked against the budget
+	 *
+	 * @return The tenured pool, or null if no such pool exists and the overall heap
+	 *         shall be checked instead
+	 */
+	private static MemoryPoolMXBean findPool() {
+		try {
+			return MemoryWarningSystem.findTenuredGenPool();
+		} catch (AssertionError e) {
+			logger.warn("Could not find tenured space, checking overall heap usage instead");
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the current usage of the monitored memory pool
+	 *
+	 * @return The current usage of the monitored memory pool
+	 */
+	protected MemoryUsage getMemoryUsage() {
+		if (tenuredGenPool != null)
+			return tenuredGenPool.getUsage();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+	}
+
+	/**
+	 * Decides whether the garbage collector shall remove edges now. This method
+	 * also computes the time until the next check.
+	 *
+	 * @param liveEdges The number of edges that have been scheduled and not yet
+	 *                  been garbage-collected
+	 * @return True if the garbage collector shall remove edges now, false
+	 *         otherwise
+	 */
+	public synchronized boolean shouldCollect(long liveEdges) {
+		MemoryUsage usage = getMemoryUsage();
+		long maxMemory = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+		return shouldCollect(liveEdges, usage.getUsed(), maxMemory, System.nanoTime());
+	}
+
+	/**
+	 * Decides whether the garbage collector shall remove edges based on the given
+	 * measurements. This method also computes the time until the next check.
+	 *
+	 * @param liveEdges  The number of edges that have been scheduled and not yet
+	 *                   been garbage-collected
+	 * @param usedMemory The memory that is currently in use in bytes
+	 * @param maxMemory  The maximum amount of memory in bytes
+	 * @param nanoTime   The current time in nanoseconds
+	 * @return True if the garbage collector shall remove edges now, false
+	 *         otherwise
+	 */
+	public synchronized boolean shouldCollect(long liveEdges, long usedMemory, long maxMemory, long nanoTime) {
+		// Update the edge growth rate
+		if (lastCheckNanos >= 0 && nanoTime > lastCheckNanos) {
+			double rate = Math.max(0, liveEdges - lastEdgeCount) / ((nanoTime - lastCheckNanos) / 1E9);
+			edgeRate = edgeRate < 0 ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * edgeRate;
+		}
+		lastCheckNanos = nanoTime;
+		lastEdgeCount = liveEdges;
+
+		double budget = maxMemory * heapBudget;
+		double load = usedMemory / budget;
+		if (load >= 1.0) {
+			// We are out of budget, clean up as much as we can
+			nextIntervalMillis = minIntervalMillis;
+			return true;
+		}
+		if (load < lowWatermark || liveEdges <= 0 || edgeRate <= 0) {
+			nextIntervalMillis = maxIntervalMillis;
+			return false;
+		}
+
+		// The used memory is an upper bound for the memory consumed by the edges
+		double bytesPerEdge = usedMemory / (double) liveEdges;
+		double memoryRate = edgeRate * bytesPerEdge;
+		double millisToBudget = (budget - usedMemory) / memoryRate * 1000;
+
+		// The closer we get to the budget, the more often we check
+		double fillFactor = (load - lowWatermark) / (1.0 - lowWatermark);
+		long interval = Math.max(minIntervalMillis, (long) (maxIntervalMillis * (1.0 - fillFactor)));
+
+		// Always check again before we reach the budget
+		nextIntervalMillis = Math.max(minIntervalMillis, Math.min(interval, (long) (millisToBudget / 2)));
+
+		// If we could exceed the budget before the next regular check, we must
+		// collect now
+		return millisToBudget <= interval * 2;
+	}
+
+	/**
+	 * Gets the time that the garbage collector shall wait until the next check
+	 *
+	 * @return The time until the next check in milliseconds
+	 */
+	public synchronized long getNextIntervalMillis() {
+		return nextIntervalMillis;
+	}
+
+	/**
+	 * Gets the fraction of the maximum heap size that the solver may fill up
+	 *
+	 * @return The fraction of the maximum heap size that the solver may fill up
+	 */
+	public double getHeapBudget() {
+		return heapBudget;
+	}
+
+	/**
+	 * Sets the fraction of the heap budget below which edges are never collected
+	 *
+	 * @param lowWatermark The fraction of the heap budget below which edges are
+	 *                     never collected
+	 */
+	public void setLowWatermark(double lowWatermark) {
+		if (lowWatermark < 0.0 || lowWatermark >= 1.0)
+			throw new IllegalArgumentException("Watermark not in range");
+		this.lowWatermark = lowWatermark;
+	}
+
+	/**
+	 * Sets the bounds for the time between two checks
+	 *
+	 * @param minIntervalMillis The minimum time between two checks in milliseconds
+	 * @param maxIntervalMillis The maximum time between two checks in milliseconds
+	 */
+	public void setIntervalBounds(long minIntervalMillis, long maxIntervalMillis) {
+		if (minIntervalMillis <= 0 || maxIntervalMillis < minIntervalMillis)
+			throw new IllegalArgumentException("Invalid interval bounds");
+		this.minIntervalMillis = minIntervalMillis;
+		this.maxIntervalMillis = maxIntervalMillis;
+	}
+
+}
@@ -65,6 +65,12 @@ public class AggressiveGarbageCollector<N, D> extends AbstractGarbageCollector<N
 		return 0;
 	}
 
+	@Override
+	public long getGcPauseMillis() {
+		// We don't keep track of the time
+		return 0;
+	}
+
 	/**
 	 * Sets the number of methods for which edges must have been added before
 	 * garbage collection is started
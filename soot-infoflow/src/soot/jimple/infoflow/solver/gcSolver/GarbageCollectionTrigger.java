@@ -24,6 +24,12 @@ public enum GarbageCollectionTrigger {
 	 */
 	EdgeThreshold,
 
+	/**
+	 * Let an {@link AdaptiveGarbageCollectionPolicy} decide based on the heap usage
+	 * and the edge growth rate
+	 */
+	Adaptive,
+
 	/**
 	 * Compute the thresholds, but never actually gargabe-collect anything. Useful
 	 * only as a performance baseline.
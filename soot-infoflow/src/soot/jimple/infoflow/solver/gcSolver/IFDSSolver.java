@@ -13,6 +13,7 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.gcSolver;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -87,6 +88,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@SynchronizedBy("thread safe data structure")
 	protected volatile IGarbageCollector<N, D> garbageCollector;
 
+	@SynchronizedBy("thread safe data structure")
+	protected volatile JumpFunctionSpillStore<SootMethod, N, D> spillStore;
+
 	@SynchronizedBy("thread safe data structure, only modified internally")
 	protected final I icfg;
 
@@ -134,6 +138,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	private int maxCalleesPerCallSite = 75;
 	private int maxAbstractionPathLength = 100;
+	private double gcHeapBudget = 0;
+	private double jumpFunctionSpillThreshold = 0;
 
 	protected SolverPeerGroup solverPeerGroup;
 
@@ -190,9 +196,53 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		ThreadedGarbageCollector<N, D> gc = new ThreadedGarbageCollector<>(icfg, jumpFunctions);
 		GCSolverPeerGroup gcSolverGroup = (GCSolverPeerGroup) solverPeerGroup;
 		gc.setPeerGroup(gcSolverGroup.getGCPeerGroup());
+		if (gcHeapBudget > 0) {
+			gc.setAdaptivePolicy(new AdaptiveGarbageCollectionPolicy(gcHeapBudget));
+			gc.setTrigger(GarbageCollectionTrigger.Adaptive);
+		}
 		return garbageCollector = gc;
 	}
 
+	/**
+	 * Creates the store into which jump functions are evicted when the heap runs
+	 * full, if such a store has been configured
+	 * 
+	 * @return The new spill store, or null if jump functions shall not be evicted
+	 */
+	protected JumpFunctionSpillStore<SootMethod, N, D> createSpillStore() {
+		if (spillStore != null || jumpFunctionSpillThreshold <= 0)
+			return spillStore;
+
+		try {
+			JumpFunctionSpillStore<SootMethod, N, D> store = new JumpFunctionSpillStore<>(jumpFunctions,
+					jumpFunctionSpillThreshold, null);
+			store.start();
+			if (garbageCollector instanceof AbstractGarbageCollector)
+				((AbstractGarbageCollector<N, D>) garbageCollector).setSpillStore(store);
+			return spillStore = store;
+		} catch (IOException e) {
+			logger.error("Could not create jump function spill file, keeping all jump functions in memory", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Closes the spill store and deletes the spill file
+	 */
+	protected void closeSpillStore() {
+		JumpFunctionSpillStore<SootMethod, N, D> store = spillStore;
+		if (store != null) {
+			spillStore = null;
+			if (garbageCollector instanceof AbstractGarbageCollector)
+				((AbstractGarbageCollector<N, D>) garbageCollector).setSpillStore(null);
+			try {
+				store.close();
+			} catch (IOException e) {
+				logger.error("Could not close jump function spill file", e);
+			}
+		}
+	}
+
 	public void setSolverId(boolean solverId) {
 		this.solverId = solverId;
 	}
@@ -206,6 +256,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		// Make sure that we have an instance of the garbage collector
 		if (this.garbageCollector == null)
 			this.garbageCollector = createGarbageCollector();
+		createSpillStore();
 
 		// Notify the listeners that the solver has been started
 		for (IMemoryBoundedSolverStatusNotification listener : notificationListeners)
@@ -218,8 +269,10 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		for (IMemoryBoundedSolverStatusNotification listener : notificationListeners)
 			listener.notifySolverTerminated(this);
 
-		logger.info(String.format("GC removed abstractions for %d methods", garbageCollector.getGcedMethods()));
+		logger.info(String.format("GC removed %d abstractions for %d methods in %d ms", garbageCollector.getGcedEdges(),
+				garbageCollector.getGcedMethods(), garbageCollector.getGcPauseMillis()));
 		this.garbageCollector.notifySolverTerminated();
+		closeSpillStore();
 	}
 
 	/**
@@ -689,7 +742,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<N, D> edge) {
-		PathEdge<N, D> oldEdge = jumpFunctions.putIfAbsent(icfg.getMethodOf(edge.getTarget()), edge);
+		SootMethod method = icfg.getMethodOf(edge.getTarget());
+
+		// Make sure that we check against all previous edges of the method, even if
+		// they have been evicted
+		JumpFunctionSpillStore<SootMethod, N, D> store = spillStore;
+		if (store != null)
+			store.notifyAccess(method);
+
+		PathEdge<N, D> oldEdge = jumpFunctions.putIfAbsent(method, edge);
 		return oldEdge == null ? null : oldEdge.factAtTarget();
 	}
 
@@ -956,6 +1017,45 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxAbstractionPathLength = maxAbstractionPathLength;
 	}
 
+	/**
+	 * Sets the fraction of the maximum heap size that the jump functions may fill
+	 * up. If a budget is set, the garbage collector adapts to the heap usage and
+	 * the edge growth rate instead of collecting in fixed intervals.
+	 * 
+	 * @param gcHeapBudget The heap budget as a fraction of the maximum heap size,
+	 *                     or a value less than or equal to zero to collect in
+	 *                     fixed intervals
+	 */
+	public void setGcHeapBudget(double gcHeapBudget) {
+		this.gcHeapBudget = gcHeapBudget;
+	}
+
+	/**
+	 * Sets the fraction of the heap that may remain in use after a JVM garbage
+	 * collection before the solver evicts the jump functions of cold methods into
+	 * a file on disk. The threshold should be below the memory threshold at which
+	 * the analysis is aborted.
+	 * 
+	 * @param jumpFunctionSpillThreshold The spill threshold as a fraction of the
+	 *                                   maximum heap size, or a value less than or
+	 *                                   equal to zero to keep all jump functions
+	 *                                   in memory
+	 */
+	public void setJumpFunctionSpillThreshold(double jumpFunctionSpillThreshold) {
+		this.jumpFunctionSpillThreshold = jumpFunctionSpillThreshold;
+	}
+
+	/**
+	 * Gets the garbage collector that removes edges from the jump functions of this
+	 * solver
+	 * 
+	 * @return The garbage collector of this solver, or null if the solver has not
+	 *         been started yet
+	 */
+	public IGarbageCollector<N, D> getGarbageCollector() {
+		return garbageCollector;
+	}
+
 	/**
 	 * Sets the peer group in which this solver operates. Peer groups allow for
 	 * synchronization between solvers
@@ -972,6 +1072,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	public void terminate() {
 		if (garbageCollector != null)
 			garbageCollector.notifySolverTerminated();
+		closeSpillStore();
 	}
 
 }
@@ -48,6 +48,15 @@ public interface IGarbageCollector<N, D> {
 	 */
 	public int getGcedEdges();
 
+	/**
+	 * Gets the time in milliseconds that the garbage collector has spent on
+	 * removing taint abstractions
+	 * 
+	 * @return The time in milliseconds that the garbage collector has spent on
+	 *         removing taint abstractions
+	 */
+	public long getGcPauseMillis();
+
 	/**
 	 * Notifies the garbage collector that the IFDS solver has finished propagating
 	 * its edges
@@ -59,8 +59,10 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		// We might not have a garbage collector yet
 		if (this.garbageCollector == null) {
 			synchronized (this) {
-				if (this.garbageCollector == null)
+				if (this.garbageCollector == null) {
 					this.garbageCollector = createGarbageCollector();
+					createSpillStore();
+				}
 			}
 		}
 
@@ -117,6 +119,7 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 
 	@Override
 	public void cleanup() {
+		closeSpillStore();
 		this.jumpFunctions = new ConcurrentHashMultiMap<>();
 		this.incoming.clear();
 		this.endSummary.clear();
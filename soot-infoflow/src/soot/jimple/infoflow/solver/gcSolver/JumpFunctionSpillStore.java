@@ -0,0 +1,613 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.memory.MemoryWarningSystem;
+import soot.jimple.infoflow.util.ThreadUtils;
+import soot.util.ConcurrentHashMultiMap;
+
+/**
+ * Second tier for the jump functions of the garbage-collecting solver. When the
+ * heap that remains in use after the last JVM garbage collection exceeds a
+ * threshold, the edge sets of the methods that have not received new edges for
+ * the longest time are evicted from the jump functions into a memory-mapped
+ * file. As soon as a new edge reaches an evicted method, the solver reloads the
+ * edges of this method.
+ *
+ * Every edge is stored as three integers that identify the source fact, the
+ * target statement, and the target fact. The store maps these identifiers back
+ * to objects through weak references. Facts are identified by object identity,
+ * so that reloading an edge yields exactly the fact objects that have been
+ * evicted, including their predecessors and neighbors. A fact that is only
+ * referenced by evicted edges can be reclaimed by the JVM, and the edges that
+ * refer to it are dropped when their method is reloaded.
+ *
+ * The jump functions of the garbage-collecting solver are only used for
+ * finding edges that have already been processed. If an edge gets lost during
+ * a concurrent eviction or because its facts have been reclaimed, it is
+ * processed again, which costs time, but does not affect the results.
+ *
+ * @param <M> The type of methods
+ * @param <N> The type of statements
+ * @param <D> The type of data flow facts
+ */
+public class JumpFunctionSpillStore<M, N, D> implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(JumpFunctionSpillStore.class);
+
+	/**
+	 * The number of bytes required for a single edge
+	 */
+	private static final int EDGE_SIZE = 12;
+
+	/**
+	 * The default size of a single mapped region of the spill file
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Bidirectional mapping between objects and consecutive integer identifiers.
+	 * The table only holds weak references to the objects, so it does not keep
+	 * evicted facts alive. Objects are compared by identity, because equal facts
+	 * may still differ in data such as their predecessors. Identifiers are never
+	 * reused, because the spill file may still refer to them after their objects
+	 * have been reclaimed.
+	 *
+	 * @param <T> The type of objects
+	 */
+	private static class IdTable<T> {
+
+		/**
+		 * Weak reference that remembers the identifier of its object
+		 */
+		private static class IdReference<T> extends WeakReference<T> {
+
+			private final int id;
+			private final int identityHash;
+
+			public IdReference(T referent, int id, ReferenceQueue<? super T> queue) {
+				super(referent, queue);
+				this.id = id;
+				this.identityHash = System.identityHashCode(referent);
+			}
+
+		}
+
+		private final Map<Integer, List<IdReference<T>>> ids = new HashMap<>();
+		private final List<IdReference<T>> objects = new ArrayList<>();
+		private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+		private int liveObjects = 0;
+
+		public synchronized int getId(T obj) {
+			expungeStaleReferences();
+			int identityHash = System.identityHashCode(obj);
+			List<IdReference<T>> bucket = ids.get(identityHash);
+			if (bucket == null) {
+				bucket = new ArrayList<>(1);
+				ids.put(identityHash, bucket);
+			} else {
+				for (IdReference<T> ref : bucket)
+					if (ref.get() == obj)
+						return ref.id;
+			}
+
+			IdReference<T> ref = new IdReference<>(obj, objects.size(), queue);
+			objects.add(ref);
+			bucket.add(ref);
+			liveObjects++;
+			return ref.id;
+		}
+
+		/**
+		 * Gets the object with the given identifier
+		 *
+		 * @param id The identifier
+		 * @return The object with the given identifier, or null if the object has
+		 *         been reclaimed
+		 */
+		public synchronized T getObject(int id) {
+			IdReference<T> ref = objects.get(id);
+			return ref == null ? null : ref.get();
+		}
+
+		/**
+		 * Releases the references whose objects have been reclaimed
+		 */
+		private void expungeStaleReferences() {
+			Reference<? extends T> ref;
+			while ((ref = queue.poll()) != null) {
+				IdReference<?> idRef = (IdReference<?>) ref;
+				objects.set(idRef.id, null);
+				List<IdReference<T>> bucket = ids.get(idRef.identityHash);
+				if (bucket != null) {
+					bucket.remove(idRef);
+					if (bucket.isEmpty())
+						ids.remove(idRef.identityHash);
+				}
+				liveObjects--;
+			}
+		}
+
+		public synchronized int size() {
+			expungeStaleReferences();
+			return liveObjects;
+		}
+
+	}
+
+	/**
+	 * A mapped region of the spill file
+	 */
+	private static class Chunk {
+
+		private final MappedByteBuffer buffer;
+		private final AtomicInteger liveEdges = new AtomicInteger();
+
+		public Chunk(MappedByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+	}
+
+	/**
+	 * A consecutive run of edges of the same method inside one chunk
+	 */
+	private static class Segment {
+
+		private final Chunk chunk;
+		private final int offset;
+		private final int edgeCount;
+
+		public Segment(Chunk chunk, int offset, int edgeCount) {
+			this.chunk = chunk;
+			this.offset = offset;
+			this.edgeCount = edgeCount;
+		}
+
+	}
+
+	/**
+	 * Thread that watches the heap and evicts edges if required
+	 */
+	private class SpillThread implements Runnable {
+
+		@Override
+		public void run() {
+			long lastCollectionCount = -1;
+			while (!closed) {
+				try {
+					Thread.sleep(checkIntervalMillis);
+				} catch (InterruptedException e) {
+					break;
+				}
+
+				// Only the JVM's garbage collection tells us whether evicting edges was
+				// enough, so we need to wait for the next collection
+				long collectionCount = getCollectionCount();
+				if (collectionCount == lastCollectionCount)
+					continue;
+
+				MemoryUsage usage = tenuredGenPool.getCollectionUsage();
+				if (usage == null || usage.getUsed() <= 0)
+					usage = tenuredGenPool.getUsage();
+				long maxMemory = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+				if (usage.getUsed() > maxMemory * spillThreshold) {
+					long edges = spillColdMethods(spillFraction);
+					logger.info(String.format("Heap usage of %d MB exceeds the spill threshold, evicted %d edges",
+							usage.getUsed() / 1024 / 1024, edges));
+					lastCollectionCount = collectionCount;
+				}
+			}
+		}
+
+	}
+
+	private final ConcurrentHashMultiMap<M, PathEdge<N, D>> jumpFunctions;
+	private final double spillThreshold;
+	private final File file;
+	private final RandomAccessFile randomAccessFile;
+	private final FileChannel channel;
+	private final int chunkSize;
+	private final MemoryPoolMXBean tenuredGenPool;
+
+	private final IdTable<D> factIds = new IdTable<>();
+	private final IdTable<N> stmtIds = new IdTable<>();
+	private final Map<M, List<Segment>> spilledMethods = new ConcurrentHashMap<>();
+	private final Map<M, Long> lastAccess = new ConcurrentHashMap<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final List<Chunk> chunks = new ArrayList<>();
+	private Chunk writeChunk = null;
+	private int writeOffset = 0;
+
+	private final AtomicLong spilledEdges = new AtomicLong();
+	private final AtomicLong reloadedEdges = new AtomicLong();
+	private final AtomicLong droppedEdges = new AtomicLong();
+
+	private double spillFraction = 0.5;
+	private long checkIntervalMillis = 1000;
+	private volatile boolean closed = false;
+	private Thread spillThread;
+
+	/**
+	 * Creates a new spill store for the given jump functions
+	 *
+	 * @param jumpFunctions  The jump functions from which to evict edges
+	 * @param spillThreshold The fraction of the heap that may remain in use after
+	 *                       a garbage collection before edges are evicted
+	 * @param directory      The directory in which to create the spill file, or
+	 *                       null to use the default temporary directory
+	 * @throws IOException Thrown if the spill file cannot be created
+	 */
+	public JumpFunctionSpillStore(ConcurrentHashMultiMap<M, PathEdge<N, D>> jumpFunctions, double spillThreshold,
+			File directory) throws IOException {
+		this(jumpFunctions, spillThreshold, directory, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates a new spill store for the given jump functions
+	 *
+	 * @param jumpFunctions  The jump functions from which to evict edges
+	 * @param spillThreshold The fraction of the heap that may remain in use after
+	 *                       a garbage collection before edges are evicted
+	 * @param directory      The directory in which to create the spill file, or
+	 *                       null to use the default temporary directory
+	 * @param chunkSize      The size of a single mapped region of the spill file
+	 *                       in bytes
+	 * @throws IOException Thrown if the spill file cannot be created
+	 */
+	public JumpFunctionSpillStore(ConcurrentHashMultiMap<M, PathEdge<N, D>> jumpFunctions, double spillThreshold,
+			File directory, int chunkSize) throws IOException {
+		if (spillThreshold <= 0.0 || spillThreshold > 1.0)
+			throw new IllegalArgumentException("Spill threshold not in range");
+		if (chunkSize < EDGE_SIZE)
+			throw new IllegalArgumentException("Chunk size too small");
+		this.jumpFunctions = jumpFunctions;
+		this.spillThreshold = spillThreshold;
+		this.chunkSize = chunkSize - chunkSize % EDGE_SIZE;
+		this.tenuredGenPool = MemoryWarningSystem.findTenuredGenPool();
+
+		this.file = File.createTempFile("flowdroid-jumpfunctions", ".bin", directory);
+		this.file.deleteOnExit();
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		this.channel = randomAccessFile.getChannel();
+	}
+
+	/**
+	 * Starts watching the heap in a background thread
+	 */
+	public void start() {
+		if (spillThread == null) {
+			spillThread = ThreadUtils.createGenericThread(new SpillThread(), "IFDS Jump Function Spilling", true);
+			spillThread.setPriority(Thread.MIN_PRIORITY);
+			spillThread.start();
+		}
+	}
+
+	/**
+	 * Gets the total number of garbage collections that the JVM has performed
+	 *
+	 * @return The total number of garbage collections
+	 */
+	private static long getCollectionCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, gc.getCollectionCount());
+		return count;
+	}
+
+	/**
+	 * Notifies the store that a new edge has reached the given method. If the
+	 * edges of this method have been evicted, they are put back into the jump
+	 * functions.
+	 *
+	 * @param method The method that has received a new edge
+	 */
+	public void notifyAccess(M method) {
+		// We use a coarse clock with a resolution of roughly one millisecond to
+		// avoid writes for every single edge
+		long now = System.nanoTime() >>> 20;
+		Long last = lastAccess.get(method);
+		if (last == null || last != now)
+			lastAccess.put(method, now);
+
+		if (!spilledMethods.isEmpty()) {
+			for (PathEdge<N, D> edge : reload(method))
+				jumpFunctions.put(method, edge);
+		}
+	}
+
+	/**
+	 * Evicts the edges of the methods that have not received new edges for the
+	 * longest time
+	 *
+	 * @param fraction The fraction of the edges in the jump functions to evict
+	 * @return The number of edges that have been evicted
+	 */
+	public long spillColdMethods(double fraction) {
+		// Take a snapshot of the access times, they keep changing while we sort
+		Map<M, Long> accessTimes = new HashMap<>();
+		long totalEdges = 0;
+		for (M method : jumpFunctions.keySet()) {
+			Set<PathEdge<N, D>> edges = jumpFunctions.get(method);
+			if (edges != null && !edges.isEmpty()) {
+				Long last = lastAccess.get(method);
+				accessTimes.put(method, last == null ? 0 : last);
+				totalEdges += edges.size();
+			}
+		}
+		List<M> methods = new ArrayList<>(accessTimes.keySet());
+		methods.sort((m1, m2) -> Long.compare(accessTimes.get(m1), accessTimes.get(m2)));
+
+		long target = (long) (totalEdges * fraction);
+		long spilled = 0;
+		for (M method : methods) {
+			if (spilled >= target || closed)
+				break;
+			Set<PathEdge<N, D>> edges = jumpFunctions.get(method);
+			if (edges == null || edges.isEmpty())
+				continue;
+			List<PathEdge<N, D>> snapshot = new ArrayList<>(edges);
+			spill(method, snapshot);
+			jumpFunctions.remove(method);
+			spilled += snapshot.size();
+		}
+		return spilled;
+	}
+
+	/**
+	 * Writes the given edges of the given method into the spill file
+	 *
+	 * @param method The method to which the edges belong
+	 * @param edges  The edges to write
+	 */
+	public void spill(M method, Collection<PathEdge<N, D>> edges) {
+		if (edges.isEmpty())
+			return;
+
+		// Encode the edges
+		int[] encoded = new int[edges.size() * 3];
+		int idx = 0;
+		for (PathEdge<N, D> edge : edges) {
+			encoded[idx++] = factIds.getId(edge.factAtSource());
+			encoded[idx++] = stmtIds.getId(edge.getTarget());
+			encoded[idx++] = factIds.getId(edge.factAtTarget());
+		}
+
+		// Write the edges into the file
+		List<Segment> segments = new ArrayList<>();
+		lock.writeLock().lock();
+		try {
+			int remaining = edges.size();
+			idx = 0;
+			while (remaining > 0) {
+				if (writeChunk == null || writeOffset + EDGE_SIZE > chunkSize)
+					nextChunk();
+				int count = Math.min(remaining, (chunkSize - writeOffset) / EDGE_SIZE);
+				Segment segment = new Segment(writeChunk, writeOffset, count);
+				for (int i = 0; i < count * 3; i++)
+					writeChunk.buffer.putInt(writeOffset + i * 4, encoded[idx++]);
+				writeChunk.liveEdges.addAndGet(count);
+				writeOffset += count * EDGE_SIZE;
+				remaining -= count;
+				segments.add(segment);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Could not write to jump function spill file", e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		spilledMethods.merge(method, segments, (s1, s2) -> {
+			List<Segment> merged = new ArrayList<>(s1);
+			merged.addAll(s2);
+			return merged;
+		});
+		spilledEdges.addAndGet(edges.size());
+	}
+
+	/**
+	 * Switches to the next chunk for writing. Chunks without any live edges are
+	 * reused. Callers must hold the write lock.
+	 *
+	 * @throws IOException Thrown if the spill file cannot be extended
+	 */
+	private void nextChunk() throws IOException {
+		for (Chunk chunk : chunks) {
+			if (chunk != writeChunk && chunk.liveEdges.get() == 0) {
+				writeChunk = chunk;
+				writeOffset = 0;
+				return;
+			}
+		}
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * chunkSize,
+				chunkSize);
+		writeChunk = new Chunk(buffer);
+		writeOffset = 0;
+		chunks.add(writeChunk);
+	}
+
+	/**
+	 * Reads the edges of the given method back from the spill file. Afterwards,
+	 * the method is no longer considered as evicted.
+	 *
+	 * @param method The method for which to reload the edges
+	 * @return The edges of the given method, or an empty collection if the method
+	 *         has not been evicted
+	 */
+	public Collection<PathEdge<N, D>> reload(M method) {
+		List<Segment> segments = spilledMethods.remove(method);
+		if (segments == null)
+			return Collections.emptyList();
+
+		List<PathEdge<N, D>> edges = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (Segment segment : segments) {
+				MappedByteBuffer buffer = segment.chunk.buffer;
+				for (int i = 0; i < segment.edgeCount; i++) {
+					int pos = segment.offset + i * EDGE_SIZE;
+					D d1 = factIds.getObject(buffer.getInt(pos));
+					N n = stmtIds.getObject(buffer.getInt(pos + 4));
+					D d2 = factIds.getObject(buffer.getInt(pos + 8));
+					if (d1 == null || n == null || d2 == null)
+						droppedEdges.incrementAndGet();
+					else
+						edges.add(new PathEdge<>(d1, n, d2));
+				}
+				segment.chunk.liveEdges.addAndGet(-segment.edgeCount);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		reloadedEdges.addAndGet(edges.size());
+		return edges;
+	}
+
+	/**
+	 * Discards the evicted edges of the given method without reloading them. The
+	 * space that these edges occupy in the spill file can be reused afterwards.
+	 *
+	 * @param method The method for which to discard the evicted edges
+	 * @return The number of edges that have been discarded
+	 */
+	public int discard(M method) {
+		lastAccess.remove(method);
+		List<Segment> segments = spilledMethods.remove(method);
+		if (segments == null)
+			return 0;
+
+		int edgeCount = 0;
+		for (Segment segment : segments) {
+			segment.chunk.liveEdges.addAndGet(-segment.edgeCount);
+			edgeCount += segment.edgeCount;
+		}
+		return edgeCount;
+	}
+
+	/**
+	 * Checks whether the edges of the given method are currently evicted
+	 *
+	 * @param method The method to check
+	 * @return True if the edges of the given method are currently evicted, false
+	 *         otherwise
+	 */
+	public boolean isSpilled(M method) {
+		return spilledMethods.containsKey(method);
+	}
+
+	/**
+	 * Gets the number of edges that have been written to the spill file
+	 *
+	 * @return The number of edges that have been written to the spill file
+	 */
+	public long getSpilledEdges() {
+		return spilledEdges.get();
+	}
+
+	/**
+	 * Gets the number of edges that have been read back from the spill file
+	 *
+	 * @return The number of edges that have been read back from the spill file
+	 */
+	public long getReloadedEdges() {
+		return reloadedEdges.get();
+	}
+
+	/**
+	 * Gets the number of evicted edges that could not be reloaded, because their
+	 * facts had been reclaimed in the meantime
+	 *
+	 * @return The number of evicted edges that have been dropped
+	 */
+	public long getDroppedEdges() {
+		return droppedEdges.get();
+	}
+
+	/**
+	 * Gets the current size of the spill file
+	 *
+	 * @return The current size of the spill file in bytes
+	 */
+	public long getFileSize() {
+		lock.readLock().lock();
+		try {
+			return (long) chunks.size() * chunkSize;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Sets the fraction of the jump functions that is evicted whenever the heap
+	 * usage exceeds the threshold
+	 *
+	 * @param spillFraction The fraction of edges to evict at once
+	 */
+	public void setSpillFraction(double spillFraction) {
+		this.spillFraction = spillFraction;
+	}
+
+	/**
+	 * Sets the time between two checks of the heap usage
+	 *
+	 * @param checkIntervalMillis The time between two checks in milliseconds
+	 */
+	public void setCheckIntervalMillis(long checkIntervalMillis) {
+		this.checkIntervalMillis = checkIntervalMillis;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		if (spillThread != null)
+			spillThread.interrupt();
+
+		logger.info(String.format(
+				"Spilled %d jump functions, reloaded %d, dropped %d, %d distinct facts, %d MB spill file",
+				spilledEdges.get(), reloadedEdges.get(), droppedEdges.get(), factIds.size(),
+				getFileSize() / 1024 / 1024));
+		lock.writeLock().lock();
+		try {
+			spilledMethods.clear();
+			chunks.clear();
+			writeChunk = null;
+			channel.close();
+			randomAccessFile.close();
+			file.delete();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+}
@@ -35,6 +35,11 @@ public class NullGarbageCollector<N, D> implements IGarbageCollector<N, D> {
 		return 0;
 	}
 
+	@Override
+	public long getGcPauseMillis() {
+		return 0;
+	}
+
 	@Override
 	public void notifySolverTerminated() {
 	}
@@ -28,9 +28,10 @@ public class ThreadedGarbageCollector<N, D> extends AbstractReferenceCountingGar
 			while (!finished) {
 				gcImmediate();
 
-				if (sleepTimeSeconds > 0) {
+				long sleepTimeMillis = getNextCycleDelayMillis(sleepTimeSeconds * 1000L);
+				if (sleepTimeMillis > 0) {
 					try {
-						Thread.sleep(sleepTimeSeconds * 1000);
+						Thread.sleep(sleepTimeMillis);
 					} catch (InterruptedException e) {
 						break;
 					}
@@ -0,0 +1,515 @@
+package soot.jimple.infoflow.solver.summaryCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Body;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler;
+import soot.jimple.infoflow.solver.EndSummary;
+import soot.jimple.infoflow.solver.fastSolver.IFDSSolver;
+
+/**
+ * Cache for the end summaries of the data flow solver that is kept on disk
+ * between analysis runs. When the same app is analyzed again, e.g., a new
+ * version of it, the solver can take the summaries of unchanged methods from
+ * the cache instead of analyzing these methods again.
+ *
+ * Every summary maps an incoming access path at the start of a method to the
+ * access paths at the exit points of the method. A method is identified by its
+ * signature and a hash of its own body and the bodies of all its transitive
+ * callees, so any change in the callees invalidates the summaries of the
+ * caller. Only application methods are cached, and only if neither the method
+ * nor its callees contain sources or sinks and the alias analysis has not been
+ * active in them, because the effects of these are not visible in the
+ * summaries. Since the solver does not descend into a summarized callee, the
+ * reconstructed paths skip the callee.
+ *
+ * The cache is only valid for the configuration with which it has been
+ * created. Options that change the data flow results lead to a new, empty
+ * cache. The contents of the taint wrapper are not covered, though. If the
+ * taint wrapper summaries change, the cache file must be deleted.
+ *
+ */
+public class PersistentEndSummaryCache {
+
+	/**
+	 * The version of the cache format. Increment this number whenever the format
+	 * changes to invalidate existing cache files.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final Logger logger = LoggerFactory.getLogger(PersistentEndSummaryCache.class);
+
+	/**
+	 * An access path at an exit point of a method
+	 */
+	private static class ExitFact {
+
+		private final int exitIndex;
+		private final SerializedAccessPath accessPath;
+
+		public ExitFact(int exitIndex, SerializedAccessPath accessPath) {
+			this.exitIndex = exitIndex;
+			this.accessPath = accessPath;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(exitIndex, accessPath);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			ExitFact other = (ExitFact) obj;
+			return exitIndex == other.exitIndex && Objects.equals(accessPath, other.accessPath);
+		}
+
+	}
+
+	/**
+	 * The summaries of a single method
+	 */
+	private static class MethodSummaries {
+
+		private final byte[] transitiveHash;
+		private final Map<SerializedAccessPath, Set<ExitFact>> summaries;
+
+		public MethodSummaries(byte[] transitiveHash, Map<SerializedAccessPath, Set<ExitFact>> summaries) {
+			this.transitiveHash = transitiveHash;
+			this.summaries = summaries;
+		}
+
+	}
+
+	/**
+	 * Handler for the alias analysis that records in which methods the alias
+	 * analysis has been active
+	 */
+	private class AliasAnalysisObserver implements TaintPropagationHandler {
+
+		@Override
+		public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+			SootMethod method = manager.getICFG().getMethodOf(stmt);
+			if (method != null)
+				aliasMethods.add(method);
+		}
+
+		@Override
+		public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+				Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+			return outgoing;
+		}
+
+	}
+
+	private final File cacheFile;
+	private final InfoflowManager manager;
+	private final TransitiveMethodHasher hasher;
+	private final String configFingerprint;
+
+	private final Map<String, MethodSummaries> loadedSummaries = new HashMap<>();
+	private final Map<String, MethodSummaries> recordedSummaries = new HashMap<>();
+
+	private final Map<SootMethod, Boolean> validMethods = new ConcurrentHashMap<>();
+	private final Map<SootMethod, Unit[]> methodUnits = new ConcurrentHashMap<>();
+	private final Set<SootMethod> aliasMethods = ConcurrentHashMap.newKeySet();
+	private final AliasAnalysisObserver aliasAnalysisObserver = new AliasAnalysisObserver();
+
+	private final AtomicInteger cacheHits = new AtomicInteger();
+
+	/**
+	 * Creates a new instance of the {@link PersistentEndSummaryCache} class and
+	 * loads the summaries from the given file if it exists
+	 *
+	 * @param cacheFile The file in which the summaries are stored
+	 * @param manager   The data flow manager
+	 */
+	public PersistentEndSummaryCache(File cacheFile, InfoflowManager manager) {
+		this.cacheFile = cacheFile;
+		this.manager = manager;
+		this.hasher = new TransitiveMethodHasher(manager);
+		this.configFingerprint = computeConfigFingerprint(manager);
+
+		if (cacheFile.exists()) {
+			try {
+				load();
+			} catch (IOException e) {
+				logger.warn("Could not read the end summary cache {}, starting with an empty cache", cacheFile, e);
+				loadedSummaries.clear();
+			}
+		}
+	}
+
+	/**
+	 * Computes a textual representation of all configuration options that change
+	 * the end summaries
+	 *
+	 * @param manager The data flow manager
+	 * @return The fingerprint of the configuration
+	 */
+	protected String computeConfigFingerprint(InfoflowManager manager) {
+		InfoflowConfiguration config = manager.getConfig();
+		StringBuilder sb = new StringBuilder();
+		sb.append("apLength=").append(config.getAccessPathConfiguration().getAccessPathLength());
+		sb.append(";recursiveAPs=").append(config.getAccessPathConfiguration().getUseRecursiveAccessPaths());
+		sb.append(";thisChainReduction=").append(config.getAccessPathConfiguration().getUseThisChainReduction());
+		sb.append(";sameFieldReduction=").append(config.getAccessPathConfiguration().getUseSameFieldReduction());
+		sb.append(";aliasing=").append(config.getAliasingAlgorithm());
+		sb.append(";flowSensitiveAliasing=").append(config.getFlowSensitiveAliasing());
+		sb.append(";staticFields=").append(config.getStaticFieldTrackingMode());
+		sb.append(";implicitFlows=").append(config.getImplicitFlowMode());
+		sb.append(";exceptions=").append(config.getEnableExceptionTracking());
+		sb.append(";arrays=").append(config.getEnableArrayTracking());
+		sb.append(";arraySize=").append(config.getEnableArraySizeTainting());
+		sb.append(";typeChecking=").append(config.getEnableTypeChecking());
+		sb.append(";ignoreSystemFlows=").append(config.getIgnoreFlowsInSystemPackages());
+		sb.append(";maxJoinPointAbstractions=")
+				.append(config.getSolverConfiguration().getMaxJoinPointAbstractions());
+		sb.append(";maxCalleesPerCallSite=").append(config.getSolverConfiguration().getMaxCalleesPerCallSite());
+		sb.append(";maxAbstractionPathLength=")
+				.append(config.getSolverConfiguration().getMaxAbstractionPathLength());
+		sb.append(";taintWrapper=").append(
+				manager.getTaintWrapper() == null ? "none" : manager.getTaintWrapper().getClass().getName());
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the handler that must be registered with the alias analysis, so that
+	 * the cache knows where the alias analysis has been active
+	 *
+	 * @return The handler for the alias analysis
+	 */
+	public TaintPropagationHandler getAliasAnalysisObserver() {
+		return aliasAnalysisObserver;
+	}
+
+	/**
+	 * Gets the cached end summaries for the given callee and incoming abstraction
+	 *
+	 * @param callee The callee
+	 * @param d3     The callee-side incoming abstraction
+	 * @return The end summaries with abstractions derived from the incoming
+	 *         abstraction, or null if the cache has no valid summaries for the
+	 *         given callee and abstraction
+	 */
+	public Collection<EndSummary<Unit, Abstraction>> getEndSummaries(SootMethod callee, Abstraction d3) {
+		MethodSummaries stored = loadedSummaries.get(callee.getSignature());
+		if (stored == null || !isSummarizable(d3))
+			return null;
+		SerializedAccessPath entryAP = SerializedAccessPath.fromAccessPath(d3.getAccessPath());
+		if (entryAP == null)
+			return null;
+		Set<ExitFact> exitFacts = stored.summaries.get(entryAP);
+		if (exitFacts == null || !isValid(callee, stored))
+			return null;
+
+		Body body = callee.getActiveBody();
+		Unit[] units = getUnits(callee);
+		List<EndSummary<Unit, Abstraction>> summaries = new ArrayList<>(exitFacts.size());
+		for (ExitFact exitFact : exitFacts) {
+			if (exitFact.exitIndex >= units.length)
+				return null;
+			AccessPath ap = exitFact.accessPath.toAccessPath(body, manager.getAccessPathFactory());
+			if (ap == null)
+				return null;
+			Unit eP = units[exitFact.exitIndex];
+			Abstraction d4 = d3.deriveNewAbstraction(ap, (Stmt) eP);
+			if (d4 == null)
+				return null;
+			summaries.add(new EndSummary<>(eP, d4, d3));
+		}
+		cacheHits.incrementAndGet();
+		return summaries;
+	}
+
+	/**
+	 * Checks whether the summaries that have been loaded for the given method are
+	 * still valid for the code that is currently being analyzed
+	 *
+	 * @param method The method
+	 * @param stored The summaries that have been loaded for the method
+	 * @return True if the summaries are valid, false otherwise
+	 */
+	private boolean isValid(SootMethod method, MethodSummaries stored) {
+		return validMethods.computeIfAbsent(method, m -> isCacheableMethod(m)
+				&& Arrays.equals(hasher.getTransitiveHash(m), stored.transitiveHash));
+	}
+
+	/**
+	 * Checks whether the summaries of the given method may be cached at all
+	 *
+	 * @param method The method
+	 * @return True if the summaries of the given method may be cached, false
+	 *         otherwise
+	 */
+	private boolean isCacheableMethod(SootMethod method) {
+		return method.getDeclaringClass().isApplicationClass() && method.hasActiveBody()
+				&& !hasher.reachesSourceOrSink(method);
+	}
+
+	/**
+	 * Checks whether the given abstraction is fully described by its access path.
+	 * Abstractions with additional state, e.g., inactive abstractions of the
+	 * flow-sensitive alias analysis, are never cached.
+	 *
+	 * @param abs The abstraction to check
+	 * @return True if the given abstraction can be part of a cached summary,
+	 *         false otherwise
+	 */
+	private static boolean isSummarizable(Abstraction abs) {
+		return abs.isAbstractionActive() && !abs.isImplicit() && !abs.getExceptionThrown() && !abs.dependsOnCutAP()
+				&& abs.getTopPostdominator() == null && abs.getTurnUnit() == null && abs.getDominator() == null;
+	}
+
+	private Unit[] getUnits(SootMethod method) {
+		return methodUnits.computeIfAbsent(method, m -> m.getActiveBody().getUnits().toArray(new Unit[0]));
+	}
+
+	/**
+	 * Records the end summaries of the given solver. The solver must have
+	 * finished normally, otherwise the summaries are incomplete.
+	 *
+	 * @param solver The data flow solver
+	 */
+	public void record(IFDSSolver<Unit, Abstraction, ?> solver) {
+		// Callers of methods in which the alias analysis has been active are not
+		// cacheable either
+		Set<SootMethod> aliasAffected = getTransitiveCallers(aliasMethods);
+
+		Map<SootMethod, Map<SerializedAccessPath, Set<ExitFact>>> newSummaries = new HashMap<>();
+		Map<SootMethod, Set<SerializedAccessPath>> incomplete = new HashMap<>();
+		Map<SootMethod, Map<Unit, Integer>> unitIndices = new HashMap<>();
+
+		// Contexts without summaries kill all taints in the callee
+		solver.forEachCallContext((m, d3) -> {
+			SerializedAccessPath entryAP = serializeContext(m, d3, aliasAffected);
+			if (entryAP != null)
+				newSummaries.computeIfAbsent(m, k -> new HashMap<>()).computeIfAbsent(entryAP, k -> new HashSet<>());
+		});
+		solver.forEachEndSummary((m, summary) -> {
+			SerializedAccessPath entryAP = serializeContext(m, summary.calleeD1, aliasAffected);
+			if (entryAP == null)
+				return;
+
+			SerializedAccessPath exitAP = isSummarizable(summary.d4)
+					? SerializedAccessPath.fromAccessPath(summary.d4.getAccessPath())
+					: null;
+			Integer exitIndex = unitIndices.computeIfAbsent(m, k -> {
+				Map<Unit, Integer> indices = new IdentityHashMap<>();
+				for (Unit u : getUnits(k))
+					indices.put(u, indices.size());
+				return indices;
+			}).get(summary.eP);
+			if (exitAP == null || exitIndex == null)
+				incomplete.computeIfAbsent(m, k -> new HashSet<>()).add(entryAP);
+			else
+				newSummaries.computeIfAbsent(m, k -> new HashMap<>())
+						.computeIfAbsent(entryAP, k -> new HashSet<>()).add(new ExitFact(exitIndex, exitAP));
+		});
+
+		for (Entry<SootMethod, Map<SerializedAccessPath, Set<ExitFact>>> entry : newSummaries.entrySet()) {
+			SootMethod m = entry.getKey();
+			Map<SerializedAccessPath, Set<ExitFact>> summaries = entry.getValue();
+			byte[] hash = hasher.getTransitiveHash(m);
+
+			// Keep the summaries from earlier runs for the same code
+			String signature = m.getSignature();
+			MethodSummaries stored = loadedSummaries.get(signature);
+			if (stored != null && Arrays.equals(stored.transitiveHash, hash)) {
+				for (Entry<SerializedAccessPath, Set<ExitFact>> oldSummary : stored.summaries.entrySet())
+					summaries.computeIfAbsent(oldSummary.getKey(), k -> new HashSet<>())
+							.addAll(oldSummary.getValue());
+			}
+
+			// Partially summarized contexts must be analyzed again
+			Set<SerializedAccessPath> incompleteEntries = incomplete.get(m);
+			if (incompleteEntries != null)
+				summaries.keySet().removeAll(incompleteEntries);
+			if (!summaries.isEmpty())
+				recordedSummaries.put(signature, new MethodSummaries(hash, summaries));
+		}
+	}
+
+	/**
+	 * Serializes the incoming abstraction of a method for storing the summaries
+	 * of the method in this context
+	 *
+	 * @param method        The method
+	 * @param d1            The incoming abstraction of the method
+	 * @param aliasAffected The methods that call a method in which the alias
+	 *                      analysis has been active
+	 * @return The serialized access path of the incoming abstraction, or null if
+	 *         no summaries shall be stored for the given context
+	 */
+	private SerializedAccessPath serializeContext(SootMethod method, Abstraction d1, Set<SootMethod> aliasAffected) {
+		if (d1 == null || !isSummarizable(d1) || aliasAffected.contains(method) || !isCacheableMethod(method))
+			return null;
+		return SerializedAccessPath.fromAccessPath(d1.getAccessPath());
+	}
+
+	/**
+	 * Gets the given methods and all methods that transitively call them
+	 *
+	 * @param methods The methods
+	 * @return The given methods and their transitive callers
+	 */
+	private Set<SootMethod> getTransitiveCallers(Set<SootMethod> methods) {
+		Set<SootMethod> callers = new HashSet<>(methods);
+		Deque<SootMethod> worklist = new ArrayDeque<>(methods);
+		while (!worklist.isEmpty()) {
+			SootMethod m = worklist.poll();
+			Collection<Unit> callSites = manager.getICFG().getCallersOf(m);
+			if (callSites != null) {
+				for (Unit callSite : callSites) {
+					SootMethod caller = manager.getICFG().getMethodOf(callSite);
+					if (caller != null && callers.add(caller))
+						worklist.add(caller);
+				}
+			}
+		}
+		return callers;
+	}
+
+	/**
+	 * Writes the recorded summaries and the still valid summaries from earlier
+	 * runs to the cache file
+	 *
+	 * @throws IOException Thrown if the cache file could not be written
+	 */
+	public void save() throws IOException {
+		Map<String, MethodSummaries> summaries = new HashMap<>(recordedSummaries);
+		for (Entry<String, MethodSummaries> entry : loadedSummaries.entrySet()) {
+			if (summaries.containsKey(entry.getKey()))
+				continue;
+
+			// Summaries of methods that we have not seen in this run are kept as long as
+			// the method still exists with the same code
+			SootMethod m = Scene.v().grabMethod(entry.getKey());
+			if (m != null && isValid(m, entry.getValue()))
+				summaries.put(entry.getKey(), entry.getValue());
+		}
+
+		// We write into a temporary file first, so that concurrent runs never see
+		// incomplete files
+		Path target = cacheFile.getAbsoluteFile().toPath();
+		Files.createDirectories(target.getParent());
+		Path tempFile = Files.createTempFile(target.getParent(), cacheFile.getName(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile.toFile())))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(configFingerprint);
+				out.writeInt(summaries.size());
+				for (Entry<String, MethodSummaries> entry : summaries.entrySet()) {
+					MethodSummaries methodSummaries = entry.getValue();
+					out.writeUTF(entry.getKey());
+					out.writeInt(methodSummaries.transitiveHash.length);
+					out.write(methodSummaries.transitiveHash);
+					out.writeInt(methodSummaries.summaries.size());
+					for (Entry<SerializedAccessPath, Set<ExitFact>> summary : methodSummaries.summaries.entrySet()) {
+						summary.getKey().write(out);
+						out.writeInt(summary.getValue().size());
+						for (ExitFact exitFact : summary.getValue()) {
+							out.writeInt(exitFact.exitIndex);
+							exitFact.accessPath.write(out);
+						}
+					}
+				}
+			}
+			Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+		logger.info("Stored the end summaries of {} methods in {}", summaries.size(), cacheFile);
+	}
+
+	/**
+	 * Loads the summaries from the cache file
+	 *
+	 * @throws IOException Thrown if the cache file could not be read
+	 */
+	private void load() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				logger.info("The end summary cache {} has an outdated format, starting with an empty cache", cacheFile);
+				return;
+			}
+			if (!configFingerprint.equals(in.readUTF())) {
+				logger.info("The end summary cache {} has been created with a different configuration, "
+						+ "starting with an empty cache", cacheFile);
+				return;
+			}
+
+			int methodCount = in.readInt();
+			for (int i = 0; i < methodCount; i++) {
+				String signature = in.readUTF();
+				byte[] hash = new byte[in.readInt()];
+				in.readFully(hash);
+				int entryCount = in.readInt();
+				Map<SerializedAccessPath, Set<ExitFact>> summaries = new HashMap<>(entryCount);
+				for (int j = 0; j < entryCount; j++) {
+					SerializedAccessPath entryAP = SerializedAccessPath.read(in);
+					int exitCount = in.readInt();
+					Set<ExitFact> exitFacts = new HashSet<>(exitCount);
+					for (int k = 0; k < exitCount; k++) {
+						int exitIndex = in.readInt();
+						exitFacts.add(new ExitFact(exitIndex, SerializedAccessPath.read(in)));
+					}
+					summaries.put(entryAP, exitFacts);
+				}
+				loadedSummaries.put(signature, new MethodSummaries(hash, summaries));
+			}
+		}
+		logger.info("Loaded the end summaries of {} methods from {}", loadedSummaries.size(), cacheFile);
+	}
+
+	/**
+	 * Gets the number of times the solver has used cached summaries instead of
+	 * analyzing a callee
+	 *
+	 * @return The number of cache hits
+	 */
+	public int getCacheHits() {
+		return cacheHits.get();
+	}
+
+}
@@ -0,0 +1,225 @@
+package soot.jimple.infoflow.solver.summaryCache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import soot.Body;
+import soot.Local;
+import soot.Scene;
+import soot.SootField;
+import soot.Type;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.util.TypeUtils;
+
+/**
+ * An access path that refers to its base local, fields, and types only by
+ * name. Such an access path can be written to disk and restored in a later
+ * analysis run, as long as the body of the method to which it belongs has not
+ * changed.
+ *
+ */
+public class SerializedAccessPath {
+
+	private final String base;
+	private final String baseType;
+	private final String[] fields;
+	private final String[] fieldTypes;
+	private final boolean taintSubFields;
+	private final ArrayTaintType arrayTaintType;
+	private final boolean canHaveImmutableAliases;
+
+	private SerializedAccessPath(String base, String baseType, String[] fields, String[] fieldTypes,
+			boolean taintSubFields, ArrayTaintType arrayTaintType, boolean canHaveImmutableAliases) {
+		this.base = base;
+		this.baseType = baseType;
+		this.fields = fields;
+		this.fieldTypes = fieldTypes;
+		this.taintSubFields = taintSubFields;
+		this.arrayTaintType = arrayTaintType;
+		this.canHaveImmutableAliases = canHaveImmutableAliases;
+	}
+
+	/**
+	 * Creates a serializable representation of the given access path
+	 *
+	 * @param ap The access path
+	 * @return The serializable representation of the given access path, or null
+	 *         if the access path cannot be restored from its names alone, e.g.,
+	 *         because it has been cut off or its fields carry a context
+	 */
+	public static SerializedAccessPath fromAccessPath(AccessPath ap) {
+		if (ap == null || ap.isEmpty() || ap.isCutOffApproximation())
+			return null;
+
+		String[] fields = null;
+		String[] fieldTypes = null;
+		AccessPathFragment[] fragments = ap.getFragments();
+		if (fragments != null && fragments.length > 0) {
+			fields = new String[fragments.length];
+			fieldTypes = new String[fragments.length];
+			for (int i = 0; i < fragments.length; i++) {
+				if (fragments[i].getContext() != null)
+					return null;
+				fields[i] = fragments[i].getField().getSignature();
+				Type fieldType = fragments[i].getFieldType();
+				fieldTypes[i] = fieldType == null ? null : fieldType.toString();
+			}
+		}
+
+		Local base = ap.getPlainValue();
+		Type baseType = ap.getBaseType();
+		return new SerializedAccessPath(base == null ? null : base.getName(),
+				baseType == null ? null : baseType.toString(), fields, fieldTypes, ap.getTaintSubFields(),
+				ap.getArrayTaintType(), ap.getCanHaveImmutableAliases());
+	}
+
+	/**
+	 * Restores the access path in the given method body
+	 *
+	 * @param body    The body of the method to which the access path belongs
+	 * @param factory The factory for creating access paths
+	 * @return The restored access path, or null if the local, a field, or a type
+	 *         no longer exists
+	 */
+	public AccessPath toAccessPath(Body body, AccessPathFactory factory) {
+		Local baseLocal = null;
+		if (base != null) {
+			for (Local local : body.getLocals()) {
+				if (local.getName().equals(base)) {
+					baseLocal = local;
+					break;
+				}
+			}
+			if (baseLocal == null)
+				return null;
+		}
+
+		Type type = TypeUtils.getTypeFromString(baseType);
+		if (baseType != null && type == null)
+			return null;
+
+		AccessPathFragment[] fragments = null;
+		if (fields != null) {
+			fragments = new AccessPathFragment[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				SootField field = Scene.v().grabField(fields[i]);
+				if (field == null)
+					return null;
+				Type fieldType = TypeUtils.getTypeFromString(fieldTypes[i]);
+				if (fieldTypes[i] != null && fieldType == null)
+					return null;
+				fragments[i] = new AccessPathFragment(field, fieldType);
+			}
+		}
+
+		// The access path has already been reduced when it was created originally
+		return factory.createAccessPath(baseLocal, type, fragments, taintSubFields, false, false, arrayTaintType,
+				canHaveImmutableAliases);
+	}
+
+	/**
+	 * Writes this access path to the given output
+	 *
+	 * @param out The output to write to
+	 * @throws IOException Thrown if the access path could not be written
+	 */
+	public void write(DataOutput out) throws IOException {
+		writeNullableString(out, base);
+		writeNullableString(out, baseType);
+		out.writeInt(fields == null ? 0 : fields.length);
+		if (fields != null) {
+			for (int i = 0; i < fields.length; i++) {
+				out.writeUTF(fields[i]);
+				writeNullableString(out, fieldTypes[i]);
+			}
+		}
+		out.writeBoolean(taintSubFields);
+		out.writeUTF(arrayTaintType.name());
+		out.writeBoolean(canHaveImmutableAliases);
+	}
+
+	/**
+	 * Reads an access path from the given input
+	 *
+	 * @param in The input to read from
+	 * @return The access path that was read
+	 * @throws IOException Thrown if the access path could not be read
+	 */
+	public static SerializedAccessPath read(DataInput in) throws IOException {
+		String base = readNullableString(in);
+		String baseType = readNullableString(in);
+		int fieldCount = in.readInt();
+		String[] fields = null;
+		String[] fieldTypes = null;
+		if (fieldCount > 0) {
+			fields = new String[fieldCount];
+			fieldTypes = new String[fieldCount];
+			for (int i = 0; i < fieldCount; i++) {
+				fields[i] = in.readUTF();
+				fieldTypes[i] = readNullableString(in);
+			}
+		}
+		boolean taintSubFields = in.readBoolean();
+		ArrayTaintType arrayTaintType;
+		try {
+			arrayTaintType = ArrayTaintType.valueOf(in.readUTF());
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid array taint type", e);
+		}
+		boolean canHaveImmutableAliases = in.readBoolean();
+		return new SerializedAccessPath(base, baseType, fields, fieldTypes, taintSubFields, arrayTaintType,
+				canHaveImmutableAliases);
+	}
+
+	private static void writeNullableString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			out.writeUTF(value);
+	}
+
+	private static String readNullableString(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Objects.hash(base, baseType, taintSubFields, arrayTaintType, canHaveImmutableAliases);
+		result = prime * result + Arrays.hashCode(fields);
+		result = prime * result + Arrays.hashCode(fieldTypes);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		SerializedAccessPath other = (SerializedAccessPath) obj;
+		return Objects.equals(base, other.base) && Objects.equals(baseType, other.baseType)
+				&& Arrays.equals(fields, other.fields) && Arrays.equals(fieldTypes, other.fieldTypes)
+				&& taintSubFields == other.taintSubFields && arrayTaintType == other.arrayTaintType
+				&& canHaveImmutableAliases == other.canHaveImmutableAliases;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(base == null ? "<static>" : base);
+		if (fields != null)
+			for (String field : fields)
+				sb.append(".").append(field);
+		if (taintSubFields)
+			sb.append(" *");
+		return sb.toString();
+	}
+
+}
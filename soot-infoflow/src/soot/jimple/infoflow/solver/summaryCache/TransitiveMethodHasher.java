@@ -0,0 +1,311 @@
+package soot.jimple.infoflow.solver.summaryCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.Body;
+import soot.Local;
+import soot.SootMethod;
+import soot.Trap;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+
+/**
+ * Computes hashes of methods that do not only cover the body of the method
+ * itself, but also the bodies of all methods that are transitively reachable
+ * from it in the callgraph. If the transitive hash of a method has not changed
+ * between two analysis runs, neither the method nor any of its callees has
+ * changed. Recursive methods are handled as strongly connected components of
+ * the callgraph, which share a common hash.
+ *
+ * The hasher also determines whether a method or any of its transitive callees
+ * contains a source or sink, because the data flows through such methods
+ * cannot be described by their summaries alone.
+ *
+ */
+public class TransitiveMethodHasher {
+
+	/**
+	 * The hash and the source/sink flag of a method that has been processed
+	 */
+	private static class MethodInfo {
+
+		private final byte[] transitiveHash;
+		private final boolean reachesSourceOrSink;
+
+		public MethodInfo(byte[] transitiveHash, boolean reachesSourceOrSink) {
+			this.transitiveHash = transitiveHash;
+			this.reachesSourceOrSink = reachesSourceOrSink;
+		}
+
+	}
+
+	/**
+	 * A method on the explicit call stack of the depth-first search
+	 */
+	private static class SearchFrame {
+
+		private final SootMethod method;
+		private final Iterator<SootMethod> callees;
+
+		public SearchFrame(SootMethod method, Iterator<SootMethod> callees) {
+			this.method = method;
+			this.callees = callees;
+		}
+
+	}
+
+	private final BiDiInterproceduralCFG<Unit, SootMethod> icfg;
+	private final InfoflowManager manager;
+
+	private final Map<SootMethod, MethodInfo> methodInfos = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance of the {@link TransitiveMethodHasher} class
+	 *
+	 * @param manager The data flow manager that provides the interprocedural
+	 *                control flow graph and the source/sink manager
+	 */
+	public TransitiveMethodHasher(InfoflowManager manager) {
+		this.icfg = manager.getICFG();
+		this.manager = manager;
+	}
+
+	/**
+	 * Gets the hash of the given method and all of its transitive callees
+	 *
+	 * @param method The method
+	 * @return The transitive hash of the given method
+	 */
+	public byte[] getTransitiveHash(SootMethod method) {
+		return getMethodInfo(method).transitiveHash;
+	}
+
+	/**
+	 * Checks whether the given method or any of its transitive callees contains a
+	 * source or a sink
+	 *
+	 * @param method The method
+	 * @return True if the given method reaches a source or sink, false otherwise
+	 */
+	public boolean reachesSourceOrSink(SootMethod method) {
+		return getMethodInfo(method).reachesSourceOrSink;
+	}
+
+	private MethodInfo getMethodInfo(SootMethod method) {
+		MethodInfo info = methodInfos.get(method);
+		if (info == null) {
+			synchronized (this) {
+				info = methodInfos.get(method);
+				if (info == null) {
+					computeComponents(method);
+					info = methodInfos.get(method);
+				}
+			}
+		}
+		return info;
+	}
+
+	/**
+	 * Computes the strongly connected components of the callgraph that are
+	 * reachable from the given method using Tarjan's algorithm. Every component is
+	 * completed only after all components that it calls, so that their hashes are
+	 * available. The search uses an explicit stack, because call chains can be
+	 * deeper than the Java call stack.
+	 *
+	 * @param root The method at which to start
+	 */
+	private void computeComponents(SootMethod root) {
+		Map<SootMethod, Integer> index = new HashMap<>();
+		Map<SootMethod, Integer> lowLink = new HashMap<>();
+		Deque<SootMethod> componentStack = new ArrayDeque<>();
+		Set<SootMethod> onStack = new HashSet<>();
+		Deque<SearchFrame> searchStack = new ArrayDeque<>();
+
+		index.put(root, 0);
+		lowLink.put(root, 0);
+		componentStack.push(root);
+		onStack.add(root);
+		searchStack.push(new SearchFrame(root, getCallees(root).iterator()));
+
+		while (!searchStack.isEmpty()) {
+			SearchFrame frame = searchStack.peek();
+			if (frame.callees.hasNext()) {
+				SootMethod callee = frame.callees.next();
+				if (methodInfos.containsKey(callee))
+					continue;
+				if (!index.containsKey(callee)) {
+					int idx = index.size();
+					index.put(callee, idx);
+					lowLink.put(callee, idx);
+					componentStack.push(callee);
+					onStack.add(callee);
+					searchStack.push(new SearchFrame(callee, getCallees(callee).iterator()));
+				} else if (onStack.contains(callee))
+					lowLink.put(frame.method, Math.min(lowLink.get(frame.method), index.get(callee)));
+			} else {
+				searchStack.pop();
+				if (!searchStack.isEmpty()) {
+					SootMethod caller = searchStack.peek().method;
+					lowLink.put(caller, Math.min(lowLink.get(caller), lowLink.get(frame.method)));
+				}
+
+				if (lowLink.get(frame.method).equals(index.get(frame.method))) {
+					List<SootMethod> component = new ArrayList<>();
+					SootMethod member;
+					do {
+						member = componentStack.pop();
+						onStack.remove(member);
+						component.add(member);
+					} while (member != frame.method);
+					completeComponent(component);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the hashes of all methods in the given strongly connected
+	 * component. All components that are called from this component must already
+	 * be complete.
+	 *
+	 * @param component The methods in the strongly connected component
+	 */
+	private void completeComponent(List<SootMethod> component) {
+		Set<SootMethod> members = new HashSet<>(component);
+		List<String> hashes = new ArrayList<>();
+		boolean reachesSourceOrSink = false;
+		for (SootMethod member : component) {
+			hashes.add(toHex(computeBodyHash(member)));
+			reachesSourceOrSink |= containsSourceOrSink(member);
+			for (SootMethod callee : getCallees(member)) {
+				if (!members.contains(callee)) {
+					MethodInfo calleeInfo = methodInfos.get(callee);
+					hashes.add(toHex(calleeInfo.transitiveHash));
+					reachesSourceOrSink |= calleeInfo.reachesSourceOrSink;
+				}
+			}
+		}
+
+		// The order in which we find the methods and callees must not matter
+		hashes.sort(null);
+		MessageDigest componentDigest = createDigest();
+		for (String hash : hashes)
+			componentDigest.update(hash.getBytes(StandardCharsets.UTF_8));
+		byte[] componentHash = componentDigest.digest();
+
+		for (SootMethod member : component) {
+			MessageDigest digest = createDigest();
+			digest.update(componentHash);
+			digest.update(member.getSignature().getBytes(StandardCharsets.UTF_8));
+			methodInfos.put(member, new MethodInfo(digest.digest(), reachesSourceOrSink));
+		}
+	}
+
+	/**
+	 * Gets all methods that can be called from the given method
+	 *
+	 * @param method The calling method
+	 * @return The callees of the given method
+	 */
+	private Collection<SootMethod> getCallees(SootMethod method) {
+		if (!method.hasActiveBody())
+			return Collections.emptySet();
+
+		Set<SootMethod> callees = new LinkedHashSet<>();
+		for (Unit u : method.getActiveBody().getUnits()) {
+			if (icfg.isCallStmt(u)) {
+				Collection<SootMethod> targets = icfg.getCalleesOfCallAt(u);
+				if (targets != null)
+					callees.addAll(targets);
+			}
+		}
+		return callees;
+	}
+
+	/**
+	 * Checks whether the body of the given method contains a source or a sink
+	 *
+	 * @param method The method to check
+	 * @return True if the given method contains a source or a sink, false
+	 *         otherwise
+	 */
+	private boolean containsSourceOrSink(SootMethod method) {
+		ISourceSinkManager sourceSinkManager = manager.getSourceSinkManager();
+		if (sourceSinkManager == null || !method.hasActiveBody())
+			return false;
+
+		for (Unit u : method.getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (sourceSinkManager.getSourceInfo(stmt, manager) != null
+					|| sourceSinkManager.getSinkInfo(stmt, manager, null) != null)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the hash of the body of the given method without its callees
+	 *
+	 * @param method The method
+	 * @return The hash of the method body
+	 */
+	protected byte[] computeBodyHash(SootMethod method) {
+		MessageDigest digest = createDigest();
+		StringBuilder sb = new StringBuilder();
+		sb.append(method.getSignature()).append('\n');
+		if (method.hasActiveBody()) {
+			Body body = method.getActiveBody();
+			for (Local local : body.getLocals())
+				sb.append(local.getType()).append(' ').append(local.getName()).append('\n');
+
+			Map<Unit, Integer> unitIndices = new IdentityHashMap<>();
+			for (Unit u : body.getUnits()) {
+				unitIndices.put(u, unitIndices.size());
+				sb.append(u).append('\n');
+			}
+			for (Trap trap : body.getTraps()) {
+				sb.append("catch ").append(trap.getException().getName()).append(' ')
+						.append(unitIndices.get(trap.getBeginUnit())).append(' ')
+						.append(unitIndices.get(trap.getEndUnit())).append(' ')
+						.append(unitIndices.get(trap.getHandlerUnit())).append('\n');
+			}
+		}
+		digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+		return digest.digest();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not supported", e);
+		}
+	}
+
+	private static String toHex(byte[] hash) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : hash)
+			sb.append(String.format("%02x", b));
+		return sb.toString();
+	}
+
+}
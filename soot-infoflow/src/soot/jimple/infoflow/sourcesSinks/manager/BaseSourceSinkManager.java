@@ -10,6 +10,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -754,7 +755,8 @@ public abstract class BaseSourceSinkManager implements IReversibleSourceSinkMana
 			return MethodSourceSinkDefinition.createParameterSource(paramRef.getIndex(), CallType.Callback);
 
 		// Do we only match registered callback methods?
-		ISourceSinkDefinition sourceSinkDef = this.sourceMethods.get(def.getParentMethod());
+		ISourceSinkDefinition sourceSinkDef = def.getParentMethod() == null ? null
+				: this.sourceMethods.get(def.getParentMethod());
 		if (sourceSinkDef instanceof MethodSourceSinkDefinition) {
 			MethodSourceSinkDefinition methodDef = (MethodSourceSinkDefinition) sourceSinkDef;
 			if (sourceSinkConfig.getCallbackSourceMode() == CallbackSourceMode.SourceListOnly
@@ -801,7 +803,9 @@ public abstract class BaseSourceSinkManager implements IReversibleSourceSinkMana
 	public void initialize() {
 		// Get the Soot method or field for the source signatures we have
 		if (sourceDefs != null) {
-			sourceMethods = new HashMap<>();
+			// The lookups patch inherited methods into the method maps and may run on
+			// several threads at once
+			sourceMethods = new ConcurrentHashMap<>();
 			sourceFields = new HashMap<>();
 			sourceStatements = new HashMap<>();
 			for (Pair<String, ISourceSinkDefinition> entry : sourceDefs) {
@@ -841,7 +845,7 @@ public abstract class BaseSourceSinkManager implements IReversibleSourceSinkMana
 
 		// Get the Soot method or field for the sink signatures we have
 		if (sinkDefs != null) {
-			sinkMethods = new HashMap<>();
+			sinkMethods = new ConcurrentHashMap<>();
 			sinkFields = new HashMap<>();
 			sinkReturnMethods = new HashMap<>();
 			sinkStatements = new HashMap<>();
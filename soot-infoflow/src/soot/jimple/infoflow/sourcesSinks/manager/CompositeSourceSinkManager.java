@@ -0,0 +1,56 @@
+package soot.jimple.infoflow.sourcesSinks.manager;
+
+import java.util.List;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AccessPath;
+
+/**
+ * A {@link ISourceSinkManager} that combines multiple other source/sink
+ * managers. A statement is a source or sink if it is a source or sink for at
+ * least one of the inner managers. This manager is used for the steps that are
+ * shared between multiple data flow analyses on the same callgraph, e.g., for
+ * making sure that the code optimizers do not remove any source or sink.
+ *
+ */
+public class CompositeSourceSinkManager implements ISourceSinkManager {
+
+	private final List<? extends ISourceSinkManager> managers;
+
+	/**
+	 * Creates a new instance of the {@link CompositeSourceSinkManager} class
+	 *
+	 * @param managers The source/sink managers to combine
+	 */
+	public CompositeSourceSinkManager(List<? extends ISourceSinkManager> managers) {
+		this.managers = managers;
+	}
+
+	@Override
+	public void initialize() {
+		for (ISourceSinkManager manager : managers)
+			manager.initialize();
+	}
+
+	@Override
+	public SourceInfo getSourceInfo(Stmt sCallSite, InfoflowManager manager) {
+		for (ISourceSinkManager ssm : managers) {
+			SourceInfo info = ssm.getSourceInfo(sCallSite, manager);
+			if (info != null)
+				return info;
+		}
+		return null;
+	}
+
+	@Override
+	public SinkInfo getSinkInfo(Stmt sCallSite, InfoflowManager manager, AccessPath ap) {
+		for (ISourceSinkManager ssm : managers) {
+			SinkInfo info = ssm.getSinkInfo(sCallSite, manager, ap);
+			if (info != null)
+				return info;
+		}
+		return null;
+	}
+
+}
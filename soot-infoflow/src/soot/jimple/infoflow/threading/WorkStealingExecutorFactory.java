@@ -0,0 +1,38 @@
+package soot.jimple.infoflow.threading;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
+
+/**
+ * Factory that creates executors with per-worker task deques and work stealing.
+ * This reduces the contention on the shared work queue when the data flow
+ * solver runs on machines with many cores.
+ *
+ */
+public class WorkStealingExecutorFactory implements IExecutorFactory {
+
+	private final int batchSize;
+
+	public WorkStealingExecutorFactory() {
+		this(WorkStealingExecutor.DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a new instance of the {@link WorkStealingExecutorFactory} class
+	 *
+	 * @param batchSize The number of tasks a worker takes from the shared
+	 *                  submission queue at once
+	 */
+	public WorkStealingExecutorFactory(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
+			InfoflowConfiguration config) {
+		int threads = config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads);
+		return new WorkStealingExecutor(threads, batchSize, allowSetSemantics);
+	}
+
+}
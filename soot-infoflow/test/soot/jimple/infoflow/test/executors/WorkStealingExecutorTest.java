@@ -0,0 +1,140 @@
+package soot.jimple.infoflow.test.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
+
+public class WorkStealingExecutorTest {
+
+	/**
+	 * Task that recursively spawns children until the given depth is reached,
+	 * similar to a solver propagating new edges from within a worker
+	 */
+	private static class SpawningTask implements Runnable {
+
+		private final WorkStealingExecutor executor;
+		private final AtomicInteger counter;
+		private final int depth;
+
+		public SpawningTask(WorkStealingExecutor executor, AtomicInteger counter, int depth) {
+			this.executor = executor;
+			this.counter = counter;
+			this.depth = depth;
+		}
+
+		@Override
+		public void run() {
+			counter.incrementAndGet();
+			if (depth > 0) {
+				executor.execute(new SpawningTask(executor, counter, depth - 1));
+				executor.execute(new SpawningTask(executor, counter, depth - 1));
+			}
+		}
+
+	}
+
+	@Test(timeout = 30000)
+	public void recursiveSpawnTest() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(4, 8, false);
+		AtomicInteger counter = new AtomicInteger();
+		executor.execute(new SpawningTask(executor, counter, 14));
+		executor.awaitCompletion();
+
+		assertEquals((1 << 15) - 1, counter.get());
+		assertTrue(executor.isFinished());
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test(timeout = 30000)
+	public void executeAllTest() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(4, 8, false);
+		AtomicInteger counter = new AtomicInteger();
+		List<Runnable> tasks = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			tasks.add(new SpawningTask(executor, counter, 2));
+		executor.executeAll(tasks);
+		executor.awaitCompletion();
+
+		assertEquals(700, counter.get());
+		assertTrue(executor.isFinished());
+		executor.shutdown();
+	}
+
+	@Test(timeout = 30000)
+	public void defaultExecuteAllTest() throws InterruptedException {
+		InterruptableExecutor executor = new InterruptableExecutor(2, 2, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		AtomicInteger counter = new AtomicInteger();
+		List<Runnable> tasks = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			tasks.add(counter::incrementAndGet);
+		executor.executeAll(tasks);
+		executor.awaitCompletion();
+
+		assertEquals(100, counter.get());
+		executor.shutdown();
+	}
+
+	@Test(timeout = 30000)
+	public void setSemanticsTest() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(2, 8, true);
+		AtomicInteger counter = new AtomicInteger();
+		final Object lock = new Object();
+		Runnable blocker = () -> {
+			synchronized (lock) {
+				counter.incrementAndGet();
+			}
+		};
+
+		// Equal tasks that are still waiting must only be scheduled once
+		synchronized (lock) {
+			for (int i = 0; i < 100; i++)
+				executor.execute(blocker);
+		}
+		executor.awaitCompletion();
+		assertEquals(1, counter.get());
+		executor.shutdown();
+	}
+
+	@Test(timeout = 30000)
+	public void exceptionTest() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(2, 8, false);
+		executor.execute(() -> {
+			throw new RuntimeException("Expected test exception");
+		});
+		executor.awaitCompletion();
+		assertNotNull(executor.getException());
+	}
+
+	@Test(timeout = 30000)
+	public void interruptTest() throws InterruptedException {
+		WorkStealingExecutor executor = new WorkStealingExecutor(2, 8, false);
+		AtomicInteger counter = new AtomicInteger();
+		executor.execute(new SpawningTask(executor, counter, 30));
+		Thread.sleep(50);
+		executor.interrupt();
+		executor.awaitCompletion();
+
+		// Tasks scheduled after the interruption are silently dropped
+		AtomicBoolean executed = new AtomicBoolean(false);
+		executor.execute(() -> executed.set(true));
+		Thread.sleep(100);
+		assertFalse(executed.get());
+		executor.shutdown();
+	}
+
+}
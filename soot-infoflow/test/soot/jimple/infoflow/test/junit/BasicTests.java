@@ -1,11 +1,21 @@
 package soot.jimple.infoflow.test.junit;
 
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.junit.Test;
 
 import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.results.xml.StreamingResultsSerializer;
+import soot.jimple.infoflow.results.xml.StreamingResultsSerializer.StreamFormat;
 
 /**
  * Simple test cases for very basic functions
@@ -96,4 +106,26 @@ public abstract class BasicTests extends JUnitTests {
 		checkInfoflow(infoflow, 1);
 	}
 
+	@Test
+	public void streamingResultsTest() throws IOException, XMLStreamException {
+		IInfoflow infoflow = initInfoflow();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StreamingResultsSerializer serializer = new StreamingResultsSerializer(out, StreamFormat.NDJSON,
+				infoflow.getConfig());
+		infoflow.addResultsAvailableHandler(serializer);
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.BasicTestCode: void simpleTest()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+		serializer.close();
+
+		// The sink must have been reported before the final results
+		String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertTrue(lines.length >= 3);
+		assertTrue(lines[0].startsWith("{\"Event\":\"SinkReached\""));
+		assertTrue(Arrays.stream(lines).anyMatch(l -> l.startsWith("{\"Event\":\"Result\"")));
+		assertTrue(lines[lines.length - 1].startsWith("{\"Event\":\"AnalysisFinished\""));
+	}
+
 }
@@ -0,0 +1,53 @@
+package soot.jimple.infoflow.test.junit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.entryPointCreators.DefaultEntryPointCreator;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.sourcesSinks.manager.DefaultSourceSinkManager;
+
+/**
+ * Tests for running the data flow analysis for multiple sets of sources and
+ * sinks on the same callgraph
+ */
+public abstract class BatchTests extends JUnitTests {
+
+	@Test(timeout = 300000)
+	public void batchTest() {
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.MultiTestCode: void multiSourceCode()>");
+
+		List<DefaultSourceSinkManager> managers = new ArrayList<>();
+		managers.add(new DefaultSourceSinkManager(Collections.singletonList(sourcePwd), sinks));
+		managers.add(new DefaultSourceSinkManager(Collections.singletonList(sourceDeviceId), sinks));
+		managers.add(new DefaultSourceSinkManager(Arrays.asList(sourcePwd, sourceDeviceId), sinks));
+		managers.add(new DefaultSourceSinkManager(Collections.singletonList(sourceIMEI), sinks));
+
+		List<InfoflowResults> results = infoflow.computeInfoflowBatch(appPath, libPath,
+				new DefaultEntryPointCreator(epoints), managers);
+
+		// We get one result object per source/sink manager in the same order
+		Assert.assertEquals(4, results.size());
+
+		Assert.assertEquals(1, results.get(0).size());
+		Assert.assertTrue(results.get(0).isPathBetweenMethods(sink, sourcePwd));
+
+		Assert.assertEquals(1, results.get(1).size());
+		Assert.assertTrue(results.get(1).isPathBetweenMethods(sink, sourceDeviceId));
+
+		Assert.assertEquals(2, results.get(2).size());
+		Assert.assertTrue(results.get(2).isPathBetweenMethods(sink, sourcePwd));
+		Assert.assertTrue(results.get(2).isPathBetweenMethods(sink, sourceDeviceId));
+
+		Assert.assertTrue(results.get(3).isEmpty());
+	}
+
+}
@@ -0,0 +1,13 @@
+package soot.jimple.infoflow.test.junit.backward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.BackwardsInfoflow;
+
+public class BatchTests extends soot.jimple.infoflow.test.junit.BatchTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new BackwardsInfoflow("", false, null);
+	}
+
+}
@@ -0,0 +1,15 @@
+package soot.jimple.infoflow.test.junit.batchedPropagation;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+
+public class BasicTests extends soot.jimple.infoflow.test.junit.BasicTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new Infoflow("", false, null);
+		infoflow.getConfig().getSolverConfiguration().setBatchedPropagation(true);
+		return infoflow;
+	}
+
+}
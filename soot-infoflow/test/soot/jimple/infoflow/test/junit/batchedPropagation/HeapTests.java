@@ -0,0 +1,15 @@
+package soot.jimple.infoflow.test.junit.batchedPropagation;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+
+public class HeapTests extends soot.jimple.infoflow.test.junit.HeapTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new Infoflow("", false, null);
+		infoflow.getConfig().getSolverConfiguration().setBatchedPropagation(true);
+		return infoflow;
+	}
+
+}
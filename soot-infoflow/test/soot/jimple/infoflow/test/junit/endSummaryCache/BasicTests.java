@@ -0,0 +1,38 @@
+package soot.jimple.infoflow.test.junit.endSummaryCache;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+
+/**
+ * Runs the tests with an end summary cache that is shared between all tests of
+ * this class, so that later tests reuse the summaries of earlier ones
+ */
+public class BasicTests extends soot.jimple.infoflow.test.junit.BasicTests {
+
+	private static File cacheFile;
+
+	@BeforeClass
+	public static void createCacheFile() throws IOException {
+		cacheFile = File.createTempFile("endSummaries", ".bin");
+		cacheFile.delete();
+	}
+
+	@AfterClass
+	public static void deleteCacheFile() {
+		cacheFile.delete();
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new Infoflow("", false, null);
+		infoflow.getConfig().getSolverConfiguration().setEndSummaryCacheFile(cacheFile.getAbsolutePath());
+		return infoflow;
+	}
+
+}
@@ -0,0 +1,112 @@
+package soot.jimple.infoflow.test.junit.endSummaryCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.AliasingAlgorithm;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.summaryCache.PersistentEndSummaryCache;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Checks that the end summaries of one run are reused in the next run
+ */
+public class EndSummaryCacheTests extends JUnitTests {
+
+	/**
+	 * Data flow analysis that remembers the end summary cache it has used
+	 */
+	private static class CacheRecordingInfoflow extends Infoflow {
+
+		private PersistentEndSummaryCache usedCache;
+
+		public CacheRecordingInfoflow() {
+			super("", false, null);
+		}
+
+		@Override
+		protected PersistentEndSummaryCache createEndSummaryCache(boolean oneSourceAtATime) {
+			usedCache = super.createEndSummaryCache(oneSourceAtATime);
+			return usedCache;
+		}
+
+	}
+
+	private File cacheFile;
+
+	@Before
+	public void createCacheFile() throws IOException {
+		cacheFile = File.createTempFile("endSummaries", ".bin");
+		cacheFile.delete();
+	}
+
+	@After
+	public void deleteCacheFile() {
+		cacheFile.delete();
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new CacheRecordingInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setEndSummaryCacheFile(cacheFile.getAbsolutePath());
+		return infoflow;
+	}
+
+	private CacheRecordingInfoflow runAnalysis(AliasingAlgorithm aliasingAlgorithm) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setAliasingAlgorithm(aliasingAlgorithm);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.ContextSensitivityTestCode: void multipleCallSiteTest1()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+		return (CacheRecordingInfoflow) infoflow;
+	}
+
+	@Test(timeout = 300000)
+	public void reuseSummariesTest() {
+		CacheRecordingInfoflow first = runAnalysis(AliasingAlgorithm.FlowSensitive);
+		assertNotNull(first.usedCache);
+		assertEquals(0, first.usedCache.getCacheHits());
+		assertTrue(cacheFile.exists());
+
+		CacheRecordingInfoflow second = runAnalysis(AliasingAlgorithm.FlowSensitive);
+		assertNotNull(second.usedCache);
+		assertTrue(second.usedCache.getCacheHits() > 0);
+
+		// Soot creates new statement objects in every run, so we compare the textual
+		// representations of the results
+		assertEquals(toStrings(first.getResults()), toStrings(second.getResults()));
+	}
+
+	private static Set<String> toStrings(InfoflowResults results) {
+		Set<String> strings = new HashSet<>();
+		for (DataFlowResult result : results.getResultSet())
+			strings.add(result.toString());
+		return strings;
+	}
+
+	@Test(timeout = 300000)
+	public void unsupportedAliasingTest() {
+		CacheRecordingInfoflow infoflow = runAnalysis(AliasingAlgorithm.Lazy);
+		assertNull(infoflow.usedCache);
+	}
+
+}
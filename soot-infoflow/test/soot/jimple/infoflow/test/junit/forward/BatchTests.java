@@ -0,0 +1,13 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+
+public class BatchTests extends soot.jimple.infoflow.test.junit.BatchTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow("", false, null);
+	}
+
+}
@@ -0,0 +1,125 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.results.DataFlowResult;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+import soot.jimple.infoflow.threading.DefaultExecutorFactory;
+
+/**
+ * Checks that scanning the methods for sources and sinks in parallel finds the
+ * same seeds as the sequential scan
+ */
+public class SeedScanTests extends JUnitTests {
+
+	/**
+	 * Data flow analysis that scans for sources and sinks on a fixed number of
+	 * threads, regardless of the number of processors
+	 */
+	private static class FixedThreadsInfoflow extends Infoflow {
+
+		private final int numThreads;
+
+		public FixedThreadsInfoflow(int numThreads) {
+			super("", false, null);
+			this.numThreads = numThreads;
+		}
+
+		@Override
+		protected int getSeedScanThreadCount(int methodCount) {
+			return Math.max(1, Math.min(numThreads, methodCount / Math.max(minMethodsPerSeedScanThread, 1)));
+		}
+
+	}
+
+	/**
+	 * Executor factory that counts the executors with more than one thread it
+	 * creates for scanning sources and sinks
+	 */
+	private static class CountingExecutorFactory extends DefaultExecutorFactory {
+
+		private final AtomicInteger scanExecutors = new AtomicInteger();
+
+		@Override
+		public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
+				InfoflowConfiguration config) {
+			if (!allowSetSemantics && numThreads == 4)
+				scanExecutors.incrementAndGet();
+			return super.createExecutor(numThreads, allowSetSemantics, config);
+		}
+
+	}
+
+	private int numThreads = 1;
+	private CountingExecutorFactory executorFactory;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new FixedThreadsInfoflow(numThreads);
+		infoflow.setMinMethodsPerSeedScanThread(1);
+		infoflow.setExecutorFactory(executorFactory = new CountingExecutorFactory());
+		infoflow.getConfig().setLogSourcesAndSinks(true);
+		return infoflow;
+	}
+
+	private IInfoflow runAnalysis(int numThreads) {
+		this.numThreads = numThreads;
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.MultiTestCode: void multiSourceCode()>");
+		epoints.add("<soot.jimple.infoflow.test.MultiTestCode: void multiSourceCode2()>");
+		epoints.add("<soot.jimple.infoflow.test.MultiTestCode: void ifPathTestCode1()>");
+		epoints.add("<soot.jimple.infoflow.test.MultiTestCode: void intMultiTest()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		return infoflow;
+	}
+
+	private static Set<String> toStrings(Set<?> objects) {
+		Set<String> strings = new HashSet<>();
+		if (objects != null)
+			for (Object o : objects)
+				strings.add(o.toString());
+		return strings;
+	}
+
+	private static Set<String> resultsToStrings(IInfoflow infoflow) {
+		Set<DataFlowResult> resultSet = infoflow.getResults().getResultSet();
+		return toStrings(resultSet);
+	}
+
+	@Test(timeout = 300000)
+	public void parallelScanTest() {
+		IInfoflow sequential = runAnalysis(1);
+		assertEquals(0, executorFactory.scanExecutors.get());
+		Set<Stmt> sequentialSources = sequential.getCollectedSources();
+		assertFalse(sequentialSources.isEmpty());
+		assertFalse(sequential.getCollectedSinks().isEmpty());
+
+		IInfoflow parallel = runAnalysis(4);
+		assertTrue(executorFactory.scanExecutors.get() > 0);
+
+		// Soot creates new statement objects in every run, so we compare the textual
+		// representations
+		assertEquals(toStrings(sequentialSources), toStrings(parallel.getCollectedSources()));
+		assertEquals(toStrings(sequential.getCollectedSinks()), toStrings(parallel.getCollectedSinks()));
+		assertEquals(resultsToStrings(sequential), resultsToStrings(parallel));
+	}
+
+}
@@ -0,0 +1,16 @@
+package soot.jimple.infoflow.test.junit.primitiveJumpFunctions;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.JumpFunctionStore;
+
+public class HeapTests extends soot.jimple.infoflow.test.junit.HeapTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new Infoflow("", false, null);
+		infoflow.getConfig().getSolverConfiguration().setJumpFunctionStore(JumpFunctionStore.PrimitiveTable);
+		return infoflow;
+	}
+
+}
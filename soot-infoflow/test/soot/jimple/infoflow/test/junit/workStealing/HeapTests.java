@@ -0,0 +1,16 @@
+package soot.jimple.infoflow.test.junit.workStealing;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.threading.WorkStealingExecutorFactory;
+
+public class HeapTests extends soot.jimple.infoflow.test.junit.HeapTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		AbstractInfoflow infoflow = new Infoflow("", false, null);
+		infoflow.setExecutorFactory(new WorkStealingExecutorFactory());
+		return infoflow;
+	}
+
+}
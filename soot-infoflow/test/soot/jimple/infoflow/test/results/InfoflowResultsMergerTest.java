@@ -0,0 +1,132 @@
+package soot.jimple.infoflow.test.results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.xml.InfoflowResultsMerger;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+
+/**
+ * Tests for merging the XML result files of independent analyses into a single
+ * file
+ */
+public class InfoflowResultsMergerTest {
+
+	private File outputDir;
+
+	@Before
+	public void createOutputDir() throws IOException {
+		outputDir = Files.createTempDirectory("flowdroid-merge").toFile();
+	}
+
+	@After
+	public void deleteOutputDir() {
+		for (File f : outputDir.listFiles())
+			f.delete();
+		outputDir.delete();
+	}
+
+	/**
+	 * Writes a result file with one data flow result
+	 *
+	 * @param name             The name of the file
+	 * @param terminationState The termination state of the analysis
+	 * @param sinkStmt         The statement of the sink
+	 * @param runtimeSeconds   The total runtime of the analysis in seconds
+	 * @return The path of the new file
+	 */
+	private String writeResults(String name, String terminationState, String sinkStmt, int runtimeSeconds)
+			throws IOException {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<DataFlowResults FileFormatVersion=\"102\" TerminationState=\"" + terminationState + "\">\n"
+				+ "  <Results>\n" //
+				+ "    <Result>\n" //
+				+ "      <Sink Statement=\"" + sinkStmt + "\" Method=\"&lt;A: void sink()&gt;\">\n"
+				+ "        <AccessPath Value=\"x\" Type=\"java.lang.String\" TaintSubFields=\"true\"></AccessPath>\n"
+				+ "      </Sink>\n" //
+				+ "      <Sources>\n" //
+				+ "        <Source Statement=\"x = source()\" Method=\"&lt;A: void source()&gt;\">\n"
+				+ "          <AccessPath Value=\"x\" Type=\"java.lang.String\" TaintSubFields=\"true\"></AccessPath>\n"
+				+ "        </Source>\n" //
+				+ "      </Sources>\n" //
+				+ "    </Result>\n" //
+				+ "  </Results>\n" //
+				+ "  <PerformanceData>\n" //
+				+ "    <PerformanceEntry Name=\"TotalRuntimeSeconds\" Value=\"" + runtimeSeconds + "\" />\n"
+				+ "  </PerformanceData>\n" //
+				+ "</DataFlowResults>\n";
+		File file = new File(outputDir, name);
+		Files.write(file.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+		return file.getPath();
+	}
+
+	private String readFile(String fileName) throws IOException {
+		return new String(Files.readAllBytes(new File(fileName).toPath()), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void mergeTest() throws IOException, XMLStreamException {
+		String file1 = writeResults("c1.xml", "Success", "sink(x)", 3);
+		String file2 = writeResults("c2.xml", "Success", "sink2(x)", 4);
+		String target = new File(outputDir, "merged.xml").getPath();
+		new InfoflowResultsMerger().merge(Arrays.asList(file1, file2), target);
+
+		// All results are copied and the runtimes are added up
+		SerializedInfoflowResults merged = new InfoflowResultsReader().readResults(target);
+		assertEquals(2, merged.getResultCount());
+		InfoflowPerformanceData perfData = merged.getPerformanceData();
+		assertEquals(7, perfData.getTotalRuntimeSeconds());
+		assertTrue(readFile(target).contains("TerminationState=\"Success\""));
+	}
+
+	@Test
+	public void failedComponentTest() throws IOException, XMLStreamException {
+		String file1 = writeResults("c1.xml", "Success", "sink(x)", 3);
+		String file2 = writeResults("c2.xml", "DataFlowTimeout", "sink2(x)", 4);
+		String target = new File(outputDir, "merged.xml").getPath();
+
+		// A failed analysis takes precedence over a successful one
+		new InfoflowResultsMerger().merge(Arrays.asList(file1, file2), target);
+		assertTrue(readFile(target).contains("TerminationState=\"DataFlowTimeout\""));
+
+		// A failed analysis also takes precedence over missing components
+		new InfoflowResultsMerger().merge(Arrays.asList(file1, file2), target, true);
+		assertTrue(readFile(target).contains("TerminationState=\"DataFlowTimeout\""));
+	}
+
+	@Test
+	public void incompleteTest() throws IOException, XMLStreamException {
+		String file1 = writeResults("c1.xml", "Success", "sink(x)", 3);
+		String target = new File(outputDir, "merged.xml").getPath();
+		new InfoflowResultsMerger().merge(Collections.singletonList(file1), target, true);
+
+		// The results are kept, but the analysis is not reported as successful
+		assertEquals(1, new InfoflowResultsReader().readResults(target).getResultCount());
+		assertTrue(readFile(target).contains("TerminationState=\"Incomplete\""));
+	}
+
+	@Test
+	public void emptyTest() throws IOException, XMLStreamException {
+		String target = new File(outputDir, "merged.xml").getPath();
+		new InfoflowResultsMerger().merge(Collections.<String>emptyList(), target);
+		SerializedInfoflowResults merged = new InfoflowResultsReader().readResults(target);
+		assertTrue(merged.isEmpty());
+		assertTrue(readFile(target).contains("TerminationState=\"Success\""));
+	}
+
+}
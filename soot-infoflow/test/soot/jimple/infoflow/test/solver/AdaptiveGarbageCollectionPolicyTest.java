@@ -0,0 +1,60 @@
+package soot.jimple.infoflow.test.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.gcSolver.AdaptiveGarbageCollectionPolicy;
+
+public class AdaptiveGarbageCollectionPolicyTest {
+
+	private static final long SECOND = 1000000000L;
+
+	private AdaptiveGarbageCollectionPolicy createPolicy() {
+		AdaptiveGarbageCollectionPolicy policy = new AdaptiveGarbageCollectionPolicy(0.8);
+		policy.setLowWatermark(0.5);
+		policy.setIntervalBounds(100, 10000);
+		return policy;
+	}
+
+	@Test
+	public void belowWatermarkTest() {
+		AdaptiveGarbageCollectionPolicy policy = createPolicy();
+		assertFalse(policy.shouldCollect(1000, 100, 1000, 0));
+		assertFalse(policy.shouldCollect(100000, 300, 1000, SECOND));
+		assertEquals(10000, policy.getNextIntervalMillis());
+	}
+
+	@Test
+	public void overBudgetTest() {
+		AdaptiveGarbageCollectionPolicy policy = createPolicy();
+		assertTrue(policy.shouldCollect(1000, 850, 1000, 0));
+		assertEquals(100, policy.getNextIntervalMillis());
+	}
+
+	@Test
+	public void fastEdgeGrowthTest() {
+		AdaptiveGarbageCollectionPolicy policy = createPolicy();
+		assertFalse(policy.shouldCollect(1000, 500, 1000, 0));
+
+		// 1000 new edges per second exhaust the remaining budget in less than a
+		// second
+		assertTrue(policy.shouldCollect(2000, 600, 1000, SECOND));
+		assertTrue(policy.getNextIntervalMillis() < 1000);
+	}
+
+	@Test
+	public void slowEdgeGrowthTest() {
+		AdaptiveGarbageCollectionPolicy policy = createPolicy();
+		assertFalse(policy.shouldCollect(1000, 500, 1000, 0));
+
+		// 10 new edges per second do not exhaust the budget any time soon, but we
+		// check more often than below the watermark
+		assertFalse(policy.shouldCollect(1010, 600, 1000, SECOND));
+		assertTrue(policy.getNextIntervalMillis() < 10000);
+		assertTrue(policy.getNextIntervalMillis() > 100);
+	}
+
+}
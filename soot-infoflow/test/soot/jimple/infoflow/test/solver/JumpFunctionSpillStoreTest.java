@@ -0,0 +1,156 @@
+package soot.jimple.infoflow.test.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.solver.gcSolver.JumpFunctionSpillStore;
+import soot.util.ConcurrentHashMultiMap;
+
+public class JumpFunctionSpillStoreTest {
+
+	/**
+	 * Creates edges for the given method. The facts are new string objects, so
+	 * they are only equal, but not identical to the facts of other edges.
+	 */
+	private List<PathEdge<String, String>> createEdges(String method, int count) {
+		List<PathEdge<String, String>> edges = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			edges.add(new PathEdge<>(new String("d" + (i % 7)), method + ":" + (i % 13), new String("e" + i)));
+		return edges;
+	}
+
+	@Test
+	public void spillAndReloadTest() throws IOException {
+		ConcurrentHashMultiMap<String, PathEdge<String, String>> jumpFunctions = new ConcurrentHashMultiMap<>();
+
+		// Use tiny chunks, so that the edges span multiple chunks
+		try (JumpFunctionSpillStore<String, String, String> store = new JumpFunctionSpillStore<>(jumpFunctions, 0.9,
+				null, 100)) {
+			List<PathEdge<String, String>> edges = createEdges("m", 50);
+			store.spill("m", edges);
+			assertTrue(store.isSpilled("m"));
+			assertEquals(50, store.getSpilledEdges());
+
+			List<PathEdge<String, String>> reloaded = new ArrayList<>(store.reload("m"));
+			assertEquals(edges.size(), reloaded.size());
+			for (int i = 0; i < edges.size(); i++)
+				assertSameEdge(edges.get(i), reloaded.get(i));
+			assertFalse(store.isSpilled("m"));
+			assertTrue(store.reload("m").isEmpty());
+
+			// The chunks are free again and must be reused
+			long fileSize = store.getFileSize();
+			store.spill("m2", createEdges("m2", 50));
+			assertEquals(fileSize, store.getFileSize());
+		}
+	}
+
+	/**
+	 * Checks that the given edges consist of the very same objects
+	 */
+	private static <N, D> void assertSameEdge(PathEdge<N, D> expected, PathEdge<N, D> actual) {
+		assertSame(expected.factAtSource(), actual.factAtSource());
+		assertSame(expected.getTarget(), actual.getTarget());
+		assertSame(expected.factAtTarget(), actual.factAtTarget());
+	}
+
+	@Test
+	public void spillAndReloadEqualAbstractionsTest() throws IOException {
+		// Two abstractions that are equal, but have different predecessors
+		Abstraction pred1 = Abstraction.getZeroAbstraction(false);
+		Abstraction pred2 = Abstraction.getZeroAbstraction(false);
+		Abstraction abs1 = pred1.clone();
+		Abstraction abs2 = pred2.clone();
+		assertEquals(abs1, abs2);
+		assertSame(pred1, abs1.getPredecessor());
+		assertSame(pred2, abs2.getPredecessor());
+
+		ConcurrentHashMultiMap<String, PathEdge<String, Abstraction>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		try (JumpFunctionSpillStore<String, String, Abstraction> store = new JumpFunctionSpillStore<>(jumpFunctions,
+				0.9, null, 100)) {
+			List<PathEdge<String, Abstraction>> edges = new ArrayList<>();
+			edges.add(new PathEdge<>(abs1, "n", abs1));
+			edges.add(new PathEdge<>(abs2, "n", abs2));
+			store.spill("m", edges);
+
+			// We must get back the original objects, not just equal ones, otherwise
+			// the path reconstruction would follow the wrong predecessor
+			List<PathEdge<String, Abstraction>> reloaded = new ArrayList<>(store.reload("m"));
+			assertEquals(2, reloaded.size());
+			assertSameEdge(edges.get(0), reloaded.get(0));
+			assertSameEdge(edges.get(1), reloaded.get(1));
+			assertSame(pred1, reloaded.get(0).factAtTarget().getPredecessor());
+			assertSame(pred2, reloaded.get(1).factAtTarget().getPredecessor());
+		}
+	}
+
+	@Test
+	public void spillColdMethodsTest() throws IOException, InterruptedException {
+		ConcurrentHashMultiMap<String, PathEdge<String, String>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		try (JumpFunctionSpillStore<String, String, String> store = new JumpFunctionSpillStore<>(jumpFunctions, 0.9,
+				null)) {
+			// The store only references the facts of evicted edges weakly, so we must
+			// keep them alive
+			List<PathEdge<String, String>> allEdges = new ArrayList<>();
+			for (String method : new String[] { "cold", "warm", "hot" }) {
+				store.notifyAccess(method);
+				for (PathEdge<String, String> edge : createEdges(method, 10)) {
+					jumpFunctions.put(method, edge);
+					allEdges.add(edge);
+				}
+				Thread.sleep(5);
+			}
+
+			// Evicting a third of the edges must hit the coldest method
+			assertEquals(10, store.spillColdMethods(0.3));
+			assertTrue(store.isSpilled("cold"));
+			assertFalse(store.isSpilled("warm"));
+			assertFalse(store.isSpilled("hot"));
+			Set<PathEdge<String, String>> coldEdges = jumpFunctions.get("cold");
+			assertTrue(coldEdges == null || coldEdges.isEmpty());
+
+			// A new edge for the cold method brings back its old edges
+			store.notifyAccess("cold");
+			assertFalse(store.isSpilled("cold"));
+			assertEquals(new HashSet<>(createEdges("cold", 10)), jumpFunctions.get("cold"));
+			assertEquals(10, store.getReloadedEdges());
+			assertEquals(30, allEdges.size());
+		}
+	}
+
+	@Test
+	public void discardTest() throws IOException {
+		ConcurrentHashMultiMap<String, PathEdge<String, String>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		try (JumpFunctionSpillStore<String, String, String> store = new JumpFunctionSpillStore<>(jumpFunctions, 0.9,
+				null, 100)) {
+			store.spill("m", createEdges("m", 50));
+			assertEquals(50, store.discard("m"));
+			assertFalse(store.isSpilled("m"));
+			assertEquals(0, store.discard("m"));
+
+			// Accessing the method again must not bring back the discarded edges
+			store.notifyAccess("m");
+			Set<PathEdge<String, String>> edges = jumpFunctions.get("m");
+			assertTrue(edges == null || edges.isEmpty());
+			assertEquals(0, store.getReloadedEdges());
+
+			// The chunks of the discarded edges are free again and must be reused
+			long fileSize = store.getFileSize();
+			store.spill("m2", createEdges("m2", 50));
+			assertEquals(fileSize, store.getFileSize());
+		}
+	}
+
+}
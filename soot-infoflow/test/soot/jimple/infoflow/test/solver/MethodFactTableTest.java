@@ -0,0 +1,164 @@
+package soot.jimple.infoflow.test.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import heros.solver.Pair;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+import soot.jimple.infoflow.solver.fastSolver.MethodFactTable;
+
+public class MethodFactTableTest {
+
+	@Test
+	public void getOrCreateTest() {
+		MethodFactTable<String, String, List<String>> table = new MethodFactTable<>();
+		assertNull(table.get("m", "d"));
+
+		List<String> value = table.getOrCreate("m", "d", ArrayList::new);
+		assertSame(value, table.get("m", "d"));
+		assertSame(value, table.getOrCreate("m", new String("d"), ArrayList::new));
+
+		// Entries that differ in one component are new
+		assertNull(table.get("m'", "d"));
+		assertNull(table.get("m", "d'"));
+		table.getOrCreate("m'", "d", ArrayList::new);
+		table.getOrCreate("m", "d'", ArrayList::new);
+		assertEquals(3, table.size());
+
+		table.clear();
+		assertEquals(0, table.size());
+		assertNull(table.get("m", "d"));
+	}
+
+	@Test
+	public void removeTest() {
+		MethodFactTable<String, String, List<String>> table = new MethodFactTable<>();
+		List<String> value = table.getOrCreate("m", "d", ArrayList::new);
+
+		// Only the expected value may be removed
+		assertFalse(table.remove("m", "d", new ArrayList<>(Collections.singletonList("x"))));
+		assertFalse(table.remove("m'", "d", value));
+		assertSame(value, table.get("m", "d"));
+
+		assertTrue(table.remove("m", "d", value));
+		assertNull(table.get("m", "d"));
+		assertEquals(0, table.size());
+	}
+
+	@Test(timeout = 60000)
+	public void concurrentIncomingTest() throws InterruptedException {
+		// Incoming edges as used by the IFDS solver: <callee, d3> -> callSite ->
+		// d1 -> d2
+		final MyConcurrentHashMap<Pair<Integer, Integer>, MyConcurrentHashMap<Integer, Map<Integer, Integer>>> reference = new MyConcurrentHashMap<>();
+		final MethodFactTable<Integer, Integer, MyConcurrentHashMap<Integer, Map<Integer, Integer>>> table = new MethodFactTable<>();
+		final AtomicInteger newReferenceEdges = new AtomicInteger();
+		final AtomicInteger newTableEdges = new AtomicInteger();
+
+		List<int[]> edges = createEdges(20000);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final List<int[]> threadEdges = new ArrayList<>(edges);
+			Collections.shuffle(threadEdges, new Random(t));
+			Thread thread = new Thread(() -> {
+				for (int[] edge : threadEdges) {
+					MyConcurrentHashMap<Integer, Map<Integer, Integer>> refSummaries = reference
+							.putIfAbsentElseGet(new Pair<>(edge[0], edge[1]), () -> new MyConcurrentHashMap<>());
+					if (refSummaries.putIfAbsentElseGet(edge[2], () -> new ConcurrentHashMap<>()).put(edge[3],
+							edge[4]) == null)
+						newReferenceEdges.incrementAndGet();
+
+					MyConcurrentHashMap<Integer, Map<Integer, Integer>> summaries = table.getOrCreate(edge[0],
+							edge[1], () -> new MyConcurrentHashMap<>());
+					if (summaries.putIfAbsentElseGet(edge[2], () -> new ConcurrentHashMap<>()).put(edge[3],
+							edge[4]) == null)
+						newTableEdges.incrementAndGet();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		// Every distinct edge must be new exactly once in both implementations
+		assertEquals(newReferenceEdges.get(), newTableEdges.get());
+		assertEquals(reference.size(), table.size());
+		for (Pair<Integer, Integer> key : reference.keySet())
+			assertEquals(reference.get(key), table.get(key.getO1(), key.getO2()));
+	}
+
+	@Test(timeout = 60000)
+	public void concurrentEndSummaryTest() throws InterruptedException {
+		// End summaries as used by the IFDS solver: <method, d1> -> {<eP, d2>}
+		final MyConcurrentHashMap<Pair<Integer, Integer>, Map<Pair<Integer, Integer>, Pair<Integer, Integer>>> reference = new MyConcurrentHashMap<>();
+		final MethodFactTable<Integer, Integer, Map<Pair<Integer, Integer>, Pair<Integer, Integer>>> table = new MethodFactTable<>();
+		final AtomicInteger newReferenceSummaries = new AtomicInteger();
+		final AtomicInteger newTableSummaries = new AtomicInteger();
+
+		List<int[]> edges = createEdges(20000);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final List<int[]> threadEdges = new ArrayList<>(edges);
+			Collections.shuffle(threadEdges, new Random(t));
+			Thread thread = new Thread(() -> {
+				for (int[] edge : threadEdges) {
+					Pair<Integer, Integer> summary = new Pair<>(edge[2], edge[3]);
+					if (reference.putIfAbsentElseGet(new Pair<>(edge[0], edge[1]), () -> new ConcurrentHashMap<>())
+							.putIfAbsent(summary, summary) == null)
+						newReferenceSummaries.incrementAndGet();
+					if (table.getOrCreate(edge[0], edge[1], () -> new ConcurrentHashMap<>()).putIfAbsent(summary,
+							summary) == null)
+						newTableSummaries.incrementAndGet();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(newReferenceSummaries.get(), newTableSummaries.get());
+		assertEquals(reference.size(), table.size());
+		for (Pair<Integer, Integer> key : reference.keySet())
+			assertEquals(reference.get(key).keySet(), table.get(key.getO1(), key.getO2()).keySet());
+	}
+
+	/**
+	 * Creates edges in which few methods receive many facts, similar to hot
+	 * library methods
+	 *
+	 * @param count The number of edges to create
+	 * @return The edges as arrays of method, fact, call site, and two further
+	 *         facts
+	 */
+	private List<int[]> createEdges(int count) {
+		Random rnd = new Random(42);
+		List<int[]> edges = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int method = rnd.nextInt(10) < 8 ? rnd.nextInt(3) : rnd.nextInt(200);
+			int fact = rnd.nextInt(100);
+			int callSite = rnd.nextInt(20);
+			int d1 = rnd.nextInt(50);
+
+			// The last fact only depends on the others, so that the order in which
+			// the threads overwrite it does not matter
+			int d2 = (method * 31 + fact * 17 + callSite * 7 + d1) % 50;
+			edges.add(new int[] { method, fact, callSite, d1, d2 });
+		}
+		return edges;
+	}
+
+}
@@ -0,0 +1,70 @@
+package soot.jimple.infoflow.test.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.solver.fastSolver.PrimitiveJumpFunctionTable;
+
+public class PrimitiveJumpFunctionTableTest {
+
+	@Test
+	public void putIfAbsentTest() {
+		PrimitiveJumpFunctionTable<String, String> table = new PrimitiveJumpFunctionTable<>(4);
+		String d2 = new String("d2");
+		assertNull(table.putIfAbsent(new PathEdge<>("d1", "n", d2)));
+
+		// An equal edge must give us the fact that was registered first
+		assertSame(d2, table.putIfAbsent(new PathEdge<>("d1", "n", new String("d2"))));
+
+		// Edges that differ in one component are new
+		assertNull(table.putIfAbsent(new PathEdge<>("d1'", "n", "d2")));
+		assertNull(table.putIfAbsent(new PathEdge<>("d1", "n'", "d2")));
+		assertNull(table.putIfAbsent(new PathEdge<>("d1", "n", "d2'")));
+		assertEquals(4, table.size());
+
+		table.clear();
+		assertEquals(0, table.size());
+		assertNull(table.putIfAbsent(new PathEdge<>("d1", "n", "d2")));
+	}
+
+	@Test
+	public void growTest() {
+		PrimitiveJumpFunctionTable<Integer, Integer> table = new PrimitiveJumpFunctionTable<>(2);
+		for (int i = 0; i < 100000; i++)
+			assertNull(table.putIfAbsent(new PathEdge<>(i % 7, i % 1000, i)));
+		for (int i = 0; i < 100000; i++)
+			assertEquals(Integer.valueOf(i), table.putIfAbsent(new PathEdge<>(i % 7, i % 1000, i)));
+		assertEquals(100000, table.size());
+	}
+
+	@Test(timeout = 30000)
+	public void concurrentTest() throws InterruptedException {
+		final PrimitiveJumpFunctionTable<Integer, Integer> table = new PrimitiveJumpFunctionTable<>();
+		final AtomicInteger newEdges = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			Thread thread = new Thread(() -> {
+				// All threads insert the same edges, each edge must be new exactly once
+				for (int i = 0; i < 50000; i++)
+					if (table.putIfAbsent(new PathEdge<>(i % 13, i % 500, i)) == null)
+						newEdges.incrementAndGet();
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(50000, newEdges.get());
+		assertEquals(50000, table.size());
+	}
+
+}